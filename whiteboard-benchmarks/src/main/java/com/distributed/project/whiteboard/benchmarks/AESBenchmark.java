@@ -0,0 +1,74 @@
+package com.distributed.project.whiteboard.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.distributed.project.whiteboard.client.utilities.AESUtils;
+
+/**
+ * This class is used to benchmark encryption and decryption of chat messages by
+ * AESUtils.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AESBenchmark {
+
+	@Param({ "16", "128", "1024" })
+	private int chatLength;
+
+	private String encryptionKey;
+	private String chatText;
+	private String encryptedText;
+
+	/**
+	 * This method is used to create the chat text and its encrypted form before
+	 * the benchmark runs.
+	 */
+	@Setup
+	public void setup() {
+		Random random = new Random(chatLength);
+		encryptionKey = MessageFixtures.createUser(random, false).getClientUID().toString();
+		chatText = MessageFixtures.createChatText(random, chatLength);
+		encryptedText = AESUtils.encryptString(chatText, encryptionKey);
+	}
+
+	/**
+	 * This method is used to benchmark encryption of a chat message before it is
+	 * sent.
+	 * 
+	 * @return
+	 */
+	@Benchmark
+	public String encrypt() {
+		return AESUtils.encryptString(chatText, encryptionKey);
+	}
+
+	/**
+	 * This method is used to benchmark decryption of a received chat message.
+	 * 
+	 * @return
+	 */
+	@Benchmark
+	public String decrypt() {
+		return AESUtils.decryptString(encryptedText, encryptionKey);
+	}
+}
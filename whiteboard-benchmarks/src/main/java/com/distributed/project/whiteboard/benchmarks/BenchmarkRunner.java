@@ -0,0 +1,37 @@
+package com.distributed.project.whiteboard.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * This class is used to run the benchmarks with the GC profiler enabled, so
+ * every benchmark reports its allocation rate per operation along with its
+ * throughput.
+ * 
+ * @implNote The standard JMH command line options are accepted, for example a
+ *           benchmark name pattern to run a subset or -p messageType=MIXED to
+ *           run a single message set.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class BenchmarkRunner {
+
+	/**
+	 * Main method of the benchmarks.
+	 * 
+	 * @param args
+	 * @throws CommandLineOptionException
+	 * @throws RunnerException
+	 */
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+		Options options = new OptionsBuilder().parent(new CommandLineOptions(args)).addProfiler(GCProfiler.class)
+				.build();
+		new Runner(options).run();
+	}
+}
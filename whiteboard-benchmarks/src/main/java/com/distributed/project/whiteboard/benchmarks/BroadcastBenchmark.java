@@ -0,0 +1,105 @@
+package com.distributed.project.whiteboard.benchmarks;
+
+import java.io.BufferedWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.distributed.project.whiteboard.protocol.lane.LaneWriter;
+import com.distributed.project.whiteboard.protocol.utils.TypeConversionUtils;
+import com.distributed.project.whiteboard.server.WhiteboardHandler;
+import com.distributed.project.whiteboard.server.WhiteboardServer;
+import com.distributed.project.whiteboard.server.dto.ClientSession;
+
+/**
+ * This class is used to benchmark the relay of an event by WhiteboardHandler to
+ * every other client of a room, with the clients connected through in-memory
+ * sinks.
+ * 
+ * @implNote The throughput benchmark reports the events relayed per second and
+ *           the sample time benchmark reports the fan-out latency percentiles,
+ *           including p0.99.
+ * 
+ * @implNote With a slow consumer, one client of the room parks the server on
+ *           every flush, as the relay writes to the clients one after another.
+ * 
+ * @implNote The forks log only warnings, so the benchmarks measure the relay
+ *           without the per message logging of the server.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=benchmark-logback.xml")
+public class BroadcastBenchmark {
+
+	private static final long SENDER_UID = 100000L;
+	private static final long SLOW_CONSUMER_DELAY_MICROS = 500;
+
+	@Param({ "2", "10", "50", "100", "500" })
+	private int clientCount;
+
+	@Param({ "false", "true" })
+	private boolean slowConsumer;
+
+	@Param({ "PENCIL", "CHAT" })
+	private MessageType messageType;
+
+	private WhiteboardHandler whiteboardHandler;
+	private int opcode;
+	private String eventString;
+
+	/**
+	 * This method is used to create a room of simulated clients and the handler of
+	 * the client sending the events.
+	 */
+	@Setup
+	public void setup() {
+		WhiteboardServer whiteboardServer = new WhiteboardServer();
+		for (long clientUID = SENDER_UID + 1; clientUID <= SENDER_UID + clientCount; clientUID++) {
+			// Making the last client of the room the slow one
+			long flushDelayMicros = slowConsumer && clientUID == SENDER_UID + clientCount ? SLOW_CONSUMER_DELAY_MICROS
+					: 0;
+			whiteboardServer.getClientInfoMap().put(clientUID, new ClientSession(clientUID, "User " + clientUID,
+					false, null, new LaneWriter(new BufferedWriter(new ClientSink(flushDelayMicros)), null)));
+		}
+		whiteboardHandler = new WhiteboardHandler(whiteboardServer, null, SENDER_UID);
+
+		// Encoding the event as the client sends it
+		eventString = TypeConversionUtils.convertObjectToString(MessageFixtures.createMessages(messageType).get(0));
+		opcode = TypeConversionUtils.peekOpcode(eventString);
+	}
+
+	/**
+	 * This method is used to benchmark the events relayed per second.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.Throughput)
+	@OutputTimeUnit(TimeUnit.SECONDS)
+	public void relayThroughput() {
+		whiteboardHandler.relayEvent(opcode, eventString);
+	}
+
+	/**
+	 * This method is used to benchmark the latency of relaying an event to every
+	 * client of the room.
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.SampleTime)
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public void relayLatency() {
+		whiteboardHandler.relayEvent(opcode, eventString);
+	}
+}
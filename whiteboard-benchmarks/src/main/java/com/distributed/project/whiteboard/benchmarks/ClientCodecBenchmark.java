@@ -0,0 +1,129 @@
+package com.distributed.project.whiteboard.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.utils.TypeConversionUtils;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * This class is used to benchmark encoding and decoding of messages by the
+ * TypeConversionUtils of the protocol module, as the clients use it.
+ * 
+ * @implNote Every invocation takes the next message of the set, so the mixed
+ *           set reports the throughput of a drawing session.
+ * 
+ * @implNote The object mapper benchmarks use the encoding of the messages
+ *           before the streaming codec, for comparison.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientCodecBenchmark {
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+			.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+	@Param
+	private MessageType messageType;
+
+	private ActionMessageDto[] messages;
+	private String[] encodedMessages;
+	private String[] objectMapperMessages;
+	private int index;
+
+	/**
+	 * This method is used to create the messages and their encoded form before the
+	 * benchmark runs.
+	 * 
+	 * @throws IOException
+	 */
+	@Setup
+	public void setup() throws IOException {
+		List<ActionMessageDto> messageList = MessageFixtures.createMessages(messageType);
+		messages = messageList.toArray(new ActionMessageDto[0]);
+		encodedMessages = new String[messages.length];
+		objectMapperMessages = new String[messages.length];
+		for (int i = 0; i < messages.length; i++) {
+			encodedMessages[i] = TypeConversionUtils.convertObjectToString(messages[i]);
+			objectMapperMessages[i] = OBJECT_MAPPER.writeValueAsString(messages[i]);
+		}
+	}
+
+	/**
+	 * This method is used to benchmark decoding of a message received from the
+	 * server.
+	 * 
+	 * @return
+	 */
+	@Benchmark
+	public ActionMessageDto decode() {
+		return TypeConversionUtils.convertToCustomClass(encodedMessages[nextIndex()], ActionMessageDto.class);
+	}
+
+	/**
+	 * This method is used to benchmark encoding of a message sent to the server.
+	 * 
+	 * @return
+	 */
+	@Benchmark
+	public String encode() {
+		return TypeConversionUtils.convertObjectToString(messages[nextIndex()]);
+	}
+
+	/**
+	 * This method is used to benchmark decoding of a message with the object
+	 * mapper, as done before the streaming codec.
+	 * 
+	 * @return
+	 * @throws IOException
+	 */
+	@Benchmark
+	public ActionMessageDto decodeObjectMapper() throws IOException {
+		return OBJECT_MAPPER.readValue(objectMapperMessages[nextIndex()], ActionMessageDto.class);
+	}
+
+	/**
+	 * This method is used to benchmark encoding of a message with the object
+	 * mapper, as done before the streaming codec.
+	 * 
+	 * @return
+	 * @throws IOException
+	 */
+	@Benchmark
+	public String encodeObjectMapper() throws IOException {
+		return OBJECT_MAPPER.writeValueAsString(messages[nextIndex()]);
+	}
+
+	/**
+	 * This method is used to move to the next message of the set.
+	 * 
+	 * @return
+	 */
+	private int nextIndex() {
+		int currentIndex = index;
+		index = currentIndex + 1 == messages.length ? 0 : currentIndex + 1;
+		return currentIndex;
+	}
+}
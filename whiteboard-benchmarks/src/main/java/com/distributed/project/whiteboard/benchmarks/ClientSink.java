@@ -0,0 +1,58 @@
+package com.distributed.project.whiteboard.benchmarks;
+
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class is used as the in-memory connection of a simulated client. The
+ * characters written are counted and dropped.
+ * 
+ * @implNote A slow consumer is simulated by parking the writing thread on every
+ *           flush, as a client which does not read fast enough blocks the
+ *           server once the socket buffers are full.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class ClientSink extends Writer {
+
+	private final long flushDelayNanos;
+	private long charCount;
+
+	/**
+	 * This constructor is used to initialize the delay of every flush, zero for a
+	 * client which keeps up.
+	 * 
+	 * @param flushDelayMicros
+	 */
+	public ClientSink(long flushDelayMicros) {
+		this.flushDelayNanos = TimeUnit.MICROSECONDS.toNanos(flushDelayMicros);
+	}
+
+	@Override
+	public void write(char[] cbuf, int off, int len) {
+		charCount += len;
+	}
+
+	@Override
+	public void flush() {
+		if (flushDelayNanos > 0) {
+			LockSupport.parkNanos(flushDelayNanos);
+		}
+	}
+
+	@Override
+	public void close() {
+		// Nothing to release for an in-memory connection
+	}
+
+	/**
+	 * This method is used to fetch the number of characters written to the client.
+	 * 
+	 * @return
+	 */
+	public long getCharCount() {
+		return charCount;
+	}
+}
@@ -0,0 +1,247 @@
+package com.distributed.project.whiteboard.benchmarks;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+import com.distributed.project.whiteboard.client.utilities.AESUtils;
+import com.distributed.project.whiteboard.client.utilities.Constants;
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.dto.UserDto;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * This class is used to build the messages used by the codec benchmarks, the
+ * same way the client builds them while drawing and chatting.
+ * 
+ * @implNote A fixed seed is used so that every run of the benchmarks encodes
+ *           and decodes the same messages.
+ * 
+ * @implNote The mixed set follows a drawing session, where most messages are
+ *           free hand segments and a board image is sent only when a user
+ *           joins.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public final class MessageFixtures {
+
+	private static final long SEED = 1278218L;
+
+	private static final int MIXED_PENCIL_COUNT = 48;
+	private static final int MIXED_SHAPE_COUNT = 8;
+	private static final int MIXED_CHAT_COUNT = 4;
+	private static final int MIXED_USER_LIST_COUNT = 3;
+	private static final int MIXED_LOAD_IMAGE_COUNT = 1;
+
+	private static final int USER_LIST_SIZE = 10;
+	private static final int IMAGE_WIDTH = 1024;
+	private static final int IMAGE_HEIGHT = 768;
+	private static final int IMAGE_STROKE_COUNT = 200;
+
+	private static final ImmutableList<String> SHAPE_TOOLS = ImmutableList.of(ProtocolConstants.TOOL_LINE,
+			ProtocolConstants.TOOL_RECTANGLE, ProtocolConstants.TOOL_CIRCLE, ProtocolConstants.TOOL_TRIANGLE);
+
+	private MessageFixtures() {
+		throw new IllegalStateException("MessageFixtures class cannot be instantiated");
+	}
+
+	/**
+	 * This method is used to create the messages of the given type. A single
+	 * message is created for every type except the mixed one.
+	 * 
+	 * @param messageType
+	 * @return
+	 */
+	public static List<ActionMessageDto> createMessages(MessageType messageType) {
+		Random random = new Random(SEED);
+		UserDto user = createUser(random, false);
+
+		List<ActionMessageDto> messages = new ArrayList<>();
+		switch (messageType) {
+		case PENCIL:
+			messages.add(createPencilMessage(random, user));
+			break;
+		case SHAPE:
+			messages.add(createShapeMessage(random, user));
+			break;
+		case CHAT:
+			messages.add(createChatMessage(random, user));
+			break;
+		case USER_LIST:
+			messages.add(createUserListMessage(random, user));
+			break;
+		case LOAD_IMAGE:
+			messages.add(createLoadImageMessage(random, user));
+			break;
+		case MIXED:
+			for (int i = 0; i < MIXED_PENCIL_COUNT; i++) {
+				messages.add(createPencilMessage(random, user));
+			}
+			for (int i = 0; i < MIXED_SHAPE_COUNT; i++) {
+				messages.add(createShapeMessage(random, user));
+			}
+			for (int i = 0; i < MIXED_CHAT_COUNT; i++) {
+				messages.add(createChatMessage(random, user));
+			}
+			for (int i = 0; i < MIXED_USER_LIST_COUNT; i++) {
+				messages.add(createUserListMessage(random, user));
+			}
+			for (int i = 0; i < MIXED_LOAD_IMAGE_COUNT; i++) {
+				messages.add(createLoadImageMessage(random, user));
+			}
+
+			// Interleaving the message types as they arrive in a session
+			Collections.shuffle(messages, random);
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown message type " + messageType);
+		}
+		return messages;
+	}
+
+	/**
+	 * This method is used to create a chat text of the given length.
+	 * 
+	 * @param random
+	 * @param length
+	 * @return
+	 */
+	public static String createChatText(Random random, int length) {
+		StringBuilder chatText = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			chatText.append(random.nextInt(5) == 0 ? ' ' : (char) ('a' + random.nextInt(26)));
+		}
+		return chatText.toString();
+	}
+
+	/**
+	 * This method is used to create a user with a six digit UID, as required by the
+	 * chat encryption key.
+	 * 
+	 * @param random
+	 * @param isManager
+	 * @return
+	 */
+	public static UserDto createUser(Random random, boolean isManager) {
+		long clientUID = 100000L + random.nextInt(900000);
+		return new UserDto(clientUID, "User " + clientUID, isManager);
+	}
+
+	/**
+	 * This method is used to create a segment of a free hand stroke.
+	 * 
+	 * @param random
+	 * @param user
+	 * @return
+	 */
+	private static ActionMessageDto createPencilMessage(Random random, UserDto user) {
+		Point startPoint = new Point(random.nextInt(IMAGE_WIDTH), random.nextInt(IMAGE_HEIGHT));
+		Point endPoint = new Point(startPoint.x + random.nextInt(9) - 4, startPoint.y + random.nextInt(9) - 4);
+		return new ActionMessageDto(user, ProtocolConstants.ACTION_DRAW, ProtocolConstants.TOOL_PENCIL, startPoint,
+				endPoint, null, Color.BLACK, null, null);
+	}
+
+	/**
+	 * This method is used to create a shape drawn with one of the shape tools.
+	 * 
+	 * @param random
+	 * @param user
+	 * @return
+	 */
+	private static ActionMessageDto createShapeMessage(Random random, UserDto user) {
+		String tool = SHAPE_TOOLS.get(random.nextInt(SHAPE_TOOLS.size()));
+		Point startPoint = new Point(random.nextInt(IMAGE_WIDTH), random.nextInt(IMAGE_HEIGHT));
+		Point endPoint = new Point(random.nextInt(IMAGE_WIDTH), random.nextInt(IMAGE_HEIGHT));
+		Point dragPoint = ProtocolConstants.TOOL_TRIANGLE.equals(tool)
+				? new Point(random.nextInt(IMAGE_WIDTH), random.nextInt(IMAGE_HEIGHT))
+				: null;
+		return new ActionMessageDto(user, ProtocolConstants.ACTION_DRAW, tool, startPoint, endPoint, dragPoint,
+				new Color(random.nextInt(0xFFFFFF)), null, null);
+	}
+
+	/**
+	 * This method is used to create a chat message encrypted with the UID of the
+	 * user.
+	 * 
+	 * @param random
+	 * @param user
+	 * @return
+	 */
+	private static ActionMessageDto createChatMessage(Random random, UserDto user) {
+		String encryptedText = AESUtils.encryptString(createChatText(random, 20 + random.nextInt(100)),
+				user.getClientUID().toString());
+		return new ActionMessageDto(user, ProtocolConstants.ACTION_CHAT, null, null, null, null, null, null,
+				encryptedText);
+	}
+
+	/**
+	 * This method is used to create the refresh user list event sent when a user
+	 * joins or exits.
+	 * 
+	 * @param random
+	 * @param user
+	 * @return
+	 */
+	private static ActionMessageDto createUserListMessage(Random random, UserDto user) {
+		List<UserDto> activeUserList = new ArrayList<>();
+		activeUserList.add(createUser(random, true));
+		for (int i = 1; i < USER_LIST_SIZE; i++) {
+			activeUserList.add(createUser(random, false));
+		}
+
+		ActionMessageDto userListMessage = new ActionMessageDto(user, ProtocolConstants.ACTION_REFRESH_USER_LIST);
+		userListMessage.setActiveUserList(activeUserList);
+		userListMessage.setSelectedUser(createUser(random, false));
+		return userListMessage;
+	}
+
+	/**
+	 * This method is used to create the load image event carrying a drawn board
+	 * encoded as PNG, as the manager sends it to a new user.
+	 * 
+	 * @param random
+	 * @param user
+	 * @return
+	 */
+	private static ActionMessageDto createLoadImageMessage(Random random, UserDto user) {
+		BufferedImage image = new BufferedImage(IMAGE_WIDTH, IMAGE_HEIGHT, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics2d = image.createGraphics();
+		graphics2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		graphics2d.setPaint(Color.WHITE);
+		graphics2d.fillRect(0, 0, IMAGE_WIDTH, IMAGE_HEIGHT);
+		graphics2d.setStroke(new BasicStroke(Constants.PENCIL_STROKE_WIDTH));
+		for (int i = 0; i < IMAGE_STROKE_COUNT; i++) {
+			graphics2d.setPaint(new Color(random.nextInt(0xFFFFFF)));
+			graphics2d.drawLine(random.nextInt(IMAGE_WIDTH), random.nextInt(IMAGE_HEIGHT), random.nextInt(IMAGE_WIDTH),
+					random.nextInt(IMAGE_HEIGHT));
+		}
+		graphics2d.dispose();
+
+		ActionMessageDto loadImageMessage = new ActionMessageDto(user, ProtocolConstants.ACTION_LOAD_IMAGE);
+		loadImageMessage.setSelectedUser(createUser(random, false));
+		loadImageMessage.setStartPoint(new Point(0, 0));
+		loadImageMessage.setSequence(0L);
+		try (ByteArrayOutputStream imageBytes = new ByteArrayOutputStream()) {
+			ImageIO.write(image, "png", imageBytes);
+			loadImageMessage.setDrawboardImage(Base64.getEncoder().encodeToString(imageBytes.toByteArray()));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return loadImageMessage;
+	}
+}
@@ -0,0 +1,29 @@
+package com.distributed.project.whiteboard.benchmarks;
+
+/**
+ * This enum is used to list the kinds of messages exchanged between the client
+ * and the server which are covered by the codec benchmarks.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public enum MessageType {
+
+	// Single segment of a free hand stroke
+	PENCIL,
+
+	// Line, rectangle, circle or triangle
+	SHAPE,
+
+	// Encrypted chat message
+	CHAT,
+
+	// Refresh of the active user list
+	USER_LIST,
+
+	// Board image sent to a new user
+	LOAD_IMAGE,
+
+	// Mix of the above in the proportions of a drawing session
+	MIXED
+}
@@ -0,0 +1,165 @@
+package com.distributed.project.whiteboard.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.frame.FrameDecoder;
+import com.distributed.project.whiteboard.protocol.frame.MessageFrame;
+import com.distributed.project.whiteboard.protocol.utils.TypeConversionUtils;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * This class is used to benchmark encoding and decoding of messages by the
+ * TypeConversionUtils of the protocol module, as the server uses it.
+ * 
+ * @implNote The messages are encoded as the clients send them, so the server
+ *           decodes exactly what it receives from the clients. The decoded
+ *           messages are then used for the encoding benchmark.
+ * 
+ * @implNote The frame benchmark decodes into a reusable frame, as the server
+ *           does with the pooled decode configured. Run with {@code -prof gc}
+ *           to compare the allocation rate with the other decoders.
+ * 
+ * @implNote The object mapper benchmarks use the encoding of the messages
+ *           before the streaming codec, for comparison.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServerCodecBenchmark {
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+			.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+	@Param
+	private MessageType messageType;
+
+	private String[] encodedMessages;
+	private String[] objectMapperMessages;
+	private ActionMessageDto[] messages;
+	private int index;
+
+	private final MessageFrame frame = new MessageFrame();
+	private final FrameDecoder frameDecoder = new FrameDecoder();
+
+	/**
+	 * This method is used to encode the messages as the clients send them and
+	 * decode them once before the benchmark runs.
+	 * 
+	 * @throws IOException
+	 */
+	@Setup
+	public void setup() throws IOException {
+		List<ActionMessageDto> clientMessages = MessageFixtures.createMessages(messageType);
+		encodedMessages = new String[clientMessages.size()];
+		messages = new ActionMessageDto[clientMessages.size()];
+		objectMapperMessages = new String[clientMessages.size()];
+		for (int i = 0; i < clientMessages.size(); i++) {
+			encodedMessages[i] = TypeConversionUtils.convertObjectToString(clientMessages.get(i));
+			messages[i] = TypeConversionUtils.convertToCustomClass(encodedMessages[i], ActionMessageDto.class);
+			objectMapperMessages[i] = OBJECT_MAPPER.writeValueAsString(messages[i]);
+		}
+	}
+
+	/**
+	 * This method is used to benchmark decoding of a message received from a
+	 * client.
+	 * 
+	 * @return
+	 */
+	@Benchmark
+	public ActionMessageDto decode() {
+		return TypeConversionUtils.convertToCustomClass(encodedMessages[nextIndex()], ActionMessageDto.class);
+	}
+
+	/**
+	 * This method is used to benchmark reading only the opcode of a message
+	 * received from a client, as done for the messages which are relayed.
+	 * 
+	 * @return
+	 */
+	@Benchmark
+	public int peekOpcode() {
+		return TypeConversionUtils.peekOpcode(encodedMessages[nextIndex()]);
+	}
+
+	/**
+	 * This method is used to benchmark decoding of a message received from a
+	 * client into a reusable frame, as done for the messages which are relayed
+	 * with the pooled decode configured.
+	 * 
+	 * @return
+	 */
+	@Benchmark
+	public int decodeFrame() {
+		frame.setContent(encodedMessages[nextIndex()]);
+		return frameDecoder.decode(frame);
+	}
+
+	/**
+	 * This method is used to benchmark encoding of a message broadcasted to the
+	 * clients.
+	 * 
+	 * @return
+	 */
+	@Benchmark
+	public String encode() {
+		return TypeConversionUtils.convertObjectToString(messages[nextIndex()]);
+	}
+
+	/**
+	 * This method is used to benchmark decoding of a message with the object
+	 * mapper, as done before the streaming codec.
+	 * 
+	 * @return
+	 * @throws IOException
+	 */
+	@Benchmark
+	public ActionMessageDto decodeObjectMapper() throws IOException {
+		return OBJECT_MAPPER.readValue(objectMapperMessages[nextIndex()], ActionMessageDto.class);
+	}
+
+	/**
+	 * This method is used to benchmark encoding of a message with the object
+	 * mapper, as done before the streaming codec.
+	 * 
+	 * @return
+	 * @throws IOException
+	 */
+	@Benchmark
+	public String encodeObjectMapper() throws IOException {
+		return OBJECT_MAPPER.writeValueAsString(messages[nextIndex()]);
+	}
+
+	/**
+	 * This method is used to move to the next message of the set.
+	 * 
+	 * @return
+	 */
+	private int nextIndex() {
+		int currentIndex = index;
+		index = currentIndex + 1 == messages.length ? 0 : currentIndex + 1;
+		return currentIndex;
+	}
+}
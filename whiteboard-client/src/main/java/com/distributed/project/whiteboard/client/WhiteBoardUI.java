@@ -1,17 +1,20 @@
 package com.distributed.project.whiteboard.client;
 
 import java.awt.Color;
-import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Base64;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 import javax.imageio.ImageIO;
 import javax.swing.JFrame;
 import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
 import javax.swing.WindowConstants;
 
 import org.apache.commons.lang3.StringUtils;
@@ -20,7 +23,6 @@ import org.kordamp.ikonli.swing.FontIcon;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.distributed.project.whiteboard.client.dto.ActionMessageDto;
 import com.distributed.project.whiteboard.client.gui.ChatBoxPanel;
 import com.distributed.project.whiteboard.client.gui.CoordinateBar;
 import com.distributed.project.whiteboard.client.gui.DrawArea;
@@ -28,16 +30,28 @@ import com.distributed.project.whiteboard.client.gui.FileFunctionPanel;
 import com.distributed.project.whiteboard.client.gui.HeaderPanel;
 import com.distributed.project.whiteboard.client.gui.ToolPanel;
 import com.distributed.project.whiteboard.client.gui.UserPanel;
+import com.distributed.project.whiteboard.client.jfr.ImageTransferEvent;
+import com.distributed.project.whiteboard.client.listeners.WhiteboardEventHandler;
 import com.distributed.project.whiteboard.client.utilities.Constants;
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.dto.UserDto;
+import com.distributed.project.whiteboard.protocol.opcode.OpcodeRegistry;
+import com.distributed.project.whiteboard.protocol.opcode.Opcodes;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
 
 /**
  * This class is used for setting up the whiteboard UI. It also handles other
  * functions related to UI.
  * 
+ * @implNote It is the Swing implementation of {@link WhiteboardEventHandler}.
+ *           Dialogs waiting for user input are shown on the event dispatch
+ *           thread, so that the event listener keeps applying other events in
+ *           the background.
+ * 
  * @author Abhijeet - 1278218
  *
  */
-public class WhiteBoardUI extends JFrame {
+public class WhiteBoardUI extends JFrame implements WhiteboardEventHandler {
 
 	private static final long serialVersionUID = -6156713632601513816L;
 
@@ -54,6 +68,8 @@ public class WhiteBoardUI extends JFrame {
 	private UserPanel userPanel;
 	private CoordinateBar coordinateBar;
 	private HeaderPanel headerPanel;
+	private transient OpcodeRegistry<Consumer<ActionMessageDto>> drawHandlers = new OpcodeRegistry<>(
+			Opcodes.toolCount());
 
 	/**
 	 * This constructor populates the the whiteboard client and intializes the UI.
@@ -63,6 +79,7 @@ public class WhiteBoardUI extends JFrame {
 	public WhiteBoardUI(WhiteboardClient whiteboardClient) {
 		this.whiteboardClient = whiteboardClient;
 		initialize();
+		registerDrawHandlers();
 	}
 
 	/**
@@ -110,7 +127,7 @@ public class WhiteBoardUI extends JFrame {
 	/**
 	 * This method is used to take the user input for user login before starting the
 	 * UI.
-	 * 
+	 *
 	 */
 	private void userLogin() {
 		// Showing dialog box for input of user name
@@ -145,21 +162,10 @@ public class WhiteBoardUI extends JFrame {
 		// If manager clicks on yes
 		if (result == JOptionPane.YES_OPTION) {
 			// Send user accepted event to server
-			ActionMessageDto userAccepted = new ActionMessageDto(whiteboardClient.getUserInfo(),
-					Constants.ACTION_NEW_USER_ACCEPT);
-			userAccepted.setSelectedUser(request.getSelectedUser());
-
-			// Adding the accept user event to the queue
-			whiteboardClient.getActionList().add(userAccepted);
+			whiteboardClient.acceptUser(request.getSelectedUser());
 
 			// Sending load image event to the new user for showing the same screen
-			ActionMessageDto loadImageEvent = new ActionMessageDto(whiteboardClient.getUserInfo(),
-					Constants.ACTION_LOAD_IMAGE);
-			loadImageEvent.setSelectedUser(request.getSelectedUser());
-			loadImageEvent.setDrawboardImage(convertDrawAreaToStringBytes());
-
-			// Adding the load image event to the queue
-			whiteboardClient.getActionList().add(loadImageEvent);
+			sendBoardSnapshot(request.getSelectedUser());
 
 			// Adding user to the active clients list
 			userPanel.addUserToList(request.getSelectedUser());
@@ -171,16 +177,35 @@ public class WhiteBoardUI extends JFrame {
 							+ StringUtils.LF,
 					Color.RED);
 		} else {
-			// Creating the user rejected event for the selected user
-			ActionMessageDto userRejected = new ActionMessageDto(whiteboardClient.getUserInfo(),
-					Constants.ACTION_NEW_USER_REJECT);
-			userRejected.setSelectedUser(request.getSelectedUser());
-
-			// Adding the event to the queue
-			whiteboardClient.getActionList().add(userRejected);
+			// Send user rejected event to server
+			whiteboardClient.rejectUser(request.getSelectedUser());
 		}
 	}
 
+	/**
+	 * This method is used to send the board of the manager to the selected user,
+	 * along with the sequence number of the latest board event applied on it.
+	 * 
+	 * @param selectedUser
+	 */
+	public void sendBoardSnapshot(UserDto selectedUser) {
+		// Reading the sequence before rendering, events applied meanwhile are resent
+		long sequence = whiteboardClient.getLastSequence();
+
+		ActionMessageDto loadImageEvent = new ActionMessageDto(whiteboardClient.getUserInfo(),
+				ProtocolConstants.ACTION_LOAD_IMAGE);
+		loadImageEvent.setSelectedUser(selectedUser);
+		loadImageEvent.setSequence(Math.max(sequence, 0));
+
+		// Sending the board along with the board point of its top left corner
+		Rectangle boardBounds = drawArea.getBoardBounds();
+		loadImageEvent.setStartPoint(boardBounds.getLocation());
+		loadImageEvent.setDrawboardImage(convertDrawAreaToStringBytes(boardBounds));
+
+		// Adding the load image event to the queue
+		whiteboardClient.getActionList().add(loadImageEvent);
+	}
+
 	/**
 	 * This method is used to display success messages on the screen of the user
 	 * with the specified text in arguments.
@@ -227,22 +252,16 @@ public class WhiteBoardUI extends JFrame {
 	 * This method is used to convert the current user's draw area to string of
 	 * bytes to send across the network.
 	 * 
+	 * @param boardBounds
 	 * @return
 	 */
-	private String convertDrawAreaToStringBytes() {
+	private String convertDrawAreaToStringBytes(Rectangle boardBounds) {
 		try {
 			// Creating a temp file
 			File drawFile = new File(TEMP_FILE_PATH + whiteboardClient.getUserInfo().getClientUID() + IMAGE_EXT);
 
-			// Creating a buffered image of the current draw area
-			BufferedImage bufferedImage = new BufferedImage(drawArea.getSize().width, drawArea.getSize().height,
-					BufferedImage.TYPE_INT_RGB);
-
-			// Creating graphics for the buffered image
-			Graphics2D graphics2d = bufferedImage.createGraphics();
-
-			// Printing the draw area onto the buffered image
-			drawArea.print(graphics2d);
+			// Rendering the given area of the board onto a buffered image
+			BufferedImage bufferedImage = drawArea.createBoardImage(boardBounds);
 
 			// Writing the buffered image onto the file in PNG format
 			ImageIO.write(bufferedImage, "png", drawFile);
@@ -268,6 +287,9 @@ public class WhiteBoardUI extends JFrame {
 	 * @param actionMessageDto
 	 */
 	public void loadImageFromServer(ActionMessageDto actionMessageDto) {
+		ImageTransferEvent imageTransferEvent = new ImageTransferEvent();
+		imageTransferEvent.begin();
+
 		// Creating a temp file
 		File file = new File(TEMP_FILE_PATH + whiteboardClient.getUserInfo().getClientUID() + IMAGE_EXT);
 
@@ -280,14 +302,287 @@ public class WhiteBoardUI extends JFrame {
 			fout.write(bytes);
 			fout.flush();
 
-			// Printing the current image on the current user's draw area
-			drawArea.loadImage(ImageIO.read(file));
+			// Printing the current image on the current user's draw area at the board
+			// point it was sent from
+			drawArea.loadImage(ImageIO.read(file), actionMessageDto.getStartPoint());
 
 			// Deleting the temp file
 			Files.deleteIfExists(Paths.get(file.getAbsolutePath()));
 		} catch (Exception e) {
 			LOGGER.error("Exception in loadImageFromServer", e);
 		}
+
+		imageTransferEvent.end();
+		if (imageTransferEvent.shouldCommit()) {
+			imageTransferEvent.payloadSize = StringUtils.length(actionMessageDto.getDrawboardImage());
+			imageTransferEvent.commit();
+		}
+	}
+
+	/**
+	 * This method is used to draw the event of another user on the draw area. It
+	 * seggregrates the tool used by the other user through the handler registered
+	 * for the tool and accordingly makes the drawing.
+	 * 
+	 * @param request
+	 */
+	@Override
+	public void onDraw(ActionMessageDto request) {
+		// Setting the current editor
+		toolPanel.setEditor(request.getUser().getClientUserName());
+		Consumer<ActionMessageDto> drawHandler = drawHandlers.lookup(request.getToolOpcode());
+		if (Objects.isNull(drawHandler)) {
+			LOGGER.error("No such tool defined -- {}", request.getTool());
+			return;
+		}
+		drawHandler.accept(request);
+	}
+
+	/**
+	 * This method is used to register the drawing of each tool in the opcode
+	 * registry of the tools.
+	 */
+	private void registerDrawHandlers() {
+		// Draw free hand drawing based on the packed stroke, or coordinates from older clients
+		drawHandlers.register(ProtocolConstants.TOOL_OP_PENCIL, request -> {
+			if (Objects.nonNull(request.getStroke())) {
+				drawArea.createStroke(request.getStroke(), request.getColor(), false);
+			} else {
+				drawArea.createLine(request.getStartPoint(), request.getEndPoint(), request.getColor());
+			}
+		});
+
+		// Erase the drawing based on the packed stroke, or coordinates from older clients
+		drawHandlers.register(ProtocolConstants.TOOL_OP_ERASER, request -> {
+			if (Objects.nonNull(request.getStroke())) {
+				drawArea.createStroke(request.getStroke(), null, true);
+			} else {
+				drawArea.eraserAction(request.getStartPoint(), request.getEndPoint());
+			}
+		});
+
+		// Creating a line using selected color and coordinates
+		drawHandlers.register(ProtocolConstants.TOOL_OP_LINE,
+				request -> drawArea.createLine(request.getStartPoint(), request.getEndPoint(), request.getColor()));
+
+		// Creating a rectangle using selected color and coordinates
+		drawHandlers.register(ProtocolConstants.TOOL_OP_RECTANGLE, request -> drawArea
+				.createRectangle(request.getStartPoint(), request.getEndPoint(), request.getColor()));
+
+		// Creating a circle using selected color and coordinates
+		drawHandlers.register(ProtocolConstants.TOOL_OP_CIRCLE,
+				request -> drawArea.createCircle(request.getStartPoint(), request.getEndPoint(), request.getColor()));
+
+		// Creating a triangle using selected color and coordinates
+		drawHandlers.register(ProtocolConstants.TOOL_OP_TRIANGLE, request -> drawArea.createTriangle(
+				request.getStartPoint(), request.getEndPoint(), request.getDragPoint(), request.getColor()));
+
+		// Drawing text on board using selected color and coordinates
+		drawHandlers.register(ProtocolConstants.TOOL_OP_TEXT,
+				request -> drawArea.createText(request.getStartPoint(), request.getDrawText(), request.getColor()));
+	}
+
+	/**
+	 * This method is used to display the chat message of another user in the chat
+	 * box panel.
+	 * 
+	 * @param request
+	 */
+	@Override
+	public void onChat(ActionMessageDto request) {
+		chatBoxPanel.recieveMessage(request);
+	}
+
+	/**
+	 * This method is used to enable the manager UI once the current user is
+	 * assigned as the manager.
+	 * 
+	 * @param request
+	 */
+	@Override
+	public void onManagerAssigned(ActionMessageDto request) {
+		// Enabling the manager UI
+		enableUserUI();
+
+		// Refershing the list of active users
+		userPanel.refreshUserList(request.getActiveUserList());
+	}
+
+	/**
+	 * This method is used to show the join request pop-up to the manager.
+	 * 
+	 * @param request
+	 */
+	@Override
+	public void onJoinRequest(ActionMessageDto request) {
+		SwingUtilities.invokeLater(() -> userPermission(request));
+	}
+
+	/**
+	 * This method is used to update the UI when a user joins the whiteboard. If
+	 * the user added is the current user then we activate the client UI, or else
+	 * we update the client list and add system message in the chat box panel.
+	 * 
+	 * @param request
+	 * @param isCurrentUser
+	 */
+	@Override
+	public void onUserAdded(ActionMessageDto request, boolean isCurrentUser) {
+		if (isCurrentUser) {
+			// Enabling the normal user UI
+			enableUserUI();
+
+			// Showing success message to current user
+			SwingUtilities.invokeLater(
+					() -> showSuccessMessage("Manager has accepted your request to join the whiteboard"));
+		}
+
+		// Refreshing the active user list, or adding only the user sent as a delta
+		if (Objects.nonNull(request.getActiveUserList())) {
+			userPanel.refreshUserList(request.getActiveUserList());
+		} else {
+			userPanel.addUserToList(request.getSelectedUser());
+		}
+
+		// Adding user added system message in the chat box panel
+		chatBoxPanel.append(
+				Constants.MSG_USER_ADDED.replace(Constants.USER, request.getSelectedUser().getClientUserName())
+						+ StringUtils.LF,
+				Color.RED);
+	}
+
+	/**
+	 * This method is used to refresh the active client list when a user exits the
+	 * whiteboard.
+	 * 
+	 * @param request
+	 */
+	@Override
+	public void onUserExited(ActionMessageDto request) {
+		// Refereshing the active user list, or removing only the user sent as a delta
+		if (Objects.nonNull(request.getActiveUserList())) {
+			userPanel.refreshUserList(request.getActiveUserList());
+		} else {
+			userPanel.removeUserFromList(request.getSelectedUser());
+		}
+
+		// Adding the user exit system message in the chat box panel
+		chatBoxPanel.append(
+				Constants.MSG_USER_EXIT.replace(Constants.USER, request.getSelectedUser().getClientUserName()),
+				Color.RED);
+	}
+
+	/**
+	 * This method is used to replace the active client list with the members
+	 * requested from the server.
+	 * 
+	 * @param request
+	 */
+	@Override
+	public void onMembersRefreshed(ActionMessageDto request) {
+		userPanel.refreshUserList(request.getActiveUserList());
+	}
+
+	/**
+	 * This method is used to show the cursors of the other members which have
+	 * moved, over the draw area.
+	 * 
+	 * @param request
+	 */
+	@Override
+	public void onPresence(ActionMessageDto request) {
+		Long currentClientUID = whiteboardClient.getUserInfo().getClientUID();
+		SwingUtilities.invokeLater(() -> request.getCursors().stream()
+				.filter(cursor -> !Objects.equals(cursor.getClientUID(), currentClientUID))
+				.forEach(cursor -> drawArea.showCursor(cursor,
+						whiteboardClient.resolveSender(cursor.getClientUID()).getClientUserName())));
+	}
+
+	/**
+	 * This method is used to remove a user kicked by the manager from the active
+	 * client list.
+	 * 
+	 * @param request
+	 */
+	@Override
+	public void onUserKicked(ActionMessageDto request) {
+		// Removing user from the active client list
+		userPanel.removeUserFromList(request.getSelectedUser());
+
+		// Adding system message to chat box panel
+		chatBoxPanel.append(
+				Constants.MSG_KICK_USER.replace(Constants.USER, request.getSelectedUser().getClientUserName()),
+				Color.RED);
+	}
+
+	/**
+	 * This method is used to display the image sent by the manager on the draw
+	 * area.
+	 * 
+	 * @param request
+	 */
+	@Override
+	public void onLoadImage(ActionMessageDto request) {
+		// Setting the current editor
+		toolPanel.setEditor(request.getUser().getClientUserName());
+
+		// Loading the image sent by manager
+		loadImageFromServer(request);
+
+		// If it is not meant for a particular user then display system message
+		if (Objects.isNull(request.getSelectedUser())) {
+			chatBoxPanel.append(Constants.MSG_LOAD_IMAGE, Color.RED);
+		}
+	}
+
+	/**
+	 * This method is used to clear the draw area when the manager clears the
+	 * board.
+	 * 
+	 * @param request
+	 */
+	@Override
+	public void onClear(ActionMessageDto request) {
+		// Setting the current editor
+		toolPanel.setEditor(request.getUser().getClientUserName());
+
+		// Appending the system message in chat box panel
+		chatBoxPanel.append(Constants.MSG_CLEAR, Color.RED);
+
+		// Clearing the draw area
+		drawArea.clear();
+	}
+
+	/**
+	 * This method is used to add the reconnected system message in the chat box
+	 * panel.
+	 * 
+	 * @param request
+	 */
+	@Override
+	public void onSessionResumed(ActionMessageDto request) {
+		chatBoxPanel.append(Constants.MSG_RECONNECTED, Color.RED);
+	}
+
+	/**
+	 * This method is used to send the board of the manager to the selected user.
+	 * 
+	 * @param selectedUser
+	 */
+	@Override
+	public void onSnapshotRequested(UserDto selectedUser) {
+		sendBoardSnapshot(selectedUser);
+	}
+
+	/**
+	 * This method is used to show the reason the session ended and then close the
+	 * application.
+	 * 
+	 * @param message
+	 */
+	@Override
+	public void onSessionClosed(String message) {
+		SwingUtilities.invokeLater(() -> showErrorMessage(message, true));
 	}
 
 	/**
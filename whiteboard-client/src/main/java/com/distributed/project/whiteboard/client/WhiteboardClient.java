@@ -1,20 +1,29 @@
 package com.distributed.project.whiteboard.client;
 
+import java.awt.Point;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Queue;
+import java.util.Random;
 import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.swing.JOptionPane;
 import javax.swing.SwingUtilities;
@@ -23,17 +32,25 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.distributed.project.whiteboard.client.dto.ActionMessageDto;
-import com.distributed.project.whiteboard.client.dto.UserDto;
 import com.distributed.project.whiteboard.client.listeners.EventDispatcher;
 import com.distributed.project.whiteboard.client.listeners.EventListener;
+import com.distributed.project.whiteboard.client.listeners.WhiteboardEventHandler;
 import com.distributed.project.whiteboard.client.utilities.Constants;
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.dto.UserDto;
+import com.distributed.project.whiteboard.protocol.lane.LaneWriter;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.distributed.project.whiteboard.protocol.utils.TypeConversionUtils;
 
 /**
  * This class is used to initialize the whiteboard client and connections to the
  * server. It also initiates the threads for event listener and event
  * dispatcher.
  * 
+ * @implNote The client does not depend on the Swing UI. The events received are
+ *           presented by a {@link WhiteboardEventHandler}, so that many clients
+ *           without a UI can run in the same JVM for load and soak tests.
+ * 
  * @see {@link EventListener}
  * @see {@link EventDispatcher}
  * 
@@ -45,22 +62,56 @@ public class WhiteboardClient {
 	private static final Logger LOGGER = LoggerFactory.getLogger(WhiteboardClient.class);
 
 	// Queue used for storing and executing actions done by the current client
-	private Queue<ActionMessageDto> actionList = new ConcurrentLinkedQueue<>();
+	private BlockingQueue<ActionMessageDto> actionList = new LinkedBlockingQueue<>();
 
 	// Thread pool used to executing listener threads
 	private ExecutorService executorService = new ThreadPoolExecutor(5, 10, 100, TimeUnit.MILLISECONDS,
 			new ArrayBlockingQueue<>(5), new ThreadPoolExecutor.CallerRunsPolicy());
 
+	// Scheduler used for sending heartbeats while the client is idle, and the cursor
+	// of the current user at a fixed interval
+	private ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+	// Latest cursor of the current user, null if hidden, and if it is yet to be sent
+	private final Object cursorLock = new Object();
+	private Point cursor;
+	private boolean isCursorChanged;
+
+	// Time of the latest event written to the server
+	private volatile long lastWriteAt;
+
 	// Atomic boolean for maintaining if the current client is manager
 	private AtomicBoolean isManager = new AtomicBoolean(false);
 
+	// Sequence number of the latest board event applied, -1 until the board is
+	// synchronized with the server
+	private AtomicLong lastSequence = new AtomicLong(-1);
+
+	// Atomic boolean for maintaining if the current client has sent the exit event
+	private AtomicBoolean isExiting = new AtomicBoolean(false);
+
+	// Token issued by the server to resume the session after losing connection
+	private volatile String resumeToken;
+
+	// Source of the jitter added to the reconnect delays
+	private final Random reconnectRandom = new Random();
+
 	// Synchronized user info, for maintaining identity
 	private UserDto userInfo;
 
-	private WhiteBoardUI whiteBoardUI;
+	// Members of the whiteboard by their client UID, to resolve the sender of events
+	private final Map<Long, UserDto> members = new ConcurrentHashMap<>();
+
+	// Membership version of the members, -1 until the list of members is received
+	private AtomicLong membershipVersion = new AtomicLong(-1);
+
+	private String serverAddress;
+	private int port;
+
+	private WhiteboardEventHandler eventHandler;
 	protected Socket socket;
 	protected BufferedReader in;
-	protected BufferedWriter out;
+	protected LaneWriter out;
 
 	/**
 	 * This method is the entry point for application startup.
@@ -79,42 +130,258 @@ public class WhiteboardClient {
 			System.exit(0);
 		}
 		// Initializing the whiteboard UI
-		whiteboardClient.whiteBoardUI = new WhiteBoardUI(whiteboardClient);
+		WhiteBoardUI whiteBoardUI = new WhiteBoardUI(whiteboardClient);
 
 		// Running the whitebord UI in a seperate thread
-		SwingUtilities.invokeLater(() -> whiteboardClient.whiteBoardUI.setVisible(true));
+		SwingUtilities.invokeLater(() -> whiteBoardUI.setVisible(true));
 
 		// Starting up client connection to server
-		whiteboardClient.clientConfigurationsAndConnection(args[0], Integer.parseInt(args[1]));
+		try {
+			whiteboardClient.clientConfigurationsAndConnection(args[0], Integer.parseInt(args[1]), whiteBoardUI);
+		} catch (IOException e) {
+			LOGGER.error("IOException in clientConfigurations", e);
+		}
 	}
 
 	/**
 	 * This method is used to start connections with the server and initialize the
-	 * listener threads.
+	 * listener threads. The events received from the server are presented by the
+	 * given handler.
 	 * 
 	 * @param serverAddress
 	 * @param port
+	 * @param eventHandler
+	 * @throws IOException
 	 */
-	private void clientConfigurationsAndConnection(String serverAddress, int port) {
-		try {
-			// Opening socket with dictionary server
-			socket = new Socket(serverAddress, port);
+	public void clientConfigurationsAndConnection(String serverAddress, int port,
+			WhiteboardEventHandler eventHandler) throws IOException {
+		this.serverAddress = serverAddress;
+		this.port = port;
+		this.eventHandler = eventHandler;
+
+		// Opening socket with dictionary server
+		connect();
+
+		// Running thread for event dispatcher
+		EventDispatcher eventDispatcher = new EventDispatcher(this);
+		executorService.execute(eventDispatcher);
+
+		// Running thread for event listener
+		EventListener eventListener = new EventListener(this, eventHandler, in);
+		executorService.execute(eventListener);
+
+		// Sending heartbeats so the server does not time out an idle client
+		long writeIdleMillis = Long.getLong(Constants.PROP_WRITE_IDLE_MS, Constants.DEFAULT_WRITE_IDLE_MS);
+		scheduler.scheduleWithFixedDelay(() -> sendHeartbeatIfIdle(writeIdleMillis), writeIdleMillis,
+				writeIdleMillis / 2, TimeUnit.MILLISECONDS);
+
+		// Sending only the latest cursor of the current user at a fixed interval
+		if (TypeConversionUtils.getCodecVersion() >= ProtocolConstants.PRESENCE_CODEC_VERSION) {
+			long cursorInterval = Long.getLong(Constants.PROP_CURSOR_INTERVAL_MS, Constants.DEFAULT_CURSOR_INTERVAL_MS);
+			scheduler.scheduleWithFixedDelay(this::sendCursorIfChanged, cursorInterval, cursorInterval,
+					TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * This method is used to stop the client without exiting the JVM. It closes
+	 * the connection and stops the threads of the client, for clients which run
+	 * alongside others in the same JVM.
+	 */
+	public void close() {
+		setExiting();
+		executorService.shutdownNow();
+		scheduler.shutdownNow();
+		closeConnection();
+	}
+
+	/**
+	 * This method is used to open the socket and the input and output connections
+	 * with the server.
+	 * 
+	 * @throws IOException
+	 */
+	private void connect() throws IOException {
+		socket = new Socket();
+		socket.connect(new InetSocketAddress(serverAddress, port), Constants.CONNECT_TIMEOUT_MS);
+
+		// Treating the connection as lost if nothing is read within the read idle
+		// timeout, the server sends heartbeats while it has nothing else to send
+		socket.setSoTimeout(Integer.getInteger(Constants.PROP_READ_IDLE_MS, Constants.DEFAULT_READ_IDLE_MS));
+
+		// Input connection - messages from server
+		in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+
+		// Output connection - messages to server
+		out = new LaneWriter(
+				new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8)),
+				executorService);
+	}
+
+	/**
+	 * This method is used to reconnect to the server after the connection is lost.
+	 * It retries with exponential backoff and resumes the session with the resume
+	 * token, so the server re-admits the user without the manager's approval and
+	 * sends only the board events missed in the meantime. If the server rejects
+	 * the token, the user joins again with {@link #rejoin()}.
+	 * 
+	 * @return the input connection of the new socket
+	 */
+	public BufferedReader reconnect() {
+		// A client which has not been accepted yet has no session to resume
+		if (Objects.isNull(resumeToken)) {
+			eventHandler.onSessionClosed("Connection to the whiteboard server lost");
+			return null;
+		}
+
+		for (int attempt = 1; attempt <= Constants.RECONNECT_MAX_ATTEMPTS; attempt++) {
+			try {
+				// Waiting with jitter so that clients do not reconnect all at once
+				Thread.sleep(getReconnectDelay(attempt, reconnectRandom));
+
+				// Sending the resume event before any queued event on the new connection
+				synchronized (this) {
+					closeConnection();
+					connect();
 
-			// Input connection - messages from server
-			in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+					ActionMessageDto resumeEvent = new ActionMessageDto(getUserInfo(), ProtocolConstants.ACTION_RESUME);
+					resumeEvent.setResumeToken(resumeToken);
+					resumeEvent.setSequence(Math.max(getLastSequence(), 0));
+					writeEvent(resumeEvent.getOpcode(), TypeConversionUtils.convertObjectToString(resumeEvent));
+				}
+				LOGGER.info("Reconnected to the server on attempt {}", attempt);
+				return in;
+			} catch (IOException e) {
+				LOGGER.warn("Reconnect attempt {} failed", attempt, e);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
 
-			// Output connection - messages to server
-			out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+		eventHandler.onSessionClosed("Unable to reconnect to the whiteboard server");
+		return null;
+	}
 
-			// Running thread for event dispatcher
-			EventDispatcher eventDispatcher = new EventDispatcher(this, out);
-			executorService.execute(eventDispatcher);
+	/**
+	 * This method is used to compute the wait before a reconnect attempt. The
+	 * delay doubles with every failed attempt up to the maximum delay, and up to
+	 * half of it is added as jitter.
+	 * 
+	 * @param attempt the attempt, starting from 1
+	 * @param random  the source of the jitter
+	 * @return
+	 */
+	static long getReconnectDelay(int attempt, Random random) {
+		long delay = Constants.RECONNECT_INITIAL_DELAY_MS;
+		for (int i = 1; i < attempt && delay < Constants.RECONNECT_MAX_DELAY_MS; i++) {
+			delay = Math.min(delay * 2, Constants.RECONNECT_MAX_DELAY_MS);
+		}
+		return delay + (long) (random.nextDouble() * (delay / 2));
+	}
+
+	/**
+	 * This method is used to join the whiteboard again as a new user once the
+	 * server rejects the resume of the session, as it does once the session has
+	 * been evicted. The state of the lost session is dropped and the join request
+	 * waits for the manager's approval again.
+	 */
+	public void rejoin() {
+		LOGGER.info("Unable to resume the session, joining the whiteboard again");
+		resumeToken = null;
+		isManager.set(false);
+		lastSequence.set(-1);
+		membershipVersion.set(-1);
+		members.clear();
 
-			// Running thread for event listener
-			EventListener eventListener = new EventListener(this, whiteBoardUI, in, executorService);
-			executorService.execute(eventListener);
+		// Events of the lost session are not sent as the new user
+		actionList.clear();
+		setClientUserName(getUserInfo().getClientUserName(), true);
+	}
+
+	/**
+	 * This method is used to close the socket of the lost connection.
+	 */
+	private void closeConnection() {
+		try {
+			if (Objects.nonNull(socket)) {
+				socket.close();
+			}
 		} catch (IOException e) {
-			LOGGER.error("IOException in clientConfigurations", e);
+			LOGGER.debug("Exception while closing the socket", e);
+		}
+	}
+
+	/**
+	 * This method is used to send an event to the server on the current
+	 * connection.
+	 * 
+	 * @implNote It is synchronized so that events are not written while the
+	 *           connection is being replaced. Images are sent in chunks on the
+	 *           bulk lane, so the strokes and chats sent after them are not held
+	 *           up.
+	 * 
+	 * @param opcode
+	 * @param eventString
+	 * @throws IOException
+	 */
+	public synchronized void writeEvent(int opcode, String eventString) throws IOException {
+		out.send(opcode, eventString);
+		lastWriteAt = System.currentTimeMillis();
+	}
+
+	/**
+	 * This method is used to send a heartbeat to the server if nothing has been
+	 * written within the write idle timeout.
+	 * 
+	 * @param writeIdleMillis
+	 */
+	private void sendHeartbeatIfIdle(long writeIdleMillis) {
+		if (System.currentTimeMillis() - lastWriteAt < writeIdleMillis) {
+			return;
+		}
+
+		try {
+			writeEvent(ProtocolConstants.OP_HEARTBEAT, TypeConversionUtils
+					.convertObjectToString(new ActionMessageDto(null, ProtocolConstants.ACTION_HEARTBEAT)));
+		} catch (Exception e) {
+			// The event listener reconnects once it notices the lost connection
+			LOGGER.debug("Unable to send heartbeat", e);
+		}
+	}
+
+	/**
+	 * This method is used to keep the latest cursor of the current user, to be
+	 * sent at the next cursor interval.
+	 * 
+	 * @param point the board point of the cursor, or null to hide it
+	 */
+	public void updateCursor(Point point) {
+		synchronized (cursorLock) {
+			isCursorChanged = isCursorChanged || !Objects.equals(cursor, point);
+			cursor = point;
+		}
+	}
+
+	/**
+	 * This method is used to send the cursor of the current user if it has changed
+	 * since it was last sent.
+	 */
+	private void sendCursorIfChanged() {
+		ActionMessageDto cursorEvent = new ActionMessageDto(null, ProtocolConstants.ACTION_CURSOR);
+		synchronized (cursorLock) {
+			if (!isCursorChanged) {
+				return;
+			}
+			cursorEvent.setStartPoint(cursor);
+			isCursorChanged = false;
+		}
+
+		try {
+			writeEvent(ProtocolConstants.OP_CURSOR, TypeConversionUtils.convertObjectToString(cursorEvent));
+		} catch (Exception e) {
+			// The event listener reconnects once it notices the lost connection
+			LOGGER.debug("Unable to send cursor", e);
 		}
 	}
 
@@ -140,21 +407,45 @@ public class WhiteboardClient {
 		if (isUserLogin) {
 			// Creating the user permission event
 			ActionMessageDto newUserPermissionEvent = new ActionMessageDto(getUserInfo(),
-					Constants.ACTION_NEW_USER_PERMISSION);
+					ProtocolConstants.ACTION_NEW_USER_PERMISSION);
 
 			// Adding the event to the action list for dispatching
 			actionList.add(newUserPermissionEvent);
 		}
 	}
 
+	/**
+	 * This method is used to accept the join request of the given user, when the
+	 * current user is the manager.
+	 * 
+	 * @param selectedUser
+	 */
+	public void acceptUser(UserDto selectedUser) {
+		ActionMessageDto userAccepted = new ActionMessageDto(getUserInfo(), ProtocolConstants.ACTION_NEW_USER_ACCEPT);
+		userAccepted.setSelectedUser(selectedUser);
+		actionList.add(userAccepted);
+	}
+
+	/**
+	 * This method is used to reject the join request of the given user, when the
+	 * current user is the manager.
+	 * 
+	 * @param selectedUser
+	 */
+	public void rejectUser(UserDto selectedUser) {
+		ActionMessageDto userRejected = new ActionMessageDto(getUserInfo(), ProtocolConstants.ACTION_NEW_USER_REJECT);
+		userRejected.setSelectedUser(selectedUser);
+		actionList.add(userRejected);
+	}
+
 	/**
 	 * This method is used to fetch the action list to add events.
 	 * 
 	 * @implNote It is not marked as synchronized since we are using
-	 *           {@link ConcurrentLinkedQueue}
+	 *           {@link LinkedBlockingQueue}
 	 * @return
 	 */
-	public Queue<ActionMessageDto> getActionList() {
+	public BlockingQueue<ActionMessageDto> getActionList() {
 		return actionList;
 	}
 
@@ -182,6 +473,70 @@ public class WhiteboardClient {
 		this.isManager = isManager;
 	}
 
+	/**
+	 * This method is used to fetch if the current client has sent the exit event,
+	 * after which the connection is expected to be closed.
+	 * 
+	 * @return
+	 */
+	public boolean getIsExiting() {
+		return isExiting.get();
+	}
+
+	/**
+	 * This method is used to mark that the current client is sending the exit
+	 * event.
+	 */
+	public void setExiting() {
+		isExiting.set(true);
+	}
+
+	/**
+	 * This method is used to set the token issued by the server to resume the
+	 * session.
+	 * 
+	 * @param resumeToken
+	 */
+	public void setResumeToken(String resumeToken) {
+		this.resumeToken = resumeToken;
+	}
+
+	/**
+	 * This method is used to fetch the sequence number of the latest board event
+	 * applied on the draw area.
+	 * 
+	 * @return
+	 */
+	public long getLastSequence() {
+		return lastSequence.get();
+	}
+
+	/**
+	 * This method is used to set the sequence number of the latest board event
+	 * applied on the draw area.
+	 * 
+	 * @param lastSequence
+	 */
+	public void setLastSequence(long lastSequence) {
+		this.lastSequence.set(lastSequence);
+	}
+
+	/**
+	 * This method is used to request every board event after the latest one
+	 * applied on the draw area. The server falls back to a snapshot from the
+	 * manager if those events are no longer retained.
+	 */
+	public void requestSync() {
+		LOGGER.info("Requesting board events after sequence {}", getLastSequence());
+
+		// Creating the sync request event
+		ActionMessageDto syncRequestEvent = new ActionMessageDto(getUserInfo(), ProtocolConstants.ACTION_SYNC_REQUEST);
+		syncRequestEvent.setSequence(Math.max(getLastSequence(), 0));
+
+		// Adding the event to the action list for dispatching
+		actionList.add(syncRequestEvent);
+	}
+
 	/**
 	 * This method is used to fetch the user info set as the global variable.
 	 * 
@@ -199,4 +554,77 @@ public class WhiteboardClient {
 	public synchronized void setUserInfo(UserDto userInfo) {
 		this.userInfo = userInfo;
 	}
+
+	/**
+	 * This method is used to replace the members of the whiteboard with the active
+	 * user list sent by the server.
+	 * 
+	 * @param activeUserList
+	 */
+	public void setMembers(List<UserDto> activeUserList) {
+		members.clear();
+		activeUserList.forEach(member -> members.put(member.getClientUID(), member));
+	}
+
+	/**
+	 * This method is used to add a member who has joined the whiteboard.
+	 * 
+	 * @param member
+	 */
+	public void addMember(UserDto member) {
+		members.put(member.getClientUID(), member);
+	}
+
+	/**
+	 * This method is used to remove a member who has left the whiteboard.
+	 * 
+	 * @param clientUID
+	 */
+	public void removeMember(Long clientUID) {
+		members.remove(clientUID);
+	}
+
+	/**
+	 * This method is used to fetch the membership version of the members, the
+	 * version of the latest join or leave applied.
+	 * 
+	 * @return
+	 */
+	public long getMembershipVersion() {
+		return membershipVersion.get();
+	}
+
+	/**
+	 * This method is used to set the membership version once a join or leave is
+	 * applied, or the list of members is received.
+	 * 
+	 * @param membershipVersion
+	 */
+	public void setMembershipVersion(long membershipVersion) {
+		this.membershipVersion.set(membershipVersion);
+	}
+
+	/**
+	 * This method is used to request the whole list of members, when a join or
+	 * leave is found to be missing from the versions received.
+	 */
+	public void requestMembers() {
+		LOGGER.info("Requesting members after membership version {}", getMembershipVersion());
+
+		// Adding the member list request event to the action list for dispatching
+		actionList.add(new ActionMessageDto(getUserInfo(), ProtocolConstants.ACTION_MEMBER_LIST_REQUEST));
+	}
+
+	/**
+	 * This method is used to resolve the sender id stamped by the server to the
+	 * member who sent the event. A sender who is not a known member yet gets a
+	 * placeholder name.
+	 * 
+	 * @param senderId
+	 * @return
+	 */
+	public UserDto resolveSender(Long senderId) {
+		UserDto member = members.get(senderId);
+		return Objects.nonNull(member) ? member : new UserDto(senderId, Constants.UNKNOWN_MEMBER_NAME, false);
+	}
 }
@@ -0,0 +1,31 @@
+package com.distributed.project.whiteboard.client.canvas;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+
+/**
+ * This interface is used to represent a single drawing operation on the board.
+ * Operations are kept in board coordinates so that any tile can be rendered
+ * again from them at any time.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public interface CanvasOperation {
+
+	/**
+	 * This method is used to fetch the area of the board touched by the operation,
+	 * including the stroke width.
+	 * 
+	 * @return
+	 */
+	Rectangle getBounds();
+
+	/**
+	 * This method is used to render the operation on the given graphics, which is
+	 * already translated to board coordinates.
+	 * 
+	 * @param graphics2d
+	 */
+	void render(Graphics2D graphics2d);
+}
@@ -0,0 +1,40 @@
+package com.distributed.project.whiteboard.client.canvas;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * This class is used to hold the rendered image of a single tile of the board.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class CanvasTile {
+
+	// Each pixel of an INT_RGB image is stored in 4 bytes
+	private static final int BYTES_PER_PIXEL = 4;
+
+	private final TileKey key;
+	private final BufferedImage image;
+
+	public CanvasTile(TileKey key, BufferedImage image) {
+		this.key = key;
+		this.image = image;
+	}
+
+	public TileKey getKey() {
+		return key;
+	}
+
+	public BufferedImage getImage() {
+		return image;
+	}
+
+	/**
+	 * This method is used to fetch the approximate memory held by the tile image.
+	 * 
+	 * @return
+	 */
+	public long getSizeInBytes() {
+		return (long) image.getWidth() * image.getHeight() * BYTES_PER_PIXEL;
+	}
+}
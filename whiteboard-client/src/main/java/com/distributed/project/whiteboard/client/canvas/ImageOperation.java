@@ -0,0 +1,41 @@
+package com.distributed.project.whiteboard.client.canvas;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+
+/**
+ * This class is used to represent an image placed on the board, such as an
+ * image loaded by the manager or the board sent to a newly joined user.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class ImageOperation implements CanvasOperation {
+
+	private final BufferedImage image;
+	private final Rectangle bounds;
+
+	/**
+	 * This constructor is used to initialize the image and the board point of its
+	 * top left corner.
+	 * 
+	 * @param image
+	 * @param x
+	 * @param y
+	 */
+	public ImageOperation(BufferedImage image, int x, int y) {
+		this.image = image;
+		this.bounds = new Rectangle(x, y, image.getWidth(), image.getHeight());
+	}
+
+	@Override
+	public Rectangle getBounds() {
+		return bounds;
+	}
+
+	@Override
+	public void render(Graphics2D graphics2d) {
+		graphics2d.drawImage(image, bounds.x, bounds.y, null);
+	}
+}
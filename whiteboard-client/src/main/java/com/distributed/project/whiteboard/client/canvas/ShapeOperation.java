@@ -0,0 +1,56 @@
+package com.distributed.project.whiteboard.client.canvas;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Shape;
+
+/**
+ * This class is used to represent the outline of a shape drawn on the board,
+ * such as free hand segments, lines, rectangles, circles and triangles.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class ShapeOperation implements CanvasOperation {
+
+	// Extra pixels around the shape for anti-aliasing
+	private static final int BOUNDS_PADDING = 2;
+
+	private final Shape shape;
+	private final Color color;
+	private final float strokeWidth;
+	private final Rectangle bounds;
+
+	/**
+	 * This constructor is used to initialize the shape, the color and the width of
+	 * the stroke used to draw it.
+	 * 
+	 * @param shape
+	 * @param color
+	 * @param strokeWidth
+	 */
+	public ShapeOperation(Shape shape, Color color, float strokeWidth) {
+		this.shape = shape;
+		this.color = color;
+		this.strokeWidth = strokeWidth;
+
+		// Growing the shape bounds by half of the stroke on each side
+		this.bounds = shape.getBounds();
+		int padding = (int) Math.ceil(strokeWidth / 2) + BOUNDS_PADDING;
+		this.bounds.grow(padding, padding);
+	}
+
+	@Override
+	public Rectangle getBounds() {
+		return bounds;
+	}
+
+	@Override
+	public void render(Graphics2D graphics2d) {
+		graphics2d.setColor(color);
+		graphics2d.setStroke(new BasicStroke(strokeWidth));
+		graphics2d.draw(shape);
+	}
+}
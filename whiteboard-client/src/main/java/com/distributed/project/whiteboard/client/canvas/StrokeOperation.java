@@ -0,0 +1,111 @@
+package com.distributed.project.whiteboard.client.canvas;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+
+import com.distributed.project.whiteboard.protocol.stroke.PackedStroke;
+
+/**
+ * This class is used to represent a free hand stroke of the pencil or the
+ * eraser drawn on the board as a single operation.
+ *
+ * @implNote The points are kept in a {@link PackedStroke} instead of a shape
+ *           per segment, and a stroke being drawn is extended in place through
+ *           {@link TiledCanvas#extend(StrokeOperation, int, int)}.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class StrokeOperation implements CanvasOperation {
+
+	// Extra pixels around the stroke for anti-aliasing
+	private static final int BOUNDS_PADDING = 2;
+
+	private final PackedStroke stroke;
+	private final Color color;
+	private final float strokeWidth;
+	private final int padding;
+	private Rectangle bounds;
+
+	/**
+	 * This constructor is used to initialize the stroke, the color and the width
+	 * used to draw it.
+	 *
+	 * @param stroke
+	 * @param color
+	 * @param strokeWidth
+	 */
+	public StrokeOperation(PackedStroke stroke, Color color, float strokeWidth) {
+		this.stroke = stroke;
+		this.color = color;
+		this.strokeWidth = strokeWidth;
+
+		// Growing the stroke bounds by half of the stroke on each side
+		this.padding = (int) Math.ceil(strokeWidth / 2) + BOUNDS_PADDING;
+		this.bounds = pad(stroke.getBounds());
+	}
+
+	@Override
+	public Rectangle getBounds() {
+		return bounds;
+	}
+
+	@Override
+	public void render(Graphics2D graphics2d) {
+		graphics2d.setColor(color);
+		graphics2d.setStroke(new BasicStroke(strokeWidth));
+		stroke.forEachSegment(graphics2d::drawLine);
+	}
+
+	/**
+	 * This method is used to release the unused capacity of the stroke once it is
+	 * not extended anymore.
+	 */
+	public void trimToSize() {
+		stroke.trimToSize();
+	}
+
+	public PackedStroke getStroke() {
+		return stroke;
+	}
+
+	/**
+	 * This method is used to add a point at the end of the stroke, and fetch the
+	 * area touched by the new segment. It is called by the canvas holding the
+	 * operation.
+	 *
+	 * @param x
+	 * @param y
+	 * @return
+	 */
+	Rectangle addPoint(int x, int y) {
+		Rectangle segmentBounds = new Rectangle(stroke.getLastX(), stroke.getLastY(), 0, 0);
+		segmentBounds.add(x, y);
+		stroke.add(x, y);
+		bounds = pad(stroke.getBounds());
+		return pad(segmentBounds);
+	}
+
+	/**
+	 * This method is used to render a single segment of the stroke, drawn on the
+	 * cached tiles when the stroke is extended.
+	 *
+	 * @param graphics2d
+	 * @param x1
+	 * @param y1
+	 * @param x2
+	 * @param y2
+	 */
+	void renderSegment(Graphics2D graphics2d, int x1, int y1, int x2, int y2) {
+		graphics2d.setColor(color);
+		graphics2d.setStroke(new BasicStroke(strokeWidth));
+		graphics2d.drawLine(x1, y1, x2, y2);
+	}
+
+	private Rectangle pad(Rectangle rectangle) {
+		rectangle.grow(padding, padding);
+		return rectangle;
+	}
+}
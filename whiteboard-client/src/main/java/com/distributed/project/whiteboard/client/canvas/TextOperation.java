@@ -0,0 +1,59 @@
+package com.distributed.project.whiteboard.client.canvas;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.font.FontRenderContext;
+
+/**
+ * This class is used to represent a text inserted on the board at a given
+ * baseline point.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class TextOperation implements CanvasOperation {
+
+	private static final Font TEXT_FONT = new Font(Font.DIALOG, Font.PLAIN, 12);
+	private static final FontRenderContext FONT_RENDER_CONTEXT = new FontRenderContext(null, true, true);
+
+	private final String text;
+	private final int x;
+	private final int y;
+	private final Color color;
+	private final Rectangle bounds;
+
+	/**
+	 * This constructor is used to initialize the text, its baseline point and the
+	 * color.
+	 * 
+	 * @param text
+	 * @param x
+	 * @param y
+	 * @param color
+	 */
+	public TextOperation(String text, int x, int y, Color color) {
+		this.text = text;
+		this.x = x;
+		this.y = y;
+		this.color = color;
+
+		// Measuring the text relative to the baseline point
+		this.bounds = TEXT_FONT.getStringBounds(text, FONT_RENDER_CONTEXT).getBounds();
+		this.bounds.translate(x, y);
+		this.bounds.grow(2, 2);
+	}
+
+	@Override
+	public Rectangle getBounds() {
+		return bounds;
+	}
+
+	@Override
+	public void render(Graphics2D graphics2d) {
+		graphics2d.setColor(color);
+		graphics2d.setFont(TEXT_FONT);
+		graphics2d.drawString(text, x, y);
+	}
+}
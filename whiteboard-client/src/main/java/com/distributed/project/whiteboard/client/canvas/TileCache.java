@@ -0,0 +1,122 @@
+package com.distributed.project.whiteboard.client.canvas;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * This class is used to cache the rendered tiles of the board. The least
+ * recently used tiles are evicted once the cache grows over the memory budget.
+ * 
+ * @implNote It is not thread safe, the access is guarded by
+ *           {@link TiledCanvas}.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class TileCache {
+
+	private final long memoryBudgetBytes;
+
+	// Access ordered map, so the eldest entry is the least recently used tile
+	private final Map<TileKey, CanvasTile> tiles = new LinkedHashMap<>(64, 0.75f, true);
+
+	private long usedBytes = 0;
+	private long evictionCount = 0;
+
+	/**
+	 * This constructor is used to initialize the cache with the given memory
+	 * budget.
+	 * 
+	 * @param memoryBudgetBytes
+	 */
+	public TileCache(long memoryBudgetBytes) {
+		this.memoryBudgetBytes = memoryBudgetBytes;
+	}
+
+	/**
+	 * This method is used to fetch a cached tile and mark it as recently used.
+	 * 
+	 * @param key
+	 * @return
+	 */
+	public CanvasTile get(TileKey key) {
+		return tiles.get(key);
+	}
+
+	/**
+	 * This method is used to add a rendered tile to the cache and evict the least
+	 * recently used tiles if the memory budget is exceeded.
+	 * 
+	 * @param tile
+	 */
+	public void put(CanvasTile tile) {
+		CanvasTile previous = tiles.put(tile.getKey(), tile);
+		if (previous != null) {
+			usedBytes -= previous.getSizeInBytes();
+		}
+		usedBytes += tile.getSizeInBytes();
+
+		// Evicting eldest tiles, always keeping the tile which was just added
+		Iterator<CanvasTile> iterator = tiles.values().iterator();
+		while (usedBytes > memoryBudgetBytes && tiles.size() > 1 && iterator.hasNext()) {
+			CanvasTile eldest = iterator.next();
+			iterator.remove();
+			usedBytes -= eldest.getSizeInBytes();
+			evictionCount++;
+		}
+	}
+
+	/**
+	 * This method is used to remove a tile from the cache, once its content is no
+	 * longer valid.
+	 * 
+	 * @param key
+	 */
+	public void invalidate(TileKey key) {
+		CanvasTile removed = tiles.remove(key);
+		if (removed != null) {
+			usedBytes -= removed.getSizeInBytes();
+		}
+	}
+
+	/**
+	 * This method is used to fetch the memory held by the cached tiles of each
+	 * level of the tile pyramid.
+	 * 
+	 * @return
+	 */
+	public SortedMap<Integer, Long> getMemoryUsageByLevel() {
+		SortedMap<Integer, Long> memoryUsageByLevel = new TreeMap<>();
+		for (CanvasTile tile : tiles.values()) {
+			memoryUsageByLevel.merge(tile.getKey().getLevel(), tile.getSizeInBytes(), Long::sum);
+		}
+		return memoryUsageByLevel;
+	}
+
+	/**
+	 * This method is used to remove all the tiles from the cache.
+	 */
+	public void clear() {
+		tiles.clear();
+		usedBytes = 0;
+	}
+
+	public int size() {
+		return tiles.size();
+	}
+
+	public long getUsedBytes() {
+		return usedBytes;
+	}
+
+	public long getMemoryBudgetBytes() {
+		return memoryBudgetBytes;
+	}
+
+	public long getEvictionCount() {
+		return evictionCount;
+	}
+}
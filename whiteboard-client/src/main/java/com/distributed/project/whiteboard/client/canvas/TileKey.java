@@ -0,0 +1,68 @@
+package com.distributed.project.whiteboard.client.canvas;
+
+/**
+ * This class is used as the key of a tile in the board, identified by its level
+ * in the tile pyramid and its column and row in the tile grid of that level.
+ * 
+ * @implNote A tile on level n covers 2^n x 2^n tiles of level 0, so its column
+ *           and row are the level 0 column and row shifted right by n.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public final class TileKey {
+
+	private final int level;
+	private final int x;
+	private final int y;
+
+	public TileKey(int level, int x, int y) {
+		this.level = level;
+		this.x = x;
+		this.y = y;
+	}
+
+	public int getLevel() {
+		return level;
+	}
+
+	public int getX() {
+		return x;
+	}
+
+	public int getY() {
+		return y;
+	}
+
+	/**
+	 * This method is used to fetch the key of the tile one level up in the pyramid
+	 * which covers this tile.
+	 * 
+	 * @return
+	 */
+	public TileKey getParent() {
+		return new TileKey(level + 1, x >> 1, y >> 1);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 * level + x) + y;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof TileKey)) {
+			return false;
+		}
+		TileKey other = (TileKey) obj;
+		return level == other.level && x == other.x && y == other.y;
+	}
+
+	@Override
+	public String toString() {
+		return "TileKey [level=" + level + ", x=" + x + ", y=" + y + "]";
+	}
+}
@@ -0,0 +1,354 @@
+package com.distributed.project.whiteboard.client.canvas;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class is used to maintain an unbounded board split into fixed size
+ * tiles. Every drawing operation is recorded against the tiles it touches, and
+ * tiles are rendered lazily only when they are visible in the viewport.
+ * 
+ * @implNote Rendered tiles are kept in a {@link TileCache}. Evicted tiles are
+ *           rendered again from the recorded operations when they are scrolled
+ *           back into view.
+ * 
+ * @implNote Tiles form a pyramid for zooming out. A tile on level n is built by
+ *           downsampling the four tiles below it on level n - 1, so a zoomed out
+ *           view composites a few coarse tiles instead of drawing every
+ *           operation. Coarse tiles are built lazily and only the ones covering a
+ *           changed tile are invalidated.
+ * 
+ * @implNote All the methods are synchronized since operations are applied by
+ *           the event listener thread while the tiles are painted on the event
+ *           dispatch thread.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class TiledCanvas {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TiledCanvas.class);
+
+	private final int tileSize;
+	private final int maxLevel;
+	private final TileCache tileCache;
+
+	// Shared white tile for the areas of the board which are not drawn on
+	private final BufferedImage blankTileImage;
+
+	// Operations applied on the board in order
+	private final List<CanvasOperation> operations = new ArrayList<>();
+
+	// Operations touching each level 0 tile, used to render a tile again
+	private final Map<TileKey, List<CanvasOperation>> tileOperations = new HashMap<>();
+
+	// Tiles of every level which cover at least one operation
+	private final Set<TileKey> occupiedTiles = new HashSet<>();
+
+	// Area of the board which has been drawn on
+	private Rectangle contentBounds = null;
+
+	/**
+	 * This constructor is used to initialize the tile size, the number of levels
+	 * of the tile pyramid and the memory budget of the tile cache.
+	 * 
+	 * @param tileSize
+	 * @param maxLevel
+	 * @param memoryBudgetBytes
+	 */
+	public TiledCanvas(int tileSize, int maxLevel, long memoryBudgetBytes) {
+		this.tileSize = tileSize;
+		this.maxLevel = maxLevel;
+		this.tileCache = new TileCache(memoryBudgetBytes);
+
+		// Creating the blank tile
+		this.blankTileImage = new BufferedImage(tileSize, tileSize, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics2d = blankTileImage.createGraphics();
+		graphics2d.setPaint(Color.WHITE);
+		graphics2d.fillRect(0, 0, tileSize, tileSize);
+		graphics2d.dispose();
+	}
+
+	/**
+	 * This method is used to apply an operation on the board. It is recorded for
+	 * every tile it touches and drawn directly on the level 0 tiles already cached.
+	 * The coarse tiles covering them are invalidated to be built again when
+	 * visible.
+	 * 
+	 * @param operation
+	 */
+	public synchronized void apply(CanvasOperation operation) {
+		operations.add(operation);
+		record(operation, operation.getBounds(), operation::render, false);
+	}
+
+	/**
+	 * This method is used to extend a stroke already applied on the board with a
+	 * new point. Only the new segment is drawn on the cached tiles, and the
+	 * stroke is recorded for the tiles it reaches for the first time. The area
+	 * touched by the new segment is returned.
+	 * 
+	 * @param operation
+	 * @param x
+	 * @param y
+	 * @return
+	 */
+	public synchronized Rectangle extend(StrokeOperation operation, int x, int y) {
+		int fromX = operation.getStroke().getLastX();
+		int fromY = operation.getStroke().getLastY();
+		Rectangle segmentBounds = operation.addPoint(x, y);
+		record(operation, segmentBounds,
+				graphics2d -> operation.renderSegment(graphics2d, fromX, fromY, x, y), true);
+		return segmentBounds;
+	}
+
+	/**
+	 * This method is used to clear the board by removing all the operations and
+	 * rendered tiles.
+	 */
+	public synchronized void clear() {
+		operations.clear();
+		tileOperations.clear();
+		occupiedTiles.clear();
+		tileCache.clear();
+		contentBounds = null;
+	}
+
+	/**
+	 * This method is used to paint the given viewport of the board at the given
+	 * scale. The viewport is given in board coordinates and painted at the origin
+	 * of the graphics. The level of the pyramid closest to the scale is used.
+	 * 
+	 * @param graphics2d
+	 * @param viewport
+	 * @param scale
+	 */
+	public synchronized void paint(Graphics2D graphics2d, Rectangle viewport, double scale) {
+		int level = getLevelForScale(scale);
+
+		// Area of the board covered by a single tile of the level
+		int tileSpan = tileSize << level;
+
+		if (scale != 1) {
+			graphics2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		}
+
+		int firstColumn = Math.floorDiv(viewport.x, tileSpan);
+		int lastColumn = Math.floorDiv(viewport.x + viewport.width - 1, tileSpan);
+		int firstRow = Math.floorDiv(viewport.y, tileSpan);
+		int lastRow = Math.floorDiv(viewport.y + viewport.height - 1, tileSpan);
+		for (int column = firstColumn; column <= lastColumn; column++) {
+			// Computing the screen edges from the board edges to avoid seams
+			int left = (int) Math.round(((long) column * tileSpan - viewport.x) * scale);
+			int right = (int) Math.round(((long) (column + 1) * tileSpan - viewport.x) * scale);
+			for (int row = firstRow; row <= lastRow; row++) {
+				int top = (int) Math.round(((long) row * tileSpan - viewport.y) * scale);
+				int bottom = (int) Math.round(((long) (row + 1) * tileSpan - viewport.y) * scale);
+
+				BufferedImage tileImage = getTileImage(new TileKey(level, column, row));
+				graphics2d.drawImage(tileImage, left, top, right - left, bottom - top, null);
+			}
+		}
+	}
+
+	/**
+	 * This method is used to render the given area of the board onto a new image,
+	 * used for saving the board or sending it to other users.
+	 * 
+	 * @param area
+	 * @return
+	 */
+	public synchronized BufferedImage renderArea(Rectangle area) {
+		BufferedImage image = new BufferedImage(area.width, area.height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics2d = image.createGraphics();
+		graphics2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		graphics2d.setPaint(Color.WHITE);
+		graphics2d.fillRect(0, 0, area.width, area.height);
+		graphics2d.translate(-area.x, -area.y);
+		for (CanvasOperation operation : operations) {
+			if (operation.getBounds().intersects(area)) {
+				operation.render(graphics2d);
+			}
+		}
+		graphics2d.dispose();
+		return image;
+	}
+
+	/**
+	 * This method is used to fetch the area of the board which has been drawn on.
+	 * 
+	 * @return
+	 */
+	public synchronized Rectangle getContentBounds() {
+		return contentBounds == null ? null : new Rectangle(contentBounds);
+	}
+
+	/**
+	 * This method is used to fetch the memory held by the cached tiles of each
+	 * level of the tile pyramid.
+	 * 
+	 * @return
+	 */
+	public synchronized Map<Integer, Long> getMemoryUsageByLevel() {
+		return tileCache.getMemoryUsageByLevel();
+	}
+
+	/**
+	 * This method is used to fetch the level of the tile pyramid used to paint at
+	 * the given scale. Every level halves the resolution of the one below it.
+	 * 
+	 * @param scale
+	 * @return
+	 */
+	public int getLevelForScale(double scale) {
+		if (scale >= 1) {
+			return 0;
+		}
+		int level = (int) Math.floor(Math.log(1 / scale) / Math.log(2));
+		return Math.min(level, maxLevel);
+	}
+
+	/**
+	 * This method is used to record an operation against the level 0 tiles the
+	 * given area touches and draw it on the ones already cached. The coarse tiles
+	 * covering them are invalidated to be built again when visible.
+	 * 
+	 * @param operation
+	 * @param bounds
+	 * @param renderer
+	 * @param isExtension
+	 */
+	private void record(CanvasOperation operation, Rectangle bounds, Consumer<Graphics2D> renderer,
+			boolean isExtension) {
+		contentBounds = contentBounds == null ? new Rectangle(bounds) : contentBounds.union(bounds);
+
+		// Iterating over the level 0 tiles touched by the operation
+		int firstColumn = Math.floorDiv(bounds.x, tileSize);
+		int lastColumn = Math.floorDiv(bounds.x + bounds.width, tileSize);
+		int firstRow = Math.floorDiv(bounds.y, tileSize);
+		int lastRow = Math.floorDiv(bounds.y + bounds.height, tileSize);
+		for (int column = firstColumn; column <= lastColumn; column++) {
+			for (int row = firstRow; row <= lastRow; row++) {
+				TileKey key = new TileKey(0, column, row);
+				List<CanvasOperation> keyOperations = tileOperations.computeIfAbsent(key, k -> new ArrayList<>());
+
+				// An extended stroke is usually the last operation of its tiles
+				if (!isExtension || keyOperations.lastIndexOf(operation) < 0) {
+					keyOperations.add(operation);
+				}
+
+				// Off-screen tiles not in cache are rendered when scrolled into view
+				CanvasTile tile = tileCache.get(key);
+				if (tile != null) {
+					Graphics2D graphics2d = createTileGraphics(tile);
+					renderer.accept(graphics2d);
+					graphics2d.dispose();
+				}
+
+				// Marking the tile and invalidating its ancestors up the pyramid
+				occupiedTiles.add(key);
+				for (TileKey parent = key.getParent(); parent.getLevel() <= maxLevel; parent = parent.getParent()) {
+					occupiedTiles.add(parent);
+					tileCache.invalidate(parent);
+				}
+			}
+		}
+	}
+
+	/**
+	 * This method is used to fetch the image of a tile. Tiles which are not drawn
+	 * on share the blank tile, others are fetched from the cache or rendered if
+	 * they are not cached.
+	 * 
+	 * @param key
+	 * @return
+	 */
+	private BufferedImage getTileImage(TileKey key) {
+		if (!occupiedTiles.contains(key)) {
+			return blankTileImage;
+		}
+
+		CanvasTile tile = tileCache.get(key);
+		if (tile == null) {
+			tile = key.getLevel() == 0 ? renderTile(key) : downsampleTile(key);
+			tileCache.put(tile);
+			LOGGER.debug("Rendered {}, cached tiles {}, cache size {} bytes", key, tileCache.size(),
+					tileCache.getUsedBytes());
+		}
+		return tile.getImage();
+	}
+
+	/**
+	 * This method is used to render a level 0 tile from the operations recorded
+	 * against it.
+	 * 
+	 * @param key
+	 * @return
+	 */
+	private CanvasTile renderTile(TileKey key) {
+		CanvasTile tile = new CanvasTile(key, new BufferedImage(tileSize, tileSize, BufferedImage.TYPE_INT_RGB));
+
+		Graphics2D graphics2d = createTileGraphics(tile);
+		graphics2d.setPaint(Color.WHITE);
+		graphics2d.fillRect(key.getX() * tileSize, key.getY() * tileSize, tileSize, tileSize);
+		for (CanvasOperation operation : tileOperations.getOrDefault(key, Collections.emptyList())) {
+			operation.render(graphics2d);
+		}
+		graphics2d.dispose();
+		return tile;
+	}
+
+	/**
+	 * This method is used to build a coarse tile by downsampling the four tiles
+	 * one level below it, which are fetched or built lazily themselves.
+	 * 
+	 * @param key
+	 * @return
+	 */
+	private CanvasTile downsampleTile(TileKey key) {
+		CanvasTile tile = new CanvasTile(key, new BufferedImage(tileSize, tileSize, BufferedImage.TYPE_INT_RGB));
+		int halfSize = tileSize / 2;
+
+		Graphics2D graphics2d = tile.getImage().createGraphics();
+		graphics2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		graphics2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+		for (int column = 0; column < 2; column++) {
+			for (int row = 0; row < 2; row++) {
+				BufferedImage childImage = getTileImage(
+						new TileKey(key.getLevel() - 1, key.getX() * 2 + column, key.getY() * 2 + row));
+				graphics2d.drawImage(childImage, column * halfSize, row * halfSize, halfSize, halfSize, null);
+			}
+		}
+		graphics2d.dispose();
+		return tile;
+	}
+
+	/**
+	 * This method is used to create graphics for a level 0 tile which is
+	 * translated to board coordinates and clipped to the tile.
+	 * 
+	 * @param tile
+	 * @return
+	 */
+	private Graphics2D createTileGraphics(CanvasTile tile) {
+		Graphics2D graphics2d = tile.getImage().createGraphics();
+		graphics2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		graphics2d.translate(-tile.getKey().getX() * tileSize, -tile.getKey().getY() * tileSize);
+		graphics2d.clipRect(tile.getKey().getX() * tileSize, tile.getKey().getY() * tileSize, tileSize, tileSize);
+		return graphics2d;
+	}
+}
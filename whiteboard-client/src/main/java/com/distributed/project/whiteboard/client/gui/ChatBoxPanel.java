@@ -23,9 +23,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.distributed.project.whiteboard.client.WhiteboardClient;
-import com.distributed.project.whiteboard.client.dto.ActionMessageDto;
-import com.distributed.project.whiteboard.client.utilities.Constants;
 import com.distributed.project.whiteboard.client.utilities.AESUtils;
+import com.distributed.project.whiteboard.client.utilities.Constants;
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
 
 /**
  * This class is used to initiate the chat box panel UI. It creates a message
@@ -137,7 +138,7 @@ public class ChatBoxPanel extends JPanel implements ActionListener {
 
 			// Creating and adding chat message event to the queue
 			whiteboardClient.getActionList().add(new ActionMessageDto(whiteboardClient.getUserInfo(),
-					Constants.ACTION_CHAT, null, null, null, null, null, null, encryptedText));
+					ProtocolConstants.ACTION_CHAT, null, null, null, null, null, null, encryptedText));
 
 			// Clearing the type message field for next user input
 			typeMessageField.setText(StringUtils.EMPTY);
@@ -15,8 +15,9 @@ import javax.swing.border.LineBorder;
 import org.apache.commons.lang3.StringUtils;
 
 import com.distributed.project.whiteboard.client.WhiteboardClient;
-import com.distributed.project.whiteboard.client.dto.ActionMessageDto;
 import com.distributed.project.whiteboard.client.utilities.Constants;
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
 
 /**
  * This class is used for creating a coordinate bar at the bottom of the
@@ -81,8 +82,18 @@ public class CoordinateBar extends JPanel implements ActionListener {
 	 * @param coordinates
 	 */
 	public void setCoordinates(Point coordinates) {
-		coordinateLabel
-				.setText(String.valueOf(coordinates.x) + StringUtils.SPACE + "X" + StringUtils.SPACE + coordinates.y);
+		setCoordinates(coordinates.x, coordinates.y);
+	}
+
+	/**
+	 * This method is used to display the given coordinates in the coordinate bar,
+	 * without creating a point for every mouse event.
+	 * 
+	 * @param x
+	 * @param y
+	 */
+	public void setCoordinates(int x, int y) {
+		coordinateLabel.setText(String.valueOf(x) + StringUtils.SPACE + "X" + StringUtils.SPACE + y);
 	}
 
 	/**
@@ -101,7 +112,8 @@ public class CoordinateBar extends JPanel implements ActionListener {
 	@Override
 	public void actionPerformed(ActionEvent e) {
 		// Creating the exit event
-		ActionMessageDto exitUserEvent = new ActionMessageDto(whiteboardClient.getUserInfo(), Constants.ACTION_EXIT);
+		ActionMessageDto exitUserEvent = new ActionMessageDto(whiteboardClient.getUserInfo(),
+				ProtocolConstants.ACTION_EXIT);
 
 		// Adding the exit event to the queue
 		whiteboardClient.getActionList().add(exitUserEvent);
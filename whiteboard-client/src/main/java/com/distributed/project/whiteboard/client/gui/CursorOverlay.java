@@ -0,0 +1,139 @@
+package com.distributed.project.whiteboard.client.gui;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Polygon;
+import java.awt.Rectangle;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.distributed.project.whiteboard.client.utilities.Constants;
+
+/**
+ * This class is used to hold the cursors of the other members and paint them
+ * over the draw area.
+ *
+ * @implNote The cursors are painted over the visible tiles on every repaint,
+ *           instead of into the board, so moving a cursor only repaints the
+ *           small areas it leaves and enters. They are kept in board
+ *           coordinates, and painted at a fixed size at any zoom.
+ *
+ * @implNote It is only accessed from the event dispatch thread.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+class CursorOverlay {
+
+	// Size of the pointer, and of the screen area holding the pointer and its label
+	private static final int POINTER_SIZE = 10;
+	private static final int AREA_WIDTH = 130;
+	private static final int AREA_HEIGHT = 30;
+	private static final Font LABEL_FONT = new Font(Constants.FONT_LUCIDA_GRANDE, Font.PLAIN, 11);
+
+	private final Map<Long, RemoteCursor> cursors = new HashMap<>();
+
+	/**
+	 * This method is used to move the cursor of a member, adding it if it is not
+	 * shown yet.
+	 *
+	 * @param clientUID
+	 * @param name
+	 * @param x
+	 * @param y
+	 * @return the previous board point of the cursor, or null if it was not shown
+	 */
+	Point moveCursor(long clientUID, String name, int x, int y) {
+		RemoteCursor cursor = cursors.put(clientUID, new RemoteCursor(name, new Point(x, y), getColor(clientUID)));
+		return Objects.isNull(cursor) ? null : cursor.point;
+	}
+
+	/**
+	 * This method is used to remove the cursor of a member.
+	 *
+	 * @param clientUID
+	 * @return the previous board point of the cursor, or null if it was not shown
+	 */
+	Point removeCursor(long clientUID) {
+		RemoteCursor cursor = cursors.remove(clientUID);
+		return Objects.isNull(cursor) ? null : cursor.point;
+	}
+
+	/**
+	 * This method is used to paint the cursors over the viewport.
+	 *
+	 * @param graphics2d
+	 * @param viewX
+	 * @param viewY
+	 * @param scale
+	 */
+	void paint(Graphics2D graphics2d, double viewX, double viewY, double scale) {
+		Rectangle clip = graphics2d.getClipBounds();
+		for (RemoteCursor cursor : cursors.values()) {
+			Rectangle area = getScreenArea(cursor.point, viewX, viewY, scale);
+			if (Objects.nonNull(clip) && !clip.intersects(area)) {
+				continue;
+			}
+
+			// Drawing the pointer with its tip at the cursor, and the name beside it
+			int x = area.x + 1;
+			int y = area.y + 1;
+			graphics2d.setColor(cursor.color);
+			graphics2d.fillPolygon(new Polygon(new int[] { x, x, x + POINTER_SIZE * 7 / 10 },
+					new int[] { y, y + POINTER_SIZE, y + POINTER_SIZE * 7 / 10 }, 3));
+			graphics2d.setFont(LABEL_FONT);
+			graphics2d.drawString(cursor.name, x + POINTER_SIZE,
+					y + POINTER_SIZE + graphics2d.getFontMetrics().getAscent() / 2);
+		}
+	}
+
+	/**
+	 * This method is used to fetch the area of the draw area covered by a cursor
+	 * at the given board point.
+	 *
+	 * @param point
+	 * @param viewX
+	 * @param viewY
+	 * @param scale
+	 * @return
+	 */
+	static Rectangle getScreenArea(Point point, double viewX, double viewY, double scale) {
+		return new Rectangle((int) Math.floor((point.x - viewX) * scale) - 1,
+				(int) Math.floor((point.y - viewY) * scale) - 1, AREA_WIDTH, AREA_HEIGHT);
+	}
+
+	/**
+	 * This method is used to pick a color for the cursor of a member, which stays
+	 * the same across the clients.
+	 *
+	 * @param clientUID
+	 * @return
+	 */
+	private static Color getColor(long clientUID) {
+		return Color.getHSBColor(Math.floorMod(Long.hashCode(clientUID) * 47, 360) / 360f, 0.8f, 0.75f);
+	}
+
+	/**
+	 * This class is used to hold the name, board point and color of a cursor.
+	 *
+	 * @author Abhijeet - 1278218
+	 *
+	 */
+	private static class RemoteCursor {
+
+		private final String name;
+		private final Point point;
+		private final Color color;
+
+		RemoteCursor(String name, Point point, Color color) {
+			this.name = StringUtils.abbreviate(name, Constants.CURSOR_NAME_LENGTH);
+			this.point = point;
+			this.color = color;
+		}
+	}
+}
@@ -1,27 +1,45 @@
 package com.distributed.project.whiteboard.client.gui;
 
-import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
-import java.awt.Image;
 import java.awt.Point;
-import java.awt.RenderingHints;
+import java.awt.Polygon;
+import java.awt.Rectangle;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
+import java.awt.event.MouseWheelEvent;
+import java.awt.event.MouseWheelListener;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
 import java.awt.image.BufferedImage;
 import java.util.Objects;
 
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 import javax.swing.border.LineBorder;
 
 import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.distributed.project.whiteboard.client.WhiteboardClient;
-import com.distributed.project.whiteboard.client.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.client.canvas.CanvasOperation;
+import com.distributed.project.whiteboard.client.canvas.ImageOperation;
+import com.distributed.project.whiteboard.client.canvas.ShapeOperation;
+import com.distributed.project.whiteboard.client.canvas.StrokeOperation;
+import com.distributed.project.whiteboard.client.canvas.TextOperation;
+import com.distributed.project.whiteboard.client.canvas.TiledCanvas;
+import com.distributed.project.whiteboard.client.jfr.RepaintEvent;
 import com.distributed.project.whiteboard.client.utilities.Constants;
+import com.distributed.project.whiteboard.client.utilities.StrokeSimplificationUtils;
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.dto.CursorDto;
+import com.distributed.project.whiteboard.protocol.stroke.PackedStroke;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.distributed.project.whiteboard.protocol.utils.TypeConversionUtils;
 
 /**
  * This class is used to create the draw area for the user. It handles the
@@ -31,20 +49,54 @@ import com.distributed.project.whiteboard.client.utilities.Constants;
  * @implNote It extends {@link JPanel} to seggregate the code and easily
  *           integrate with the frame.
  * 
+ * @implNote The draw area is a viewport on an unbounded board maintained by
+ *           {@link TiledCanvas}. All the points sent and received are in board
+ *           coordinates, the viewport can be panned by dragging with the right
+ *           or middle mouse button and zoomed with the mouse wheel.
+ * 
+ * @implNote The cursors of the other members are painted by
+ *           {@link CursorOverlay} over the board, and the cursor of the current
+ *           user is handed to the client, which sends the latest one at a fixed
+ *           interval.
+ * 
+ * @implNote Free hand strokes are drawn locally as they are dragged, but are
+ *           sent to other clients in chunks simplified by
+ *           {@link StrokeSimplificationUtils} within the configured tolerance.
+ * 
  * @author Abhijeet - 1278218
  *
  */
-public class DrawArea extends JPanel implements MouseListener, MouseMotionListener {
+public class DrawArea extends JPanel implements MouseListener, MouseMotionListener, MouseWheelListener {
 
 	private static final long serialVersionUID = -921803482495204166L;
 
-	private Image image;
-	private Graphics2D graphics2d;
+	private static final Logger LOGGER = LoggerFactory.getLogger(DrawArea.class);
+
+	private TiledCanvas tiledCanvas;
 	private Point oldPoint = new Point(0, 0);
 	private Point currentPoint = new Point(0, 0);
-	private String selectedTool = Constants.TOOL_PENCIL;
+	private String selectedTool = ProtocolConstants.TOOL_PENCIL;
 	private Color selectedColor = Color.BLACK;
 
+	// Board coordinates of the top left corner of the viewport
+	private double viewX = 0;
+	private double viewY = 0;
+
+	// Screen pixels per board pixel, below 1 when zoomed out
+	private double scale = 1;
+
+	// Screen point where the current pan started, null if not panning
+	private Point panStartPoint = null;
+
+	// Free hand stroke being drawn, and its points not yet sent to other clients
+	private StrokeOperation strokeOperation = null;
+	private PackedStroke strokeChunk = null;
+	private double strokeTolerance;
+	private long simplifiedPointCount = 0;
+
+	// Cursors of the other members painted over the board
+	private CursorOverlay cursorOverlay = new CursorOverlay();
+
 	private boolean uiEnabled = false;
 
 	protected CoordinateBar coordinateBar;
@@ -71,33 +123,49 @@ public class DrawArea extends JPanel implements MouseListener, MouseMotionListen
 		setBounds(81, 70, 437, 324);
 		setBackground(Color.white);
 
+		// Initializing the board with the configured tile cache budget
+		tiledCanvas = new TiledCanvas(Constants.CANVAS_TILE_SIZE, Constants.CANVAS_MAX_LEVEL,
+				Long.getLong(Constants.PROP_TILE_CACHE_BYTES, Constants.DEFAULT_TILE_CACHE_BYTES));
+
+		// Reading the tolerance in pixels for simplifying free hand strokes
+		strokeTolerance = Double
+				.parseDouble(System.getProperty(Constants.PROP_STROKE_TOLERANCE, Constants.DEFAULT_STROKE_TOLERANCE));
+
 		// Marking double buffered as false
 		setDoubleBuffered(false);
 
 		// Adding mouse listeners
 		addMouseListener(this);
 		addMouseMotionListener(this);
+		addMouseWheelListener(this);
 
 		setEnabled(false);
 	}
 
 	/**
-	 * Overriding the paintComponent method to handle drawing and other actions on
-	 * the draw area jpanel.
+	 * Overriding the paintComponent method to paint the tiles of the board visible
+	 * in the current viewport at the current zoom.
 	 */
 	@Override
 	protected void paintComponent(Graphics g) {
-		if (image == null) {
-			image = createImage(getSize().width, getSize().height);
-			graphics2d = (Graphics2D) image.getGraphics();
-			graphics2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-			graphics2d.setPaint(Color.white);
-			graphics2d.fillRect(0, 0, getSize().width, getSize().height);
-			graphics2d.setPaint(Color.BLACK);
-		}
-		// Drawing image according to the graphics
+		super.paintComponent(g);
+
+		// Drawing the visible tiles of the board
 		if (uiEnabled) {
-			g.drawImage(image, 0, 0, null);
+			RepaintEvent repaintEvent = new RepaintEvent();
+			repaintEvent.begin();
+
+			tiledCanvas.paint((Graphics2D) g, getViewport(), scale);
+			cursorOverlay.paint((Graphics2D) g, viewX, viewY, scale);
+
+			repaintEvent.end();
+			if (repaintEvent.shouldCommit()) {
+				repaintEvent.width = getWidth();
+				repaintEvent.height = getHeight();
+				repaintEvent.scale = scale;
+				repaintEvent.level = tiledCanvas.getLevelForScale(scale);
+				repaintEvent.commit();
+			}
 		}
 	}
 
@@ -106,23 +174,32 @@ public class DrawArea extends JPanel implements MouseListener, MouseMotionListen
 	 */
 	@Override
 	public void mouseDragged(MouseEvent e) {
-		// Populating the first point
-		currentPoint = e.getPoint();
-
-		// Setting the coordinates in the coordinate bar
-		coordinateBar.setCoordinates(e.getPoint());
-
-		// Drawing line on drag for free hand drawing(pencil or eraser)
-		if (StringUtils.isNotBlank(selectedTool) && Constants.FREE_HAND_TOOLS.contains(selectedTool)) {
-			graphics2d.drawLine(oldPoint.x, oldPoint.y, currentPoint.x, currentPoint.y);
+		// Moving the viewport if the user is panning
+		if (Objects.nonNull(panStartPoint)) {
+			viewX -= (e.getX() - panStartPoint.x) / scale;
+			viewY -= (e.getY() - panStartPoint.y) / scale;
+			panStartPoint = e.getPoint();
 			repaint();
+			return;
+		}
 
-			// Sending event to other clients
-			sendEvent(new ActionMessageDto(whiteboardClient.getUserInfo(), Constants.ACTION_DRAW, selectedTool,
-					oldPoint, currentPoint, null, selectedColor, null, null));
-
-			// Marking current point as old point
-			oldPoint = currentPoint;
+		// Setting the coordinates in the coordinate bar
+		int x = toBoardX(e);
+		int y = toBoardY(e);
+		coordinateBar.setCoordinates(x, y);
+		updateCursor(new Point(x, y));
+
+		// Extending the stroke on drag for free hand drawing(pencil or eraser)
+		if (Objects.nonNull(strokeOperation)) {
+			repaintBoardArea(tiledCanvas.extend(strokeOperation, x, y));
+
+			// Sending the stroke to other clients once a chunk is collected
+			strokeChunk.add(x, y);
+			if (strokeChunk.size() >= Constants.STROKE_CHUNK_POINTS) {
+				flushStroke();
+			}
+		} else {
+			currentPoint = new Point(x, y);
 		}
 	}
 
@@ -131,21 +208,30 @@ public class DrawArea extends JPanel implements MouseListener, MouseMotionListen
 	 */
 	@Override
 	public void mousePressed(MouseEvent e) {
-		oldPoint = e.getPoint();
-		coordinateBar.setCoordinates(e.getPoint());
+		// Right or middle button is used for panning the viewport
+		if (SwingUtilities.isRightMouseButton(e) || SwingUtilities.isMiddleMouseButton(e)) {
+			panStartPoint = e.getPoint();
+			return;
+		}
 
-		switch (selectedTool) {
-		case Constants.TOOL_ERASER:
-			// If eraser is selected change color and stroke
-			graphics2d.setColor(Color.WHITE);
-			graphics2d.setStroke(new BasicStroke(20));
-			break;
-		case Constants.TOOL_TEXT:
-			// Inserting text as soon as user clicks
+		oldPoint = toBoardPoint(e);
+		coordinateBar.setCoordinates(oldPoint);
+
+		// Starting a new free hand stroke
+		strokeOperation = null;
+		strokeChunk = null;
+		if (StringUtils.isNotBlank(selectedTool) && Constants.FREE_HAND_TOOLS.contains(selectedTool)) {
+			boolean isEraser = ProtocolConstants.TOOL_ERASER.equals(selectedTool);
+			strokeOperation = new StrokeOperation(new PackedStroke(oldPoint.x, oldPoint.y),
+					isEraser ? Color.WHITE : selectedColor,
+					isEraser ? Constants.ERASER_STROKE_WIDTH : Constants.PENCIL_STROKE_WIDTH);
+			strokeChunk = new PackedStroke(oldPoint.x, oldPoint.y);
+			applyOperation(strokeOperation);
+		}
+
+		// Inserting text as soon as user clicks
+		if (ProtocolConstants.TOOL_TEXT.equals(selectedTool)) {
 			insertText();
-			break;
-		default:
-			break;
 		}
 	}
 
@@ -154,39 +240,95 @@ public class DrawArea extends JPanel implements MouseListener, MouseMotionListen
 	 */
 	@Override
 	public void mouseReleased(MouseEvent e) {
+		// Stopping the pan without drawing
+		if (Objects.nonNull(panStartPoint)) {
+			panStartPoint = null;
+			return;
+		}
+
 		switch (selectedTool) {
-		case Constants.TOOL_LINE:
-			currentPoint = e.getPoint();
+		case ProtocolConstants.TOOL_PENCIL:
+		case ProtocolConstants.TOOL_ERASER:
+			flushStroke();
+			if (Objects.nonNull(strokeOperation)) {
+				strokeOperation.trimToSize();
+				strokeOperation = null;
+			}
+			break;
+		case ProtocolConstants.TOOL_LINE:
+			currentPoint = toBoardPoint(e);
 			createLine(oldPoint, currentPoint, null);
-			sendEvent(new ActionMessageDto(whiteboardClient.getUserInfo(), Constants.ACTION_DRAW, selectedTool,
+			sendEvent(new ActionMessageDto(whiteboardClient.getUserInfo(), ProtocolConstants.ACTION_DRAW, selectedTool,
 					oldPoint, currentPoint, null, selectedColor, null, null));
 			break;
-		case Constants.TOOL_RECTANGLE:
-			currentPoint = e.getPoint();
+		case ProtocolConstants.TOOL_RECTANGLE:
+			currentPoint = toBoardPoint(e);
 			createRectangle(oldPoint, currentPoint, null);
-			sendEvent(new ActionMessageDto(whiteboardClient.getUserInfo(), Constants.ACTION_DRAW, selectedTool,
+			sendEvent(new ActionMessageDto(whiteboardClient.getUserInfo(), ProtocolConstants.ACTION_DRAW, selectedTool,
 					oldPoint, currentPoint, null, selectedColor, null, null));
 			break;
-		case Constants.TOOL_CIRCLE:
-			currentPoint = e.getPoint();
+		case ProtocolConstants.TOOL_CIRCLE:
+			currentPoint = toBoardPoint(e);
 			createCircle(oldPoint, currentPoint, null);
-			sendEvent(new ActionMessageDto(whiteboardClient.getUserInfo(), Constants.ACTION_DRAW, selectedTool,
+			sendEvent(new ActionMessageDto(whiteboardClient.getUserInfo(), ProtocolConstants.ACTION_DRAW, selectedTool,
 					oldPoint, currentPoint, null, selectedColor, null, null));
 			break;
-		case Constants.TOOL_TRIANGLE:
-			createTriangle(oldPoint, currentPoint, e.getPoint(), null);
-			sendEvent(new ActionMessageDto(whiteboardClient.getUserInfo(), Constants.ACTION_DRAW, selectedTool,
-					oldPoint, currentPoint, e.getPoint(), selectedColor, null, null));
-			break;
-		case Constants.TOOL_ERASER:
-			setSelectedColor(selectedColor);
-			graphics2d.setStroke(new BasicStroke(1));
+		case ProtocolConstants.TOOL_TRIANGLE:
+			createTriangle(oldPoint, currentPoint, toBoardPoint(e), null);
+			sendEvent(new ActionMessageDto(whiteboardClient.getUserInfo(), ProtocolConstants.ACTION_DRAW, selectedTool,
+					oldPoint, currentPoint, toBoardPoint(e), selectedColor, null, null));
 			break;
 		default:
 			break;
 		}
 	}
 
+	/**
+	 * This method is used to send the collected points of the free hand stroke to
+	 * other clients after simplifying them. The last point is kept to join the
+	 * next chunk of the stroke.
+	 */
+	private void flushStroke() {
+		if (Objects.isNull(strokeChunk) || strokeChunk.size() < 2) {
+			return;
+		}
+
+		// Simplifying the stroke within the tolerance
+		PackedStroke simplifiedStroke = StrokeSimplificationUtils.simplify(strokeChunk, strokeTolerance);
+		int removedPoints = strokeChunk.size() - simplifiedStroke.size();
+		simplifiedPointCount += removedPoints;
+		LOGGER.debug("Simplified stroke from {} to {} points, {} points removed in total", strokeChunk.size(),
+				simplifiedStroke.size(), simplifiedPointCount);
+
+		if (TypeConversionUtils.getCodecVersion() >= ProtocolConstants.PACKED_STROKE_CODEC_VERSION) {
+			// Sending the chunk as a single packed stroke
+			ActionMessageDto strokeEvent = new ActionMessageDto(whiteboardClient.getUserInfo(),
+					ProtocolConstants.ACTION_DRAW, selectedTool, null, null, null, selectedColor, null, null);
+			strokeEvent.setStroke(simplifiedStroke);
+			sendEvent(strokeEvent);
+		} else {
+			// Sending a line event for every simplified segment to older clients
+			simplifiedStroke.forEachSegment((x1, y1, x2, y2) -> sendEvent(
+					new ActionMessageDto(whiteboardClient.getUserInfo(), ProtocolConstants.ACTION_DRAW, selectedTool,
+							new Point(x1, y1), new Point(x2, y2), null, selectedColor, null, null)));
+		}
+
+		strokeChunk = new PackedStroke(strokeChunk.getLastX(), strokeChunk.getLastY());
+	}
+
+	/**
+	 * This method is used to draw a free hand stroke of the pencil or the eraser
+	 * sent by other clients.
+	 * 
+	 * @param stroke
+	 * @param secondaryColor
+	 * @param isEraser
+	 */
+	public void createStroke(PackedStroke stroke, Color secondaryColor, boolean isEraser) {
+		applyOperation(new StrokeOperation(stroke, isEraser ? Color.WHITE : getDrawColor(secondaryColor),
+				isEraser ? Constants.ERASER_STROKE_WIDTH : Constants.PENCIL_STROKE_WIDTH));
+	}
+
 	/**
 	 * This method is used to create lines between the given points in the
 	 * arguments.
@@ -196,12 +338,8 @@ public class DrawArea extends JPanel implements MouseListener, MouseMotionListen
 	 * @param secondaryColor
 	 */
 	public void createLine(Point firstPoint, Point secondPoint, Color secondaryColor) {
-		setSecondaryColor(secondaryColor);
-
-		graphics2d.drawLine(firstPoint.x, firstPoint.y, secondPoint.x, secondPoint.y);
-		repaint();
-
-		graphics2d.setColor(selectedColor);
+		applyOperation(new ShapeOperation(new Line2D.Float(firstPoint, secondPoint), getDrawColor(secondaryColor),
+				Constants.PENCIL_STROKE_WIDTH));
 	}
 
 	/**
@@ -213,17 +351,13 @@ public class DrawArea extends JPanel implements MouseListener, MouseMotionListen
 	 * @param secondaryColor
 	 */
 	public void createRectangle(Point firstPoint, Point secondPoint, Color secondaryColor) {
-		setSecondaryColor(secondaryColor);
-
 		int topLeftx = Math.min(firstPoint.x, secondPoint.x);
 		int topLefty = Math.min(firstPoint.y, secondPoint.y);
 		int width = Math.abs(secondPoint.x - firstPoint.x);
 		int height = Math.abs(secondPoint.y - firstPoint.y);
 
-		graphics2d.drawRect(topLeftx, topLefty, width, height);
-		repaint();
-
-		graphics2d.setColor(selectedColor);
+		applyOperation(new ShapeOperation(new Rectangle(topLeftx, topLefty, width, height),
+				getDrawColor(secondaryColor), Constants.PENCIL_STROKE_WIDTH));
 	}
 
 	/**
@@ -234,15 +368,11 @@ public class DrawArea extends JPanel implements MouseListener, MouseMotionListen
 	 * @param secondaryColor
 	 */
 	public void createCircle(Point firstPoint, Point secondPoint, Color secondaryColor) {
-		setSecondaryColor(secondaryColor);
-
 		int widthC = Math.abs(secondPoint.x - firstPoint.x);
 		int heightH = Math.abs(secondPoint.y - firstPoint.y);
 
-		graphics2d.drawOval(firstPoint.x, firstPoint.y, widthC, heightH);
-		repaint();
-
-		graphics2d.setColor(selectedColor);
+		applyOperation(new ShapeOperation(new Ellipse2D.Float(firstPoint.x, firstPoint.y, widthC, heightH),
+				getDrawColor(secondaryColor), Constants.PENCIL_STROKE_WIDTH));
 	}
 
 	/**
@@ -255,8 +385,6 @@ public class DrawArea extends JPanel implements MouseListener, MouseMotionListen
 	 * @param secondaryColor
 	 */
 	public void createTriangle(Point firstPoint, Point secondPoint, Point lastPoint, Color secondaryColor) {
-		setSecondaryColor(secondaryColor);
-
 		Point midPoint;
 		if (firstPoint.x > secondPoint.x) {
 			midPoint = new Point((secondPoint.x + (Math.abs(firstPoint.x - secondPoint.x) / 2)), lastPoint.y);
@@ -266,10 +394,8 @@ public class DrawArea extends JPanel implements MouseListener, MouseMotionListen
 		int[] xs = { firstPoint.x, secondPoint.x, midPoint.x };
 		int[] ys = { firstPoint.y, secondPoint.y, midPoint.y };
 
-		graphics2d.drawPolygon(xs, ys, 3);
-		repaint();
-
-		graphics2d.setColor(selectedColor);
+		applyOperation(new ShapeOperation(new Polygon(xs, ys, 3), getDrawColor(secondaryColor),
+				Constants.PENCIL_STROKE_WIDTH));
 	}
 
 	/**
@@ -281,26 +407,20 @@ public class DrawArea extends JPanel implements MouseListener, MouseMotionListen
 	 * @param secondaryColor
 	 */
 	public void createText(Point firstPoint, String text, Color secondaryColor) {
-		setSecondaryColor(secondaryColor);
-
-		graphics2d.drawString(text, firstPoint.x, firstPoint.y);
-		repaint();
-
-		graphics2d.setColor(selectedColor);
+		applyOperation(new TextOperation(text, firstPoint.x, firstPoint.y, getDrawColor(secondaryColor)));
 	}
 
 	/**
 	 * This method is used to take text input from the user once user selects text
 	 * input and clicks on a point in the whiteboard area.
-	 * 
+	 *
 	 */
 	private void insertText() {
 		String inputText = (String) JOptionPane.showInputDialog(this, "Please input text in the below field",
 				"Text Input", JOptionPane.PLAIN_MESSAGE, null, null, "input");
 		if (StringUtils.isNotEmpty(inputText)) {
-			graphics2d.drawString(inputText, oldPoint.x, oldPoint.y);
-			repaint();
-			sendEvent(new ActionMessageDto(whiteboardClient.getUserInfo(), Constants.ACTION_DRAW, selectedTool,
+			createText(oldPoint, inputText, null);
+			sendEvent(new ActionMessageDto(whiteboardClient.getUserInfo(), ProtocolConstants.ACTION_DRAW, selectedTool,
 					oldPoint, null, null, selectedColor, inputText, null));
 		}
 	}
@@ -313,23 +433,15 @@ public class DrawArea extends JPanel implements MouseListener, MouseMotionListen
 	 * @param secondPoint
 	 */
 	public void eraserAction(Point firstPoint, Point secondPoint) {
-		graphics2d.setColor(Color.WHITE);
-		graphics2d.setStroke(new BasicStroke(20));
-		graphics2d.drawLine(firstPoint.x, firstPoint.y, secondPoint.x, secondPoint.y);
-
-		repaint();
-
-		setSelectedColor(selectedColor);
-		graphics2d.setStroke(new BasicStroke(1));
+		applyOperation(new ShapeOperation(new Line2D.Float(firstPoint, secondPoint), Color.WHITE,
+				Constants.ERASER_STROKE_WIDTH));
 	}
 
 	/**
 	 * This method is used to clear the whiteboard.
 	 */
 	public void clear() {
-		graphics2d.setPaint(Color.white);
-		graphics2d.fillRect(0, 0, getSize().width, getSize().height);
-		setSelectedColor(selectedColor);
+		tiledCanvas.clear();
 		repaint();
 	}
 
@@ -339,8 +451,126 @@ public class DrawArea extends JPanel implements MouseListener, MouseMotionListen
 	 * @param bufferedImage
 	 */
 	public void loadImage(BufferedImage bufferedImage) {
-		clear();
-		graphics2d.drawImage(bufferedImage, 0, 0, null);
+		loadImage(bufferedImage, null);
+	}
+
+	/**
+	 * This method is used to load an image on the draw area with its top left
+	 * corner at the given board point. The board origin is used if the point is
+	 * null.
+	 * 
+	 * @param bufferedImage
+	 * @param origin
+	 */
+	public void loadImage(BufferedImage bufferedImage, Point origin) {
+		tiledCanvas.clear();
+		applyOperation(Objects.isNull(origin) ? new ImageOperation(bufferedImage, 0, 0)
+				: new ImageOperation(bufferedImage, origin.x, origin.y));
+	}
+
+	/**
+	 * This method is used to fetch the area of the board to be saved or sent to
+	 * other users. It covers everything drawn on the board and the area starting
+	 * from the board origin with the size of the draw area.
+	 * 
+	 * @return
+	 */
+	public Rectangle getBoardBounds() {
+		Rectangle boardBounds = new Rectangle(0, 0, getWidth(), getHeight());
+		Rectangle contentBounds = tiledCanvas.getContentBounds();
+		if (Objects.nonNull(contentBounds)) {
+			boardBounds.add(contentBounds);
+		}
+		return boardBounds;
+	}
+
+	/**
+	 * This method is used to render the given area of the board onto an image.
+	 * 
+	 * @param boardBounds
+	 * @return
+	 */
+	public BufferedImage createBoardImage(Rectangle boardBounds) {
+		return tiledCanvas.renderArea(boardBounds);
+	}
+
+	/**
+	 * This method is used to apply an operation on the board and repaint the area
+	 * of the viewport touched by it.
+	 * 
+	 * @param canvasOperation
+	 */
+	private void applyOperation(CanvasOperation canvasOperation) {
+		tiledCanvas.apply(canvasOperation);
+		repaintBoardArea(canvasOperation.getBounds());
+	}
+
+	/**
+	 * This method is used to repaint the area of the viewport showing the given
+	 * area of the board.
+	 * 
+	 * @param bounds
+	 */
+	private void repaintBoardArea(Rectangle bounds) {
+		repaint((int) Math.floor((bounds.x - viewX) * scale), (int) Math.floor((bounds.y - viewY) * scale),
+				(int) Math.ceil(bounds.width * scale) + 2, (int) Math.ceil(bounds.height * scale) + 2);
+	}
+
+	/**
+	 * This method is used to fetch the area of the board visible in the draw area
+	 * at the current zoom.
+	 * 
+	 * @return
+	 */
+	private Rectangle getViewport() {
+		return new Rectangle((int) Math.floor(viewX), (int) Math.floor(viewY),
+				(int) Math.ceil(getWidth() / scale) + 1, (int) Math.ceil(getHeight() / scale) + 1);
+	}
+
+	/**
+	 * This method is used to convert the point of a mouse event in the draw area to
+	 * the board coordinates.
+	 * 
+	 * @param e
+	 * @return
+	 */
+	private Point toBoardPoint(MouseEvent e) {
+		return new Point(toBoardX(e), toBoardY(e));
+	}
+
+	/**
+	 * This method is used to convert the x coordinate of a mouse event in the draw
+	 * area to the board coordinates, limited to the board.
+	 * 
+	 * @param e
+	 * @return
+	 */
+	private int toBoardX(MouseEvent e) {
+		return (int) Math.max(-ProtocolConstants.MAX_BOARD_COORDINATE,
+				Math.min(ProtocolConstants.MAX_BOARD_COORDINATE, Math.floor(viewX + e.getX() / scale)));
+	}
+
+	/**
+	 * This method is used to convert the y coordinate of a mouse event in the draw
+	 * area to the board coordinates, limited to the board.
+	 * 
+	 * @param e
+	 * @return
+	 */
+	private int toBoardY(MouseEvent e) {
+		return (int) Math.max(-ProtocolConstants.MAX_BOARD_COORDINATE,
+				Math.min(ProtocolConstants.MAX_BOARD_COORDINATE, Math.floor(viewY + e.getY() / scale)));
+	}
+
+	/**
+	 * This method is used to fetch the color to draw with, the secondary color is
+	 * used for events from other clients and the selected color otherwise.
+	 * 
+	 * @param secondaryColor
+	 * @return
+	 */
+	private Color getDrawColor(Color secondaryColor) {
+		return Objects.nonNull(secondaryColor) ? secondaryColor : selectedColor;
 	}
 
 	/**
@@ -355,12 +585,55 @@ public class DrawArea extends JPanel implements MouseListener, MouseMotionListen
 		}
 	}
 
+	/**
+	 * This method is used to hand the cursor of the current user to the client,
+	 * once the user has been accepted.
+	 * 
+	 * @param point the board point of the cursor, or null to hide it
+	 */
+	private void updateCursor(Point point) {
+		if (uiEnabled) {
+			whiteboardClient.updateCursor(point);
+		}
+	}
+
+	/**
+	 * This method is used to show a cursor of another member at its new board
+	 * point, or to hide it. It repaints only the areas the cursor leaves and
+	 * enters.
+	 * 
+	 * @param cursor
+	 * @param name
+	 */
+	public void showCursor(CursorDto cursor, String name) {
+		Point oldCursorPoint = cursor.isVisible()
+				? cursorOverlay.moveCursor(cursor.getClientUID(), name, cursor.getX(), cursor.getY())
+				: cursorOverlay.removeCursor(cursor.getClientUID());
+		repaintCursorArea(oldCursorPoint);
+		if (cursor.isVisible()) {
+			repaintCursorArea(new Point(cursor.getX(), cursor.getY()));
+		}
+	}
+
+	/**
+	 * This method is used to repaint the area of the viewport covered by a cursor
+	 * at the given board point.
+	 * 
+	 * @param point
+	 */
+	private void repaintCursorArea(Point point) {
+		if (Objects.nonNull(point)) {
+			repaint(CursorOverlay.getScreenArea(point, viewX, viewY, scale));
+		}
+	}
+
 	/**
 	 * This method is used to enable UI after the user has been accepted.
 	 */
 	public void enableUIAfterVerification() {
 		uiEnabled = true;
 		setEnabled(true);
+		repaint();
 	}
 
 	public String getSelectedTool() {
@@ -377,13 +650,10 @@ public class DrawArea extends JPanel implements MouseListener, MouseMotionListen
 
 	public void setSelectedColor(Color selectedColor) {
 		this.selectedColor = selectedColor;
-		graphics2d.setColor(selectedColor);
 	}
 
-	public void setSecondaryColor(Color secondaryColor) {
-		if (Objects.nonNull(secondaryColor)) {
-			graphics2d.setColor(secondaryColor);
-		}
+	public long getSimplifiedPointCount() {
+		return simplifiedPointCount;
 	}
 
 	/**
@@ -392,7 +662,33 @@ public class DrawArea extends JPanel implements MouseListener, MouseMotionListen
 	 */
 	@Override
 	public void mouseMoved(MouseEvent e) {
-		coordinateBar.setCoordinates(e.getPoint());
+		Point point = toBoardPoint(e);
+		coordinateBar.setCoordinates(point);
+		updateCursor(point);
+	}
+
+	/**
+	 * This method is called whenever the user scrolls the mouse wheel on the draw
+	 * area. It zooms the board in or out keeping the board point under the mouse in
+	 * place.
+	 */
+	@Override
+	public void mouseWheelMoved(MouseWheelEvent e) {
+		double newScale = scale * Math.pow(Constants.CANVAS_ZOOM_STEP, -e.getPreciseWheelRotation());
+		newScale = Math.max(Constants.CANVAS_MIN_SCALE, Math.min(Constants.CANVAS_MAX_SCALE, newScale));
+
+		// Moving the viewport so the board point under the mouse stays in place
+		viewX += e.getX() / scale - e.getX() / newScale;
+		viewY += e.getY() / scale - e.getY() / newScale;
+
+		// Reporting the tile cache memory whenever the pyramid level changes
+		if (tiledCanvas.getLevelForScale(newScale) != tiledCanvas.getLevelForScale(scale)) {
+			LOGGER.info("Zoom level changed to {}, tile cache memory by level {}",
+					tiledCanvas.getLevelForScale(newScale), tiledCanvas.getMemoryUsageByLevel());
+		}
+
+		scale = newScale;
+		repaint();
 	}
 
 	@Override
@@ -403,7 +699,12 @@ public class DrawArea extends JPanel implements MouseListener, MouseMotionListen
 	public void mouseEntered(MouseEvent e) {
 	}
 
+	/**
+	 * This method is called whenever the mouse leaves the draw area. It hides the
+	 * cursor of the current user from the other clients.
+	 */
 	@Override
 	public void mouseExited(MouseEvent e) {
+		updateCursor(null);
 	}
 }
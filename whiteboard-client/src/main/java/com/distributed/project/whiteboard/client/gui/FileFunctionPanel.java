@@ -1,7 +1,6 @@
 package com.distributed.project.whiteboard.client.gui;
 
 import java.awt.Color;
-import java.awt.Graphics2D;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.image.BufferedImage;
@@ -25,8 +24,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.distributed.project.whiteboard.client.WhiteboardClient;
-import com.distributed.project.whiteboard.client.dto.ActionMessageDto;
 import com.distributed.project.whiteboard.client.utilities.Constants;
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
 
 /**
  * This class is used for creating the file function panel. It is used for file
@@ -198,7 +198,7 @@ public class FileFunctionPanel extends JPanel implements ActionListener {
 
 			// Creating load image event for other users to load the same image as manager
 			ActionMessageDto loadFileEvent = new ActionMessageDto(whiteboardClient.getUserInfo(),
-					Constants.ACTION_LOAD_IMAGE);
+					ProtocolConstants.ACTION_LOAD_IMAGE);
 
 			// Converting the selected file to array of bytes
 			byte[] bytes = Files.readAllBytes(openFile.toPath());
@@ -309,7 +309,8 @@ public class FileFunctionPanel extends JPanel implements ActionListener {
 		drawArea.clear();
 
 		// Creating the clear event for other clients to clear as well
-		ActionMessageDto clearEvent = new ActionMessageDto(whiteboardClient.getUserInfo(), Constants.ACTION_CLEAR);
+		ActionMessageDto clearEvent = new ActionMessageDto(whiteboardClient.getUserInfo(),
+				ProtocolConstants.ACTION_CLEAR);
 
 		// Adding event to the queue
 		whiteboardClient.getActionList().add(clearEvent);
@@ -355,15 +356,8 @@ public class FileFunctionPanel extends JPanel implements ActionListener {
 	 * @throws IOException
 	 */
 	private void convertDrawAreaToFile(File selectedFile) throws IOException {
-		// Creating buffered image
-		BufferedImage bufferedImage = new BufferedImage(drawArea.getSize().width, drawArea.getSize().height,
-				BufferedImage.TYPE_INT_RGB);
-
-		// Creating graphics for buffered image
-		Graphics2D graphics2d = bufferedImage.createGraphics();
-
-		// Printing draw area onto the buffered image
-		drawArea.print(graphics2d);
+		// Rendering the drawn area of the board onto a buffered image
+		BufferedImage bufferedImage = drawArea.createBoardImage(drawArea.getBoardBounds());
 
 		// Writing the image onto the file
 		ImageIO.write(bufferedImage, "png", selectedFile);
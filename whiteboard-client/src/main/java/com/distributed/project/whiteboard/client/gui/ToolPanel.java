@@ -18,6 +18,7 @@ import org.kordamp.ikonli.swing.FontIcon;
 
 import com.distributed.project.whiteboard.client.WhiteboardClient;
 import com.distributed.project.whiteboard.client.utilities.Constants;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
 
 /**
  * This class is used for creating the tool bar. It is used to display all the
@@ -72,7 +73,7 @@ public class ToolPanel extends JPanel implements ActionListener {
 		// Creating the pencil tool button
 		pencil = new JButton(FontIcon.of(BoxiconsRegular.PENCIL, 20));
 		pencil.setBounds(6, 6, 29, 29);
-		pencil.setActionCommand(Constants.TOOL_PENCIL);
+		pencil.setActionCommand(ProtocolConstants.TOOL_PENCIL);
 		pencil.setToolTipText("For free hand drawing");
 		pencil.addActionListener(this);
 		pencil.setEnabled(false);
@@ -83,7 +84,7 @@ public class ToolPanel extends JPanel implements ActionListener {
 		// Creating the eraser tool button
 		eraser = new JButton(FontIcon.of(BoxiconsRegular.ERASER, 20));
 		eraser.setBounds(47, 6, 29, 29);
-		eraser.setActionCommand(Constants.TOOL_ERASER);
+		eraser.setActionCommand(ProtocolConstants.TOOL_ERASER);
 		eraser.setToolTipText("For erasing the drawing");
 		eraser.addActionListener(this);
 		eraser.setEnabled(false);
@@ -94,7 +95,7 @@ public class ToolPanel extends JPanel implements ActionListener {
 		// Creating the line tool button
 		line = new JButton(FontIcon.of(BoxiconsRegular.MOVE_VERTICAL, 20));
 		line.setBounds(6, 47, 29, 29);
-		line.setActionCommand(Constants.TOOL_LINE);
+		line.setActionCommand(ProtocolConstants.TOOL_LINE);
 		line.setToolTipText("For drawing a line");
 		line.addActionListener(this);
 		line.setEnabled(false);
@@ -105,7 +106,7 @@ public class ToolPanel extends JPanel implements ActionListener {
 		// Creating the circle tool button
 		circle = new JButton(FontIcon.of(BoxiconsRegular.CIRCLE, 20));
 		circle.setBounds(47, 47, 29, 29);
-		circle.setActionCommand(Constants.TOOL_CIRCLE);
+		circle.setActionCommand(ProtocolConstants.TOOL_CIRCLE);
 		circle.setToolTipText("For drawing a circle");
 		circle.addActionListener(this);
 		circle.setEnabled(false);
@@ -116,7 +117,7 @@ public class ToolPanel extends JPanel implements ActionListener {
 		// Creating the rectangle tool button
 		rectangle = new JButton(FontIcon.of(BoxiconsRegular.RECTANGLE, 20));
 		rectangle.setBounds(6, 88, 29, 29);
-		rectangle.setActionCommand(Constants.TOOL_RECTANGLE);
+		rectangle.setActionCommand(ProtocolConstants.TOOL_RECTANGLE);
 		rectangle.setToolTipText("For drawing a rectangle");
 		rectangle.addActionListener(this);
 		rectangle.setEnabled(false);
@@ -127,7 +128,7 @@ public class ToolPanel extends JPanel implements ActionListener {
 		// Creating the triangle tool button
 		triangle = new JButton(FontIcon.of(BoxiconsRegular.SHAPE_TRIANGLE, 20));
 		triangle.setBounds(47, 88, 29, 29);
-		triangle.setActionCommand(Constants.TOOL_TRIANGLE);
+		triangle.setActionCommand(ProtocolConstants.TOOL_TRIANGLE);
 		triangle.setToolTipText("For drawing a triangle");
 		triangle.addActionListener(this);
 		triangle.setEnabled(false);
@@ -138,7 +139,7 @@ public class ToolPanel extends JPanel implements ActionListener {
 		// Creating the text tool button
 		text = new JButton(FontIcon.of(BoxiconsRegular.TEXT, 20));
 		text.setBounds(6, 129, 70, 29);
-		text.setActionCommand(Constants.TOOL_TEXT);
+		text.setActionCommand(ProtocolConstants.TOOL_TEXT);
 		text.setToolTipText("For inserting a text");
 		text.addActionListener(this);
 		text.setEnabled(false);
@@ -186,13 +187,13 @@ public class ToolPanel extends JPanel implements ActionListener {
 	public void actionPerformed(ActionEvent e) {
 		String actionCommand = e.getActionCommand();
 		switch (actionCommand) {
-		case Constants.TOOL_PENCIL:
-		case Constants.TOOL_ERASER:
-		case Constants.TOOL_RECTANGLE:
-		case Constants.TOOL_LINE:
-		case Constants.TOOL_CIRCLE:
-		case Constants.TOOL_TRIANGLE:
-		case Constants.TOOL_TEXT:
+		case ProtocolConstants.TOOL_PENCIL:
+		case ProtocolConstants.TOOL_ERASER:
+		case ProtocolConstants.TOOL_RECTANGLE:
+		case ProtocolConstants.TOOL_LINE:
+		case ProtocolConstants.TOOL_CIRCLE:
+		case ProtocolConstants.TOOL_TRIANGLE:
+		case ProtocolConstants.TOOL_TEXT:
 			drawArea.setSelectedTool(actionCommand);
 			break;
 		case Constants.TOOL_COLOR:
@@ -4,7 +4,6 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -25,9 +24,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.distributed.project.whiteboard.client.WhiteboardClient;
-import com.distributed.project.whiteboard.client.dto.ActionMessageDto;
-import com.distributed.project.whiteboard.client.dto.UserDto;
 import com.distributed.project.whiteboard.client.utilities.Constants;
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.dto.UserDto;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
 
 /**
  * This class is used to disply the active user list and the option for a
@@ -148,20 +148,26 @@ public class UserPanel extends JPanel implements ActionListener {
 	 * @param newUser
 	 */
 	public void addUserToList(UserDto newUser) {
+		// Skipping a user already in the list
+		if (activeClientMap.containsKey(newUser.getClientUID())) {
+			return;
+		}
 		listModel.addElement(newUser);
 		activeClientMap.put(newUser.getClientUID(), newUser);
 	}
 
 	/**
-	 * This method is used to remove the user from the list and then refresh the
-	 * list.
+	 * This method is used to remove the user from the list, without rebuilding
+	 * the rest of the list.
 	 * 
 	 * @param selectedUser
 	 */
 	public void removeUserFromList(UserDto selectedUser) {
-		activeClientMap.remove(selectedUser.getClientUID());
-
-		refreshUserList(new ArrayList<>(activeClientMap.values()));
+		// The list holds the same instances as the active client map
+		UserDto removedUser = activeClientMap.remove(selectedUser.getClientUID());
+		if (Objects.nonNull(removedUser)) {
+			listModel.removeElement(removedUser);
+		}
 	}
 
 	/**
@@ -184,7 +190,7 @@ public class UserPanel extends JPanel implements ActionListener {
 			} else {
 				// Creating the kick user event
 				ActionMessageDto kickUserEvent = new ActionMessageDto(whiteboardClient.getUserInfo(),
-						Constants.ACTION_USER_KICK);
+						ProtocolConstants.ACTION_USER_KICK);
 				kickUserEvent.setSelectedUser(activeClientMap.get(selectedUser.getClientUID()));
 
 				// Adding the kick user event to the queue
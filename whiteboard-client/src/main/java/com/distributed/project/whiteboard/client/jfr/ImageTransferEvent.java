@@ -0,0 +1,26 @@
+package com.distributed.project.whiteboard.client.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This class is used as a Java Flight Recorder event for decoding and drawing a
+ * whiteboard image received from the server.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+@Name("whiteboard.client.ImageTransfer")
+@Label("Image Transfer")
+@Category({ "Whiteboard", "Client", "Protocol" })
+@Description("Decoding and drawing a whiteboard image received from the server")
+public class ImageTransferEvent extends Event {
+
+	@Label("Payload Size")
+	@DataAmount
+	public long payloadSize;
+}
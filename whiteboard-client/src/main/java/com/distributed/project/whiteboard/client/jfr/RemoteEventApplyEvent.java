@@ -0,0 +1,35 @@
+package com.distributed.project.whiteboard.client.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This class is used as a Java Flight Recorder event for applying an event
+ * received from the server in EventListener.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+@Name("whiteboard.client.RemoteEventApply")
+@Label("Remote Event Apply")
+@Category({ "Whiteboard", "Client", "Protocol" })
+@Description("Applying an event received from the server")
+public class RemoteEventApplyEvent extends Event {
+
+	@Label("Action")
+	public String action;
+
+	@Label("Tool")
+	public String tool;
+
+	@Label("Sequence")
+	public long sequence;
+
+	@Label("Payload Size")
+	@DataAmount
+	public long payloadSize;
+}
@@ -0,0 +1,33 @@
+package com.distributed.project.whiteboard.client.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This class is used as a Java Flight Recorder event for painting the visible
+ * tiles of the board in DrawArea.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+@Name("whiteboard.client.Repaint")
+@Label("Draw Area Repaint")
+@Category({ "Whiteboard", "Client", "Rendering" })
+@Description("Painting the visible tiles of the board")
+public class RepaintEvent extends Event {
+
+	@Label("Width")
+	public int width;
+
+	@Label("Height")
+	public int height;
+
+	@Label("Scale")
+	public double scale;
+
+	@Label("Level")
+	public int level;
+}
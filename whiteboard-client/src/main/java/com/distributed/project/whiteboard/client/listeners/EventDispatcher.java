@@ -1,15 +1,17 @@
 package com.distributed.project.whiteboard.client.listeners;
 
-import java.io.BufferedWriter;
+import java.io.IOException;
 import java.util.Objects;
 
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.distributed.project.whiteboard.client.WhiteboardClient;
-import com.distributed.project.whiteboard.client.dto.ActionMessageDto;
-import com.distributed.project.whiteboard.client.utilities.TypeConversionUtils;
+import com.distributed.project.whiteboard.client.utilities.Constants;
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.opcode.Opcodes;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.distributed.project.whiteboard.protocol.utils.TypeConversionUtils;
 
 /**
  * This runnable class is used to dispatch the events produced by the current
@@ -18,6 +20,16 @@ import com.distributed.project.whiteboard.client.utilities.TypeConversionUtils;
  * @implNote We have used a seperate thread to dispatch events so as to not
  *           block other I/O inputs from the users.
  * 
+ * @implNote An event taken from the queue is kept until it is written, so that
+ *           events produced while the connection is lost are sent after
+ *           reconnecting.
+ * 
+ * @implNote The thread waits on the queue while there is nothing to send, and
+ *           stops once it is interrupted when the client is closed.
+ * 
+ * @implNote Events relayed by the server are sent without the user, since the
+ *           server stamps them with the sender id of the connection.
+ * 
  * @author Abhijeet - 1278218
  *
  */
@@ -26,18 +38,18 @@ public class EventDispatcher implements Runnable {
 	private static final Logger LOGGER = LoggerFactory.getLogger(EventDispatcher.class);
 
 	protected WhiteboardClient whiteboardClient;
-	protected BufferedWriter out;
+
+	// Event taken from the queue which is yet to be written
+	private ActionMessageDto pendingEvent;
 
 	/**
-	 * This constructor is used to {@link WhiteboardClient} and
-	 * {@link BufferedWriter}.
+	 * This constructor is used to initialize the {@link WhiteboardClient} whose
+	 * connection is used to send the events.
 	 * 
 	 * @param whiteboardClient
-	 * @param out
 	 */
-	public EventDispatcher(WhiteboardClient whiteboardClient, BufferedWriter out) {
+	public EventDispatcher(WhiteboardClient whiteboardClient) {
 		this.whiteboardClient = whiteboardClient;
-		this.out = out;
 	}
 
 	/**
@@ -46,7 +58,7 @@ public class EventDispatcher implements Runnable {
 	 */
 	@Override
 	public void run() {
-		while (true) {
+		while (!Thread.currentThread().isInterrupted()) {
 			dispatchEvents();
 		}
 	}
@@ -57,17 +69,45 @@ public class EventDispatcher implements Runnable {
 	 */
 	private void dispatchEvents() {
 		try {
-			// Polling the queue for events
-			ActionMessageDto newActionDto = whiteboardClient.getActionList().poll();
+			// Waiting for the next event unless the previous one is yet to be written
+			if (Objects.isNull(pendingEvent)) {
+				pendingEvent = whiteboardClient.getActionList().take();
+			}
+
+			// Marking the exit before the server closes the connection
+			if (ProtocolConstants.ACTION_EXIT.equals(pendingEvent.getAction())) {
+				whiteboardClient.setExiting();
+			}
 
-			// If polled event is not null
-			if (Objects.nonNull(newActionDto)) {
-				// Send it to the server
-				out.write(TypeConversionUtils.convertObjectToString(newActionDto) + StringUtils.LF);
-				out.flush();
+			// Leaving the user out of relayed events, the server stamps the sender id
+			if (TypeConversionUtils.getCodecVersion() >= ProtocolConstants.SENDER_ID_CODEC_VERSION
+					&& Opcodes.isUrgentBroadcast(pendingEvent.getOpcode())) {
+				pendingEvent.setUser(null);
 			}
+
+			// Send it to the server and release it
+			whiteboardClient.writeEvent(pendingEvent.getOpcode(),
+					TypeConversionUtils.convertObjectToString(pendingEvent));
+			pendingEvent = null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (IOException e) {
+			LOGGER.warn("Unable to send event, retrying once reconnected", e);
+			waitForReconnect();
 		} catch (Exception e) {
 			LOGGER.error("Exception in run() method of EventDispatcher", e);
 		}
 	}
+
+	/**
+	 * This method is used to wait before sending the event again while the
+	 * connection is being restored.
+	 */
+	private void waitForReconnect() {
+		try {
+			Thread.sleep(Constants.RECONNECT_INITIAL_DELAY_MS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
 }
@@ -1,25 +1,25 @@
 package com.distributed.project.whiteboard.client.listeners;
 
-import java.awt.Color;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.util.Objects;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.distributed.project.whiteboard.client.WhiteBoardUI;
 import com.distributed.project.whiteboard.client.WhiteboardClient;
-import com.distributed.project.whiteboard.client.dto.ActionMessageDto;
-import com.distributed.project.whiteboard.client.gui.ChatBoxPanel;
-import com.distributed.project.whiteboard.client.gui.DrawArea;
-import com.distributed.project.whiteboard.client.gui.ToolPanel;
-import com.distributed.project.whiteboard.client.gui.UserPanel;
+import com.distributed.project.whiteboard.client.jfr.RemoteEventApplyEvent;
 import com.distributed.project.whiteboard.client.utilities.Constants;
-import com.distributed.project.whiteboard.client.utilities.TypeConversionUtils;
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.dto.UserDto;
+import com.distributed.project.whiteboard.protocol.lane.ChunkAssembler;
+import com.distributed.project.whiteboard.protocol.opcode.OpcodeRegistry;
+import com.distributed.project.whiteboard.protocol.opcode.Opcodes;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.distributed.project.whiteboard.protocol.utils.TypeConversionUtils;
 
 /**
  * This runnable class is used to listen to the events produced by other clients
@@ -29,6 +29,13 @@ import com.distributed.project.whiteboard.client.utilities.TypeConversionUtils;
  *           miss urgent events and stop execution of other I/O operations done
  *           by the user.
  * 
+ * @implNote The events are dispatched through a table of handlers indexed by
+ *           the opcode of their action, which new actions can be registered in.
+ * 
+ * @implNote This class only maintains the protocol state of the client. The
+ *           events are presented by the {@link WhiteboardEventHandler}, so that
+ *           the client runs the same with or without the Swing UI.
+ * 
  * @author Abhijeet - 1278218
  *
  */
@@ -36,305 +43,395 @@ public class EventListener implements Runnable {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(EventListener.class);
 
+	// Detecting gaps in the sequence, as the events of the client are acknowledged
+	private static final boolean IS_SEQUENCE_ACK = TypeConversionUtils
+			.getCodecVersion() >= ProtocolConstants.SEQUENCE_ACK_CODEC_VERSION;
+
 	private WhiteboardClient whiteboardClient;
-	private WhiteBoardUI whiteBoardUI;
+	private WhiteboardEventHandler eventHandler;
 	private BufferedReader in;
-	private DrawArea drawArea;
-	private ChatBoxPanel chatBoxPanel;
-	private UserPanel userPanel;
-	private ToolPanel toolPanel;
-	private ExecutorService executorService;
+	private ChunkAssembler chunkAssembler = new ChunkAssembler();
+
+	// Time the board events were requested after a gap in the sequence, 0 if none
+	private long gapSyncRequestedAt = 0;
+
+	private final OpcodeRegistry<Consumer<ActionMessageDto>> eventHandlers = new OpcodeRegistry<>(
+			Opcodes.actionCount());
 
 	/**
 	 * This constructor is used to initialize the instances of classes and variables
 	 * being used in this runnable class.
 	 * 
 	 * @param whiteboardClient
-	 * @param whiteBoardUI
+	 * @param eventHandler
 	 * @param bufferedReader
-	 * @param executorService
 	 */
-	public EventListener(WhiteboardClient whiteboardClient, WhiteBoardUI whiteBoardUI, BufferedReader bufferedReader,
-			ExecutorService executorService) {
+	public EventListener(WhiteboardClient whiteboardClient, WhiteboardEventHandler eventHandler,
+			BufferedReader bufferedReader) {
 		this.whiteboardClient = whiteboardClient;
-		this.whiteBoardUI = whiteBoardUI;
+		this.eventHandler = eventHandler;
 		this.in = bufferedReader;
-		this.drawArea = whiteBoardUI.getDrawArea();
-		this.chatBoxPanel = whiteBoardUI.getChatBoxPanel();
-		this.userPanel = whiteBoardUI.getUserPanel();
-		this.toolPanel = whiteBoardUI.getToolPanel();
-		this.executorService = executorService;
+		registerEventHandlers();
 	}
 
 	/**
 	 * The run method runs in an infinite loop to keep listening to the incoming
-	 * events.
+	 * events. It reconnects to the server whenever the connection is lost, and
+	 * stops once the connection is closed after the user exits.
 	 */
 	@Override
 	public void run() {
 		while (true) {
-			listenEvents();
+			if (!listenEvents()) {
+				if (whiteboardClient.getIsExiting()) {
+					LOGGER.info("Connection closed after exit");
+					return;
+				}
+
+				LOGGER.warn("Connection to the server lost, reconnecting");
+				in = whiteboardClient.reconnect();
+				if (Objects.isNull(in)) {
+					return;
+				}
+
+				// Chunks of the lost connection are not sent again
+				chunkAssembler = new ChunkAssembler();
+			}
 		}
 	}
 
 	/**
 	 * This method listens to the input stream and acts accordingly if it recevies
 	 * any events from the server.
+	 * 
+	 * @return false if the connection to the server is lost
 	 */
-	private void listenEvents() {
+	private boolean listenEvents() {
 		try {
 			// Reading the input stream
 			String eventString = in.readLine();
 
-			// If the event received is not blank
-			if (StringUtils.isNotBlank(eventString)) {
+			// End of stream means the server closed the connection
+			if (Objects.isNull(eventString)) {
+				return false;
+			}
 
-				// Convert the event to the action message dto
-				ActionMessageDto actionMessageDto = TypeConversionUtils.convertToCustomClass(eventString,
-						ActionMessageDto.class);
-
-				// If the event is free hand draw / or eraser then immediately work on it
-				if (actionMessageDto.getAction().equalsIgnoreCase(Constants.ACTION_DRAW)
-						&& actionMessageDto.getTool().equalsIgnoreCase(Constants.TOOL_PENCIL)) {
-					// Setting the current editor
-					toolPanel.setEditor(actionMessageDto.getUser().getClientUserName());
-
-					// Draw free hand drawing based on coordinates
-					drawArea.createLine(actionMessageDto.getStartPoint(), actionMessageDto.getEndPoint(),
-							actionMessageDto.getColor());
-				} else if (actionMessageDto.getAction().equalsIgnoreCase(Constants.ACTION_DRAW)
-						&& actionMessageDto.getTool().equalsIgnoreCase(Constants.TOOL_ERASER)) {
-					// Setting the current editor
-					toolPanel.setEditor(actionMessageDto.getUser().getClientUserName());
-
-					// Erase the drawing based on coordinates
-					drawArea.eraserAction(actionMessageDto.getStartPoint(), actionMessageDto.getEndPoint());
+			// Putting chunked transfers back together, in the order they were sent in
+			if (StringUtils.isNotBlank(eventString)) {
+				int opcode = TypeConversionUtils.peekOpcode(eventString);
+				if (opcode == ProtocolConstants.OP_CHUNK || chunkAssembler.isHolding()) {
+					chunkAssembler.receive(opcode, eventString).forEach(this::handleEvent);
 				} else {
-					// If not immediate events then handle seperately
-					eventSeggregrator(actionMessageDto);
+					handleEvent(eventString);
 				}
 			}
 		} catch (IOException e) {
-			LOGGER.error("Exception in run() method of DrawEventListener", e);
+			// The connection is closed locally once the client is closed
+			if (whiteboardClient.getIsExiting()) {
+				LOGGER.debug("Connection closed while exiting", e);
+			} else {
+				LOGGER.error("Exception in run() method of DrawEventListener", e);
+			}
+			return false;
 		}
+		return true;
 	}
 
 	/**
-	 * This method is used to process the non-immediate events received by the
-	 * client and perform actions accordingly.
+	 * This method is used to handle an event received from the server according to
+	 * its action.
 	 * 
-	 * @param actionMessageDto
+	 * @param eventString
 	 */
-	private void eventSeggregrator(ActionMessageDto actionMessageDto) {
-		String action = actionMessageDto.getAction();
-		switch (action) {
-		case Constants.ACTION_DRAW:
-			drawAction(actionMessageDto);
-			break;
-		case Constants.ACTION_CHAT:
-			chatBoxPanel.recieveMessage(actionMessageDto);
-			break;
-		case Constants.ACTION_ASSIGN_MANAGER:
-			handleManagerAssign(actionMessageDto);
-			break;
-		case Constants.ACTION_NEW_USER_PERMISSION:
-			// Running user permission event in seperate thread due to user input block,
-			// other events should work normally in background
-			executorService.execute(() -> handleUserAddPermission(actionMessageDto));
-			break;
-		case Constants.ACTION_NEW_USER_ADDED:
-			// Running user added event in seperate thread since for new user blocking
-			// dialog is shown, and other events should work in background
-			executorService.execute(() -> handleUserAdded(actionMessageDto));
-			break;
-		case Constants.ACTION_NEW_USER_REJECT:
-			handleUserRejected(actionMessageDto);
-			break;
-		case Constants.ACTION_USER_KICK:
-			handleKickUserEvent(actionMessageDto);
-			break;
-		case Constants.ACTION_REFRESH_USER_LIST:
-			handleRefreshUserList(actionMessageDto);
-			break;
-		case Constants.ACTION_LOAD_IMAGE:
-			handleLoadImageEvent(actionMessageDto);
-			break;
-		case Constants.ACTION_CLEAR:
-			// Setting the current editor
-			toolPanel.setEditor(actionMessageDto.getUser().getClientUserName());
-			// Appending the system message in chat box panel
-			chatBoxPanel.append(Constants.MSG_CLEAR, Color.RED);
-			// Clearing the draw area
-			drawArea.clear();
-			break;
-		case Constants.ACTION_FORCE_QUIT:
-			handleForceQuit();
-			break;
-		default:
-			LOGGER.error("No such action defined -- {}", action);
-			break;
+	private void handleEvent(String eventString) {
+		// Convert the event to the action message dto
+		ActionMessageDto actionMessageDto = TypeConversionUtils.convertToCustomClass(eventString,
+				ActionMessageDto.class);
+
+		// Requesting the board events again if the event could not be parsed
+		if (Objects.isNull(actionMessageDto)) {
+			LOGGER.error("Unable to parse event, requesting board events again");
+			whiteboardClient.requestSync();
+			return;
 		}
-	}
 
-	/**
-	 * This method is used to work on draw actions other than free hand draw and
-	 * eraser actions. It seggregrates the tool used by the other clients and
-	 * accordingly makes them.
-	 * 
-	 * @param actionMessageDto
-	 */
-	private void drawAction(ActionMessageDto actionMessageDto) {
-		// Setting the current editor
-		toolPanel.setEditor(actionMessageDto.getUser().getClientUserName());
-		String tool = actionMessageDto.getTool();
-		switch (tool) {
-		case Constants.TOOL_LINE:
-			// Creating a line using selected color and coordinates
-			drawArea.createLine(actionMessageDto.getStartPoint(), actionMessageDto.getEndPoint(),
-					actionMessageDto.getColor());
-			break;
-		case Constants.TOOL_RECTANGLE:
-			// Creating a rectangle using selected color and coordinates
-			drawArea.createRectangle(actionMessageDto.getStartPoint(), actionMessageDto.getEndPoint(),
-					actionMessageDto.getColor());
-			break;
-		case Constants.TOOL_CIRCLE:
-			// Creating a circle using selected color and coordinates
-			drawArea.createCircle(actionMessageDto.getStartPoint(), actionMessageDto.getEndPoint(),
-					actionMessageDto.getColor());
-			break;
-		case Constants.TOOL_TRIANGLE:
-			// Creating a triangle using selected color and coordinates
-			drawArea.createTriangle(actionMessageDto.getStartPoint(), actionMessageDto.getEndPoint(),
-					actionMessageDto.getDragPoint(), actionMessageDto.getColor());
-			break;
-		case Constants.TOOL_TEXT:
-			// Drawing text on board using selected color and coordinates
-			drawArea.createText(actionMessageDto.getStartPoint(), actionMessageDto.getDrawText(),
-					actionMessageDto.getColor());
-			break;
-		default:
-			LOGGER.error("No such tool defined -- {}", tool);
-			break;
+		// Keeping the members up to date and resolving the sender of the event
+		if (!updateMembers(actionMessageDto)) {
+			return;
+		}
+		resolveSender(actionMessageDto);
+
+		// Skipping board events which are already applied
+		if (shouldSkipBoardEvent(actionMessageDto)) {
+			return;
+		}
+
+		RemoteEventApplyEvent remoteEventApplyEvent = new RemoteEventApplyEvent();
+		remoteEventApplyEvent.begin();
+
+		// Handling the event according to its action
+		eventSeggregrator(actionMessageDto);
+
+		remoteEventApplyEvent.end();
+		if (remoteEventApplyEvent.shouldCommit()) {
+			remoteEventApplyEvent.action = actionMessageDto.getAction();
+			remoteEventApplyEvent.tool = actionMessageDto.getTool();
+			remoteEventApplyEvent.sequence = Objects.nonNull(actionMessageDto.getSequence())
+					? actionMessageDto.getSequence()
+					: -1;
+			remoteEventApplyEvent.payloadSize = eventString.length();
+			remoteEventApplyEvent.commit();
 		}
 	}
 
 	/**
-	 * This method is invoked when client receives the ASSIGN_MANAGER event. It
-	 * assigns the current user as the manager and enables UI according to the
-	 * manager.
+	 * This method is used to apply the members sent with an event. A list of
+	 * members replaces them, while a join or leave sent as a delta is applied if
+	 * its membership version is newer than the one already applied. A version
+	 * skipped on the way requests the whole list of members again.
 	 * 
 	 * @param actionMessageDto
+	 * @return false if the event is not to be handled any further
 	 */
-	private void handleManagerAssign(ActionMessageDto actionMessageDto) {
-		LOGGER.info("Assigning current user {} as manager", actionMessageDto.getUser());
+	private boolean updateMembers(ActionMessageDto actionMessageDto) {
+		Long version = actionMessageDto.getMembershipVersion();
+		if (Objects.nonNull(actionMessageDto.getActiveUserList())) {
+			whiteboardClient.setMembers(actionMessageDto.getActiveUserList());
+			if (Objects.nonNull(version)) {
+				whiteboardClient.setMembershipVersion(version);
+			}
+			return true;
+		}
 
-		// Setting the isManager global variable
-		whiteboardClient.setIsManager(new AtomicBoolean(true));
+		int opcode = actionMessageDto.getOpcode();
+		if (opcode != ProtocolConstants.OP_NEW_USER_ADDED && opcode != ProtocolConstants.OP_REFRESH_USER_LIST
+				&& opcode != ProtocolConstants.OP_USER_KICK) {
+			return true;
+		}
 
-		// Setting the userInfo global variable
-		whiteboardClient.setUserInfo(actionMessageDto.getUser());
+		// Skipping deltas already contained in the list of members
+		long currentVersion = whiteboardClient.getMembershipVersion();
+		if (Objects.nonNull(version) && version <= currentVersion) {
+			LOGGER.debug("Skipping membership version {} already applied", version);
+			return false;
+		}
 
-		// Enabling the manager UI
-		whiteBoardUI.enableUserUI();
+		UserDto member = actionMessageDto.getSelectedUser();
+		if (opcode == ProtocolConstants.OP_NEW_USER_ADDED) {
+			whiteboardClient.addMember(member);
+		} else {
+			whiteboardClient.removeMember(member.getClientUID());
+		}
 
-		// Refershing the list of active users
-		userPanel.refreshUserList(actionMessageDto.getActiveUserList());
+		if (Objects.nonNull(version)) {
+			whiteboardClient.setMembershipVersion(version);
+			if (version != currentVersion + 1) {
+				LOGGER.warn("Membership version {} received after {}, requesting members", version, currentVersion);
+				whiteboardClient.requestMembers();
+			}
+		}
+
+		// The manager has already shown the joins and kicks it made, which are only
+		// sent back to it for their version
+		return Objects.isNull(version) || Objects.isNull(actionMessageDto.getUser()) || !Objects
+				.equals(actionMessageDto.getUser().getClientUID(), whiteboardClient.getUserInfo().getClientUID());
 	}
 
 	/**
-	 * This method is invoked when manager receives the NEW_USER_PERMISSION event
-	 * which is a join request by the new client trying to join the whiteboard.
-	 * 
-	 * @implNote Runs on separate thread due to blocking user input I/O
+	 * This method is used to set the user of a relayed event from the members of
+	 * the whiteboard and the sender id stamped by the server. A user written in
+	 * the event is replaced, as it is written by the sender and can be spoofed.
 	 * 
 	 * @param actionMessageDto
 	 */
-	private void handleUserAddPermission(ActionMessageDto actionMessageDto) {
-		LOGGER.info("Manager received join request from user {}", actionMessageDto.getSelectedUser());
-
-		// Invokes the join request pop-up to manager
-		whiteBoardUI.userPermission(actionMessageDto);
+	private void resolveSender(ActionMessageDto actionMessageDto) {
+		if (Objects.nonNull(actionMessageDto.getSenderId())) {
+			actionMessageDto.setUser(whiteboardClient.resolveSender(actionMessageDto.getSenderId()));
+		}
 	}
 
 	/**
-	 * This method is invoked when user recieves the NEW_USER_ADDED event. If the
-	 * user added is the current user then we activate the client UI, or else we
-	 * update the client list and add system message in the chat box panel.
+	 * This method is used to check the sequence number of a board event relayed by
+	 * the server, or of the ack of a board event of the current user. Events at or
+	 * before the latest applied one are duplicates, and events of the current user
+	 * in a replayed delta are already drawn locally.
 	 * 
-	 * @implNote Runs on separate thread due to blocking user input I/O
+	 * @implNote An event skipping a sequence number requests the board events
+	 *           after the latest applied one, which the event is part of, so it
+	 *           is skipped along with the ones after it until the gap is filled.
+	 *           A gap not filled within the timeout is skipped over instead.
 	 * 
-	 * @param request
+	 * @param actionMessageDto
+	 * @return
 	 */
-	private void handleUserAdded(ActionMessageDto request) {
-		LOGGER.info("New user added - {}", request.getSelectedUser());
+	private boolean shouldSkipBoardEvent(ActionMessageDto actionMessageDto) {
+		// An image sent to this user carries the manager's sequence number instead
+		int opcode = actionMessageDto.getOpcode();
+		if (Objects.isNull(actionMessageDto.getSequence())
+				|| (!Opcodes.isBoardAction(opcode) && opcode != ProtocolConstants.OP_SEQUENCE_ACK)
+				|| Objects.nonNull(actionMessageDto.getSelectedUser())) {
+			return false;
+		}
 
-		// If added user is the current user
-		if (request.getSelectedUser().getClientUID()
-				.equals(whiteboardClient.getUserInfo().getClientUID())) {
-			// Setting the userInfo global variable
-			whiteboardClient.setUserInfo(request.getSelectedUser());
+		long sequence = actionMessageDto.getSequence();
+		long lastSequence = whiteboardClient.getLastSequence();
+		if (sequence <= lastSequence) {
+			LOGGER.debug("Skipping board event {} already applied", sequence);
+			return true;
+		}
+
+		if (IS_SEQUENCE_ACK && lastSequence >= 0 && sequence > lastSequence + 1) {
+			long now = System.currentTimeMillis();
+			if (gapSyncRequestedAt == 0) {
+				LOGGER.warn("Board event {} received after {}, requesting board events", sequence, lastSequence);
+				gapSyncRequestedAt = now;
+				whiteboardClient.requestSync();
+				return true;
+			}
+			if (now - gapSyncRequestedAt < Constants.SEQUENCE_GAP_TIMEOUT_MS) {
+				return true;
+			}
+			LOGGER.warn("Board events after {} not received, skipping to board event {}", lastSequence, sequence);
+		}
+		gapSyncRequestedAt = 0;
+		whiteboardClient.setLastSequence(sequence);
 
-			// Enabling the normal user UI
-			whiteBoardUI.enableUserUI();
+		return Objects.nonNull(actionMessageDto.getUser()) && Objects.equals(actionMessageDto.getUser().getClientUID(),
+				whiteboardClient.getUserInfo().getClientUID());
+	}
 
-			// Showing success message to current user
-			whiteBoardUI.showSuccessMessage("Manager has accepted your request to join the whiteboard");
+	/**
+	 * This method is used to process the non-immediate events received by the
+	 * client, by dispatching them to the handler registered for their opcode.
+	 * 
+	 * @param actionMessageDto
+	 */
+	private void eventSeggregrator(ActionMessageDto actionMessageDto) {
+		Consumer<ActionMessageDto> handler = eventHandlers.lookup(actionMessageDto.getOpcode());
+		if (Objects.isNull(handler)) {
+			LOGGER.error("No such action defined -- {}", actionMessageDto.getAction());
+			return;
 		}
+		handler.accept(actionMessageDto);
+	}
 
-		// Refreshing the active user list
-		userPanel.refreshUserList(request.getActiveUserList());
+	/**
+	 * This method is used to register the handlers of the actions received by the
+	 * client in the opcode registry.
+	 */
+	private void registerEventHandlers() {
+		eventHandlers.register(ProtocolConstants.OP_DRAW, eventHandler::onDraw);
+		eventHandlers.register(ProtocolConstants.OP_CHAT, eventHandler::onChat);
+		eventHandlers.register(ProtocolConstants.OP_ASSIGN_MANAGER, this::handleManagerAssign);
+		eventHandlers.register(ProtocolConstants.OP_NEW_USER_PERMISSION, request -> {
+			LOGGER.info("Manager received join request from user {}", request.getSelectedUser());
+			eventHandler.onJoinRequest(request);
+		});
+		eventHandlers.register(ProtocolConstants.OP_NEW_USER_ADDED, this::handleUserAdded);
+		eventHandlers.register(ProtocolConstants.OP_NEW_USER_REJECT, request -> {
+			LOGGER.info("Current user rejected by the manager");
+			closeSession(request.getSelectedUser(), "Manager has rejected your request to join the whiteboard");
+		});
+		eventHandlers.register(ProtocolConstants.OP_USER_KICK, this::handleKickUserEvent);
+		eventHandlers.register(ProtocolConstants.OP_REFRESH_USER_LIST, request -> {
+			LOGGER.info("User exited - {}", request.getSelectedUser());
+			eventHandler.onUserExited(request);
+		});
+		eventHandlers.register(ProtocolConstants.OP_LOAD_IMAGE, this::handleLoadImageEvent);
+		eventHandlers.register(ProtocolConstants.OP_CLEAR, eventHandler::onClear);
+		eventHandlers.register(ProtocolConstants.OP_FORCE_QUIT, request -> {
+			LOGGER.info("Manager has exited the whiteboard");
+			closeSession(whiteboardClient.getUserInfo(), "Manager has closed the current session");
+		});
+
+		// Heartbeats only keep the connection from timing out, and acks only carry
+		// the sequence of the events of the current user
+		eventHandlers.register(ProtocolConstants.OP_HEARTBEAT, request -> LOGGER.trace("Heartbeat received"));
+		eventHandlers.register(ProtocolConstants.OP_SEQUENCE_ACK,
+				request -> LOGGER.trace("Board event {} acknowledged", request.getSequence()));
+		eventHandlers.register(ProtocolConstants.OP_SESSION_TOKEN,
+				request -> whiteboardClient.setResumeToken(request.getResumeToken()));
+		eventHandlers.register(ProtocolConstants.OP_RESUME_ACCEPT, request -> {
+			LOGGER.info("Session resumed after reconnecting");
+			whiteboardClient.setResumeToken(request.getResumeToken());
+			eventHandler.onSessionResumed(request);
+
+			// Joins and leaves missed while disconnected are not sent again
+			whiteboardClient.requestMembers();
+		});
+		eventHandlers.register(ProtocolConstants.OP_RESUME_REJECT, request -> whiteboardClient.rejoin());
+		eventHandlers.register(ProtocolConstants.OP_MEMBER_LIST, eventHandler::onMembersRefreshed);
+		eventHandlers.register(ProtocolConstants.OP_PRESENCE, eventHandler::onPresence);
+		eventHandlers.register(ProtocolConstants.OP_SNAPSHOT_REQUEST, request -> {
+			LOGGER.info("Sending board snapshot to user {}", request.getSelectedUser());
+			eventHandler.onSnapshotRequested(request.getSelectedUser());
+		});
+	}
 
-		// Adding user added system message in the chat box panel
-		chatBoxPanel
-				.append(Constants.MSG_USER_ADDED.replace(Constants.USER, request.getSelectedUser().getClientUserName())
-						+ StringUtils.LF, Color.RED);
+	/**
+	 * This method is used to register the handler of an action, replacing the
+	 * default one. Clients can handle new actions this way without changing the
+	 * listener.
+	 * 
+	 * @param opcode
+	 * @param handler
+	 */
+	public void registerEventHandler(int opcode, Consumer<ActionMessageDto> handler) {
+		eventHandlers.register(opcode, handler);
 	}
 
 	/**
-	 * This method is invoked when user receives the REFRESH_USER_LIST event. This
-	 * event is triggered when a user exits the whiteboard. It is used to refresh
-	 * the active client list.
+	 * This method is invoked when client receives the ASSIGN_MANAGER event. It
+	 * assigns the current user as the manager before the handler enables the UI
+	 * according to the manager.
 	 * 
-	 * @param request
+	 * @param actionMessageDto
 	 */
-	private void handleRefreshUserList(ActionMessageDto request) {
-		LOGGER.info("User exited - {}", request.getSelectedUser());
+	private void handleManagerAssign(ActionMessageDto actionMessageDto) {
+		LOGGER.info("Assigning current user {} as manager", actionMessageDto.getUser());
 
-		// Refereshing the active user list
-		userPanel.refreshUserList(request.getActiveUserList());
+		// Setting the isManager global variable
+		whiteboardClient.setIsManager(new AtomicBoolean(true));
+
+		// Setting the userInfo global variable
+		whiteboardClient.setUserInfo(actionMessageDto.getUser());
+
+		// The empty board of the manager starts from the sequence sent by the server
+		if (Objects.nonNull(actionMessageDto.getSequence())) {
+			whiteboardClient.setLastSequence(actionMessageDto.getSequence());
+		}
 
-		// Adding the user exit system message in the chat box panel
-		chatBoxPanel.append(
-				Constants.MSG_USER_EXIT.replace(Constants.USER, request.getSelectedUser().getClientUserName()),
-				Color.RED);
+		// Setting the token to resume the session after losing connection
+		whiteboardClient.setResumeToken(actionMessageDto.getResumeToken());
+
+		eventHandler.onManagerAssigned(actionMessageDto);
 	}
 
 	/**
-	 * This method is invoked when user receives the NEW_USER_REJECT event. This
-	 * event is triggered when the manager rejects the join request of the user.
+	 * This method is invoked when user recieves the NEW_USER_ADDED event. If the
+	 * user added is the current user then the user info is updated with the one
+	 * assigned by the server.
 	 * 
 	 * @param request
 	 */
-	private void handleUserRejected(ActionMessageDto request) {
-		LOGGER.info("Current user rejected by the manager");
-
-		// Creating the user exit event, to remove connection from the server end
-		ActionMessageDto userExitEvent = new ActionMessageDto(request.getSelectedUser(), Constants.ACTION_EXIT);
+	private void handleUserAdded(ActionMessageDto request) {
+		LOGGER.info("New user added - {}", request.getSelectedUser());
 
-		// Adding the event to the queue
-		whiteboardClient.getActionList().add(userExitEvent);
+		// If added user is the current user
+		boolean isCurrentUser = request.getSelectedUser().getClientUID()
+				.equals(whiteboardClient.getUserInfo().getClientUID());
+		if (isCurrentUser) {
+			// Setting the userInfo global variable
+			whiteboardClient.setUserInfo(request.getSelectedUser());
+		}
 
-		// Showing error message on the user's screen
-		whiteBoardUI.showErrorMessage("Manager has rejected your request to join the whiteboard", true);
+		eventHandler.onUserAdded(request, isCurrentUser);
 	}
 
 	/**
 	 * This method is invoked when user recives the USER_KICK event. If the kicked
-	 * user is the current user then the current user sends the exit event and exits
-	 * the application. If the kicked user is not the current user then we remove
-	 * the user from active client list and display system message in the chat box
-	 * panel.
+	 * user is the current user then the current user sends the exit event and its
+	 * session is closed, or else the handler removes the user.
 	 * 
 	 * @param request
 	 */
@@ -344,22 +441,9 @@ public class EventListener implements Runnable {
 		// If kicked user is the current user
 		if (request.getSelectedUser().getClientUID()
 				.equals(whiteboardClient.getUserInfo().getClientUID())) {
-			// Creating the user exit event, to remove connection from the server end
-			ActionMessageDto userExitEvent = new ActionMessageDto(request.getSelectedUser(), Constants.ACTION_EXIT);
-
-			// Adding event to the queue
-			whiteboardClient.getActionList().add(userExitEvent);
-
-			// Showing error message on the user's screen
-			whiteBoardUI.showErrorMessage("Manager has removed you from the whiteboard" + StringUtils.LF, true);
+			closeSession(request.getSelectedUser(), "Manager has removed you from the whiteboard" + StringUtils.LF);
 		} else {
-			// If not current user, then remove user from the active client list
-			userPanel.removeUserFromList(request.getSelectedUser());
-
-			// Adding system message to chat box panel
-			chatBoxPanel.append(
-					Constants.MSG_KICK_USER.replace(Constants.USER, request.getSelectedUser().getClientUserName()),
-					Color.RED);
+			eventHandler.onUserKicked(request);
 		}
 	}
 
@@ -375,35 +459,32 @@ public class EventListener implements Runnable {
 	private void handleLoadImageEvent(ActionMessageDto request) {
 		LOGGER.info("Manager {} loaded a new image", request.getUser());
 
-		// Setting the current editor
-		toolPanel.setEditor(request.getUser().getClientUserName());
-
 		// Loading the image sent by manager
-		whiteBoardUI.loadImageFromServer(request);
+		eventHandler.onLoadImage(request);
 
-		// If it is not meant for a particular user then display system message
-		if (Objects.isNull(request.getSelectedUser())) {
-			LOGGER.info("Manager loaded a new image on whiteboard");
-			chatBoxPanel.append(Constants.MSG_LOAD_IMAGE, Color.RED);
+		// An image sent to this user is followed by the board events after its
+		// sequence number
+		if (Objects.nonNull(request.getSelectedUser()) && Objects.nonNull(request.getSequence())) {
+			whiteboardClient.setLastSequence(request.getSequence());
 		}
 	}
 
 	/**
-	 * This method is invoked when the user receives the FORCE_QUIT event. It is
-	 * triggered when manager exits the whiteboard and instructs other clients to
-	 * close the current session.
+	 * This method is used to close the session of the current user. It sends the
+	 * exit event to the server to close the connection, and then lets the handler
+	 * present the reason.
+	 * 
+	 * @param user
+	 * @param message
 	 */
-	private void handleForceQuit() {
-		LOGGER.info("Manager has exited the whiteboard");
-
-		// Sending exit message to the server to close connections
-		ActionMessageDto userForceQuit = new ActionMessageDto(whiteboardClient.getUserInfo(), Constants.ACTION_EXIT);
+	private void closeSession(UserDto user, String message) {
+		// Creating the user exit event, to remove connection from the server end
+		ActionMessageDto userExitEvent = new ActionMessageDto(user, ProtocolConstants.ACTION_EXIT);
 
 		// Adding the event to the queue
-		whiteboardClient.getActionList().add(userForceQuit);
+		whiteboardClient.getActionList().add(userExitEvent);
 
-		// Showing error message to the client
-		whiteBoardUI.showErrorMessage("Manager has closed the current session", true);
+		eventHandler.onSessionClosed(message);
 	}
 
 }
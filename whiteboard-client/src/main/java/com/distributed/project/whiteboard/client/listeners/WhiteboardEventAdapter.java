@@ -0,0 +1,85 @@
+package com.distributed.project.whiteboard.client.listeners;
+
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.dto.UserDto;
+
+/**
+ * This class is used as an empty implementation of
+ * {@link WhiteboardEventHandler}, for clients which only handle a few of the
+ * events.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class WhiteboardEventAdapter implements WhiteboardEventHandler {
+
+	@Override
+	public void onDraw(ActionMessageDto request) {
+		// Ignored by default
+	}
+
+	@Override
+	public void onChat(ActionMessageDto request) {
+		// Ignored by default
+	}
+
+	@Override
+	public void onManagerAssigned(ActionMessageDto request) {
+		// Ignored by default
+	}
+
+	@Override
+	public void onJoinRequest(ActionMessageDto request) {
+		// Ignored by default
+	}
+
+	@Override
+	public void onUserAdded(ActionMessageDto request, boolean isCurrentUser) {
+		// Ignored by default
+	}
+
+	@Override
+	public void onUserExited(ActionMessageDto request) {
+		// Ignored by default
+	}
+
+	@Override
+	public void onUserKicked(ActionMessageDto request) {
+		// Ignored by default
+	}
+
+	@Override
+	public void onMembersRefreshed(ActionMessageDto request) {
+		// Ignored by default
+	}
+
+	@Override
+	public void onPresence(ActionMessageDto request) {
+		// Ignored by default
+	}
+
+	@Override
+	public void onLoadImage(ActionMessageDto request) {
+		// Ignored by default
+	}
+
+	@Override
+	public void onClear(ActionMessageDto request) {
+		// Ignored by default
+	}
+
+	@Override
+	public void onSessionResumed(ActionMessageDto request) {
+		// Ignored by default
+	}
+
+	@Override
+	public void onSnapshotRequested(UserDto selectedUser) {
+		// Ignored by default
+	}
+
+	@Override
+	public void onSessionClosed(String message) {
+		// Ignored by default
+	}
+}
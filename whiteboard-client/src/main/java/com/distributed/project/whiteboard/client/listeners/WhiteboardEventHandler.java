@@ -0,0 +1,133 @@
+package com.distributed.project.whiteboard.client.listeners;
+
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.dto.UserDto;
+
+/**
+ * This interface is used to present the events received by the client. The
+ * {@link EventListener} keeps the protocol state of the client, such as the
+ * sequence of the board, the user info and the resume token, and hands every
+ * event over to the handler only once that state is updated.
+ *
+ * @implNote The methods are invoked on the event listener thread, in the order
+ *           in which the events are received. Implementations should not block
+ *           on user input, since further events are not read meanwhile.
+ *
+ * @implNote The Swing whiteboard is one implementation. Clients without a UI,
+ *           such as bots and tests, can extend {@link WhiteboardEventAdapter}
+ *           and run many instances in the same JVM.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public interface WhiteboardEventHandler {
+
+	/**
+	 * This method is invoked when a draw event of another user is received.
+	 *
+	 * @param request
+	 */
+	void onDraw(ActionMessageDto request);
+
+	/**
+	 * This method is invoked when a chat message of another user is received.
+	 *
+	 * @param request
+	 */
+	void onChat(ActionMessageDto request);
+
+	/**
+	 * This method is invoked when the current user is assigned as the manager of
+	 * the whiteboard.
+	 *
+	 * @param request
+	 */
+	void onManagerAssigned(ActionMessageDto request);
+
+	/**
+	 * This method is invoked when the manager receives a join request. The request
+	 * is answered with {@code WhiteboardClient#acceptUser} or
+	 * {@code WhiteboardClient#rejectUser}.
+	 *
+	 * @param request
+	 */
+	void onJoinRequest(ActionMessageDto request);
+
+	/**
+	 * This method is invoked when a user joins the whiteboard, including the
+	 * current user once the manager accepts the join request.
+	 *
+	 * @param request
+	 * @param isCurrentUser
+	 */
+	void onUserAdded(ActionMessageDto request, boolean isCurrentUser);
+
+	/**
+	 * This method is invoked when another user exits the whiteboard.
+	 *
+	 * @param request
+	 */
+	void onUserExited(ActionMessageDto request);
+
+	/**
+	 * This method is invoked when the manager removes another user from the
+	 * whiteboard.
+	 *
+	 * @param request
+	 */
+	void onUserKicked(ActionMessageDto request);
+
+	/**
+	 * This method is invoked when the whole list of members is received, after a
+	 * join or leave was missed.
+	 *
+	 * @param request
+	 */
+	void onMembersRefreshed(ActionMessageDto request);
+
+	/**
+	 * This method is invoked when the cursors of other members have moved.
+	 *
+	 * @param request
+	 */
+	void onPresence(ActionMessageDto request);
+
+	/**
+	 * This method is invoked when an image of the board is received, either to
+	 * synchronize a newly joined user or when the manager loads an image.
+	 *
+	 * @param request
+	 */
+	void onLoadImage(ActionMessageDto request);
+
+	/**
+	 * This method is invoked when the manager clears the board.
+	 *
+	 * @param request
+	 */
+	void onClear(ActionMessageDto request);
+
+	/**
+	 * This method is invoked when the session is resumed after reconnecting.
+	 *
+	 * @param request
+	 */
+	void onSessionResumed(ActionMessageDto request);
+
+	/**
+	 * This method is invoked when the server asks the manager for the board of a
+	 * user whose missed events are no longer retained.
+	 *
+	 * @param selectedUser
+	 */
+	void onSnapshotRequested(UserDto selectedUser);
+
+	/**
+	 * This method is invoked when the session of the current user ends, because
+	 * the user was rejected or removed, the manager closed the session or the
+	 * connection could not be restored. The exit event is already queued.
+	 *
+	 * @param message
+	 */
+	void onSessionClosed(String message);
+}
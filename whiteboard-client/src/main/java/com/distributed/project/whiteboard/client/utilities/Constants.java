@@ -4,11 +4,13 @@ import java.awt.Color;
 
 import org.apache.commons.lang3.StringUtils;
 
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
 import com.google.common.collect.ImmutableList;
 
 /**
- * This class is used to store action constants, for maintaining similarity
- * between client and server.
+ * This class is used to store constants of the client, such as the tools, the
+ * system messages and the names of its system properties. The constants of the
+ * protocol shared with the server are kept in ProtocolConstants.
  * 
  * @author Abhijeet - 1278218
  *
@@ -32,33 +34,48 @@ public final class Constants {
 	public static final Color MANAGER_UI_COLOR = new Color(240, 128, 128);
 	public static final Color GUEST_UI_COLOR = new Color(176, 224, 230);
 
-	// TOOL ACTION CONSTANTS
-	public static final String TOOL_PENCIL = "PENCIL";
-	public static final String TOOL_ERASER = "ERASER";
-	public static final String TOOL_LINE = "LINE";
-	public static final String TOOL_CIRCLE = "CIRCLE";
-	public static final String TOOL_RECTANGLE = "RECTANGLE";
-	public static final String TOOL_TRIANGLE = "TRIANGLE";
-	public static final String TOOL_TEXT = "TEXT";
+	// TOOL ACTION CONSTANTS, THE DRAWING TOOLS ARE KEPT IN PROTOCOLCONSTANTS
 	public static final String TOOL_COLOR = "COLOR";
 
-	public static final ImmutableList<String> FREE_HAND_TOOLS = ImmutableList.of(TOOL_PENCIL, TOOL_ERASER);
-
-	// ACTION CONSTANTS
-	public static final String ACTION_DRAW = "DRAW";
-	public static final String ACTION_CHAT = "CHAT";
-	public static final String ACTION_SYSTEM_CHAT = "SYSTEM_CHAT";
-	public static final String ACTION_NEW_USER_PERMISSION = "NEW_USER_PERMISSION";
-	public static final String ACTION_NEW_USER_ACCEPT = "NEW_USER_ACCEPT";
-	public static final String ACTION_NEW_USER_REJECT = "NEW_USER_REJECT";
-	public static final String ACTION_USER_KICK = "USER_KICK";
-	public static final String ACTION_ASSIGN_MANAGER = "ASSIGN_MANAGER";
-	public static final String ACTION_NEW_USER_ADDED = "NEW_USER_ADDED";
-	public static final String ACTION_EXIT = "EXIT";
-	public static final String ACTION_REFRESH_USER_LIST = "REFRESH_USER_LIST";
-	public static final String ACTION_LOAD_IMAGE = "LOAD_IMAGE";
-	public static final String ACTION_CLEAR = "CLEAR";
-	public static final String ACTION_FORCE_QUIT = "FORCE_QUIT";
+	public static final ImmutableList<String> FREE_HAND_TOOLS = ImmutableList.of(ProtocolConstants.TOOL_PENCIL,
+			ProtocolConstants.TOOL_ERASER);
+
+	// CANVAS CONSTANTS
+	public static final int CANVAS_TILE_SIZE = 256;
+	public static final int CANVAS_MAX_LEVEL = 5;
+	public static final double CANVAS_MIN_SCALE = 1.0 / (1 << CANVAS_MAX_LEVEL);
+	public static final double CANVAS_MAX_SCALE = 4;
+	public static final double CANVAS_ZOOM_STEP = 1.25;
+	public static final float PENCIL_STROKE_WIDTH = 1;
+	public static final float ERASER_STROKE_WIDTH = 20;
+	public static final String PROP_TILE_CACHE_BYTES = "whiteboard.tile.cache.bytes";
+	public static final long DEFAULT_TILE_CACHE_BYTES = 64L * 1024 * 1024;
+
+	// MEMBER CONSTANTS
+	public static final String UNKNOWN_MEMBER_NAME = "Unknown user";
+
+	// PRESENCE CONSTANTS
+	public static final String PROP_CURSOR_INTERVAL_MS = "whiteboard.cursor.interval.ms";
+	public static final long DEFAULT_CURSOR_INTERVAL_MS = 50;
+	public static final int CURSOR_NAME_LENGTH = 16;
+
+	// STROKE CONSTANTS
+	public static final int STROKE_CHUNK_POINTS = 32;
+	public static final String PROP_STROKE_TOLERANCE = "whiteboard.stroke.tolerance";
+	public static final String DEFAULT_STROKE_TOLERANCE = "1.0";
+
+	// CONNECTION CONSTANTS
+	public static final int CONNECT_TIMEOUT_MS = 5000;
+	public static final long RECONNECT_INITIAL_DELAY_MS = 500;
+	public static final long RECONNECT_MAX_DELAY_MS = 30000;
+	public static final int RECONNECT_MAX_ATTEMPTS = 10;
+	public static final String PROP_READ_IDLE_MS = "whiteboard.read.idle.ms";
+	public static final int DEFAULT_READ_IDLE_MS = 30000;
+	public static final String PROP_WRITE_IDLE_MS = "whiteboard.write.idle.ms";
+	public static final long DEFAULT_WRITE_IDLE_MS = 10000;
+
+	// BOARD SEQUENCE CONSTANTS, A GAP NOT FILLED BY THE SYNC WITHIN THE TIMEOUT IS SKIPPED
+	public static final long SEQUENCE_GAP_TIMEOUT_MS = 5000;
 
 	// REPLACEABLES
 	public static final String USER = "<<USER>>";
@@ -71,6 +88,7 @@ public final class Constants {
 	public static final String MSG_USER_ADDED = USER + " has joined the whiteboard" + StringUtils.LF;
 	public static final String MSG_USER_EXIT = USER + " has exited the whiteboard" + StringUtils.LF;
 	public static final String MSG_CLEAR = "Manager has cleared the whiteboard" + StringUtils.LF;
+	public static final String MSG_RECONNECTED = "Reconnected to the whiteboard" + StringUtils.LF;
 	public static final String MSG_FILE_SAVED = "Draw area saved to file" + StringUtils.LF;
 	public static final String MSG_FILE_SAVED_ERROR = "Unable to save draw area to file. Please try again!!"
 			+ StringUtils.LF;
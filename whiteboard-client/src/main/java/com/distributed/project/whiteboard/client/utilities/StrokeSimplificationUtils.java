@@ -0,0 +1,116 @@
+package com.distributed.project.whiteboard.client.utilities;
+
+import com.distributed.project.whiteboard.protocol.stroke.PackedStroke;
+
+/**
+ * This class is used to simplify free hand strokes using the Douglas-Peucker
+ * algorithm, dropping the points which lie within a tolerance of the line
+ * through the points kept around them.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public final class StrokeSimplificationUtils {
+
+	private StrokeSimplificationUtils() {
+		throw new IllegalStateException("StrokeSimplificationUtils class cannot be instantiated");
+	}
+
+	/**
+	 * This method is used to simplify the given stroke. The first and last points
+	 * are always kept, and no dropped point is further than the tolerance in
+	 * pixels from the simplified stroke.
+	 * 
+	 * @param stroke
+	 * @param tolerance
+	 * @return
+	 */
+	public static PackedStroke simplify(PackedStroke stroke, double tolerance) {
+		if (stroke.size() < 3 || tolerance <= 0) {
+			return PackedStroke.fromArray(stroke.toArray());
+		}
+
+		int[] coordinates = stroke.toCoordinates();
+		int pointCount = coordinates.length / 2;
+
+		// Marking the points to keep, starting with the end points
+		boolean[] keep = new boolean[pointCount];
+		keep[0] = true;
+		keep[pointCount - 1] = true;
+		markPoints(coordinates, 0, pointCount - 1, tolerance * tolerance, keep);
+
+		PackedStroke simplifiedStroke = new PackedStroke(coordinates[0], coordinates[1]);
+		for (int i = 1; i < pointCount; i++) {
+			if (keep[i]) {
+				simplifiedStroke.add(coordinates[i * 2], coordinates[i * 2 + 1]);
+			}
+		}
+		simplifiedStroke.trimToSize();
+		return simplifiedStroke;
+	}
+
+	/**
+	 * This method is used to mark the point between the first and last index which
+	 * is furthest from the segment joining them, if it lies outside the tolerance,
+	 * and repeat on both halves. The points are given as x and y pairs.
+	 * 
+	 * @param coordinates
+	 * @param first
+	 * @param last
+	 * @param toleranceSquared
+	 * @param keep
+	 */
+	private static void markPoints(int[] coordinates, int first, int last, double toleranceSquared,
+			boolean[] keep) {
+		if (last - first < 2) {
+			return;
+		}
+
+		// Finding the point furthest from the segment
+		int furthestIndex = -1;
+		double furthestDistanceSquared = toleranceSquared;
+		for (int i = first + 1; i < last; i++) {
+			double distanceSquared = distanceToSegmentSquared(coordinates, i, first, last);
+			if (distanceSquared > furthestDistanceSquared) {
+				furthestIndex = i;
+				furthestDistanceSquared = distanceSquared;
+			}
+		}
+
+		// Every point in between lies within the tolerance
+		if (furthestIndex < 0) {
+			return;
+		}
+
+		keep[furthestIndex] = true;
+		markPoints(coordinates, first, furthestIndex, toleranceSquared, keep);
+		markPoints(coordinates, furthestIndex, last, toleranceSquared, keep);
+	}
+
+	/**
+	 * This method is used to compute the squared distance of a point from the
+	 * segment between the start and end points, given by their indexes.
+	 * 
+	 * @param coordinates
+	 * @param point
+	 * @param start
+	 * @param end
+	 * @return
+	 */
+	private static double distanceToSegmentSquared(int[] coordinates, int point, int start, int end) {
+		double pointX = coordinates[point * 2];
+		double pointY = coordinates[point * 2 + 1];
+		double startX = coordinates[start * 2];
+		double startY = coordinates[start * 2 + 1];
+		double dx = coordinates[end * 2] - startX;
+		double dy = coordinates[end * 2 + 1] - startY;
+		double lengthSquared = dx * dx + dy * dy;
+
+		// Projecting the point on the segment and clamping it to the end points
+		double t = lengthSquared == 0 ? 0 : ((pointX - startX) * dx + (pointY - startY) * dy) / lengthSquared;
+		t = Math.max(0, Math.min(1, t));
+		double offsetX = pointX - (startX + t * dx);
+		double offsetY = pointY - (startY + t * dy);
+		return offsetX * offsetX + offsetY * offsetY;
+	}
+}
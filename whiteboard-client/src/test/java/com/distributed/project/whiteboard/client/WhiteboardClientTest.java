@@ -0,0 +1,54 @@
+package com.distributed.project.whiteboard.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.distributed.project.whiteboard.client.utilities.Constants;
+
+/**
+ * This class is used to test the backoff between the reconnect attempts of the
+ * client.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class WhiteboardClientTest {
+
+	private static final long SEED = 1278218L;
+
+	@Test
+	public void shouldBackOffWithinBoundsUpToCap() {
+		Random random = new Random(SEED);
+
+		// The delay doubles from the initial delay with up to half of it as jitter
+		assertWithin(500, 750, WhiteboardClient.getReconnectDelay(1, random));
+		assertWithin(1000, 1500, WhiteboardClient.getReconnectDelay(2, random));
+		assertWithin(16000, 24000, WhiteboardClient.getReconnectDelay(6, random));
+
+		// Once the maximum delay is reached it stops growing
+		for (int attempt = 7; attempt <= Constants.RECONNECT_MAX_ATTEMPTS; attempt++) {
+			assertWithin(Constants.RECONNECT_MAX_DELAY_MS, Constants.RECONNECT_MAX_DELAY_MS * 3 / 2,
+					WhiteboardClient.getReconnectDelay(attempt, random));
+		}
+		assertWithin(Constants.RECONNECT_MAX_DELAY_MS, Constants.RECONNECT_MAX_DELAY_MS * 3 / 2,
+				WhiteboardClient.getReconnectDelay(Integer.MAX_VALUE, random));
+	}
+
+	@Test
+	public void shouldRepeatDelaysForSameSeed() {
+		Random first = new Random(SEED);
+		Random second = new Random(SEED);
+		for (int attempt = 1; attempt <= Constants.RECONNECT_MAX_ATTEMPTS; attempt++) {
+			assertEquals(WhiteboardClient.getReconnectDelay(attempt, first),
+					WhiteboardClient.getReconnectDelay(attempt, second));
+		}
+	}
+
+	private void assertWithin(long min, long max, long delay) {
+		assertTrue(delay + " not in [" + min + ", " + max + ")", delay >= min && delay < max);
+	}
+}
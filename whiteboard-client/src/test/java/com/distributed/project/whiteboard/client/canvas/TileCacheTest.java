@@ -0,0 +1,58 @@
+package com.distributed.project.whiteboard.client.canvas;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.awt.image.BufferedImage;
+
+import org.junit.Test;
+
+/**
+ * This class is used to test that the tile cache evicts the least recently used
+ * tiles once it grows over its memory budget.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class TileCacheTest {
+
+	private static final int TILE_SIZE = 16;
+
+	@Test
+	public void shouldEvictLeastRecentlyUsedTile() {
+		CanvasTile first = createTile(0, 0);
+		CanvasTile second = createTile(1, 0);
+		CanvasTile third = createTile(2, 0);
+
+		// A budget of two tiles
+		TileCache tileCache = new TileCache(2 * first.getSizeInBytes());
+		tileCache.put(first);
+		tileCache.put(second);
+
+		// Using the first tile, so the second one is the least recently used
+		tileCache.get(first.getKey());
+		tileCache.put(third);
+
+		assertNull(tileCache.get(second.getKey()));
+		assertNotNull(tileCache.get(first.getKey()));
+		assertNotNull(tileCache.get(third.getKey()));
+		assertEquals(2 * first.getSizeInBytes(), tileCache.getUsedBytes());
+		assertEquals(1, tileCache.getEvictionCount());
+	}
+
+	@Test
+	public void shouldKeepTileLargerThanBudget() {
+		CanvasTile tile = createTile(0, 0);
+		TileCache tileCache = new TileCache(tile.getSizeInBytes() - 1);
+		tileCache.put(tile);
+
+		assertEquals(1, tileCache.size());
+		assertEquals(0, tileCache.getEvictionCount());
+	}
+
+	private CanvasTile createTile(int x, int y) {
+		return new CanvasTile(new TileKey(0, x, y), new BufferedImage(TILE_SIZE, TILE_SIZE,
+				BufferedImage.TYPE_INT_RGB));
+	}
+}
@@ -0,0 +1,54 @@
+package com.distributed.project.whiteboard.client.canvas;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.Line2D;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * This class is used to test that drawing on the tiled canvas invalidates the
+ * coarse tiles covering the changed tile, and only those.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class TiledCanvasTest {
+
+	private static final int TILE_SIZE = 16;
+	private static final long TILE_BYTES = TILE_SIZE * TILE_SIZE * 4L;
+
+	@Test
+	public void shouldInvalidateAncestorsOfDrawnTile() {
+		TiledCanvas tiledCanvas = new TiledCanvas(TILE_SIZE, 2, Long.MAX_VALUE);
+
+		// Drawing over the 4 x 4 level 0 tiles under a single level 2 tile
+		Rectangle area = new Rectangle(0, 0, 4 * TILE_SIZE, 4 * TILE_SIZE);
+		tiledCanvas.apply(new ShapeOperation(new Rectangle(4, 4, area.width - 8, area.height - 8), Color.BLACK, 1));
+
+		// Painting zoomed out builds and caches every level of the pyramid
+		BufferedImage screen = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics2d = screen.createGraphics();
+		tiledCanvas.paint(graphics2d, area, 0.25);
+		graphics2d.dispose();
+		Map<Integer, Long> memoryUsageByLevel = tiledCanvas.getMemoryUsageByLevel();
+		assertEquals(Long.valueOf(16 * TILE_BYTES), memoryUsageByLevel.get(0));
+		assertEquals(Long.valueOf(4 * TILE_BYTES), memoryUsageByLevel.get(1));
+		assertEquals(Long.valueOf(TILE_BYTES), memoryUsageByLevel.get(2));
+
+		// Drawing inside the first level 0 tile only
+		tiledCanvas.apply(new ShapeOperation(new Line2D.Float(8, 8, 10, 10), Color.BLACK, 1));
+
+		// Its parent and grandparent are invalidated, the other coarse tiles are kept
+		memoryUsageByLevel = tiledCanvas.getMemoryUsageByLevel();
+		assertEquals(Long.valueOf(16 * TILE_BYTES), memoryUsageByLevel.get(0));
+		assertEquals(Long.valueOf(3 * TILE_BYTES), memoryUsageByLevel.get(1));
+		assertFalse(memoryUsageByLevel.containsKey(2));
+	}
+}
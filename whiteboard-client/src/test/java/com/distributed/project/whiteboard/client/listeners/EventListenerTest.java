@@ -0,0 +1,299 @@
+package com.distributed.project.whiteboard.client.listeners;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+import com.distributed.project.whiteboard.client.WhiteboardClient;
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.dto.UserDto;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.distributed.project.whiteboard.protocol.utils.TypeConversionUtils;
+
+/**
+ * This class is used to test the event listener without the Swing UI.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class EventListenerTest {
+
+	@Test
+	public void shouldApplyEventsWithoutUI() {
+		UserDto manager = createUser(1L, "manager");
+		UserDto guest = createUser(2L, "guest");
+
+		ActionMessageDto assignManager = new ActionMessageDto(manager, ProtocolConstants.ACTION_ASSIGN_MANAGER);
+		assignManager.setSequence(0L);
+		assignManager.setResumeToken("token");
+		ActionMessageDto guestDraw = createDraw(guest, 1L);
+		ActionMessageDto ownDraw = createDraw(manager, 2L);
+		ActionMessageDto joinRequest = new ActionMessageDto(guest, ProtocolConstants.ACTION_NEW_USER_PERMISSION);
+		joinRequest.setSelectedUser(createUser(3L, "joiner"));
+		ActionMessageDto kick = new ActionMessageDto(manager, ProtocolConstants.ACTION_USER_KICK);
+		kick.setSelectedUser(manager);
+
+		// The duplicate draw event of the guest is skipped
+		String events = Arrays.asList(assignManager, guestDraw, guestDraw, ownDraw, joinRequest, kick).stream()
+				.map(TypeConversionUtils::convertObjectToString).collect(Collectors.joining(StringUtils.LF));
+
+		WhiteboardClient whiteboardClient = new WhiteboardClient();
+		List<String> handled = new ArrayList<>();
+		WhiteboardEventHandler eventHandler = new WhiteboardEventAdapter() {
+			@Override
+			public void onManagerAssigned(ActionMessageDto request) {
+				handled.add(request.getAction());
+			}
+
+			@Override
+			public void onDraw(ActionMessageDto request) {
+				handled.add(request.getAction());
+			}
+
+			@Override
+			public void onJoinRequest(ActionMessageDto request) {
+				handled.add(request.getAction());
+				whiteboardClient.acceptUser(request.getSelectedUser());
+			}
+
+			@Override
+			public void onSessionClosed(String message) {
+				handled.add(message);
+			}
+		};
+
+		try {
+			// Stopping at the end of the events instead of reconnecting
+			whiteboardClient.setExiting();
+			new EventListener(whiteboardClient, eventHandler, new BufferedReader(new StringReader(events))).run();
+
+			String kickMessage = "Manager has removed you from the whiteboard" + StringUtils.LF;
+			assertEquals(Arrays.asList(ProtocolConstants.ACTION_ASSIGN_MANAGER, ProtocolConstants.ACTION_DRAW,
+					ProtocolConstants.ACTION_NEW_USER_PERMISSION, kickMessage), handled);
+			assertTrue(whiteboardClient.getIsManager());
+			assertEquals(2L, whiteboardClient.getLastSequence());
+			assertEquals(Arrays.asList(ProtocolConstants.ACTION_NEW_USER_ACCEPT, ProtocolConstants.ACTION_EXIT),
+					whiteboardClient.getActionList().stream().map(ActionMessageDto::getAction)
+							.collect(Collectors.toList()));
+		} finally {
+			whiteboardClient.close();
+		}
+	}
+
+	@Test
+	public void shouldResolveSenderFromMembers() {
+		UserDto manager = createUser(1L, "manager");
+		UserDto guest = createUser(2L, "guest");
+
+		ActionMessageDto assignManager = new ActionMessageDto(manager, ProtocolConstants.ACTION_ASSIGN_MANAGER);
+		assignManager.setSequence(0L);
+		assignManager.setActiveUserList(Arrays.asList(manager, guest));
+
+		// Relayed events carry the sender id stamped by the server, which wins over
+		// a user written by the sender
+		List<ActionMessageDto> draws = new ArrayList<>();
+		for (long senderId : new long[] { 2L, 1L, 9L }) {
+			ActionMessageDto draw = createDraw(senderId == 2L ? manager : null, draws.size() + 1L);
+			draw.setSenderId(senderId);
+			draws.add(draw);
+		}
+		String events = TypeConversionUtils.convertObjectToString(assignManager) + StringUtils.LF
+				+ draws.stream().map(TypeConversionUtils::convertObjectToString)
+						.collect(Collectors.joining(StringUtils.LF));
+
+		WhiteboardClient whiteboardClient = new WhiteboardClient();
+		List<String> senders = new ArrayList<>();
+		WhiteboardEventHandler eventHandler = new WhiteboardEventAdapter() {
+			@Override
+			public void onDraw(ActionMessageDto request) {
+				senders.add(request.getUser().getClientUserName());
+			}
+		};
+
+		try {
+			whiteboardClient.setExiting();
+			new EventListener(whiteboardClient, eventHandler, new BufferedReader(new StringReader(events))).run();
+
+			// The replayed event of the current user is skipped
+			assertEquals(Arrays.asList("guest", "Unknown user"), senders);
+		} finally {
+			whiteboardClient.close();
+		}
+	}
+
+	@Test
+	public void shouldApplyMembershipDeltas() {
+		UserDto manager = createUser(1L, "manager");
+		UserDto guest = createUser(2L, "guest");
+
+		ActionMessageDto assignManager = new ActionMessageDto(manager, ProtocolConstants.ACTION_ASSIGN_MANAGER);
+		assignManager.setActiveUserList(Arrays.asList(manager));
+		assignManager.setMembershipVersion(1L);
+		ActionMessageDto userAdded = new ActionMessageDto(manager, ProtocolConstants.ACTION_NEW_USER_ADDED);
+		userAdded.setSelectedUser(guest);
+		userAdded.setMembershipVersion(2L);
+
+		// The exit skips version 3, which is requested again as the list of members
+		ActionMessageDto userExited = new ActionMessageDto(guest, ProtocolConstants.ACTION_REFRESH_USER_LIST);
+		userExited.setSelectedUser(guest);
+		userExited.setMembershipVersion(4L);
+		ActionMessageDto draw = createDraw(null, 1L);
+		draw.setSenderId(2L);
+
+		// The duplicate join is skipped, and the manager's own join is not handled again
+		String events = Arrays.asList(assignManager, userAdded, userAdded, draw, userExited, draw).stream()
+				.map(TypeConversionUtils::convertObjectToString).collect(Collectors.joining(StringUtils.LF));
+
+		WhiteboardClient whiteboardClient = new WhiteboardClient();
+		List<String> handled = new ArrayList<>();
+		WhiteboardEventHandler eventHandler = new WhiteboardEventAdapter() {
+			@Override
+			public void onUserAdded(ActionMessageDto request, boolean isCurrentUser) {
+				handled.add(request.getAction());
+			}
+
+			@Override
+			public void onUserExited(ActionMessageDto request) {
+				handled.add(request.getAction());
+			}
+
+			@Override
+			public void onDraw(ActionMessageDto request) {
+				handled.add(request.getUser().getClientUserName());
+			}
+		};
+
+		try {
+			whiteboardClient.setExiting();
+			new EventListener(whiteboardClient, eventHandler, new BufferedReader(new StringReader(events))).run();
+
+			assertEquals(Arrays.asList("guest", ProtocolConstants.ACTION_REFRESH_USER_LIST), handled);
+			assertEquals(4L, whiteboardClient.getMembershipVersion());
+			assertEquals(Arrays.asList(ProtocolConstants.ACTION_MEMBER_LIST_REQUEST),
+					whiteboardClient.getActionList().stream().map(ActionMessageDto::getAction)
+							.collect(Collectors.toList()));
+		} finally {
+			whiteboardClient.close();
+		}
+	}
+
+	@Test
+	public void shouldRequestBoardEventsAfterSequenceGap() {
+		UserDto manager = createUser(1L, "manager");
+		UserDto guest = createUser(2L, "guest");
+
+		ActionMessageDto assignManager = new ActionMessageDto(guest, ProtocolConstants.ACTION_ASSIGN_MANAGER);
+		assignManager.setSequence(0L);
+		assignManager.setActiveUserList(Arrays.asList(manager, guest));
+
+		// The ack of the event of the current user fills its place in the sequence,
+		// while the events after the gap are skipped until the delta is received
+		ActionMessageDto ack = new ActionMessageDto(null, ProtocolConstants.ACTION_SEQUENCE_ACK);
+		ack.setSequence(2L);
+		List<ActionMessageDto> events = new ArrayList<>();
+		events.add(assignManager);
+		events.add(createDraw(null, 1L));
+		events.add(ack);
+		events.add(createDraw(null, 4L));
+		events.add(createDraw(null, 5L));
+		events.add(createDraw(null, 3L));
+		events.add(createDraw(null, 4L));
+		events.stream().filter(event -> ProtocolConstants.ACTION_DRAW.equals(event.getAction()))
+				.forEach(draw -> draw.setSenderId(1L));
+
+		WhiteboardClient whiteboardClient = new WhiteboardClient();
+		List<Long> applied = new ArrayList<>();
+		WhiteboardEventHandler eventHandler = new WhiteboardEventAdapter() {
+			@Override
+			public void onDraw(ActionMessageDto request) {
+				applied.add(request.getSequence());
+			}
+		};
+
+		try {
+			whiteboardClient.setExiting();
+			new EventListener(whiteboardClient, eventHandler,
+					new BufferedReader(new StringReader(events.stream().map(TypeConversionUtils::convertObjectToString)
+							.collect(Collectors.joining(StringUtils.LF))))).run();
+
+			assertEquals(Arrays.asList(1L, 3L, 4L), applied);
+			assertEquals(4L, whiteboardClient.getLastSequence());
+			assertEquals(Arrays.asList(ProtocolConstants.ACTION_SYNC_REQUEST),
+					whiteboardClient.getActionList().stream().map(ActionMessageDto::getAction)
+							.collect(Collectors.toList()));
+			assertEquals(Long.valueOf(2L), whiteboardClient.getActionList().peek().getSequence());
+		} finally {
+			whiteboardClient.close();
+		}
+	}
+
+	@Test
+	public void shouldJoinAgainWhenResumeRejected() {
+		UserDto manager = createUser(1L, "manager");
+
+		ActionMessageDto assignManager = new ActionMessageDto(manager, ProtocolConstants.ACTION_ASSIGN_MANAGER);
+		assignManager.setSequence(0L);
+		assignManager.setResumeToken("token");
+		ActionMessageDto draw = createDraw(null, 1L);
+		draw.setSenderId(2L);
+		ActionMessageDto resumeReject = new ActionMessageDto(manager, ProtocolConstants.ACTION_RESUME_REJECT);
+		String events = Arrays.asList(assignManager, draw, resumeReject).stream()
+				.map(TypeConversionUtils::convertObjectToString).collect(Collectors.joining(StringUtils.LF));
+
+		WhiteboardClient whiteboardClient = new WhiteboardClient();
+		List<String> closed = new ArrayList<>();
+		WhiteboardEventHandler eventHandler = new WhiteboardEventAdapter() {
+			@Override
+			public void onSessionClosed(String message) {
+				closed.add(message);
+			}
+		};
+
+		try {
+			// An event of the lost session still waiting to be sent
+			whiteboardClient.requestSync();
+			whiteboardClient.setExiting();
+			new EventListener(whiteboardClient, eventHandler, new BufferedReader(new StringReader(events))).run();
+
+			// The session is not closed, the user asks to join again instead
+			assertTrue(closed.isEmpty());
+			assertFalse(whiteboardClient.getIsManager());
+			assertEquals(-1L, whiteboardClient.getLastSequence());
+			assertEquals(Arrays.asList(ProtocolConstants.ACTION_NEW_USER_PERMISSION),
+					whiteboardClient.getActionList().stream().map(ActionMessageDto::getAction)
+							.collect(Collectors.toList()));
+			assertEquals("manager", whiteboardClient.getActionList().peek().getUser().getClientUserName());
+		} finally {
+			whiteboardClient.close();
+		}
+	}
+
+	private UserDto createUser(Long clientUID, String clientUserName) {
+		UserDto userDto = new UserDto();
+		userDto.setClientUID(clientUID);
+		userDto.setClientUserName(clientUserName);
+		return userDto;
+	}
+
+	private ActionMessageDto createDraw(UserDto user, Long sequence) {
+		ActionMessageDto draw = new ActionMessageDto(user, ProtocolConstants.ACTION_DRAW);
+		draw.setTool(ProtocolConstants.TOOL_PENCIL);
+		draw.setStartPoint(new Point(0, 0));
+		draw.setEndPoint(new Point(10, 10));
+		draw.setColor(Color.BLACK);
+		draw.setSequence(sequence);
+		return draw;
+	}
+}
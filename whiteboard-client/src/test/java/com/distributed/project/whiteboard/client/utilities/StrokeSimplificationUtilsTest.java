@@ -0,0 +1,42 @@
+package com.distributed.project.whiteboard.client.utilities;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import org.junit.Test;
+
+import com.distributed.project.whiteboard.protocol.stroke.PackedStroke;
+
+/**
+ * This class is used to test the stroke simplification.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class StrokeSimplificationUtilsTest {
+
+	@Test
+	public void shouldDropCollinearPoints() {
+		PackedStroke stroke = new PackedStroke(0, 0);
+		for (int x = 1; x <= 100; x++) {
+			stroke.add(x, 0);
+		}
+
+		assertArrayEquals(new int[] { 0, 0, 100, 0 },
+				StrokeSimplificationUtils.simplify(stroke, 1.0).toCoordinates());
+	}
+
+	@Test
+	public void shouldKeepCornersOutsideTolerance() {
+		PackedStroke stroke = PackedStroke.fromArray(new int[] { 0, 0, 5, 0, 5, 0, 0, 5, 0, 5 });
+
+		assertArrayEquals(new int[] { 0, 0, 10, 0, 10, 10 },
+				StrokeSimplificationUtils.simplify(stroke, 1.0).toCoordinates());
+	}
+
+	@Test
+	public void shouldKeepShortStrokes() {
+		PackedStroke stroke = PackedStroke.fromArray(new int[] { 0, 0, 3, 4 });
+
+		assertArrayEquals(stroke.toCoordinates(), StrokeSimplificationUtils.simplify(stroke, 1.0).toCoordinates());
+	}
+}
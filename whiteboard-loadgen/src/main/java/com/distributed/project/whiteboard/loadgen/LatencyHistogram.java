@@ -0,0 +1,128 @@
+package com.distributed.project.whiteboard.loadgen;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class is used to record latencies in nanoseconds from many threads and
+ * report their percentiles.
+ * 
+ * @implNote Buckets are log-linear, every power of two is split into sixteen
+ *           buckets, so a percentile is reported within about six percent of
+ *           the recorded value without keeping the samples.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (63 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * This method is used to record a latency, negative values are recorded as
+	 * zero.
+	 * 
+	 * @param nanos
+	 */
+	public void record(long nanos) {
+		long value = Math.max(nanos, 0);
+		buckets.incrementAndGet(getBucketIndex(value));
+		count.incrementAndGet();
+		max.accumulateAndGet(value, Math::max);
+	}
+
+	/**
+	 * This method is used to fetch the number of recorded latencies.
+	 * 
+	 * @return
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * This method is used to fetch the latency in nanoseconds below which the
+	 * given fraction of the recorded latencies fall.
+	 * 
+	 * @param quantile
+	 * @return
+	 */
+	public long getQuantile(double quantile) {
+		long total = count.get();
+		if (total == 0) {
+			return 0;
+		}
+
+		long rank = Math.max(1, (long) Math.ceil(quantile * total));
+		long seen = 0;
+		for (int index = 0; index < BUCKET_COUNT; index++) {
+			seen += buckets.get(index);
+			if (seen >= rank) {
+				return Math.min(getUpperBound(index), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	/**
+	 * This method is used to format the count and the usual percentiles in
+	 * milliseconds for the report.
+	 * 
+	 * @return
+	 */
+	public String summary() {
+		return String.format("count=%d p50=%.3fms p90=%.3fms p99=%.3fms p99.9=%.3fms max=%.3fms", getCount(),
+				toMillis(getQuantile(0.5)), toMillis(getQuantile(0.9)), toMillis(getQuantile(0.99)),
+				toMillis(getQuantile(0.999)), toMillis(max.get()));
+	}
+
+	/**
+	 * This method is used to fetch the bucket of a value. Values below the sub
+	 * bucket count have a bucket each, larger values share a bucket with the
+	 * values having the same leading bits.
+	 * 
+	 * @param value
+	 * @return
+	 */
+	static int getBucketIndex(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+		return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	/**
+	 * This method is used to fetch the largest value of a bucket.
+	 * 
+	 * @param index
+	 * @return
+	 */
+	static long getUpperBound(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+		int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+		return ((long) (SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+	}
+
+	/**
+	 * This method is used to convert nanoseconds to milliseconds for the report.
+	 * 
+	 * @param nanos
+	 * @return
+	 */
+	private static double toMillis(long nanos) {
+		return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+}
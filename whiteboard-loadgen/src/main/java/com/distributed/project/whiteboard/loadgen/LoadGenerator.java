@@ -0,0 +1,238 @@
+package com.distributed.project.whiteboard.loadgen;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.distributed.project.whiteboard.loadgen.utils.LoadGeneratorConstants;
+
+/**
+ * This class is used to run a whiteboard session with simulated users against
+ * a server and report how it performs end to end.
+ * 
+ * @implNote The users join one after another, the first one becoming the
+ *           manager which accepts the others. Once every user has joined, they
+ *           all draw free hand strokes, draw shapes and chat at the configured
+ *           rates for the configured duration.
+ * 
+ * @implNote The report covers the connection setup and join times, the events
+ *           sent and delivered per second and the percentiles of the end to end
+ *           latency of the delivered events.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class LoadGenerator {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(LoadGenerator.class);
+
+	// Joined users by the UID assigned by the server
+	private final Map<Long, SimulatedUser> users = new ConcurrentHashMap<>();
+
+	private final LatencyHistogram deliveryLatency = new LatencyHistogram();
+
+	public static void main(String[] args) {
+		// Checking if the port number mentioned is correct
+		if (Objects.isNull(args) || args.length == 0 || !StringUtils.isNumeric(args[0])) {
+			LOGGER.error("Port number not mentioned or contains characters");
+			System.exit(1);
+		}
+
+		try {
+			new LoadGenerator().runSession(
+					System.getProperty(LoadGeneratorConstants.PROP_HOST, LoadGeneratorConstants.DEFAULT_HOST),
+					Integer.parseInt(args[0]));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Exception e) {
+			LOGGER.error("Exception while running the load generator", e);
+		}
+		System.exit(0);
+	}
+
+	/**
+	 * This method is used to fetch a joined user by its UID.
+	 * 
+	 * @param clientUID
+	 * @return
+	 */
+	public SimulatedUser getUser(Long clientUID) {
+		return users.get(clientUID);
+	}
+
+	/**
+	 * This method is used to record the end to end latency of an event delivered
+	 * to a user.
+	 * 
+	 * @param nanos
+	 */
+	public void recordDelivery(long nanos) {
+		deliveryLatency.record(nanos);
+	}
+
+	/**
+	 * This method is used to add a joined user, by the UID assigned by the server.
+	 * 
+	 * @param user
+	 */
+	void addUser(SimulatedUser user) {
+		users.put(user.getClientUID(), user);
+	}
+
+	LatencyHistogram getDeliveryLatency() {
+		return deliveryLatency;
+	}
+
+	/**
+	 * This method is used to join the users, run the load for the configured
+	 * duration, report the results and exit the users.
+	 * 
+	 * @param host
+	 * @param port
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	private void runSession(String host, int port) throws IOException, InterruptedException {
+		int userCount = Integer.getInteger(LoadGeneratorConstants.PROP_USERS, LoadGeneratorConstants.DEFAULT_USERS);
+		int durationSeconds = Integer.getInteger(LoadGeneratorConstants.PROP_DURATION_SECONDS,
+				LoadGeneratorConstants.DEFAULT_DURATION_SECONDS);
+		double strokeRate = Double.parseDouble(System.getProperty(LoadGeneratorConstants.PROP_STROKE_RATE,
+				LoadGeneratorConstants.DEFAULT_STROKE_RATE));
+		double shapeRate = Double.parseDouble(
+				System.getProperty(LoadGeneratorConstants.PROP_SHAPE_RATE, LoadGeneratorConstants.DEFAULT_SHAPE_RATE));
+		double chatRate = Double.parseDouble(
+				System.getProperty(LoadGeneratorConstants.PROP_CHAT_RATE, LoadGeneratorConstants.DEFAULT_CHAT_RATE));
+		double cursorRate = Double.parseDouble(System.getProperty(LoadGeneratorConstants.PROP_CURSOR_RATE,
+				LoadGeneratorConstants.DEFAULT_CURSOR_RATE));
+
+		LOGGER.info(
+				"Running {} users against {}:{} for {}s, per user {} strokes/s, {} shapes/s, {} chats/s, {} cursors/s",
+				userCount, host, port, durationSeconds, strokeRate, shapeRate, chatRate, cursorRate);
+
+		ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(Integer
+				.getInteger(LoadGeneratorConstants.PROP_SENDER_THREADS, LoadGeneratorConstants.DEFAULT_SENDER_THREADS));
+		LatencyHistogram connectTimes = new LatencyHistogram();
+		LatencyHistogram joinTimes = new LatencyHistogram();
+		List<SimulatedUser> joinedUsers = new ArrayList<>();
+
+		// Joining the users one after another, the first one becomes the manager
+		for (int i = 0; i < userCount; i++) {
+			SimulatedUser user = new SimulatedUser(this, "loadgen-" + i, i);
+			user.connect(host, port);
+			connectTimes.record(user.getConnectNanos());
+			if (!user.join()) {
+				LOGGER.error("User {} was not accepted in time, running with {} users", i, joinedUsers.size());
+				user.exit();
+				break;
+			}
+			joinTimes.record(user.getJoinNanos());
+			addUser(user);
+			joinedUsers.add(user);
+
+			// Keeping the connection alive while the other users join
+			schedule(scheduler, user, 1000.0 / LoadGeneratorConstants.HEARTBEAT_INTERVAL_MS,
+					SimulatedUser::sendHeartbeat);
+		}
+
+		// Starting the load of every user at once
+		long startTime = System.nanoTime();
+		for (SimulatedUser user : joinedUsers) {
+			schedule(scheduler, user, strokeRate, SimulatedUser::sendStrokeSegment);
+			schedule(scheduler, user, shapeRate, SimulatedUser::sendShape);
+			schedule(scheduler, user, chatRate, SimulatedUser::sendChat);
+			schedule(scheduler, user, cursorRate, SimulatedUser::sendCursor);
+		}
+		Thread.sleep(TimeUnit.SECONDS.toMillis(durationSeconds));
+		scheduler.shutdownNow();
+		scheduler.awaitTermination(LoadGeneratorConstants.JOIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+		double elapsedSeconds = (System.nanoTime() - startTime) / (double) TimeUnit.SECONDS.toNanos(1);
+
+		// Waiting for the events in flight to be delivered
+		Thread.sleep(Long.getLong(LoadGeneratorConstants.PROP_DRAIN_MS, LoadGeneratorConstants.DEFAULT_DRAIN_MS));
+
+		report(joinedUsers, elapsedSeconds, connectTimes, joinTimes);
+
+		// Exiting the guests before the manager, whose exit ends the session
+		for (int i = joinedUsers.size() - 1; i >= 0; i--) {
+			joinedUsers.get(i).exit();
+		}
+	}
+
+	/**
+	 * This method is used to report the results of the session.
+	 * 
+	 * @param joinedUsers
+	 * @param elapsedSeconds
+	 * @param connectTimes
+	 * @param joinTimes
+	 */
+	private void report(List<SimulatedUser> joinedUsers, double elapsedSeconds, LatencyHistogram connectTimes,
+			LatencyHistogram joinTimes) {
+		long sentEvents = joinedUsers.stream().mapToLong(SimulatedUser::getSendCount).sum();
+
+		// Every event is relayed to every user except the sender
+		long expectedDeliveries = sentEvents * Math.max(joinedUsers.size() - 1, 0);
+		long deliveries = deliveryLatency.getCount();
+
+		LOGGER.info("Users joined: {}", joinedUsers.size());
+		LOGGER.info("Connection setup: {}", connectTimes.summary());
+		LOGGER.info("Join: {}", joinTimes.summary());
+		LOGGER.info(String.format("Sent: %d events, %.1f events/s", sentEvents, sentEvents / elapsedSeconds));
+		LOGGER.info(String.format("Delivered: %d of %d events, %.1f events/s", deliveries, expectedDeliveries,
+				deliveries / elapsedSeconds));
+		LOGGER.info("End to end latency: {}", deliveryLatency.summary());
+
+		// Cursors are coalesced by the server instead of relayed one by one
+		long sentCursors = joinedUsers.stream().mapToLong(SimulatedUser::getCursorCount).sum();
+		if (sentCursors > 0) {
+			LOGGER.info("Cursors: sent {}, received {} in {} presence events", sentCursors,
+					joinedUsers.stream().mapToLong(SimulatedUser::getPresenceCursorCount).sum(),
+					joinedUsers.stream().mapToLong(SimulatedUser::getPresenceEventCount).sum());
+		}
+	}
+
+	/**
+	 * This method is used to run an action of a user at the given rate per second,
+	 * starting at a random point of the first period so that users do not send
+	 * in lockstep. A rate of zero disables the action.
+	 * 
+	 * @param scheduler
+	 * @param user
+	 * @param ratePerSecond
+	 * @param userAction
+	 */
+	private void schedule(ScheduledExecutorService scheduler, SimulatedUser user, double ratePerSecond,
+			UserAction userAction) {
+		if (ratePerSecond <= 0) {
+			return;
+		}
+		long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+		scheduler.scheduleAtFixedRate(() -> {
+			try {
+				userAction.perform(user);
+			} catch (IOException e) {
+				LOGGER.error("Unable to send event of user {}", user.getClientUID(), e);
+			}
+		}, ThreadLocalRandom.current().nextLong(periodNanos), periodNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * This interface is used for an action performed by a simulated user.
+	 */
+	@FunctionalInterface
+	private interface UserAction {
+
+		void perform(SimulatedUser user) throws IOException;
+	}
+}
@@ -0,0 +1,129 @@
+package com.distributed.project.whiteboard.loadgen;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.distributed.project.whiteboard.loadgen.utils.LoadGeneratorConstants;
+
+/**
+ * This class is used to replay the frames of a captured connection on a new
+ * connection to the server. The events sent back by the server are read on a
+ * separate thread and handed to the {@link TrafficReplayer}.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class ReplayConnection implements Runnable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReplayConnection.class);
+
+	private final TrafficReplayer trafficReplayer;
+	private final long connectionId;
+	private final Socket socket;
+	private final BufferedReader in;
+	private final BufferedWriter out;
+	private volatile boolean isClosed;
+
+	/**
+	 * This constructor is used to connect to the server for the captured
+	 * connection and start reading the events sent back.
+	 * 
+	 * @param trafficReplayer
+	 * @param connectionId
+	 * @param host
+	 * @param port
+	 * @throws IOException
+	 */
+	public ReplayConnection(TrafficReplayer trafficReplayer, long connectionId, String host, int port)
+			throws IOException {
+		this.trafficReplayer = trafficReplayer;
+		this.connectionId = connectionId;
+		this.socket = new Socket();
+		socket.setTcpNoDelay(true);
+		socket.connect(new InetSocketAddress(host, port), LoadGeneratorConstants.CONNECT_TIMEOUT_MS);
+		this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+		this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+
+		Thread readerThread = new Thread(this, "replay-" + connectionId);
+		readerThread.setDaemon(true);
+		readerThread.start();
+	}
+
+	/**
+	 * Run method of {@link ReplayConnection}, reading the events sent by the
+	 * server until the connection is closed.
+	 */
+	@Override
+	public void run() {
+		try {
+			String eventString;
+			while ((eventString = in.readLine()) != null) {
+				if (StringUtils.isNotBlank(eventString)) {
+					trafficReplayer.handleServerEvent(connectionId, eventString);
+				}
+			}
+		} catch (IOException e) {
+			if (!isClosed) {
+				LOGGER.warn("Replayed connection {} lost", connectionId, e);
+			}
+		} finally {
+			close();
+		}
+	}
+
+	/**
+	 * This method is used to send a captured frame to the server.
+	 * 
+	 * @param frame
+	 * @return true if the frame was sent
+	 */
+	public boolean send(String frame) {
+		try {
+			out.write(frame + StringUtils.LF);
+			out.flush();
+			return true;
+		} catch (IOException e) {
+			LOGGER.warn("Unable to replay frame on connection {}", connectionId, e);
+			return false;
+		}
+	}
+
+	/**
+	 * This method is used to stop sending on the connection as the captured one
+	 * was closed. The events still being relayed by the server are read until the
+	 * server closes the connection.
+	 */
+	public void shutdownOutput() {
+		// The server closes the connection itself after an exit event
+		if (isClosed) {
+			return;
+		}
+		try {
+			socket.shutdownOutput();
+		} catch (IOException e) {
+			LOGGER.warn("Unable to shut down replayed connection {}", connectionId, e);
+		}
+	}
+
+	/**
+	 * This method is used to close the connection.
+	 */
+	public void close() {
+		isClosed = true;
+		try {
+			socket.close();
+		} catch (IOException e) {
+			LOGGER.warn("Unable to close replayed connection {}", connectionId, e);
+		}
+	}
+}
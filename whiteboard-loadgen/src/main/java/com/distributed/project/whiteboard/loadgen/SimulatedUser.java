@@ -0,0 +1,457 @@
+package com.distributed.project.whiteboard.loadgen;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.distributed.project.whiteboard.client.utilities.AESUtils;
+import com.distributed.project.whiteboard.loadgen.utils.LoadGeneratorConstants;
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.dto.UserDto;
+import com.distributed.project.whiteboard.protocol.opcode.Opcodes;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.distributed.project.whiteboard.protocol.utils.TypeConversionUtils;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * This class is used to simulate a user of the whiteboard without any UI. It
+ * joins the whiteboard with the same events as WhiteboardClient, draws and
+ * chats when asked to, and reads the events relayed by the server on its own
+ * thread.
+ * 
+ * @implNote The server relays the events of a user to every other user in the
+ *           order they were sent on each lane of the connection, while the
+ *           lanes overtake each other. So the n-th event received from a user
+ *           on a lane is the n-th event that user sent on that lane, and its end
+ *           to end latency is measured from the send time logged by the sender
+ *           for the lane, without adding anything to the events.
+ * 
+ * @implNote A free hand stroke coalesced by the rate limits of the server
+ *           carries the points of several segments sent by the user. It counts
+ *           as every segment it merges, each delivered when the stroke is
+ *           received.
+ * 
+ * @implNote The first user to join is assigned as the manager and accepts every
+ *           join request.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class SimulatedUser implements Runnable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SimulatedUser.class);
+
+	private static final ImmutableList<String> SHAPE_TOOLS = ImmutableList.of(ProtocolConstants.TOOL_LINE,
+			ProtocolConstants.TOOL_RECTANGLE, ProtocolConstants.TOOL_CIRCLE, ProtocolConstants.TOOL_TRIANGLE);
+
+	private final LoadGenerator loadGenerator;
+	private final String userName;
+	private final Random random;
+	private final CountDownLatch joinLatch = new CountDownLatch(1);
+
+	private Socket socket;
+	private BufferedReader in;
+	private BufferedWriter out;
+	private volatile UserDto userInfo;
+	private volatile boolean isManager;
+	private volatile boolean isExiting;
+
+	private long connectNanos;
+	private long joinNanos;
+
+	// Send times of the relayed events of every lane, indexed by the order they
+	// were sent on the lane
+	private final long[][] sendTimes = new long[ProtocolConstants.LANE_COUNT][1024];
+	private final int[] sendCounts = new int[ProtocolConstants.LANE_COUNT];
+
+	// Events received on every lane from every other user, only used by the
+	// reader thread
+	private final Map<Long, int[]> receivedCounts = new HashMap<>();
+
+	// Free hand stroke in progress
+	// Cursors sent, and the cursors received in the presence events of the server
+	private int cursorCount;
+	private volatile long presenceEventCount;
+	private volatile long presenceCursorCount;
+
+	private Point strokePoint;
+	private int strokeRemainingPoints;
+
+	/**
+	 * This constructor is used to initialize the user name and the load generator
+	 * collecting the results.
+	 * 
+	 * @param loadGenerator
+	 * @param userName
+	 * @param seed
+	 */
+	public SimulatedUser(LoadGenerator loadGenerator, String userName, long seed) {
+		this.loadGenerator = loadGenerator;
+		this.userName = userName;
+		this.random = new Random(seed);
+	}
+
+	/**
+	 * This method is used to connect to the server and start reading the events
+	 * relayed to the user.
+	 * 
+	 * @param host
+	 * @param port
+	 * @throws IOException
+	 */
+	public void connect(String host, int port) throws IOException {
+		long startTime = System.nanoTime();
+		socket = new Socket();
+		socket.setTcpNoDelay(true);
+		socket.connect(new InetSocketAddress(host, port), LoadGeneratorConstants.CONNECT_TIMEOUT_MS);
+		in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+		out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+		connectNanos = System.nanoTime() - startTime;
+
+		Thread readerThread = new Thread(this, "reader-" + userName);
+		readerThread.setDaemon(true);
+		readerThread.start();
+	}
+
+	/**
+	 * This method is used to send the join request and wait until the user is
+	 * assigned as the manager or accepted by the manager.
+	 * 
+	 * @return true if the user joined in time
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public boolean join() throws IOException, InterruptedException {
+		UserDto userDto = new UserDto();
+		userDto.setClientUserName(userName);
+		userInfo = userDto;
+
+		long startTime = System.nanoTime();
+		write(new ActionMessageDto(userDto, ProtocolConstants.ACTION_NEW_USER_PERMISSION), false);
+		boolean isJoined = joinLatch.await(LoadGeneratorConstants.JOIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+		joinNanos = System.nanoTime() - startTime;
+		return isJoined;
+	}
+
+	/**
+	 * Run method of {@link SimulatedUser}, reading the events relayed by the server
+	 * until the connection is closed.
+	 */
+	@Override
+	public void run() {
+		try {
+			String eventString;
+			while ((eventString = in.readLine()) != null) {
+				if (StringUtils.isNotBlank(eventString)) {
+					handleEvent(eventString);
+				}
+			}
+		} catch (IOException e) {
+			if (!isExiting) {
+				LOGGER.error("Connection of user {} lost", userName, e);
+			}
+		}
+	}
+
+	/**
+	 * This method is used to send the next segment of the free hand stroke in
+	 * progress, starting a new stroke once it is complete.
+	 * 
+	 * @throws IOException
+	 */
+	public void sendStrokeSegment() throws IOException {
+		if (strokeRemainingPoints == 0) {
+			strokePoint = randomPoint();
+			strokeRemainingPoints = LoadGeneratorConstants.STROKE_POINTS;
+		}
+		int step = LoadGeneratorConstants.STROKE_STEP;
+		Point nextPoint = new Point(strokePoint.x + random.nextInt(2 * step + 1) - step,
+				strokePoint.y + random.nextInt(2 * step + 1) - step);
+		write(new ActionMessageDto(userInfo, ProtocolConstants.ACTION_DRAW, ProtocolConstants.TOOL_PENCIL, strokePoint,
+				nextPoint, null, Color.BLACK, null, null), true);
+		strokePoint = nextPoint;
+		strokeRemainingPoints--;
+	}
+
+	/**
+	 * This method is used to send a shape drawn with one of the shape tools.
+	 * 
+	 * @throws IOException
+	 */
+	public void sendShape() throws IOException {
+		String tool = SHAPE_TOOLS.get(random.nextInt(SHAPE_TOOLS.size()));
+		Point dragPoint = ProtocolConstants.TOOL_TRIANGLE.equals(tool) ? randomPoint() : null;
+		write(new ActionMessageDto(userInfo, ProtocolConstants.ACTION_DRAW, tool, randomPoint(), randomPoint(),
+				dragPoint, new Color(random.nextInt(0xFFFFFF)), null, null), true);
+	}
+
+	/**
+	 * This method is used to send a chat message encrypted with the UID of the
+	 * user, as the chat box does.
+	 * 
+	 * @throws IOException
+	 */
+	public void sendChat() throws IOException {
+		StringBuilder chatText = new StringBuilder(LoadGeneratorConstants.CHAT_LENGTH);
+		for (int i = 0; i < LoadGeneratorConstants.CHAT_LENGTH; i++) {
+			chatText.append((char) ('a' + random.nextInt(26)));
+		}
+		String encryptedText = AESUtils.encryptString(chatText.toString(), userInfo.getClientUID().toString());
+		write(new ActionMessageDto(userInfo, ProtocolConstants.ACTION_CHAT, null, null, null, null, null, null,
+				encryptedText), true);
+	}
+
+	/**
+	 * This method is used to send the cursor of the user at a random point, as
+	 * the draw area does while the mouse moves.
+	 * 
+	 * @throws IOException
+	 */
+	public synchronized void sendCursor() throws IOException {
+		ActionMessageDto cursorEvent = new ActionMessageDto(null, ProtocolConstants.ACTION_CURSOR);
+		cursorEvent.setStartPoint(randomPoint());
+		write(cursorEvent, false);
+		cursorCount++;
+	}
+
+	/**
+	 * This method is used to send a heartbeat so that the server does not close an
+	 * idle connection.
+	 * 
+	 * @throws IOException
+	 */
+	public void sendHeartbeat() throws IOException {
+		write(new ActionMessageDto(userInfo, ProtocolConstants.ACTION_HEARTBEAT), false);
+	}
+
+	/**
+	 * This method is used to exit the whiteboard and close the connection.
+	 */
+	public void exit() {
+		isExiting = true;
+		try {
+			write(new ActionMessageDto(userInfo, ProtocolConstants.ACTION_EXIT), false);
+		} catch (IOException e) {
+			LOGGER.warn("Unable to send exit event of user {}", userName, e);
+		}
+		try {
+			socket.close();
+		} catch (IOException e) {
+			LOGGER.warn("Unable to close connection of user {}", userName, e);
+		}
+	}
+
+	/**
+	 * This method is used to fetch the time taken to connect to the server.
+	 * 
+	 * @return
+	 */
+	public long getConnectNanos() {
+		return connectNanos;
+	}
+
+	/**
+	 * This method is used to fetch the time taken from the join request until the
+	 * user joined.
+	 * 
+	 * @return
+	 */
+	public long getJoinNanos() {
+		return joinNanos;
+	}
+
+	/**
+	 * This method is used to fetch the UID assigned to the user by the server.
+	 * 
+	 * @return
+	 */
+	public Long getClientUID() {
+		return userInfo.getClientUID();
+	}
+
+	/**
+	 * This method is used to fetch the number of relayed events sent by the user.
+	 * 
+	 * @return
+	 */
+	public synchronized int getSendCount() {
+		int sendCount = 0;
+		for (int laneSendCount : sendCounts) {
+			sendCount += laneSendCount;
+		}
+		return sendCount;
+	}
+
+	/**
+	 * This method is used to fetch the number of cursors sent by the user.
+	 * 
+	 * @return
+	 */
+	public synchronized int getCursorCount() {
+		return cursorCount;
+	}
+
+	/**
+	 * This method is used to fetch the number of presence events received by the
+	 * user.
+	 * 
+	 * @return
+	 */
+	public long getPresenceEventCount() {
+		return presenceEventCount;
+	}
+
+	/**
+	 * This method is used to fetch the number of cursors received by the user in
+	 * the presence events.
+	 * 
+	 * @return
+	 */
+	public long getPresenceCursorCount() {
+		return presenceCursorCount;
+	}
+
+	/**
+	 * This method is used to fetch the send time of the n-th relayed event sent by
+	 * the user on a lane.
+	 * 
+	 * @param lane
+	 * @param index
+	 * @return the send time, or -1 if no such event was sent
+	 */
+	public synchronized long getSendTime(int lane, int index) {
+		return index < sendCounts[lane] ? sendTimes[lane][index] : -1;
+	}
+
+	/**
+	 * This method is used to handle an event relayed by the server.
+	 * 
+	 * @param eventString
+	 * @throws IOException
+	 */
+	void handleEvent(String eventString) throws IOException {
+		ActionMessageDto actionMessageDto = TypeConversionUtils.convertToCustomClass(eventString,
+				ActionMessageDto.class);
+		if (Objects.isNull(actionMessageDto)) {
+			LOGGER.warn("User {} received an unparseable event", userName);
+			return;
+		}
+
+		switch (actionMessageDto.getOpcode()) {
+		case ProtocolConstants.OP_DRAW:
+		case ProtocolConstants.OP_CHAT:
+			// A coalesced stroke delivers every segment whose points it carries
+			recordDelivery(
+					Objects.nonNull(actionMessageDto.getSenderId()) ? actionMessageDto.getSenderId()
+							: actionMessageDto.getUser().getClientUID(),
+					Opcodes.lane(actionMessageDto.getOpcode()), Objects.nonNull(actionMessageDto.getStroke())
+							? actionMessageDto.getStroke().size() - 1
+							: 1);
+			break;
+		case ProtocolConstants.OP_ASSIGN_MANAGER:
+			isManager = true;
+			userInfo = actionMessageDto.getUser();
+			joinLatch.countDown();
+			break;
+		case ProtocolConstants.OP_SESSION_TOKEN:
+			userInfo = actionMessageDto.getUser();
+			joinLatch.countDown();
+			break;
+		case ProtocolConstants.OP_NEW_USER_PERMISSION:
+			// Accepting every join request as the manager
+			if (isManager) {
+				ActionMessageDto acceptEvent = new ActionMessageDto(userInfo, ProtocolConstants.ACTION_NEW_USER_ACCEPT);
+				acceptEvent.setSelectedUser(actionMessageDto.getSelectedUser());
+				write(acceptEvent, false);
+			}
+			break;
+		case ProtocolConstants.OP_PRESENCE:
+			presenceEventCount++;
+			presenceCursorCount += actionMessageDto.getCursors().size();
+			break;
+		case ProtocolConstants.OP_FORCE_QUIT:
+			LOGGER.warn("User {} was forced to quit", userName);
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * This method is used to record the end to end latency of the events received
+	 * from another user on a lane.
+	 * 
+	 * @param senderUID
+	 * @param lane
+	 * @param eventCount the number of events sent by the user which the received
+	 *                   event delivers
+	 */
+	private void recordDelivery(Long senderUID, int lane, int eventCount) {
+		SimulatedUser sender = loadGenerator.getUser(senderUID);
+		if (Objects.isNull(sender)) {
+			return;
+		}
+		int[] laneCounts = receivedCounts.computeIfAbsent(senderUID, key -> new int[ProtocolConstants.LANE_COUNT]);
+		long receiveTime = System.nanoTime();
+		for (int i = 0; i < eventCount; i++) {
+			long sendTime = sender.getSendTime(lane, laneCounts[lane]++);
+			if (sendTime >= 0) {
+				loadGenerator.recordDelivery(receiveTime - sendTime);
+			}
+		}
+	}
+
+	/**
+	 * This method is used to write an event to the server. The send time of events
+	 * relayed to other users is logged for their lane before writing, under the
+	 * same lock, so the log follows the order of the connection.
+	 * 
+	 * @param actionMessageDto
+	 * @param isRelayed
+	 * @throws IOException
+	 */
+	private synchronized void write(ActionMessageDto actionMessageDto, boolean isRelayed) throws IOException {
+		// Leaving the user out of relayed events as the clients do
+		if (isRelayed && TypeConversionUtils.getCodecVersion() >= ProtocolConstants.SENDER_ID_CODEC_VERSION) {
+			actionMessageDto.setUser(null);
+		}
+		String eventString = TypeConversionUtils.convertObjectToString(actionMessageDto);
+		if (isRelayed) {
+			int lane = Opcodes.lane(actionMessageDto.getOpcode());
+			if (sendCounts[lane] == sendTimes[lane].length) {
+				sendTimes[lane] = Arrays.copyOf(sendTimes[lane], sendCounts[lane] * 2);
+			}
+			sendTimes[lane][sendCounts[lane]++] = System.nanoTime();
+		}
+		out.write(eventString + StringUtils.LF);
+		out.flush();
+	}
+
+	/**
+	 * This method is used to pick a random point on the board.
+	 * 
+	 * @return
+	 */
+	private Point randomPoint() {
+		return new Point(random.nextInt(LoadGeneratorConstants.BOARD_WIDTH),
+				random.nextInt(LoadGeneratorConstants.BOARD_HEIGHT));
+	}
+}
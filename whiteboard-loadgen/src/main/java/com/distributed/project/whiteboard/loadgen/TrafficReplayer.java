@@ -0,0 +1,304 @@
+package com.distributed.project.whiteboard.loadgen;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.distributed.project.whiteboard.loadgen.utils.LoadGeneratorConstants;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.distributed.project.whiteboard.server.capture.CaptureFormat;
+import com.distributed.project.whiteboard.server.capture.CaptureReader;
+import com.distributed.project.whiteboard.server.capture.CaptureRecord;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * This class is used to replay a capture recorded by the server against a
+ * server, opening, writing to and closing the connections as they were
+ * captured, at the captured speed, a multiple of it or as fast as possible.
+ * 
+ * @implNote The replay server assigns new UIDs to the connections, so the UIDs
+ *           in the frames are mapped from the captured ones. The UID of the
+ *           manager is learnt from the manager assign event, and the UID of a
+ *           user asking to join is learnt from the join request relayed to the
+ *           manager, matched by the user name. A frame waits for the UIDs it
+ *           refers to, so the manager accepts a user only once the server has
+ *           asked for it.
+ * 
+ * @implNote Resume events are skipped since the resume tokens of the capture
+ *           are not valid on the replay server.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class TrafficReplayer {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TrafficReplayer.class);
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private static final String FIELD_ACTION = "action";
+	private static final String FIELD_USER = "user";
+	private static final String FIELD_SELECTED_USER = "selectedUser";
+	private static final String FIELD_ACTIVE_USER_LIST = "activeUserList";
+	private static final String FIELD_CLIENT_UID = "clientUID";
+	private static final String FIELD_CLIENT_USER_NAME = "clientUserName";
+
+	// Replay server UIDs by captured UIDs, guarded by the lock of the map
+	private final Map<Long, Long> uidMapping = new HashMap<>();
+
+	// Captured UIDs of the users waiting to join by user name
+	private final Map<String, Deque<Long>> pendingJoins = new HashMap<>();
+
+	// Captured UIDs which were never mapped, to not wait for them again
+	private final Set<Long> unmappedUIDs = new HashSet<>();
+
+	// Replayed connections by captured connection id, only used by the main thread
+	private final Map<Long, ReplayConnection> connections = new HashMap<>();
+
+	public static void main(String[] args) {
+		if (Objects.isNull(args) || args.length < 2 || !StringUtils.isNumeric(args[0])) {
+			LOGGER.error("Usage: TrafficReplayer <port> <capture file>");
+			System.exit(1);
+		}
+
+		String speed = System.getProperty(LoadGeneratorConstants.PROP_REPLAY_SPEED,
+				LoadGeneratorConstants.DEFAULT_REPLAY_SPEED);
+		try {
+			new TrafficReplayer().replay(
+					System.getProperty(LoadGeneratorConstants.PROP_HOST, LoadGeneratorConstants.DEFAULT_HOST),
+					Integer.parseInt(args[0]), args[1],
+					LoadGeneratorConstants.REPLAY_SPEED_MAX.equalsIgnoreCase(speed) ? 0 : Double.parseDouble(speed));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Exception e) {
+			LOGGER.error("Exception while replaying the capture", e);
+		}
+		System.exit(0);
+	}
+
+	/**
+	 * This method is used to replay the capture. A speed of zero replays the
+	 * frames as fast as possible.
+	 * 
+	 * @param host
+	 * @param port
+	 * @param captureFile
+	 * @param speed
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public void replay(String host, int port, String captureFile, double speed)
+			throws IOException, InterruptedException {
+		LOGGER.info("Replaying {} against {}:{} at {}", captureFile, host, port, speed > 0 ? speed + "x" : "max speed");
+
+		long replayedFrames = 0;
+		long capturedMicros = 0;
+		long startNanos = System.nanoTime();
+		try (CaptureReader captureReader = new CaptureReader(captureFile)) {
+			CaptureRecord captureRecord;
+			while ((captureRecord = captureReader.next()) != null) {
+				capturedMicros = captureRecord.getTimestampMicros();
+
+				// Waiting until the record is due at the replay speed
+				if (speed > 0) {
+					long dueNanos = startNanos + (long) (TimeUnit.MICROSECONDS.toNanos(capturedMicros) / speed);
+					long waitNanos;
+					while ((waitNanos = dueNanos - System.nanoTime()) > 0) {
+						LockSupport.parkNanos(waitNanos);
+					}
+				}
+
+				if (replayRecord(captureRecord, host, port)) {
+					replayedFrames++;
+				}
+			}
+		}
+		double replaySeconds = (System.nanoTime() - startNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+
+		// Waiting for the last events to be relayed before closing the connections left
+		Thread.sleep(Long.getLong(LoadGeneratorConstants.PROP_DRAIN_MS, LoadGeneratorConstants.DEFAULT_DRAIN_MS));
+		connections.values().forEach(ReplayConnection::close);
+
+		LOGGER.info(String.format("Replayed %d frames in %.3fs of %.3fs captured, %.1f frames/s", replayedFrames,
+				replaySeconds, capturedMicros / (double) TimeUnit.SECONDS.toMicros(1), replayedFrames / replaySeconds));
+	}
+
+	/**
+	 * This method is used to handle an event sent by the server on a replayed
+	 * connection, to learn the UIDs assigned by the replay server.
+	 * 
+	 * @param connectionId
+	 * @param eventString
+	 */
+	public void handleServerEvent(long connectionId, String eventString) {
+		JsonNode event = readFrame(eventString);
+		if (Objects.isNull(event)) {
+			return;
+		}
+
+		String action = event.path(FIELD_ACTION).asText();
+		if (ProtocolConstants.ACTION_ASSIGN_MANAGER.equals(action)
+				|| ProtocolConstants.ACTION_SESSION_TOKEN.equals(action)) {
+			// The captured connection id is the captured UID of the user
+			mapUID(connectionId, event.path(FIELD_USER).path(FIELD_CLIENT_UID).asLong());
+		} else if (ProtocolConstants.ACTION_NEW_USER_PERMISSION.equals(action)) {
+			JsonNode selectedUser = event.path(FIELD_SELECTED_USER);
+			synchronized (uidMapping) {
+				Deque<Long> capturedUIDs = pendingJoins.get(selectedUser.path(FIELD_CLIENT_USER_NAME).asText());
+				if (Objects.nonNull(capturedUIDs) && !capturedUIDs.isEmpty()) {
+					mapUID(capturedUIDs.poll(), selectedUser.path(FIELD_CLIENT_UID).asLong());
+				}
+			}
+		}
+	}
+
+	/**
+	 * This method is used to replay a record of the capture.
+	 * 
+	 * @param captureRecord
+	 * @param host
+	 * @param port
+	 * @return true if a frame was sent
+	 * @throws InterruptedException
+	 */
+	private boolean replayRecord(CaptureRecord captureRecord, String host, int port) throws InterruptedException {
+		long connectionId = captureRecord.getConnectionId();
+		switch (captureRecord.getType()) {
+		case CaptureFormat.TYPE_CONNECT:
+			try {
+				connections.put(connectionId, new ReplayConnection(this, connectionId, host, port));
+			} catch (IOException e) {
+				LOGGER.error("Unable to open replayed connection {}", connectionId, e);
+			}
+			return false;
+		case CaptureFormat.TYPE_FRAME:
+			ReplayConnection replayConnection = connections.get(connectionId);
+			String frame = mapFrame(connectionId, captureRecord.getFrame());
+			return Objects.nonNull(replayConnection) && Objects.nonNull(frame) && replayConnection.send(frame);
+		case CaptureFormat.TYPE_DISCONNECT:
+			ReplayConnection closedConnection = connections.get(connectionId);
+			if (Objects.nonNull(closedConnection)) {
+				closedConnection.shutdownOutput();
+			}
+			return false;
+		default:
+			LOGGER.warn("Skipping record of unknown type {}", captureRecord.getType());
+			return false;
+		}
+	}
+
+	/**
+	 * This method is used to map the captured UIDs in a frame to the UIDs assigned
+	 * by the replay server. Frames without captured UIDs are sent unchanged.
+	 * 
+	 * @param connectionId
+	 * @param frame
+	 * @return the frame to send, or null if it is skipped
+	 * @throws InterruptedException
+	 */
+	private String mapFrame(long connectionId, String frame) throws InterruptedException {
+		JsonNode event = readFrame(frame);
+		if (!(event instanceof ObjectNode)) {
+			return frame;
+		}
+
+		String action = event.path(FIELD_ACTION).asText();
+		if (ProtocolConstants.ACTION_RESUME.equals(action)) {
+			LOGGER.info("Skipping resume of connection {}", connectionId);
+			return null;
+		}
+
+		// Noting the user asking to join, to learn its UID from the manager's request
+		if (ProtocolConstants.ACTION_NEW_USER_PERMISSION.equals(action)) {
+			synchronized (uidMapping) {
+				pendingJoins.computeIfAbsent(event.path(FIELD_USER).path(FIELD_CLIENT_USER_NAME).asText(),
+						userName -> new ArrayDeque<>()).add(connectionId);
+			}
+		}
+
+		boolean isMapped = mapUser(event.get(FIELD_USER));
+		isMapped |= mapUser(event.get(FIELD_SELECTED_USER));
+		JsonNode activeUserList = event.get(FIELD_ACTIVE_USER_LIST);
+		if (Objects.nonNull(activeUserList)) {
+			for (JsonNode user : activeUserList) {
+				isMapped |= mapUser(user);
+			}
+		}
+		return isMapped ? event.toString() : frame;
+	}
+
+	/**
+	 * This method is used to replace the captured UID of a user in a frame with
+	 * the UID assigned by the replay server, waiting for it to be learnt.
+	 * 
+	 * @param user
+	 * @return true if the UID was replaced
+	 * @throws InterruptedException
+	 */
+	private boolean mapUser(JsonNode user) throws InterruptedException {
+		if (!(user instanceof ObjectNode) || !user.path(FIELD_CLIENT_UID).canConvertToLong()) {
+			return false;
+		}
+
+		long capturedUID = user.get(FIELD_CLIENT_UID).asLong();
+		long deadline = System.currentTimeMillis() + LoadGeneratorConstants.UID_MAPPING_TIMEOUT_MS;
+		synchronized (uidMapping) {
+			Long replayUID;
+			while (Objects.isNull(replayUID = uidMapping.get(capturedUID))) {
+				long waitMillis = deadline - System.currentTimeMillis();
+				if (unmappedUIDs.contains(capturedUID) || waitMillis <= 0) {
+					if (unmappedUIDs.add(capturedUID)) {
+						LOGGER.warn("No UID learnt for captured UID {}, sending it unchanged", capturedUID);
+					}
+					return false;
+				}
+				uidMapping.wait(waitMillis);
+			}
+			((ObjectNode) user).put(FIELD_CLIENT_UID, replayUID);
+			return true;
+		}
+	}
+
+	/**
+	 * This method is used to map a captured UID to the UID assigned by the replay
+	 * server and wake up the frames waiting for it.
+	 * 
+	 * @param capturedUID
+	 * @param replayUID
+	 */
+	private void mapUID(long capturedUID, long replayUID) {
+		synchronized (uidMapping) {
+			uidMapping.put(capturedUID, replayUID);
+			unmappedUIDs.remove(capturedUID);
+			uidMapping.notifyAll();
+		}
+	}
+
+	/**
+	 * This method is used to parse a frame into a JSON tree.
+	 * 
+	 * @param frame
+	 * @return the tree, or null if the frame is not JSON
+	 */
+	private JsonNode readFrame(String frame) {
+		try {
+			return OBJECT_MAPPER.readTree(frame);
+		} catch (IOException e) {
+			LOGGER.warn("Unable to parse frame {}", frame);
+			return null;
+		}
+	}
+}
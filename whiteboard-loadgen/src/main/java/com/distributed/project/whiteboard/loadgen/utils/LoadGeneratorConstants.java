@@ -0,0 +1,56 @@
+package com.distributed.project.whiteboard.loadgen.utils;
+
+/**
+ * This class is used to store the configuration constants of the load
+ * generator and the traffic replayer. Every setting can be overridden with the
+ * system property named along with it.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public final class LoadGeneratorConstants {
+
+	private LoadGeneratorConstants() {
+		throw new IllegalStateException("LoadGeneratorConstants class cannot be instantiated");
+	}
+
+	// CONNECTION CONSTANTS
+	public static final String PROP_HOST = "whiteboard.loadgen.host";
+	public static final String DEFAULT_HOST = "localhost";
+	public static final int CONNECT_TIMEOUT_MS = 5000;
+	public static final long JOIN_TIMEOUT_MS = 10000;
+	public static final long HEARTBEAT_INTERVAL_MS = 10000;
+
+	// LOAD CONSTANTS
+	public static final String PROP_USERS = "whiteboard.loadgen.users";
+	public static final int DEFAULT_USERS = 10;
+	public static final String PROP_DURATION_SECONDS = "whiteboard.loadgen.duration.seconds";
+	public static final int DEFAULT_DURATION_SECONDS = 30;
+	public static final String PROP_DRAIN_MS = "whiteboard.loadgen.drain.ms";
+	public static final long DEFAULT_DRAIN_MS = 2000;
+	public static final String PROP_SENDER_THREADS = "whiteboard.loadgen.sender.threads";
+	public static final int DEFAULT_SENDER_THREADS = 4;
+
+	// RATES PER USER PER SECOND
+	public static final String PROP_STROKE_RATE = "whiteboard.loadgen.stroke.rate";
+	public static final String DEFAULT_STROKE_RATE = "20";
+	public static final String PROP_SHAPE_RATE = "whiteboard.loadgen.shape.rate";
+	public static final String DEFAULT_SHAPE_RATE = "0.5";
+	public static final String PROP_CHAT_RATE = "whiteboard.loadgen.chat.rate";
+	public static final String DEFAULT_CHAT_RATE = "0.2";
+	public static final String PROP_CURSOR_RATE = "whiteboard.loadgen.cursor.rate";
+	public static final String DEFAULT_CURSOR_RATE = "0";
+
+	// REPLAY CONSTANTS
+	public static final String PROP_REPLAY_SPEED = "whiteboard.replay.speed";
+	public static final String DEFAULT_REPLAY_SPEED = "1";
+	public static final String REPLAY_SPEED_MAX = "max";
+	public static final long UID_MAPPING_TIMEOUT_MS = 5000;
+
+	// DRAWING CONSTANTS
+	public static final int STROKE_POINTS = 32;
+	public static final int STROKE_STEP = 4;
+	public static final int BOARD_WIDTH = 1024;
+	public static final int BOARD_HEIGHT = 768;
+	public static final int CHAT_LENGTH = 40;
+}
@@ -0,0 +1,55 @@
+package com.distributed.project.whiteboard.loadgen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * This class is used to test that the latency histogram reports percentiles
+ * within the precision of its buckets.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class LatencyHistogramTest {
+
+	@Test
+	public void shouldReportQuantilesWithinBucketPrecision() {
+		LatencyHistogram latencyHistogram = new LatencyHistogram();
+		assertEquals(0, latencyHistogram.getQuantile(0.5));
+
+		// Latencies from 1 microsecond to 10 milliseconds
+		for (long micros = 1; micros <= 10000; micros++) {
+			latencyHistogram.record(micros * 1000);
+		}
+		assertEquals(10000, latencyHistogram.getCount());
+		assertQuantile(5000000, latencyHistogram.getQuantile(0.5));
+		assertQuantile(9000000, latencyHistogram.getQuantile(0.9));
+		assertQuantile(9900000, latencyHistogram.getQuantile(0.99));
+
+		// The largest bucket is capped at the largest latency recorded
+		assertEquals(10000000, latencyHistogram.getQuantile(1));
+	}
+
+	@Test
+	public void shouldBoundEveryBucketByItsLargestValue() {
+		for (int index = 0; index < 500; index++) {
+			long upperBound = LatencyHistogram.getUpperBound(index);
+			assertEquals(index, LatencyHistogram.getBucketIndex(upperBound));
+			assertEquals(index + 1, LatencyHistogram.getBucketIndex(upperBound + 1));
+		}
+	}
+
+	/**
+	 * This method is used to check that a reported percentile is the upper bound
+	 * of the bucket of the expected latency, at most a sixteenth above it.
+	 *
+	 * @param expected
+	 * @param actual
+	 */
+	private void assertQuantile(long expected, long actual) {
+		assertTrue(actual + " below " + expected, actual >= expected);
+		assertTrue(actual + " too far above " + expected, actual <= expected + expected / 16);
+	}
+}
@@ -0,0 +1,95 @@
+package com.distributed.project.whiteboard.loadgen;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.dto.UserDto;
+import com.distributed.project.whiteboard.protocol.stroke.PackedStroke;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.distributed.project.whiteboard.protocol.utils.TypeConversionUtils;
+
+/**
+ * This class is used to test that the events a simulated user receives are
+ * paired with the events the sender sent on the same lane, so that their end to
+ * end latency is measured from the right send time.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class SimulatedUserTest {
+
+	// Six digits, as the server assigns and the chat key requires
+	private static final Long SENDER_UID = 100001L;
+
+	@Test(timeout = 10000)
+	public void shouldPairDeliveriesWithSendsPerLane() throws Exception {
+		LoadGenerator loadGenerator = new LoadGenerator();
+		SimulatedUser sender = new SimulatedUser(loadGenerator, "sender", 1);
+		SimulatedUser receiver = new SimulatedUser(loadGenerator, "receiver", 2);
+
+		try (ServerSocket server = new ServerSocket(0)) {
+			sender.connect("localhost", server.getLocalPort());
+			try (Socket connection = server.accept()) {
+				BufferedReader in = new BufferedReader(
+						new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+
+				// Assigning the UID to the sender as the server does
+				ActionMessageDto assignEvent = new ActionMessageDto(new UserDto(SENDER_UID, "sender", true),
+						ProtocolConstants.ACTION_ASSIGN_MANAGER);
+				sender.handleEvent(TypeConversionUtils.convertObjectToString(assignEvent));
+				loadGenerator.addUser(sender);
+
+				// Three segments of a stroke on the draw lane, and a chat on the chat lane
+				sender.sendStrokeSegment();
+				sender.sendStrokeSegment();
+				sender.sendStrokeSegment();
+				sender.sendChat();
+				List<ActionMessageDto> sent = new ArrayList<>();
+				for (int i = 0; i < 4; i++) {
+					sent.add(TypeConversionUtils.convertToCustomClass(in.readLine(), ActionMessageDto.class));
+				}
+				assertEquals(4, sender.getSendCount());
+
+				// The chat overtakes the stroke, and the last two segments are coalesced
+				// into one stroke
+				PackedStroke stroke = new PackedStroke(0, 0);
+				stroke.add(1, 1);
+				stroke.add(2, 2);
+				sent.get(1).setStroke(stroke);
+				relay(receiver, sent.get(3));
+				relay(receiver, sent.get(0));
+				relay(receiver, sent.get(1));
+				assertEquals(4, loadGenerator.getDeliveryLatency().getCount());
+
+				// An event the sender has no send time for is not measured
+				relay(receiver, sent.get(2));
+				assertEquals(4, loadGenerator.getDeliveryLatency().getCount());
+			}
+		} finally {
+			sender.exit();
+		}
+	}
+
+	/**
+	 * This method is used to relay an event to the receiver as the server does,
+	 * stamped with the UID of its sender.
+	 *
+	 * @param receiver
+	 * @param event
+	 * @throws Exception
+	 */
+	private void relay(SimulatedUser receiver, ActionMessageDto event) throws Exception {
+		event.setSenderId(SENDER_UID);
+		receiver.handleEvent(TypeConversionUtils.convertObjectToString(event));
+	}
+}
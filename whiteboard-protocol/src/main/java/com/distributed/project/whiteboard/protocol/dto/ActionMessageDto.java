@@ -0,0 +1,318 @@
+package com.distributed.project.whiteboard.protocol.dto;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+
+import com.distributed.project.whiteboard.protocol.opcode.Opcodes;
+import com.distributed.project.whiteboard.protocol.stroke.PackedStroke;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * This class is used as a DTO, to transfer data between server and client.
+ * 
+ * @implNote The opcodes of the action and tool are kept along with their names,
+ *           so the handlers dispatch on them without comparing strings.
+ * 
+ * @implNote A free hand stroke is sent as one message carrying a
+ *           {@link PackedStroke}, instead of a message with a start and end
+ *           point per segment.
+ * 
+ * @implNote Relayed events are stamped by the server with the sender id of the
+ *           connection they were read from. Clients send them without the user,
+ *           and resolve the sender from their own table of members.
+ * 
+ * @implNote Joins and exits are sent as the member who joined or left, stamped
+ *           with the membership version. The whole list of members is only sent
+ *           to a joiner, or on request when a client finds a gap in the versions.
+ * 
+ * @implNote Cursors are sent by the clients as the start point of a cursor
+ *           event, and relayed by the server as the latest cursor of every
+ *           member which has moved since the previous presence event.
+ * 
+ * @implNote An event too large to hold up the other lanes of the connection,
+ *           such as an image of the board, is sent as chunk events carrying
+ *           consecutive parts of it under one transfer id, the last one marked
+ *           as the final chunk.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class ActionMessageDto implements Serializable {
+
+	private static final long serialVersionUID = -3860692784004659771L;
+
+	private UserDto user;
+
+	private String action;
+
+	@JsonIgnore
+	private int opcode = Opcodes.UNKNOWN;
+
+	private String tool;
+
+	@JsonIgnore
+	private int toolOpcode = Opcodes.UNKNOWN;
+
+	private Point startPoint;
+
+	private Point endPoint;
+
+	private Point dragPoint;
+
+	private PackedStroke stroke;
+
+	private Color color;
+
+	private String drawText;
+
+	private String chatMessage;
+
+	private UserDto selectedUser;
+
+	private List<UserDto> activeUserList;
+
+	private String drawboardImage;
+
+	private Long sequence;
+
+	private Long senderId;
+
+	private Long membershipVersion;
+
+	private List<CursorDto> cursors;
+
+	private Long transferId;
+
+	private String chunk;
+
+	private Boolean finalChunk;
+
+	private String resumeToken;
+
+	public UserDto getUser() {
+		return user;
+	}
+
+	public void setUser(UserDto user) {
+		this.user = user;
+	}
+
+	public String getAction() {
+		return action;
+	}
+
+	public void setAction(String action) {
+		this.action = action;
+		this.opcode = Opcodes.actionOpcode(action);
+	}
+
+	public int getOpcode() {
+		return opcode;
+	}
+
+	public void setOpcode(int opcode) {
+		this.opcode = opcode;
+		this.action = Opcodes.actionName(opcode);
+	}
+
+	public String getTool() {
+		return tool;
+	}
+
+	public void setTool(String tool) {
+		this.tool = tool;
+		this.toolOpcode = Opcodes.toolOpcode(tool);
+	}
+
+	public int getToolOpcode() {
+		return toolOpcode;
+	}
+
+	public void setToolOpcode(int toolOpcode) {
+		this.toolOpcode = toolOpcode;
+		this.tool = Opcodes.toolName(toolOpcode);
+	}
+
+	public Point getStartPoint() {
+		return startPoint;
+	}
+
+	public void setStartPoint(Point startPoint) {
+		this.startPoint = startPoint;
+	}
+
+	public Point getEndPoint() {
+		return endPoint;
+	}
+
+	public void setEndPoint(Point endPoint) {
+		this.endPoint = endPoint;
+	}
+
+	public Point getDragPoint() {
+		return dragPoint;
+	}
+
+	public void setDragPoint(Point dragPoint) {
+		this.dragPoint = dragPoint;
+	}
+
+	public PackedStroke getStroke() {
+		return stroke;
+	}
+
+	public void setStroke(PackedStroke stroke) {
+		this.stroke = stroke;
+	}
+
+	public Color getColor() {
+		return color;
+	}
+
+	public void setColor(Color color) {
+		this.color = color;
+	}
+
+	public String getDrawText() {
+		return drawText;
+	}
+
+	public void setDrawText(String drawText) {
+		this.drawText = drawText;
+	}
+
+	public String getChatMessage() {
+		return chatMessage;
+	}
+
+	public void setChatMessage(String chatMessage) {
+		this.chatMessage = chatMessage;
+	}
+
+	public UserDto getSelectedUser() {
+		return selectedUser;
+	}
+
+	public void setSelectedUser(UserDto selectedUser) {
+		this.selectedUser = selectedUser;
+	}
+
+	public List<UserDto> getActiveUserList() {
+		return activeUserList;
+	}
+
+	public void setActiveUserList(List<UserDto> activeUserList) {
+		this.activeUserList = activeUserList;
+	}
+
+	public String getDrawboardImage() {
+		return drawboardImage;
+	}
+
+	public void setDrawboardImage(String drawboardImage) {
+		this.drawboardImage = drawboardImage;
+	}
+
+	public Long getSequence() {
+		return sequence;
+	}
+
+	public void setSequence(Long sequence) {
+		this.sequence = sequence;
+	}
+
+	public Long getSenderId() {
+		return senderId;
+	}
+
+	public void setSenderId(Long senderId) {
+		this.senderId = senderId;
+	}
+
+	public Long getMembershipVersion() {
+		return membershipVersion;
+	}
+
+	public void setMembershipVersion(Long membershipVersion) {
+		this.membershipVersion = membershipVersion;
+	}
+
+	public List<CursorDto> getCursors() {
+		return cursors;
+	}
+
+	public void setCursors(List<CursorDto> cursors) {
+		this.cursors = cursors;
+	}
+
+	public Long getTransferId() {
+		return transferId;
+	}
+
+	public void setTransferId(Long transferId) {
+		this.transferId = transferId;
+	}
+
+	public String getChunk() {
+		return chunk;
+	}
+
+	public void setChunk(String chunk) {
+		this.chunk = chunk;
+	}
+
+	public Boolean getFinalChunk() {
+		return finalChunk;
+	}
+
+	public void setFinalChunk(Boolean finalChunk) {
+		this.finalChunk = finalChunk;
+	}
+
+	public String getResumeToken() {
+		return resumeToken;
+	}
+
+	public void setResumeToken(String resumeToken) {
+		this.resumeToken = resumeToken;
+	}
+
+	public ActionMessageDto(UserDto user, String action, String tool, Point startPoint, Point endPoint, Point dragPoint,
+			Color color, String drawText, String chatMessage) {
+		super();
+		this.user = user;
+		setAction(action);
+		setTool(tool);
+		this.startPoint = startPoint;
+		this.endPoint = endPoint;
+		this.dragPoint = dragPoint;
+		this.color = color;
+		this.drawText = drawText;
+		this.chatMessage = chatMessage;
+	}
+
+	public ActionMessageDto(UserDto user, String action) {
+		super();
+		this.user = user;
+		setAction(action);
+	}
+	
+	public ActionMessageDto() {
+		super();
+	}
+
+	@Override
+	public String toString() {
+		return "ActionMessageDto [user=" + user + ", action=" + action + ", tool=" + tool + ", startPoint=" + startPoint
+				+ ", endPoint=" + endPoint + ", dragPoint=" + dragPoint + ", stroke=" + stroke + ", color="
+				+ (Objects.nonNull(color) ? String.valueOf(color.getRGB()) : "null") + ", drawText=" + drawText
+				+ ", chatMessage=" + chatMessage + ", selectedUser=" + selectedUser + ", activeUserList="
+				+ activeUserList + ", drawboardImage=" + drawboardImage + ", sequence=" + sequence + ", senderId="
+				+ senderId + ", membershipVersion=" + membershipVersion + ", cursors=" + cursors + ", transferId="
+				+ transferId + ", chunk=" + chunk + ", finalChunk=" + finalChunk + "]";
+	}
+
+}
\ No newline at end of file
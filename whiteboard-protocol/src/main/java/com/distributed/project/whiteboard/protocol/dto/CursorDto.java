@@ -0,0 +1,123 @@
+package com.distributed.project.whiteboard.protocol.dto;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * This class is used as a DTO, for transferring the latest cursor position of a
+ * member to the other clients.
+ *
+ * @implNote Messages carry a cursor as the array of the client UID followed by
+ *           the x and y board coordinates. A cursor which has left the board is
+ *           sent as the client UID alone.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class CursorDto implements Serializable {
+
+	private static final long serialVersionUID = 3816622092658510923L;
+
+	private final long clientUID;
+	private final boolean isVisible;
+	private final int x;
+	private final int y;
+
+	/**
+	 * This constructor is used to create the cursor of a member at the given
+	 * board coordinates.
+	 *
+	 * @param clientUID
+	 * @param x
+	 * @param y
+	 */
+	public CursorDto(long clientUID, int x, int y) {
+		this(clientUID, true, x, y);
+	}
+
+	private CursorDto(long clientUID, boolean isVisible, int x, int y) {
+		super();
+		this.clientUID = clientUID;
+		this.isVisible = isVisible;
+		this.x = x;
+		this.y = y;
+	}
+
+	/**
+	 * This method is used to create the cursor of a member which has left the
+	 * board.
+	 *
+	 * @param clientUID
+	 * @return
+	 */
+	public static CursorDto hidden(long clientUID) {
+		return new CursorDto(clientUID, false, 0, 0);
+	}
+
+	/**
+	 * This method is used to create a cursor from the array written in the
+	 * messages.
+	 *
+	 * @param values
+	 * @return
+	 */
+	@JsonCreator
+	public static CursorDto fromArray(long[] values) {
+		if (Objects.isNull(values) || (values.length != 1 && values.length != 3)) {
+			throw new IllegalArgumentException("Cursor needs the client UID and optionally the point");
+		}
+		return values.length == 1 ? hidden(values[0])
+				: new CursorDto(values[0], Math.toIntExact(values[1]), Math.toIntExact(values[2]));
+	}
+
+	/**
+	 * This method is used to fetch the array written in the messages.
+	 *
+	 * @return
+	 */
+	@JsonValue
+	public long[] toArray() {
+		return isVisible ? new long[] { clientUID, x, y } : new long[] { clientUID };
+	}
+
+	public long getClientUID() {
+		return clientUID;
+	}
+
+	public boolean isVisible() {
+		return isVisible;
+	}
+
+	public int getX() {
+		return x;
+	}
+
+	public int getY() {
+		return y;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof CursorDto)) {
+			return false;
+		}
+		return Arrays.equals(toArray(), ((CursorDto) obj).toArray());
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(toArray());
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+}
@@ -1,15 +1,15 @@
-package com.distributed.project.whiteboard.client.dto;
+package com.distributed.project.whiteboard.protocol.dto;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.Serializable;
 
-import com.fasterxml.jackson.annotation.JsonIgnore;
-
 /**
  * This class is used as a DTO, for transferring user information to server and
  * other clients.
  * 
+ * @implNote Only the fields shared over the network are kept here. The server
+ *           extends this class with the connection and session state of each
+ *           client.
+ * 
  * @author Abhijeet - 1278218
  *
  */
@@ -23,12 +23,6 @@ public class UserDto implements Serializable {
 
 	private boolean isManager;
 
-	@JsonIgnore
-	private BufferedReader in;
-
-	@JsonIgnore
-	private BufferedWriter out;
-
 	public Long getClientUID() {
 		return clientUID;
 	}
@@ -53,29 +47,11 @@ public class UserDto implements Serializable {
 		this.isManager = isManager;
 	}
 
-	public BufferedReader getIn() {
-		return in;
-	}
-
-	public void setIn(BufferedReader in) {
-		this.in = in;
-	}
-
-	public BufferedWriter getOut() {
-		return out;
-	}
-
-	public void setOut(BufferedWriter out) {
-		this.out = out;
-	}
-
-	public UserDto(Long clientUID, String clientUserName, boolean isManager, BufferedReader in, BufferedWriter out) {
+	public UserDto(Long clientUID, String clientUserName, boolean isManager) {
 		super();
 		this.clientUID = clientUID;
 		this.clientUserName = clientUserName;
 		this.isManager = isManager;
-		this.in = in;
-		this.out = out;
 	}
 
 	public UserDto() {
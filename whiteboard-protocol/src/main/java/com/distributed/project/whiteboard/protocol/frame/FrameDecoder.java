@@ -0,0 +1,477 @@
+package com.distributed.project.whiteboard.protocol.frame;
+
+import com.distributed.project.whiteboard.protocol.opcode.Opcodes;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+
+/**
+ * This class is used to decode the fields of a message held in a
+ * {@link MessageFrame} into the primitive fields of the frame, scanning the
+ * characters of the frame in place.
+ *
+ * @implNote Unlike the ActionMessageCodec, the decoder creates no parser,
+ *           strings or objects for the fields, so decoding allocates nothing.
+ *           Strings such as the action and the tool are matched against the
+ *           opcode tables without being copied. Text fields and the user list
+ *           are skipped, and are only read once the message is bound to an
+ *           ActionMessageDto.
+ *
+ * @implNote Messages of older clients written with the object mapper, without
+ *           the codec version and opcode, are decoded as well. Their points are
+ *           written with decimals and their colors as objects, from which only
+ *           the packed RGB value is read.
+ *
+ * @implNote An instance holds the position of the message being decoded, so it
+ *           is used by one connection at a time.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class FrameDecoder {
+
+	private static final String FIELD_VERSION = "v";
+	private static final String FIELD_TOOL = "tool";
+	private static final String FIELD_START_POINT = "startPoint";
+	private static final String FIELD_END_POINT = "endPoint";
+	private static final String FIELD_DRAG_POINT = "dragPoint";
+	private static final String FIELD_COLOR = "color";
+	private static final String FIELD_CLIENT_UID = "clientUID";
+	private static final String FIELD_RGB = "rgb";
+	private static final String FIELD_X = "x";
+	private static final String FIELD_Y = "y";
+	private static final String LITERAL_NULL = "null";
+
+	// Objects of a message whose fields are read
+	private static final int OBJECT_MESSAGE = 0;
+	private static final int OBJECT_USER = 1;
+	private static final int OBJECT_POINT = 2;
+	private static final int OBJECT_COLOR = 3;
+
+	private char[] buffer;
+	private int position;
+	private int limit;
+
+	// Range of the buffer of the last string read, without the quotes
+	private int stringStart;
+	private int stringEnd;
+
+	// Opcode merged from the opcode and action fields read so far
+	private int opcode;
+
+	// Last number read, and the last point read
+	private long number;
+	private int pointX;
+	private int pointY;
+
+	/**
+	 * This method is used to decode the message of the frame into its fields.
+	 *
+	 * @param frame
+	 * @return the opcode, or {@link Opcodes#UNKNOWN} if the message is not a JSON
+	 *         object with a known opcode or action, or if they disagree
+	 */
+	public int decode(MessageFrame frame) {
+		frame.resetFields();
+		buffer = frame.getBuffer();
+		position = 0;
+		limit = frame.length();
+		opcode = Opcodes.ABSENT;
+
+		boolean isDecoded = readObject(frame, OBJECT_MESSAGE);
+		int rootEnd = position - 1;
+		isDecoded = isDecoded && skipWhitespace() == limit && opcode != Opcodes.CONFLICT;
+		buffer = null;
+		if (isDecoded) {
+			frame.setRootEnd(rootEnd);
+			if (opcode >= 0) {
+				frame.setOpcode(opcode);
+			}
+		} else {
+			frame.resetFields();
+		}
+		return frame.getOpcode();
+	}
+
+	/**
+	 * This method is used to read the fields of an object, keeping the fields of
+	 * the given kind of object and skipping the others.
+	 *
+	 * @param frame
+	 * @param kind
+	 * @return false if the object is malformed
+	 */
+	private boolean readObject(MessageFrame frame, int kind) {
+		if (!consume('{')) {
+			return false;
+		}
+		if (consume('}')) {
+			return true;
+		}
+
+		do {
+			if (!readString()) {
+				return false;
+			}
+			int nameStart = stringStart;
+			int nameEnd = stringEnd;
+			if (!consume(':') || !readField(frame, kind, nameStart, nameEnd)) {
+				return false;
+			}
+		} while (consume(','));
+		return consume('}');
+	}
+
+	/**
+	 * This method is used to read the value of a field, into the frame if it is
+	 * one of the decoded fields of the object.
+	 *
+	 * @param frame
+	 * @param kind
+	 * @param nameStart
+	 * @param nameEnd
+	 * @return false if the value is malformed
+	 */
+	private boolean readField(MessageFrame frame, int kind, int nameStart, int nameEnd) {
+		// Null fields are left out as if they were not written
+		if (consumeNull()) {
+			return true;
+		}
+
+		switch (kind) {
+		case OBJECT_MESSAGE:
+			return readMessageField(frame, nameStart, nameEnd);
+		case OBJECT_USER:
+			if (isName(nameStart, nameEnd, FIELD_CLIENT_UID)) {
+				if (!readNumber()) {
+					return false;
+				}
+				frame.setClientUID(number);
+				return true;
+			}
+			return skipValue();
+		case OBJECT_POINT:
+			if (isName(nameStart, nameEnd, FIELD_X) || isName(nameStart, nameEnd, FIELD_Y)) {
+				if (!readNumber()) {
+					return false;
+				}
+				if (isName(nameStart, nameEnd, FIELD_X)) {
+					pointX = (int) number;
+				} else {
+					pointY = (int) number;
+				}
+				return true;
+			}
+			return skipValue();
+		case OBJECT_COLOR:
+			if (isName(nameStart, nameEnd, FIELD_RGB)) {
+				if (!readNumber()) {
+					return false;
+				}
+				frame.setColor((int) number);
+				return true;
+			}
+			return skipValue();
+		default:
+			return skipValue();
+		}
+	}
+
+	/**
+	 * This method is used to read a top level field of the message.
+	 *
+	 * @param frame
+	 * @param nameStart
+	 * @param nameEnd
+	 * @return false if the value is malformed
+	 */
+	private boolean readMessageField(MessageFrame frame, int nameStart, int nameEnd) {
+		if (isName(nameStart, nameEnd, FIELD_VERSION)) {
+			if (!readNumber()) {
+				return false;
+			}
+			frame.setVersion((int) number);
+		} else if (isName(nameStart, nameEnd, ProtocolConstants.FIELD_OPCODE)) {
+			if (!readNumber()) {
+				return false;
+			}
+			opcode = Opcodes.merge(opcode, number >= 0 && number < Opcodes.actionCount() ? (int) number
+					: Opcodes.UNKNOWN);
+		} else if (isName(nameStart, nameEnd, ProtocolConstants.FIELD_ACTION)) {
+			if (!readString()) {
+				return false;
+			}
+			opcode = Opcodes.merge(opcode, lookupAction());
+		} else if (isName(nameStart, nameEnd, FIELD_TOOL)) {
+			if (!readString()) {
+				return false;
+			}
+			frame.setToolOpcode(lookupTool());
+		} else if (isName(nameStart, nameEnd, ProtocolConstants.FIELD_USER)) {
+			frame.setHasUser(true);
+			return readObject(frame, OBJECT_USER);
+		} else if (isName(nameStart, nameEnd, FIELD_START_POINT)) {
+			if (!readPoint(frame)) {
+				return false;
+			}
+			frame.setStartPoint(pointX, pointY);
+		} else if (isName(nameStart, nameEnd, FIELD_END_POINT)) {
+			if (!readPoint(frame)) {
+				return false;
+			}
+			frame.setEndPoint(pointX, pointY);
+		} else if (isName(nameStart, nameEnd, FIELD_DRAG_POINT)) {
+			if (!readPoint(frame)) {
+				return false;
+			}
+			frame.setDragPoint(pointX, pointY);
+		} else if (isName(nameStart, nameEnd, FIELD_COLOR)) {
+			// Colors are packed ints, or objects written by the object mapper
+			if (peek() == '{') {
+				return readObject(frame, OBJECT_COLOR);
+			}
+			if (!readNumber()) {
+				return false;
+			}
+			frame.setColor((int) number);
+		} else if (isName(nameStart, nameEnd, ProtocolConstants.FIELD_SEQUENCE)) {
+			if (!readNumber()) {
+				return false;
+			}
+			frame.setSequence(number);
+		} else if (isName(nameStart, nameEnd, ProtocolConstants.FIELD_SENDER_ID)) {
+			if (!readNumber()) {
+				return false;
+			}
+			frame.setSenderId(number);
+		} else {
+			return skipValue();
+		}
+		return true;
+	}
+
+	/**
+	 * This method is used to read a point into the last point read.
+	 *
+	 * @param frame
+	 * @return false if the point is malformed
+	 */
+	private boolean readPoint(MessageFrame frame) {
+		pointX = 0;
+		pointY = 0;
+		return readObject(frame, OBJECT_POINT);
+	}
+
+	/**
+	 * This method is used to map the last string read to its action opcode.
+	 *
+	 * @return
+	 */
+	private int lookupAction() {
+		for (int opcode = 0; opcode < Opcodes.actionCount(); opcode++) {
+			if (isName(stringStart, stringEnd, Opcodes.actionName(opcode))) {
+				return opcode;
+			}
+		}
+		return Opcodes.UNKNOWN;
+	}
+
+	/**
+	 * This method is used to map the last string read to its tool opcode.
+	 *
+	 * @return
+	 */
+	private int lookupTool() {
+		for (int opcode = 0; opcode < Opcodes.toolCount(); opcode++) {
+			if (isName(stringStart, stringEnd, Opcodes.toolName(opcode))) {
+				return opcode;
+			}
+		}
+		return Opcodes.UNKNOWN;
+	}
+
+	/**
+	 * This method is used to compare a range of the buffer with a name.
+	 *
+	 * @param start
+	 * @param end
+	 * @param name
+	 * @return
+	 */
+	private boolean isName(int start, int end, String name) {
+		if (end - start != name.length()) {
+			return false;
+		}
+		for (int i = 0; i < name.length(); i++) {
+			if (buffer[start + i] != name.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * This method is used to read a string, keeping its range in the buffer
+	 * without unescaping it.
+	 *
+	 * @return false if the next value is not a string
+	 */
+	private boolean readString() {
+		if (!consume('"')) {
+			return false;
+		}
+		stringStart = position;
+		while (position < limit) {
+			char c = buffer[position];
+			if (c == '"') {
+				stringEnd = position++;
+				return true;
+			}
+			// Skipping the escaped character
+			position += c == '\\' ? 2 : 1;
+		}
+		return false;
+	}
+
+	/**
+	 * This method is used to read a number. Decimals and exponents, written by the
+	 * object mapper for points, are truncated.
+	 *
+	 * @return false if the next value is not a number
+	 */
+	private boolean readNumber() {
+		skipWhitespace();
+		boolean isNegative = position < limit && buffer[position] == '-';
+		if (isNegative) {
+			position++;
+		}
+
+		int start = position;
+		long value = 0;
+		while (position < limit && isDigit(buffer[position])) {
+			value = value * 10 + buffer[position++] - '0';
+		}
+		if (position == start) {
+			return false;
+		}
+
+		// Skipping the decimals and the exponent
+		while (position < limit && (isDigit(buffer[position]) || buffer[position] == '.' || buffer[position] == 'e'
+				|| buffer[position] == 'E' || buffer[position] == '+' || buffer[position] == '-')) {
+			position++;
+		}
+		number = isNegative ? -value : value;
+		return true;
+	}
+
+	/**
+	 * This method is used to skip a value of any type.
+	 *
+	 * @return false if the value is malformed
+	 */
+	private boolean skipValue() {
+		char c = peek();
+		if (c == '"') {
+			return readString();
+		}
+		if (c == '-' || isDigit(c)) {
+			return readNumber();
+		}
+		if (c == '{' || c == '[') {
+			return skipNested();
+		}
+
+		// Skipping the literals true, false and null
+		int start = position;
+		while (position < limit && Character.isLetter(buffer[position])) {
+			position++;
+		}
+		return position > start;
+	}
+
+	/**
+	 * This method is used to skip an object or an array, with the objects and
+	 * arrays nested in it.
+	 *
+	 * @return false if the value is not closed
+	 */
+	private boolean skipNested() {
+		int depth = 0;
+		while (position < limit) {
+			char c = buffer[position];
+			if (c == '"') {
+				if (!readString()) {
+					return false;
+				}
+				continue;
+			}
+			position++;
+			if (c == '{' || c == '[') {
+				depth++;
+			} else if ((c == '}' || c == ']') && --depth == 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * This method is used to consume a null value.
+	 *
+	 * @return false if the next value is not null
+	 */
+	private boolean consumeNull() {
+		skipWhitespace();
+		if (limit - position >= LITERAL_NULL.length()
+				&& isName(position, position + LITERAL_NULL.length(), LITERAL_NULL)) {
+			position += LITERAL_NULL.length();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * This method is used to consume the given character, after any whitespace.
+	 *
+	 * @param c
+	 * @return false if the next character is a different one
+	 */
+	private boolean consume(char c) {
+		if (peek() == c) {
+			position++;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * This method is used to fetch the next character after any whitespace,
+	 * without consuming it.
+	 *
+	 * @return the character, or zero at the end of the message
+	 */
+	private char peek() {
+		skipWhitespace();
+		return position < limit ? buffer[position] : 0;
+	}
+
+	/**
+	 * This method is used to skip whitespace.
+	 *
+	 * @return the position of the next character
+	 */
+	private int skipWhitespace() {
+		while (position < limit && Character.isWhitespace(buffer[position])) {
+			position++;
+		}
+		return position;
+	}
+
+	/**
+	 * This method is used to check if a character is a decimal digit.
+	 *
+	 * @param c
+	 * @return
+	 */
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+}
@@ -0,0 +1,92 @@
+package com.distributed.project.whiteboard.protocol.frame;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * This class is used to read the messages of a connection, one per line, into
+ * a reusable {@link MessageFrame} instead of a new string per line.
+ *
+ * @implNote Lines end with a line feed, a carriage return or both, as for
+ *           {@code BufferedReader#readLine}. The reader buffers the connection
+ *           itself, so nothing else should read from the same reader.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class FrameReader {
+
+	private static final int READ_BUFFER_SIZE = 8192;
+
+	private final Reader reader;
+	private final char[] readBuffer = new char[READ_BUFFER_SIZE];
+	private int position;
+	private int limit;
+
+	// Skipping the line feed of a line ended by a carriage return and line feed
+	private boolean skipLineFeed;
+
+	/**
+	 * This constructor is used to initialize the reader of the connection.
+	 *
+	 * @param reader
+	 */
+	public FrameReader(Reader reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * This method is used to read the next line into the frame, without the line
+	 * terminator.
+	 *
+	 * @param frame
+	 * @return false if the end of the stream is reached before any character of
+	 *         the line
+	 * @throws IOException
+	 */
+	public boolean readFrame(MessageFrame frame) throws IOException {
+		frame.clear();
+		boolean isRead = false;
+		while (true) {
+			if (position == limit) {
+				limit = reader.read(readBuffer, 0, readBuffer.length);
+				position = 0;
+				if (limit <= 0) {
+					limit = 0;
+					return isRead;
+				}
+			}
+
+			if (skipLineFeed) {
+				skipLineFeed = false;
+				if (readBuffer[position] == '\n') {
+					position++;
+					continue;
+				}
+			}
+			isRead = true;
+
+			// Copying the line up to the terminator in one go
+			int start = position;
+			while (position < limit && readBuffer[position] != '\n' && readBuffer[position] != '\r') {
+				position++;
+			}
+			frame.append(readBuffer, start, position - start);
+			if (position < limit) {
+				skipLineFeed = readBuffer[position++] == '\r';
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * This method is used to check if more of the connection can be read without
+	 * blocking, from the buffer of this reader or of the connection.
+	 *
+	 * @return
+	 * @throws IOException
+	 */
+	public boolean isReady() throws IOException {
+		return position < limit || reader.ready();
+	}
+}
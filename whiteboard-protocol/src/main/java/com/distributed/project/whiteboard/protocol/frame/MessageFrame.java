@@ -0,0 +1,443 @@
+package com.distributed.project.whiteboard.protocol.frame;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+import com.distributed.project.whiteboard.protocol.opcode.Opcodes;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.distributed.project.whiteboard.protocol.utils.TypeConversionUtils;
+
+/**
+ * This class is used to hold one message as received, in a reusable character
+ * buffer, together with the fields decoded from it by {@link FrameDecoder} as
+ * primitives.
+ *
+ * @implNote A frame is reused for every message of a connection, so reading,
+ *           decoding and relaying a message allocates nothing once the buffer
+ *           has grown to the size of the messages. A buffer grown by a large
+ *           message, such as an image of the board, is released before the next
+ *           message instead of being retained for the connection.
+ *
+ * @implNote The decoded fields are only valid until the next message is read
+ *           into the frame. Messages which are not relayed as received are
+ *           still bound to an ActionMessageDto, from {@link #toString()}.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class MessageFrame {
+
+	// Most messages are draw events well below this size
+	private static final int INITIAL_CAPACITY = 512;
+
+	// Buffers grown above this size are released once the message is done
+	private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+	private static final char[] SEQUENCE_FIELD = (",\"" + ProtocolConstants.FIELD_SEQUENCE + "\":").toCharArray();
+	private static final char[] SENDER_ID_FIELD = (",\"" + ProtocolConstants.FIELD_SENDER_ID + "\":")
+			.toCharArray();
+
+	// Users of relayed events are removed unless peers older than the sender id
+	// are connected, as TypeConversionUtils#appendSenderId does
+	private static final boolean IS_USER_REMOVED = TypeConversionUtils
+			.getCodecVersion() >= ProtocolConstants.SENDER_ID_CODEC_VERSION;
+
+	private char[] buffer = new char[INITIAL_CAPACITY];
+	private int length;
+
+	private int version;
+	private int opcode = Opcodes.UNKNOWN;
+	private int toolOpcode = Opcodes.UNKNOWN;
+	private boolean hasUser;
+	private boolean hasClientUID;
+	private long clientUID;
+	private boolean hasStartPoint;
+	private int startX;
+	private int startY;
+	private boolean hasEndPoint;
+	private int endX;
+	private int endY;
+	private boolean hasDragPoint;
+	private int dragX;
+	private int dragY;
+	private boolean hasColor;
+	private int color;
+	private boolean hasSequence;
+	private long sequence;
+	private boolean hasSenderId;
+	private long senderId;
+
+	// Offset of the closing brace of the root object, -1 if not decoded
+	private int rootEnd = -1;
+
+	/**
+	 * This method is used to empty the frame before the next message is read
+	 * into it, releasing a buffer grown by a large message.
+	 */
+	public void clear() {
+		if (buffer.length > MAX_RETAINED_CAPACITY) {
+			buffer = new char[INITIAL_CAPACITY];
+		}
+		length = 0;
+		resetFields();
+	}
+
+	/**
+	 * This method is used to replace the message of the frame with the given one,
+	 * for messages which are not read from a connection.
+	 *
+	 * @param data
+	 */
+	public void setContent(String data) {
+		clear();
+		ensureCapacity(data.length());
+		data.getChars(0, data.length(), buffer, 0);
+		length = data.length();
+	}
+
+	/**
+	 * This method is used to append a character of the message read into the
+	 * frame.
+	 *
+	 * @param c
+	 */
+	public void append(char c) {
+		ensureCapacity(length + 1);
+		buffer[length++] = c;
+	}
+
+	/**
+	 * This method is used to append characters of the message read into the
+	 * frame.
+	 *
+	 * @param chars
+	 * @param offset
+	 * @param count
+	 */
+	public void append(char[] chars, int offset, int count) {
+		ensureCapacity(length + count);
+		System.arraycopy(chars, offset, buffer, length, count);
+		length += count;
+	}
+
+	/**
+	 * This method is used to stamp the sequence number on the message, by
+	 * appending the field at the end of the root object as
+	 * {@code TypeConversionUtils#appendSequence} does, without creating a new
+	 * string.
+	 *
+	 * @param sequence
+	 * @return false if the message is not decoded, or already holds a sequence
+	 */
+	public boolean appendSequence(long sequence) {
+		if (hasSequence || !appendField(SEQUENCE_FIELD, sequence)) {
+			return false;
+		}
+		this.hasSequence = true;
+		this.sequence = sequence;
+		return true;
+	}
+
+	/**
+	 * This method is used to stamp the id of the sender on the message, as
+	 * {@code TypeConversionUtils#appendSenderId} does, without creating a new
+	 * string.
+	 *
+	 * @implNote The fields of a frame are not removed in place, so a message
+	 *           holding a sender id, sequence or user of the client is not
+	 *           stamped. It is left to {@code TypeConversionUtils#appendSenderId}
+	 *           instead, which removes them.
+	 *
+	 * @param senderId
+	 * @return false if the message is not decoded, or holds a sender id, sequence
+	 *         or user
+	 */
+	public boolean appendSenderId(long senderId) {
+		if (hasSenderId || hasSequence || (hasUser && IS_USER_REMOVED) || !appendField(SENDER_ID_FIELD, senderId)) {
+			return false;
+		}
+		this.hasSenderId = true;
+		this.senderId = senderId;
+		return true;
+	}
+
+	/**
+	 * This method is used to write the message of the frame without creating a
+	 * string.
+	 *
+	 * @param writer
+	 * @throws IOException
+	 */
+	public void writeTo(Writer writer) throws IOException {
+		writer.write(buffer, 0, length);
+	}
+
+	/**
+	 * This method is used to copy the message of the frame into the given array,
+	 * which must hold at least {@link #length()} characters.
+	 *
+	 * @param target
+	 */
+	public void copyTo(char[] target) {
+		System.arraycopy(buffer, 0, target, 0, length);
+	}
+
+	/**
+	 * This method is used to fetch the number of characters of the message.
+	 *
+	 * @return
+	 */
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * This method is used to count the bytes of the message encoded in UTF-8,
+	 * without encoding it.
+	 *
+	 * @return
+	 */
+	public int utf8Length() {
+		int bytes = 0;
+		for (int i = 0; i < length; i++) {
+			bytes += TypeConversionUtils.utf8Length(buffer[i]);
+		}
+		return bytes;
+	}
+
+	/**
+	 * This method is used to fetch the buffer holding the message, which is only
+	 * valid up to {@link #length()}.
+	 *
+	 * @return
+	 */
+	char[] getBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * This method is used to clear the decoded fields before the message is
+	 * decoded.
+	 */
+	void resetFields() {
+		version = 0;
+		opcode = Opcodes.UNKNOWN;
+		toolOpcode = Opcodes.UNKNOWN;
+		hasUser = false;
+		hasClientUID = false;
+		hasStartPoint = false;
+		hasEndPoint = false;
+		hasDragPoint = false;
+		hasColor = false;
+		hasSequence = false;
+		hasSenderId = false;
+		rootEnd = -1;
+	}
+
+	/**
+	 * This method is used to grow the buffer to hold at least the given number of
+	 * characters.
+	 *
+	 * @param capacity
+	 */
+	private void ensureCapacity(int capacity) {
+		if (capacity > buffer.length) {
+			buffer = Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+		}
+	}
+
+	/**
+	 * This method is used to append a number field at the end of the root object
+	 * of the message, in place of its closing brace.
+	 *
+	 * @param field
+	 * @param value
+	 * @return false if the message is not decoded
+	 */
+	private boolean appendField(char[] field, long value) {
+		if (rootEnd < 0) {
+			return false;
+		}
+		// Dropping the closing brace of the root object, and any whitespace after it
+		length = rootEnd;
+
+		append(field, 0, field.length);
+		if (value < 0) {
+			append('-');
+		}
+		appendDigits(Math.abs(value));
+		append('}');
+		rootEnd = length - 1;
+		return true;
+	}
+
+	/**
+	 * This method is used to append the decimal digits of a number which is not
+	 * negative.
+	 *
+	 * @param value
+	 */
+	private void appendDigits(long value) {
+		int digits = 1;
+		for (long remaining = value / 10; remaining > 0; remaining /= 10) {
+			digits++;
+		}
+		ensureCapacity(length + digits);
+
+		// Writing the digits from the last one
+		long remaining = value;
+		for (int i = length + digits - 1; i >= length; i--) {
+			buffer[i] = (char) ('0' + remaining % 10);
+			remaining /= 10;
+		}
+		length += digits;
+	}
+
+	@Override
+	public String toString() {
+		return new String(buffer, 0, length);
+	}
+
+	public int getVersion() {
+		return version;
+	}
+
+	void setVersion(int version) {
+		this.version = version;
+	}
+
+	public int getOpcode() {
+		return opcode;
+	}
+
+	void setOpcode(int opcode) {
+		this.opcode = opcode;
+	}
+
+	public int getToolOpcode() {
+		return toolOpcode;
+	}
+
+	void setToolOpcode(int toolOpcode) {
+		this.toolOpcode = toolOpcode;
+	}
+
+	public boolean hasUser() {
+		return hasUser;
+	}
+
+	void setHasUser(boolean hasUser) {
+		this.hasUser = hasUser;
+	}
+
+	public boolean hasClientUID() {
+		return hasClientUID;
+	}
+
+	public long getClientUID() {
+		return clientUID;
+	}
+
+	void setClientUID(long clientUID) {
+		this.hasClientUID = true;
+		this.clientUID = clientUID;
+	}
+
+	public boolean hasStartPoint() {
+		return hasStartPoint;
+	}
+
+	public int getStartX() {
+		return startX;
+	}
+
+	public int getStartY() {
+		return startY;
+	}
+
+	void setStartPoint(int x, int y) {
+		this.hasStartPoint = true;
+		this.startX = x;
+		this.startY = y;
+	}
+
+	public boolean hasEndPoint() {
+		return hasEndPoint;
+	}
+
+	public int getEndX() {
+		return endX;
+	}
+
+	public int getEndY() {
+		return endY;
+	}
+
+	void setEndPoint(int x, int y) {
+		this.hasEndPoint = true;
+		this.endX = x;
+		this.endY = y;
+	}
+
+	public boolean hasDragPoint() {
+		return hasDragPoint;
+	}
+
+	public int getDragX() {
+		return dragX;
+	}
+
+	public int getDragY() {
+		return dragY;
+	}
+
+	void setDragPoint(int x, int y) {
+		this.hasDragPoint = true;
+		this.dragX = x;
+		this.dragY = y;
+	}
+
+	public boolean hasColor() {
+		return hasColor;
+	}
+
+	public int getColor() {
+		return color;
+	}
+
+	void setColor(int color) {
+		this.hasColor = true;
+		this.color = color;
+	}
+
+	public boolean hasSequence() {
+		return hasSequence;
+	}
+
+	public long getSequence() {
+		return sequence;
+	}
+
+	void setSequence(long sequence) {
+		this.hasSequence = true;
+		this.sequence = sequence;
+	}
+
+	public boolean hasSenderId() {
+		return hasSenderId;
+	}
+
+	public long getSenderId() {
+		return senderId;
+	}
+
+	void setSenderId(long senderId) {
+		this.hasSenderId = true;
+		this.senderId = senderId;
+	}
+
+	void setRootEnd(int rootEnd) {
+		this.rootEnd = rootEnd;
+	}
+}
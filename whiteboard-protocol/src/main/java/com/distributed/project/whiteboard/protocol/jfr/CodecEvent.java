@@ -0,0 +1,36 @@
+package com.distributed.project.whiteboard.protocol.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This class is used as a Java Flight Recorder event for encoding and decoding
+ * messages in TypeConversionUtils. The event has the same name on the server
+ * and the clients, which are told apart by the recording they are read from.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+@Name("whiteboard.protocol.Codec")
+@Label("Message Codec")
+@Category({ "Whiteboard", "Protocol" })
+@Description("Encoding or decoding of a message")
+public class CodecEvent extends Event {
+
+	@Label("Operation")
+	public String operation;
+
+	@Label("Type")
+	public String type;
+
+	@Label("Action")
+	public String action;
+
+	@Label("Payload Size")
+	@DataAmount
+	public long payloadSize;
+}
@@ -0,0 +1,216 @@
+package com.distributed.project.whiteboard.protocol.lane;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.opcode.Opcodes;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.distributed.project.whiteboard.protocol.utils.TypeConversionUtils;
+
+/**
+ * This class is used to put the chunks of the bulk transfers sent by a
+ * {@link LaneWriter} back together, and to hand the events of a connection
+ * over in the order they were sent in.
+ *
+ * @implNote A transfer is handed over at its marker, which is sent among the
+ *           board events. Board events and the sequence acks among them
+ *           received after the marker are held until the last chunk of the
+ *           transfer, and a transfer completed before its marker waits for it.
+ *           Other events are handed over as soon as they are received.
+ *
+ * @implNote The transfers, the transfers completed before their marker and the
+ *           events held are limited, and a transfer has to complete within the
+ *           timeout once started or awaited. Going beyond a limit fails the
+ *           connection instead of growing the heap for a sender which never
+ *           completes its transfers.
+ *
+ * @implNote It is used by the thread reading the connection only.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class ChunkAssembler {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ChunkAssembler.class);
+
+	// Transfer whose chunks are being received, chunks of a connection are sent
+	// one transfer after another
+	private StringBuilder transfer;
+	private long transferId;
+	private long transferStartedAt;
+
+	// Transfers completed before their marker was received, by transfer id
+	private final Map<Long, String> completedTransfers = new HashMap<>();
+
+	// Transfer whose marker was received before its last chunk, and the events
+	// received after the marker until then
+	private Long awaitedTransferId;
+	private long awaitedSince;
+	private final ArrayDeque<String> heldEvents = new ArrayDeque<>();
+
+	private final int maxTransferSize;
+	private final int maxPendingTransfers;
+	private final int maxHeldEvents;
+	private final long timeoutNanos;
+
+	/**
+	 * This constructor is used to initialize the assembler with the default
+	 * limits.
+	 */
+	public ChunkAssembler() {
+		this(ProtocolConstants.MAX_TRANSFER_SIZE, ProtocolConstants.MAX_PENDING_TRANSFERS,
+				ProtocolConstants.MAX_HELD_EVENTS, ProtocolConstants.TRANSFER_TIMEOUT_MS);
+	}
+
+	/**
+	 * This constructor is used to initialize the assembler with the given limits.
+	 *
+	 * @param maxTransferSize     the characters of a transfer
+	 * @param maxPendingTransfers the transfers completed before their marker
+	 * @param maxHeldEvents       the events held for an awaited transfer
+	 * @param timeoutMillis       the time a transfer has to complete in
+	 */
+	public ChunkAssembler(int maxTransferSize, int maxPendingTransfers, int maxHeldEvents, long timeoutMillis) {
+		this.maxTransferSize = maxTransferSize;
+		this.maxPendingTransfers = maxPendingTransfers;
+		this.maxHeldEvents = maxHeldEvents;
+		this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+	}
+
+	/**
+	 * This method is used to check if the events received are being held for a
+	 * transfer. Events other than chunks can be handled without the assembler
+	 * otherwise.
+	 *
+	 * @return
+	 */
+	public boolean isHolding() {
+		return Objects.nonNull(awaitedTransferId);
+	}
+
+	/**
+	 * This method is used to receive an event of the connection.
+	 *
+	 * @param opcode
+	 * @param eventString
+	 * @return the events to handle now, in the order they were sent in
+	 * @throws IOException if the connection goes beyond a limit of the assembler
+	 */
+	public List<String> receive(int opcode, String eventString) throws IOException {
+		checkTimeout();
+		List<String> events = new ArrayList<>();
+		receive(opcode, eventString, events);
+		return events;
+	}
+
+	/**
+	 * This method is used to fail a transfer not completed within the timeout.
+	 *
+	 * @throws IOException
+	 */
+	private void checkTimeout() throws IOException {
+		long nowNanos = System.nanoTime();
+		if ((Objects.nonNull(transfer) && nowNanos - transferStartedAt >= timeoutNanos)
+				|| (isHolding() && nowNanos - awaitedSince >= timeoutNanos)) {
+			throw new IOException("Transfer not completed in time");
+		}
+	}
+
+	/**
+	 * This method is used to receive an event, adding the events it hands over to
+	 * the given list.
+	 *
+	 * @param opcode
+	 * @param eventString
+	 * @param events
+	 * @throws IOException
+	 */
+	private void receive(int opcode, String eventString, List<String> events) throws IOException {
+		if (opcode != ProtocolConstants.OP_CHUNK) {
+			if (isHolding() && (Opcodes.isBoardAction(opcode) || opcode == ProtocolConstants.OP_SEQUENCE_ACK)) {
+				hold(eventString);
+			} else {
+				events.add(eventString);
+			}
+			return;
+		}
+
+		ActionMessageDto chunkEvent = TypeConversionUtils.convertToCustomClass(eventString, ActionMessageDto.class);
+		if (Objects.isNull(chunkEvent) || Objects.isNull(chunkEvent.getTransferId())) {
+			LOGGER.warn("Ignoring chunk without a transfer id");
+			return;
+		}
+
+		// Handing the transfer over at its marker if it is complete
+		if (Objects.isNull(chunkEvent.getChunk())) {
+			if (isHolding()) {
+				hold(eventString);
+			} else if (completedTransfers.containsKey(chunkEvent.getTransferId())) {
+				events.add(completedTransfers.remove(chunkEvent.getTransferId()));
+			} else {
+				awaitedTransferId = chunkEvent.getTransferId();
+				awaitedSince = System.nanoTime();
+			}
+			return;
+		}
+
+		if (Objects.isNull(transfer) || transferId != chunkEvent.getTransferId()) {
+			if (Objects.nonNull(transfer)) {
+				LOGGER.warn("Transfer {} interrupted by transfer {}", transferId, chunkEvent.getTransferId());
+			}
+			transfer = new StringBuilder();
+			transferId = chunkEvent.getTransferId();
+			transferStartedAt = System.nanoTime();
+		}
+		if (transfer.length() + chunkEvent.getChunk().length() > maxTransferSize) {
+			throw new IOException("Transfer " + transferId + " larger than " + maxTransferSize + " characters");
+		}
+		transfer.append(chunkEvent.getChunk());
+		if (!Boolean.TRUE.equals(chunkEvent.getFinalChunk())) {
+			return;
+		}
+
+		String transferEvent = transfer.toString();
+		transfer = null;
+		if (!Objects.equals(awaitedTransferId, transferId)) {
+			if (completedTransfers.size() >= maxPendingTransfers) {
+				throw new IOException("More than " + maxPendingTransfers + " transfers completed before their marker");
+			}
+			completedTransfers.put(transferId, transferEvent);
+			return;
+		}
+
+		// Handing the transfer over, followed by the events held for it
+		events.add(transferEvent);
+		awaitedTransferId = null;
+		List<String> releasedEvents = new ArrayList<>(heldEvents);
+		heldEvents.clear();
+		for (String releasedEvent : releasedEvents) {
+			receive(TypeConversionUtils.peekOpcode(releasedEvent), releasedEvent, events);
+		}
+	}
+
+	/**
+	 * This method is used to hold an event until the awaited transfer is
+	 * completed.
+	 *
+	 * @param eventString
+	 * @throws IOException if too many events are held already
+	 */
+	private void hold(String eventString) throws IOException {
+		if (heldEvents.size() >= maxHeldEvents) {
+			throw new IOException("More than " + maxHeldEvents + " events held for transfer " + awaitedTransferId);
+		}
+		heldEvents.add(eventString);
+	}
+}
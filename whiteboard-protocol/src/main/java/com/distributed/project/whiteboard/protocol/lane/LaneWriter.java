@@ -0,0 +1,459 @@
+package com.distributed.project.whiteboard.protocol.lane;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.frame.MessageFrame;
+import com.distributed.project.whiteboard.protocol.opcode.Opcodes;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.distributed.project.whiteboard.protocol.utils.TypeConversionUtils;
+
+/**
+ * This class is used to send the events of a connection over separate lanes
+ * for control, drawing, chat and bulk transfers, so that an image of the board
+ * does not hold up the events sent after it.
+ *
+ * @implNote Control events such as kicks are sent before the events of any
+ *           other lane. The other lanes share the connection by deficit round
+ *           robin, each sending up to its quantum of characters per round while
+ *           it has events. Bulk transfers get a small share while the other
+ *           lanes are busy and the whole connection otherwise. The events of a
+ *           lane are sent in order.
+ *
+ * @implNote A bulk event larger than a chunk is sent as chunk events, so the
+ *           other lanes are sent in between its chunks. A marker of the transfer
+ *           is sent on the draw lane in its place, and the receiver holds the
+ *           board events after the marker until the transfer is complete. Bulk
+ *           events sent whole, to peers which do not read chunks or smaller
+ *           than a chunk, are sent on the draw lane.
+ *
+ * @implNote The thread sending an event writes it itself while nothing else is
+ *           being written, without copying it. Otherwise the event is queued
+ *           and written by the thread already writing. Bulk transfers and
+ *           posted events are written on the executor if one is given, so that
+ *           sending an image or a periodic event does not hold up the thread
+ *           sending it.
+ *
+ * @implNote An event can also be claimed and sent afterwards, so that events
+ *           are placed in the order of the connection under a lock of the
+ *           caller and written once the lock is released. Claiming never
+ *           writes, and events sent meanwhile are queued behind the claimed
+ *           one.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class LaneWriter {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(LaneWriter.class);
+
+	// Characters each lane may send per round, indexed by lane
+	private static final int[] QUANTUMS = new int[ProtocolConstants.LANE_COUNT];
+
+	// Transfer ids are unique across the connections of the process
+	private static final AtomicLong TRANSFER_IDS = new AtomicLong();
+
+	static {
+		QUANTUMS[ProtocolConstants.LANE_DRAW] = ProtocolConstants.DRAW_LANE_QUANTUM;
+		QUANTUMS[ProtocolConstants.LANE_CHAT] = ProtocolConstants.CHAT_LANE_QUANTUM;
+		QUANTUMS[ProtocolConstants.LANE_BULK] = ProtocolConstants.BULK_LANE_QUANTUM;
+	}
+
+	private final Writer out;
+	private final Executor bulkExecutor;
+	private final boolean isChunked = TypeConversionUtils
+			.getCodecVersion() >= ProtocolConstants.CHUNK_CODEC_VERSION;
+
+	// Queued events of every lane, the rest of the fields are guarded by the lanes
+	private final List<ArrayDeque<String>> lanes = new ArrayList<>(ProtocolConstants.LANE_COUNT);
+	private final int[] deficits = new int[ProtocolConstants.LANE_COUNT];
+	private int currentLane = ProtocolConstants.LANE_DRAW;
+	private boolean isWriting;
+
+	/**
+	 * This constructor is used to initialize the writer of the connection, and the
+	 * executor writing the bulk transfers.
+	 *
+	 * @param out
+	 * @param bulkExecutor the executor, or null to write bulk transfers and
+	 *                     posted events on the thread sending them
+	 */
+	public LaneWriter(Writer out, Executor bulkExecutor) {
+		this.out = out;
+		this.bulkExecutor = bulkExecutor;
+		for (int lane = 0; lane < ProtocolConstants.LANE_COUNT; lane++) {
+			lanes.add(new ArrayDeque<>());
+		}
+	}
+
+	/**
+	 * This method is used to send an event on the lane of its action.
+	 *
+	 * @param opcode
+	 * @param eventString
+	 * @throws IOException if the event could not be written by this thread
+	 */
+	public void send(int opcode, String eventString) throws IOException {
+		send(opcode, eventString, null);
+	}
+
+	/**
+	 * This method is used to send the event of a frame on the lane of its action.
+	 * The frame is only copied if the event has to be queued.
+	 *
+	 * @param opcode
+	 * @param frame
+	 * @throws IOException if the event could not be written by this thread
+	 */
+	public void send(int opcode, MessageFrame frame) throws IOException {
+		send(opcode, null, frame);
+	}
+
+	/**
+	 * This method is used to place an event in the order of the connection
+	 * without writing it. If nothing else is being written, the connection is
+	 * claimed for the caller, which has to write the event with
+	 * {@link #sendClaimed(int, String)}. Otherwise the event is queued for the
+	 * thread already writing.
+	 *
+	 * @param opcode
+	 * @param eventString
+	 * @return true if the caller has claimed the connection
+	 */
+	public boolean claim(int opcode, String eventString) {
+		return claim(opcode, eventString, null);
+	}
+
+	/**
+	 * This method is used to place the event of a frame in the order of the
+	 * connection, as {@link #claim(int, String)} does. The frame is only copied if
+	 * the event has to be queued, so it must be left unchanged until it is sent
+	 * with {@link #sendClaimed(int, MessageFrame)}.
+	 *
+	 * @param opcode
+	 * @param frame
+	 * @return true if the caller has claimed the connection
+	 */
+	public boolean claim(int opcode, MessageFrame frame) {
+		return claim(opcode, null, frame);
+	}
+
+	/**
+	 * This method is used to write a claimed event, followed by the events queued
+	 * behind it.
+	 *
+	 * @param opcode
+	 * @param eventString
+	 * @throws IOException if the event could not be written by this thread
+	 */
+	public void sendClaimed(int opcode, String eventString) throws IOException {
+		sendClaimed(opcode, eventString, null);
+	}
+
+	/**
+	 * This method is used to write the claimed event of a frame, followed by the
+	 * events queued behind it.
+	 *
+	 * @param opcode
+	 * @param frame
+	 * @throws IOException if the event could not be written by this thread
+	 */
+	public void sendClaimed(int opcode, MessageFrame frame) throws IOException {
+		sendClaimed(opcode, null, frame);
+	}
+
+	/**
+	 * This method is used to send an event without writing it on the calling
+	 * thread, unless the executor rejects it. The event is queued for the thread
+	 * already writing, or written on the executor if nothing is being written.
+	 *
+	 * @param opcode
+	 * @param eventString
+	 * @throws IOException if the event could not be written by this thread
+	 */
+	public void post(int opcode, String eventString) throws IOException {
+		if (claim(opcode, eventString, null)) {
+			postClaimed(opcode, eventString);
+		}
+	}
+
+	/**
+	 * This method is used to write a claimed event, followed by the events queued
+	 * behind it, on the executor unless it rejects the event. The event can be
+	 * claimed under a lock of the caller and posted once it is released.
+	 *
+	 * @param opcode
+	 * @param eventString
+	 * @throws IOException if the event could not be written by this thread
+	 */
+	public void postClaimed(int opcode, String eventString) throws IOException {
+		if (Objects.nonNull(bulkExecutor)) {
+			try {
+				bulkExecutor.execute(() -> sendPosted(opcode, eventString));
+				return;
+			} catch (RejectedExecutionException e) {
+				LOGGER.debug("Executor busy, writing the posted event on the sending thread", e);
+			}
+		}
+		sendClaimed(opcode, eventString, null);
+	}
+
+	public Writer getOut() {
+		return out;
+	}
+
+	/**
+	 * This method is used to send an event string, or the event of a frame if the
+	 * string is null, writing it directly if nothing else is being written.
+	 *
+	 * @param opcode
+	 * @param eventString
+	 * @param frame
+	 * @throws IOException
+	 */
+	private void send(int opcode, String eventString, MessageFrame frame) throws IOException {
+		if (claim(opcode, eventString, frame)) {
+			sendClaimed(opcode, eventString, frame);
+		}
+	}
+
+	/**
+	 * This method is used to queue an event string, or the event of a frame if the
+	 * string is null, unless nothing else is being written and the connection is
+	 * claimed for it instead. Bulk events are always queued.
+	 *
+	 * @param opcode
+	 * @param eventString
+	 * @param frame
+	 * @return true if the connection is claimed
+	 */
+	private boolean claim(int opcode, String eventString, MessageFrame frame) {
+		int lane = Opcodes.lane(opcode);
+
+		// Splitting bulk transfers before taking the lock, they are always queued.
+		// Bulk events sent whole keep their place among the board events instead
+		List<String> chunks = null;
+		if (lane == ProtocolConstants.LANE_BULK) {
+			chunks = split(Objects.nonNull(eventString) ? eventString : frame.toString());
+			lane = chunks.size() > 1 ? lane : ProtocolConstants.LANE_DRAW;
+		}
+
+		boolean isQueued;
+		synchronized (lanes) {
+			isQueued = isWriting || Objects.nonNull(chunks);
+			if (Objects.nonNull(chunks)) {
+				// The marker keeps the place of the transfer among the board events
+				if (chunks.size() > 1) {
+					lanes.get(ProtocolConstants.LANE_DRAW).add(chunks.remove(0));
+				}
+				lanes.get(lane).addAll(chunks);
+			} else if (isQueued) {
+				lanes.get(lane).add(Objects.nonNull(eventString) ? eventString : frame.toString());
+			}
+
+			// The thread already writing sends the queued event
+			if (isWriting) {
+				return false;
+			}
+			isWriting = true;
+			return true;
+		}
+	}
+
+	/**
+	 * This method is used to write a claimed event string, or the event of a frame
+	 * if the string is null, unless it was queued as a bulk event, and then the
+	 * queued events.
+	 *
+	 * @param opcode
+	 * @param eventString
+	 * @param frame
+	 * @throws IOException
+	 */
+	private void sendClaimed(int opcode, String eventString, MessageFrame frame) throws IOException {
+		try {
+			if (Opcodes.lane(opcode) != ProtocolConstants.LANE_BULK) {
+				write(eventString, frame);
+			}
+			drain(false);
+		} catch (IOException | RuntimeException e) {
+			abort();
+			throw e;
+		}
+	}
+
+	/**
+	 * This method is used to write the queued events until every lane is empty,
+	 * handing the writing over to the bulk executor once a bulk transfer is next.
+	 *
+	 * @param isBulkAllowed true if this thread writes the bulk transfers
+	 * @throws IOException
+	 */
+	private void drain(boolean isBulkAllowed) throws IOException {
+		while (true) {
+			String eventString = null;
+			synchronized (lanes) {
+				int lane = nextLane();
+				if (lane < 0) {
+					isWriting = false;
+					return;
+				}
+
+				if (lane != ProtocolConstants.LANE_BULK || isBulkAllowed || Objects.isNull(bulkExecutor)) {
+					eventString = lanes.get(lane).poll();
+					deficits[lane] -= eventString.length();
+				}
+			}
+
+			if (Objects.isNull(eventString)) {
+				// The executor keeps writing the other lanes along with the transfer
+				try {
+					bulkExecutor.execute(this::drainBulk);
+					return;
+				} catch (RejectedExecutionException e) {
+					LOGGER.debug("Bulk executor busy, writing the transfer on the sending thread", e);
+					isBulkAllowed = true;
+					continue;
+				}
+			}
+			write(eventString, null);
+		}
+	}
+
+	/**
+	 * This method is used to write a posted event on the executor.
+	 *
+	 * @param opcode
+	 * @param eventString
+	 */
+	private void sendPosted(int opcode, String eventString) {
+		try {
+			sendClaimed(opcode, eventString, null);
+		} catch (IOException | RuntimeException e) {
+			// The reader of the connection notices the closed socket
+			LOGGER.debug("Unable to write posted event", e);
+		}
+	}
+
+	/**
+	 * This method is used to write the queued events on the bulk executor.
+	 */
+	private void drainBulk() {
+		try {
+			drain(true);
+		} catch (IOException | RuntimeException e) {
+			// The reader of the connection notices the closed socket
+			LOGGER.debug("Unable to write bulk transfer", e);
+			abort();
+		}
+	}
+
+	/**
+	 * This method is used to pick the lane whose event is written next, control
+	 * events first and then the other lanes by deficit round robin.
+	 *
+	 * @return the lane, or -1 if every lane is empty
+	 */
+	private int nextLane() {
+		if (!lanes.get(ProtocolConstants.LANE_CONTROL).isEmpty()) {
+			return ProtocolConstants.LANE_CONTROL;
+		}
+		if (lanes.get(ProtocolConstants.LANE_DRAW).isEmpty() && lanes.get(ProtocolConstants.LANE_CHAT).isEmpty()
+				&& lanes.get(ProtocolConstants.LANE_BULK).isEmpty()) {
+			return -1;
+		}
+
+		while (true) {
+			ArrayDeque<String> queue = lanes.get(currentLane);
+			if (queue.isEmpty()) {
+				// Lanes without events do not save up their quantum
+				deficits[currentLane] = 0;
+			} else if (queue.peek().length() <= deficits[currentLane]) {
+				return currentLane;
+			}
+
+			// Moving on to the next lane with its quantum for the round
+			currentLane = currentLane == ProtocolConstants.LANE_BULK ? ProtocolConstants.LANE_DRAW : currentLane + 1;
+			deficits[currentLane] += QUANTUMS[currentLane];
+		}
+	}
+
+	/**
+	 * This method is used to write an event string, or the event of a frame if the
+	 * string is null, followed by its line feed.
+	 *
+	 * @param eventString
+	 * @param frame
+	 * @throws IOException
+	 */
+	private void write(String eventString, MessageFrame frame) throws IOException {
+		synchronized (out) {
+			if (Objects.nonNull(eventString)) {
+				out.write(eventString);
+			} else {
+				frame.writeTo(out);
+			}
+			out.write('\n');
+			out.flush();
+		}
+	}
+
+	/**
+	 * This method is used to drop the queued events of a connection which could
+	 * not be written to.
+	 */
+	private void abort() {
+		synchronized (lanes) {
+			lanes.forEach(ArrayDeque::clear);
+			isWriting = false;
+		}
+	}
+
+	/**
+	 * This method is used to split a bulk event into the marker of the transfer
+	 * followed by its chunks, if it is larger than a chunk and the peers read
+	 * chunks.
+	 *
+	 * @param eventString
+	 * @return the event alone, or the marker and the chunk events
+	 */
+	private List<String> split(String eventString) {
+		List<String> chunks = new ArrayList<>();
+		if (!isChunked || eventString.length() <= ProtocolConstants.CHUNK_SIZE) {
+			chunks.add(eventString);
+			return chunks;
+		}
+
+		long transferId = TRANSFER_IDS.incrementAndGet();
+		ActionMessageDto chunkEvent = new ActionMessageDto(null, ProtocolConstants.ACTION_CHUNK);
+		chunkEvent.setTransferId(transferId);
+		chunks.add(TypeConversionUtils.convertObjectToString(chunkEvent));
+
+		int start = 0;
+		while (start < eventString.length()) {
+			int end = Math.min(start + ProtocolConstants.CHUNK_SIZE, eventString.length());
+
+			// Keeping surrogate pairs in one chunk
+			if (end < eventString.length() && Character.isHighSurrogate(eventString.charAt(end - 1))) {
+				end--;
+			}
+
+			chunkEvent.setChunk(eventString.substring(start, end));
+			chunkEvent.setFinalChunk(end == eventString.length() ? Boolean.TRUE : null);
+			chunks.add(TypeConversionUtils.convertObjectToString(chunkEvent));
+			start = end;
+		}
+		return chunks;
+	}
+}
@@ -0,0 +1,56 @@
+package com.distributed.project.whiteboard.protocol.opcode;
+
+/**
+ * This class is used as a handler table indexed by opcode. Dispatching a
+ * message is a bounds check and an array lookup.
+ * 
+ * @implNote Handlers are registered when the owner of the registry is created,
+ *           and the table is only read afterwards. New actions are supported by
+ *           adding their opcode in {@link Opcodes} and registering a handler.
+ * 
+ * @param <H> the type of the handlers
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class OpcodeRegistry<H> {
+
+	private final Object[] handlers;
+
+	/**
+	 * This constructor is used to create an empty table for the given number of
+	 * opcodes.
+	 * 
+	 * @param size
+	 */
+	public OpcodeRegistry(int size) {
+		this.handlers = new Object[size];
+	}
+
+	/**
+	 * This method is used to register the handler of an opcode, replacing the
+	 * previous one.
+	 * 
+	 * @param opcode
+	 * @param handler
+	 * @return this registry, for chaining the registrations
+	 */
+	public OpcodeRegistry<H> register(int opcode, H handler) {
+		if (opcode < 0 || opcode >= handlers.length) {
+			throw new IllegalArgumentException("Opcode " + opcode + " is out of range of the registry");
+		}
+		handlers[opcode] = handler;
+		return this;
+	}
+
+	/**
+	 * This method is used to fetch the handler of an opcode.
+	 * 
+	 * @param opcode
+	 * @return the handler, or null if the opcode is unknown or has no handler
+	 */
+	@SuppressWarnings("unchecked")
+	public H lookup(int opcode) {
+		return opcode >= 0 && opcode < handlers.length ? (H) handlers[opcode] : null;
+	}
+}
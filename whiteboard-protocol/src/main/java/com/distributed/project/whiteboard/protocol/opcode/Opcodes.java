@@ -0,0 +1,244 @@
+package com.distributed.project.whiteboard.protocol.opcode;
+
+import java.util.Objects;
+
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * This class is used to map the actions and tools of the messages to their
+ * opcodes and back. The opcodes are dense, starting from zero, so they index
+ * the handler tables of {@link OpcodeRegistry} directly.
+ * 
+ * @implNote Names are mapped to opcodes once, when a message is created or
+ *           decoded. Dispatching on the opcode afterwards is an array lookup,
+ *           without hashing or comparing strings.
+ * 
+ * @implNote Unknown names, such as actions of newer peers, are mapped to
+ *           {@link #UNKNOWN}, which no registry holds a handler for.
+ * 
+ * @implNote The opcode and action fields of a message are merged with
+ *           {@link #merge(int, int)} by every decoder, so the server and the
+ *           clients resolve a message to the same opcode whatever the order of
+ *           its fields. A message whose fields disagree is rejected.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public final class Opcodes {
+
+	public static final int UNKNOWN = -1;
+
+	// Opcode of a message without an opcode or action field read yet
+	public static final int ABSENT = -2;
+
+	// Opcode of a message whose opcode and action fields disagree
+	public static final int CONFLICT = -3;
+
+	private static final String[] ACTIONS = new String[ProtocolConstants.OP_SEQUENCE_ACK + 1];
+	private static final String[] TOOLS = new String[ProtocolConstants.TOOL_OP_TEXT + 1];
+	private static final boolean[] URGENT_BROADCAST_OPCODES = new boolean[ACTIONS.length];
+	private static final boolean[] BOARD_OPCODES = new boolean[ACTIONS.length];
+	private static final int[] LANES = new int[ACTIONS.length];
+
+	private static final ImmutableMap<String, Integer> ACTION_OPCODES;
+	private static final ImmutableMap<String, Integer> TOOL_OPCODES;
+
+	static {
+		ACTIONS[ProtocolConstants.OP_DRAW] = ProtocolConstants.ACTION_DRAW;
+		ACTIONS[ProtocolConstants.OP_CHAT] = ProtocolConstants.ACTION_CHAT;
+		ACTIONS[ProtocolConstants.OP_SYSTEM_CHAT] = ProtocolConstants.ACTION_SYSTEM_CHAT;
+		ACTIONS[ProtocolConstants.OP_NEW_USER_PERMISSION] = ProtocolConstants.ACTION_NEW_USER_PERMISSION;
+		ACTIONS[ProtocolConstants.OP_NEW_USER_ACCEPT] = ProtocolConstants.ACTION_NEW_USER_ACCEPT;
+		ACTIONS[ProtocolConstants.OP_NEW_USER_REJECT] = ProtocolConstants.ACTION_NEW_USER_REJECT;
+		ACTIONS[ProtocolConstants.OP_USER_KICK] = ProtocolConstants.ACTION_USER_KICK;
+		ACTIONS[ProtocolConstants.OP_ASSIGN_MANAGER] = ProtocolConstants.ACTION_ASSIGN_MANAGER;
+		ACTIONS[ProtocolConstants.OP_NEW_USER_ADDED] = ProtocolConstants.ACTION_NEW_USER_ADDED;
+		ACTIONS[ProtocolConstants.OP_EXIT] = ProtocolConstants.ACTION_EXIT;
+		ACTIONS[ProtocolConstants.OP_REFRESH_USER_LIST] = ProtocolConstants.ACTION_REFRESH_USER_LIST;
+		ACTIONS[ProtocolConstants.OP_LOAD_IMAGE] = ProtocolConstants.ACTION_LOAD_IMAGE;
+		ACTIONS[ProtocolConstants.OP_CLEAR] = ProtocolConstants.ACTION_CLEAR;
+		ACTIONS[ProtocolConstants.OP_FORCE_QUIT] = ProtocolConstants.ACTION_FORCE_QUIT;
+		ACTIONS[ProtocolConstants.OP_SYNC_REQUEST] = ProtocolConstants.ACTION_SYNC_REQUEST;
+		ACTIONS[ProtocolConstants.OP_SNAPSHOT_REQUEST] = ProtocolConstants.ACTION_SNAPSHOT_REQUEST;
+		ACTIONS[ProtocolConstants.OP_SESSION_TOKEN] = ProtocolConstants.ACTION_SESSION_TOKEN;
+		ACTIONS[ProtocolConstants.OP_RESUME] = ProtocolConstants.ACTION_RESUME;
+		ACTIONS[ProtocolConstants.OP_RESUME_ACCEPT] = ProtocolConstants.ACTION_RESUME_ACCEPT;
+		ACTIONS[ProtocolConstants.OP_RESUME_REJECT] = ProtocolConstants.ACTION_RESUME_REJECT;
+		ACTIONS[ProtocolConstants.OP_HEARTBEAT] = ProtocolConstants.ACTION_HEARTBEAT;
+		ACTIONS[ProtocolConstants.OP_MEMBER_LIST_REQUEST] = ProtocolConstants.ACTION_MEMBER_LIST_REQUEST;
+		ACTIONS[ProtocolConstants.OP_MEMBER_LIST] = ProtocolConstants.ACTION_MEMBER_LIST;
+		ACTIONS[ProtocolConstants.OP_CURSOR] = ProtocolConstants.ACTION_CURSOR;
+		ACTIONS[ProtocolConstants.OP_PRESENCE] = ProtocolConstants.ACTION_PRESENCE;
+		ACTIONS[ProtocolConstants.OP_CHUNK] = ProtocolConstants.ACTION_CHUNK;
+		ACTIONS[ProtocolConstants.OP_SEQUENCE_ACK] = ProtocolConstants.ACTION_SEQUENCE_ACK;
+
+		TOOLS[ProtocolConstants.TOOL_OP_PENCIL] = ProtocolConstants.TOOL_PENCIL;
+		TOOLS[ProtocolConstants.TOOL_OP_ERASER] = ProtocolConstants.TOOL_ERASER;
+		TOOLS[ProtocolConstants.TOOL_OP_LINE] = ProtocolConstants.TOOL_LINE;
+		TOOLS[ProtocolConstants.TOOL_OP_CIRCLE] = ProtocolConstants.TOOL_CIRCLE;
+		TOOLS[ProtocolConstants.TOOL_OP_RECTANGLE] = ProtocolConstants.TOOL_RECTANGLE;
+		TOOLS[ProtocolConstants.TOOL_OP_TRIANGLE] = ProtocolConstants.TOOL_TRIANGLE;
+		TOOLS[ProtocolConstants.TOOL_OP_TEXT] = ProtocolConstants.TOOL_TEXT;
+
+		ACTION_OPCODES = indexNames(ACTIONS);
+		TOOL_OPCODES = indexNames(TOOLS);
+		ProtocolConstants.URGENT_BROADCAST_ACTIONS
+				.forEach(action -> URGENT_BROADCAST_OPCODES[ACTION_OPCODES.get(action)] = true);
+		ProtocolConstants.BOARD_ACTIONS.forEach(action -> BOARD_OPCODES[ACTION_OPCODES.get(action)] = true);
+		ProtocolConstants.DRAW_LANE_ACTIONS
+				.forEach(action -> LANES[ACTION_OPCODES.get(action)] = ProtocolConstants.LANE_DRAW);
+		ProtocolConstants.CHAT_LANE_ACTIONS
+				.forEach(action -> LANES[ACTION_OPCODES.get(action)] = ProtocolConstants.LANE_CHAT);
+		ProtocolConstants.BULK_LANE_ACTIONS
+				.forEach(action -> LANES[ACTION_OPCODES.get(action)] = ProtocolConstants.LANE_BULK);
+	}
+
+	private Opcodes() {
+		throw new IllegalStateException("Opcodes class cannot be instantiated");
+	}
+
+	/**
+	 * This method is used to fetch the number of action opcodes, which is the size
+	 * of a handler table of actions.
+	 * 
+	 * @return
+	 */
+	public static int actionCount() {
+		return ACTIONS.length;
+	}
+
+	/**
+	 * This method is used to fetch the number of tool opcodes, which is the size
+	 * of a handler table of tools.
+	 * 
+	 * @return
+	 */
+	public static int toolCount() {
+		return TOOLS.length;
+	}
+
+	/**
+	 * This method is used to merge the opcode of an opcode or action field into
+	 * the opcode of the message read so far.
+	 * 
+	 * @implNote An opcode field unknown to this peer is merged as
+	 *           {@link #UNKNOWN}, so it conflicts with a known action. A newer
+	 *           peer never writes a known action with an unknown opcode, as
+	 *           opcodes are only ever added.
+	 * 
+	 * @param opcode      the opcode read so far, {@link #ABSENT} before the first
+	 *                    field
+	 * @param fieldOpcode the opcode of the field, {@link #UNKNOWN} if it is
+	 *                    unknown to this peer
+	 * @return the opcode, or {@link #CONFLICT} if the fields disagree
+	 */
+	public static int merge(int opcode, int fieldOpcode) {
+		if (opcode == ABSENT) {
+			return fieldOpcode;
+		}
+		return opcode == fieldOpcode ? opcode : CONFLICT;
+	}
+
+	/**
+	 * This method is used to map an action to its opcode.
+	 * 
+	 * @param action
+	 * @return the opcode, or {@link #UNKNOWN} if the action is null or unknown
+	 */
+	public static int actionOpcode(String action) {
+		return lookup(ACTION_OPCODES, action);
+	}
+
+	/**
+	 * This method is used to map an action opcode back to the action.
+	 * 
+	 * @param opcode
+	 * @return the action, or null if the opcode is unknown
+	 */
+	public static String actionName(int opcode) {
+		return opcode >= 0 && opcode < ACTIONS.length ? ACTIONS[opcode] : null;
+	}
+
+	/**
+	 * This method is used to map a tool to its opcode.
+	 * 
+	 * @param tool
+	 * @return the opcode, or {@link #UNKNOWN} if the tool is null or unknown
+	 */
+	public static int toolOpcode(String tool) {
+		return lookup(TOOL_OPCODES, tool);
+	}
+
+	/**
+	 * This method is used to map a tool opcode back to the tool.
+	 * 
+	 * @param opcode
+	 * @return the tool, or null if the opcode is unknown
+	 */
+	public static String toolName(int opcode) {
+		return opcode >= 0 && opcode < TOOLS.length ? TOOLS[opcode] : null;
+	}
+
+	/**
+	 * This method is used to check if the server relays the action as received,
+	 * without parsing it.
+	 * 
+	 * @param opcode
+	 * @return
+	 */
+	public static boolean isUrgentBroadcast(int opcode) {
+		return opcode >= 0 && opcode < ACTIONS.length && URGENT_BROADCAST_OPCODES[opcode];
+	}
+
+	/**
+	 * This method is used to check if the action is a board event, which is
+	 * sequenced by the server and retained in the board history.
+	 * 
+	 * @param opcode
+	 * @return
+	 */
+	public static boolean isBoardAction(int opcode) {
+		return opcode >= 0 && opcode < ACTIONS.length && BOARD_OPCODES[opcode];
+	}
+
+	/**
+	 * This method is used to fetch the lane of the connection the action is sent
+	 * on. Unknown actions are sent on the control lane.
+	 * 
+	 * @param opcode
+	 * @return
+	 */
+	public static int lane(int opcode) {
+		return opcode >= 0 && opcode < ACTIONS.length ? LANES[opcode] : ProtocolConstants.LANE_CONTROL;
+	}
+
+	/**
+	 * This method is used to index the names of a table by name.
+	 * 
+	 * @param names
+	 * @return
+	 */
+	private static ImmutableMap<String, Integer> indexNames(String[] names) {
+		ImmutableMap.Builder<String, Integer> builder = ImmutableMap.builder();
+		for (int opcode = 0; opcode < names.length; opcode++) {
+			builder.put(names[opcode], opcode);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * This method is used to look up the opcode of a name.
+	 * 
+	 * @param opcodes
+	 * @param name
+	 * @return
+	 */
+	private static int lookup(ImmutableMap<String, Integer> opcodes, String name) {
+		if (Objects.isNull(name)) {
+			return UNKNOWN;
+		}
+		Integer opcode = opcodes.get(name);
+		return Objects.nonNull(opcode) ? opcode : UNKNOWN;
+	}
+}
@@ -0,0 +1,293 @@
+package com.distributed.project.whiteboard.protocol.stroke;
+
+import java.awt.Rectangle;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * This class is used to store the points of a free hand stroke packed in a
+ * growable array, instead of a {@link java.awt.Point} per point.
+ *
+ * @implNote The first point is kept as is, and every following point as its x
+ *           and y deltas from the previous point in a short array, which takes
+ *           4 bytes per point. A jump outside the short range is stored as
+ *           several collinear steps, which draw the same line.
+ *
+ * @implNote Messages carry the stroke as one int array of the first point
+ *           followed by the deltas, so the small deltas of a stroke are written
+ *           with a few digits each. A stroke read from a message is rejected if a
+ *           delta is outside the short range or a point is outside the board, so
+ *           that a received stroke is never split into steps and its bounds,
+ *           which the tiles drawn are looked up from, stay within the board.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class PackedStroke implements Serializable {
+
+	private static final long serialVersionUID = 5318704236416082734L;
+
+	// Room for the deltas of this many points before the array grows
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final int startX;
+	private final int startY;
+	private int lastX;
+	private int lastY;
+	private short[] deltas = new short[INITIAL_CAPACITY * 2];
+	private int deltaLength;
+
+	// Bounds of the points, kept as they are added
+	private int minX;
+	private int minY;
+	private int maxX;
+	private int maxY;
+
+	/**
+	 * This constructor is used to start the stroke at the given point.
+	 *
+	 * @param startX
+	 * @param startY
+	 */
+	public PackedStroke(int startX, int startY) {
+		this.startX = startX;
+		this.startY = startY;
+		this.lastX = startX;
+		this.lastY = startY;
+		this.minX = startX;
+		this.maxX = startX;
+		this.minY = startY;
+		this.maxY = startY;
+	}
+
+	/**
+	 * This method is used to create a stroke from the array written in the
+	 * messages, the first point followed by the deltas of every other point.
+	 *
+	 * @param values
+	 * @return
+	 * @throws IllegalArgumentException if the array is malformed, a delta is
+	 *                                  outside the short range or a point is
+	 *                                  outside the board
+	 */
+	@JsonCreator
+	public static PackedStroke fromArray(int[] values) {
+		if (Objects.isNull(values) || values.length < 2 || values.length % 2 != 0) {
+			throw new IllegalArgumentException("Stroke needs the first point and pairs of deltas");
+		}
+		checkOnBoard(values[0], values[1]);
+
+		PackedStroke stroke = new PackedStroke(values[0], values[1]);
+		for (int i = 2; i < values.length; i += 2) {
+			if (values[i] < Short.MIN_VALUE || values[i] > Short.MAX_VALUE || values[i + 1] < Short.MIN_VALUE
+					|| values[i + 1] > Short.MAX_VALUE) {
+				throw new IllegalArgumentException("Stroke delta outside the short range");
+			}
+			checkOnBoard(stroke.lastX + values[i], stroke.lastY + values[i + 1]);
+			stroke.add(stroke.lastX + values[i], stroke.lastY + values[i + 1]);
+		}
+		stroke.trimToSize();
+		return stroke;
+	}
+
+	/**
+	 * This method is used to add a point at the end of the stroke.
+	 *
+	 * @param x
+	 * @param y
+	 */
+	public void add(int x, int y) {
+		long deltaX = (long) x - lastX;
+		long deltaY = (long) y - lastY;
+
+		// Splitting a jump outside the short range into collinear steps
+		long steps = Math.max(1, (Math.max(Math.abs(deltaX), Math.abs(deltaY)) + Short.MAX_VALUE - 1)
+				/ Short.MAX_VALUE);
+		int fromX = lastX;
+		int fromY = lastY;
+		for (long step = 1; step <= steps; step++) {
+			int stepX = (int) (fromX + deltaX * step / steps);
+			int stepY = (int) (fromY + deltaY * step / steps);
+			appendDelta(stepX - lastX, stepY - lastY);
+			lastX = stepX;
+			lastY = stepY;
+		}
+
+		minX = Math.min(minX, x);
+		maxX = Math.max(maxX, x);
+		minY = Math.min(minY, y);
+		maxY = Math.max(maxY, y);
+	}
+
+	/**
+	 * This method is used to fetch the number of points of the stroke.
+	 *
+	 * @return
+	 */
+	public int size() {
+		return 1 + deltaLength / 2;
+	}
+
+	/**
+	 * This method is used to release the unused capacity of a stroke which is
+	 * not extended anymore.
+	 */
+	public void trimToSize() {
+		if (deltas.length > deltaLength) {
+			deltas = Arrays.copyOf(deltas, deltaLength);
+		}
+	}
+
+	/**
+	 * This method is used to pass every segment of the stroke to the consumer, in
+	 * order, without creating an object per point.
+	 *
+	 * @param consumer
+	 */
+	public void forEachSegment(SegmentConsumer consumer) {
+		int x = startX;
+		int y = startY;
+		for (int i = 0; i < deltaLength; i += 2) {
+			int nextX = x + deltas[i];
+			int nextY = y + deltas[i + 1];
+			consumer.accept(x, y, nextX, nextY);
+			x = nextX;
+			y = nextY;
+		}
+	}
+
+	/**
+	 * This method is used to fetch the absolute coordinates of every point, as x
+	 * and y pairs.
+	 *
+	 * @return
+	 */
+	public int[] toCoordinates() {
+		int[] coordinates = new int[size() * 2];
+		coordinates[0] = startX;
+		coordinates[1] = startY;
+		for (int i = 0; i < deltaLength; i++) {
+			coordinates[i + 2] = coordinates[i] + deltas[i];
+		}
+		return coordinates;
+	}
+
+	/**
+	 * This method is used to fetch the array written in the messages, the first
+	 * point followed by the deltas of every other point.
+	 *
+	 * @return
+	 */
+	@JsonValue
+	public int[] toArray() {
+		int[] values = new int[deltaLength + 2];
+		values[0] = startX;
+		values[1] = startY;
+		for (int i = 0; i < deltaLength; i++) {
+			values[i + 2] = deltas[i];
+		}
+		return values;
+	}
+
+	/**
+	 * This method is used to fetch the smallest rectangle holding every point of
+	 * the stroke.
+	 *
+	 * @return
+	 */
+	public Rectangle getBounds() {
+		return new Rectangle(minX, minY, maxX - minX, maxY - minY);
+	}
+
+	/**
+	 * This method is used to check that a point read from a message is on the
+	 * board.
+	 *
+	 * @param x
+	 * @param y
+	 */
+	private static void checkOnBoard(int x, int y) {
+		if (Math.abs(x) > ProtocolConstants.MAX_BOARD_COORDINATE
+				|| Math.abs(y) > ProtocolConstants.MAX_BOARD_COORDINATE) {
+			throw new IllegalArgumentException("Stroke point outside the board");
+		}
+	}
+
+	/**
+	 * This method is used to append the deltas of a point, growing the array if
+	 * it is full.
+	 *
+	 * @param deltaX
+	 * @param deltaY
+	 */
+	private void appendDelta(int deltaX, int deltaY) {
+		if (deltaLength + 2 > deltas.length) {
+			deltas = Arrays.copyOf(deltas, Math.max(INITIAL_CAPACITY * 2, deltas.length * 2));
+		}
+		deltas[deltaLength++] = (short) deltaX;
+		deltas[deltaLength++] = (short) deltaY;
+	}
+
+	public int getStartX() {
+		return startX;
+	}
+
+	public int getStartY() {
+		return startY;
+	}
+
+	public int getLastX() {
+		return lastX;
+	}
+
+	public int getLastY() {
+		return lastY;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof PackedStroke)) {
+			return false;
+		}
+		return Arrays.equals(toArray(), ((PackedStroke) obj).toArray());
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(toArray());
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+
+	/**
+	 * This interface is used to receive the segments of a stroke as the
+	 * coordinates of their end points.
+	 *
+	 * @author Abhijeet - 1278218
+	 *
+	 */
+	@FunctionalInterface
+	public interface SegmentConsumer {
+
+		/**
+		 * This method is used to receive a segment of the stroke.
+		 *
+		 * @param x1
+		 * @param y1
+		 * @param x2
+		 * @param y2
+		 */
+		void accept(int x1, int y1, int x2, int y2);
+	}
+}
@@ -0,0 +1,502 @@
+package com.distributed.project.whiteboard.protocol.utils;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.dto.CursorDto;
+import com.distributed.project.whiteboard.protocol.dto.UserDto;
+import com.distributed.project.whiteboard.protocol.opcode.Opcodes;
+import com.distributed.project.whiteboard.protocol.stroke.PackedStroke;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * This class is used to encode and decode {@link ActionMessageDto} with the
+ * Jackson streaming API, without reflection on the DTO.
+ *
+ * @implNote Messages are written with the codec version as the first field.
+ *           Points are written as x and y ints and colors as a single packed
+ *           ARGB int, instead of every bean property of {@link Color} such as
+ *           its color space and ICC profile. Null fields are left out.
+ *
+ * @implNote The opcode of the action is written before the action, so the
+ *           decoder takes the action from the opcode table instead of reading
+ *           and mapping the string. The action is still written for peers which
+ *           do not know the opcode.
+ *
+ * @implNote A packed stroke is written as an array of ints, the first point
+ *           followed by the deltas of every other point.
+ *
+ * @implNote A cursor is written as an array of the client UID followed by the
+ *           x and y coordinates if it is visible.
+ *
+ * @implNote Messages without the version as the first field are written by
+ *           older clients with the object mapper. They are not decoded by this
+ *           class and are left to the object mapper.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public final class ActionMessageCodec {
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	// Most messages are draw events well below this size
+	private static final int INITIAL_BUFFER_SIZE = 256;
+
+	// Values of a chunk of a stroke, its first point and the deltas of the rest
+	private static final int INITIAL_STROKE_VALUES = 64;
+
+	private static final String FIELD_VERSION = "v";
+	private static final String FIELD_OPCODE = "op";
+	private static final String FIELD_USER = "user";
+	private static final String FIELD_ACTION = "action";
+	private static final String FIELD_TOOL = "tool";
+	private static final String FIELD_START_POINT = "startPoint";
+	private static final String FIELD_END_POINT = "endPoint";
+	private static final String FIELD_DRAG_POINT = "dragPoint";
+	private static final String FIELD_STROKE = "stroke";
+	private static final String FIELD_COLOR = "color";
+	private static final String FIELD_DRAW_TEXT = "drawText";
+	private static final String FIELD_CHAT_MESSAGE = "chatMessage";
+	private static final String FIELD_SELECTED_USER = "selectedUser";
+	private static final String FIELD_ACTIVE_USER_LIST = "activeUserList";
+	private static final String FIELD_DRAWBOARD_IMAGE = "drawboardImage";
+	private static final String FIELD_SEQUENCE = "sequence";
+	private static final String FIELD_SENDER_ID = "senderId";
+	private static final String FIELD_MEMBERSHIP_VERSION = "membershipVersion";
+	private static final String FIELD_CURSORS = "cursors";
+	private static final String FIELD_TRANSFER_ID = "transferId";
+	private static final String FIELD_CHUNK = "chunk";
+	private static final String FIELD_FINAL_CHUNK = "finalChunk";
+	private static final String FIELD_RESUME_TOKEN = "resumeToken";
+	private static final String FIELD_CLIENT_UID = "clientUID";
+	private static final String FIELD_CLIENT_USER_NAME = "clientUserName";
+	private static final String FIELD_MANAGER = "manager";
+	private static final String FIELD_X = "x";
+	private static final String FIELD_Y = "y";
+
+	private ActionMessageCodec() {
+		throw new IllegalStateException("ActionMessageCodec class cannot be instantiated");
+	}
+
+	/**
+	 * This method is used to encode the message with the configured codec version.
+	 *
+	 * @param message
+	 * @return
+	 * @throws IOException
+	 */
+	public static String encode(ActionMessageDto message) throws IOException {
+		StringWriter writer = new StringWriter(INITIAL_BUFFER_SIZE);
+		try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+			generator.writeStartObject();
+			generator.writeNumberField(FIELD_VERSION, TypeConversionUtils.getCodecVersion());
+			if (message.getOpcode() != Opcodes.UNKNOWN) {
+				generator.writeNumberField(FIELD_OPCODE, message.getOpcode());
+			}
+			writeUser(generator, FIELD_USER, message.getUser());
+			writeString(generator, FIELD_ACTION, message.getAction());
+			writeString(generator, FIELD_TOOL, message.getTool());
+			writePoint(generator, FIELD_START_POINT, message.getStartPoint());
+			writePoint(generator, FIELD_END_POINT, message.getEndPoint());
+			writePoint(generator, FIELD_DRAG_POINT, message.getDragPoint());
+			if (Objects.nonNull(message.getStroke())) {
+				int[] values = message.getStroke().toArray();
+				generator.writeFieldName(FIELD_STROKE);
+				generator.writeArray(values, 0, values.length);
+			}
+			if (Objects.nonNull(message.getColor())) {
+				generator.writeNumberField(FIELD_COLOR, message.getColor().getRGB());
+			}
+			writeString(generator, FIELD_DRAW_TEXT, message.getDrawText());
+			writeString(generator, FIELD_CHAT_MESSAGE, message.getChatMessage());
+			writeUser(generator, FIELD_SELECTED_USER, message.getSelectedUser());
+			if (Objects.nonNull(message.getActiveUserList())) {
+				generator.writeArrayFieldStart(FIELD_ACTIVE_USER_LIST);
+				for (UserDto user : message.getActiveUserList()) {
+					writeUserObject(generator, user);
+				}
+				generator.writeEndArray();
+			}
+			writeString(generator, FIELD_DRAWBOARD_IMAGE, message.getDrawboardImage());
+			if (Objects.nonNull(message.getSequence())) {
+				generator.writeNumberField(FIELD_SEQUENCE, message.getSequence());
+			}
+			if (Objects.nonNull(message.getSenderId())) {
+				generator.writeNumberField(FIELD_SENDER_ID, message.getSenderId());
+			}
+			if (Objects.nonNull(message.getMembershipVersion())) {
+				generator.writeNumberField(FIELD_MEMBERSHIP_VERSION, message.getMembershipVersion());
+			}
+			if (Objects.nonNull(message.getCursors())) {
+				generator.writeArrayFieldStart(FIELD_CURSORS);
+				for (CursorDto cursor : message.getCursors()) {
+					long[] values = cursor.toArray();
+					generator.writeArray(values, 0, values.length);
+				}
+				generator.writeEndArray();
+			}
+			if (Objects.nonNull(message.getTransferId())) {
+				generator.writeNumberField(FIELD_TRANSFER_ID, message.getTransferId());
+			}
+			writeString(generator, FIELD_CHUNK, message.getChunk());
+			if (Objects.nonNull(message.getFinalChunk())) {
+				generator.writeBooleanField(FIELD_FINAL_CHUNK, message.getFinalChunk());
+			}
+			writeString(generator, FIELD_RESUME_TOKEN, message.getResumeToken());
+			generator.writeEndObject();
+		}
+		return writer.toString();
+	}
+
+	/**
+	 * This method is used to decode a message written by this codec. Unknown
+	 * fields are skipped, and a repeated field keeps its last value, apart from
+	 * the opcode and action, which are merged with {@link Opcodes#merge(int, int)}.
+	 *
+	 * @param data
+	 * @return the message, or null if it does not start with the codec version
+	 * @throws IOException if the message is malformed, or its opcode and action
+	 *                     disagree
+	 */
+	public static ActionMessageDto decode(String data) throws IOException {
+		try (JsonParser parser = JSON_FACTORY.createParser(data)) {
+			// Leaving messages of older clients to the object mapper
+			if (parser.nextToken() != JsonToken.START_OBJECT || parser.nextToken() != JsonToken.FIELD_NAME
+					|| !FIELD_VERSION.equals(parser.getCurrentName())) {
+				return null;
+			}
+			parser.nextToken();
+
+			ActionMessageDto message = new ActionMessageDto();
+			int opcode = Opcodes.ABSENT;
+			String action = null;
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				parser.nextToken();
+				switch (field) {
+				case FIELD_USER:
+					message.setUser(readUser(parser));
+					break;
+				case FIELD_OPCODE:
+					if (parser.currentToken() != JsonToken.VALUE_NULL) {
+						opcode = Opcodes.merge(opcode, parser.currentToken() == JsonToken.VALUE_NUMBER_INT
+								&& Objects.nonNull(Opcodes.actionName(parser.getIntValue())) ? parser.getIntValue()
+										: Opcodes.UNKNOWN);
+					}
+					break;
+				case FIELD_ACTION:
+					if (parser.currentToken() != JsonToken.VALUE_NULL) {
+						action = parser.currentToken() == JsonToken.VALUE_STRING ? parser.getText() : null;
+						opcode = Opcodes.merge(opcode, Opcodes.actionOpcode(action));
+					}
+					break;
+				case FIELD_TOOL:
+					message.setTool(parser.getValueAsString());
+					break;
+				case FIELD_START_POINT:
+					message.setStartPoint(readPoint(parser));
+					break;
+				case FIELD_END_POINT:
+					message.setEndPoint(readPoint(parser));
+					break;
+				case FIELD_DRAG_POINT:
+					message.setDragPoint(readPoint(parser));
+					break;
+				case FIELD_STROKE:
+					message.setStroke(readStroke(parser));
+					break;
+				case FIELD_COLOR:
+					message.setColor(parser.currentToken() == JsonToken.VALUE_NULL ? null
+							: new Color(parser.getIntValue(), true));
+					break;
+				case FIELD_DRAW_TEXT:
+					message.setDrawText(parser.getValueAsString());
+					break;
+				case FIELD_CHAT_MESSAGE:
+					message.setChatMessage(parser.getValueAsString());
+					break;
+				case FIELD_SELECTED_USER:
+					message.setSelectedUser(readUser(parser));
+					break;
+				case FIELD_ACTIVE_USER_LIST:
+					message.setActiveUserList(readUserList(parser));
+					break;
+				case FIELD_DRAWBOARD_IMAGE:
+					message.setDrawboardImage(parser.getValueAsString());
+					break;
+				case FIELD_SEQUENCE:
+					message.setSequence(parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getLongValue());
+					break;
+				case FIELD_SENDER_ID:
+					message.setSenderId(parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getLongValue());
+					break;
+				case FIELD_MEMBERSHIP_VERSION:
+					message.setMembershipVersion(
+							parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getLongValue());
+					break;
+				case FIELD_CURSORS:
+					message.setCursors(readCursorList(parser));
+					break;
+				case FIELD_TRANSFER_ID:
+					message.setTransferId(
+							parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getLongValue());
+					break;
+				case FIELD_CHUNK:
+					message.setChunk(parser.getValueAsString());
+					break;
+				case FIELD_FINAL_CHUNK:
+					message.setFinalChunk(
+							parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getBooleanValue());
+					break;
+				case FIELD_RESUME_TOKEN:
+					message.setResumeToken(parser.getValueAsString());
+					break;
+				default:
+					parser.skipChildren();
+					break;
+				}
+			}
+
+			if (opcode == Opcodes.CONFLICT) {
+				throw new IOException("Opcode and action of the message disagree");
+			}
+			// Keeping the action string of opcodes unknown to this peer
+			if (opcode >= 0) {
+				message.setOpcode(opcode);
+			} else if (Objects.nonNull(action)) {
+				message.setAction(action);
+			}
+			return message;
+		}
+	}
+
+	/**
+	 * This method is used to write a string field if it is not null.
+	 *
+	 * @param generator
+	 * @param field
+	 * @param value
+	 * @throws IOException
+	 */
+	private static void writeString(JsonGenerator generator, String field, String value) throws IOException {
+		if (Objects.nonNull(value)) {
+			generator.writeStringField(field, value);
+		}
+	}
+
+	/**
+	 * This method is used to write a point field as x and y ints if it is not
+	 * null.
+	 *
+	 * @param generator
+	 * @param field
+	 * @param point
+	 * @throws IOException
+	 */
+	private static void writePoint(JsonGenerator generator, String field, Point point) throws IOException {
+		if (Objects.nonNull(point)) {
+			generator.writeObjectFieldStart(field);
+			generator.writeNumberField(FIELD_X, point.x);
+			generator.writeNumberField(FIELD_Y, point.y);
+			generator.writeEndObject();
+		}
+	}
+
+	/**
+	 * This method is used to write a user field if it is not null.
+	 *
+	 * @param generator
+	 * @param field
+	 * @param user
+	 * @throws IOException
+	 */
+	private static void writeUser(JsonGenerator generator, String field, UserDto user) throws IOException {
+		if (Objects.nonNull(user)) {
+			generator.writeFieldName(field);
+			writeUserObject(generator, user);
+		}
+	}
+
+	/**
+	 * This method is used to write the fields of a user shared with the other
+	 * clients.
+	 *
+	 * @param generator
+	 * @param user
+	 * @throws IOException
+	 */
+	private static void writeUserObject(JsonGenerator generator, UserDto user) throws IOException {
+		generator.writeStartObject();
+		if (Objects.nonNull(user.getClientUID())) {
+			generator.writeNumberField(FIELD_CLIENT_UID, user.getClientUID());
+		}
+		writeString(generator, FIELD_CLIENT_USER_NAME, user.getClientUserName());
+		generator.writeBooleanField(FIELD_MANAGER, user.isManager());
+		generator.writeEndObject();
+	}
+
+	/**
+	 * This method is used to read a point written as x and y ints.
+	 *
+	 * @param parser
+	 * @return
+	 * @throws IOException
+	 */
+	private static Point readPoint(JsonParser parser) throws IOException {
+		if (parser.currentToken() != JsonToken.START_OBJECT) {
+			parser.skipChildren();
+			return null;
+		}
+
+		Point point = new Point();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			parser.nextToken();
+			if (FIELD_X.equals(field)) {
+				point.x = parser.getValueAsInt();
+			} else if (FIELD_Y.equals(field)) {
+				point.y = parser.getValueAsInt();
+			} else {
+				parser.skipChildren();
+			}
+		}
+		return point;
+	}
+
+	/**
+	 * This method is used to read a stroke written as an array of ints.
+	 *
+	 * @param parser
+	 * @return
+	 * @throws IOException
+	 */
+	private static PackedStroke readStroke(JsonParser parser) throws IOException {
+		if (parser.currentToken() == JsonToken.VALUE_NULL) {
+			return null;
+		}
+		if (parser.currentToken() != JsonToken.START_ARRAY) {
+			throw new JsonParseException(parser, "Expected an array of stroke coordinates");
+		}
+
+		int[] values = new int[INITIAL_STROKE_VALUES];
+		int length = 0;
+		while (parser.nextToken() != JsonToken.END_ARRAY) {
+			if (length == values.length) {
+				values = Arrays.copyOf(values, length * 2);
+			}
+			values[length++] = parser.getValueAsInt();
+		}
+		try {
+			return PackedStroke.fromArray(Arrays.copyOf(values, length));
+		} catch (IllegalArgumentException e) {
+			throw new JsonParseException(parser, e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * This method is used to read a list of cursors, each written as an array of
+	 * longs.
+	 *
+	 * @param parser
+	 * @return
+	 * @throws IOException
+	 */
+	private static List<CursorDto> readCursorList(JsonParser parser) throws IOException {
+		if (parser.currentToken() == JsonToken.VALUE_NULL) {
+			return null;
+		}
+		if (parser.currentToken() != JsonToken.START_ARRAY) {
+			throw new JsonParseException(parser, "Expected an array of cursors");
+		}
+
+		List<CursorDto> cursors = new ArrayList<>();
+		long[] values = new long[3];
+		while (parser.nextToken() != JsonToken.END_ARRAY) {
+			if (parser.currentToken() != JsonToken.START_ARRAY) {
+				throw new JsonParseException(parser, "Expected an array of cursor values");
+			}
+			int length = 0;
+			while (parser.nextToken() != JsonToken.END_ARRAY) {
+				if (length == values.length) {
+					throw new JsonParseException(parser, "Too many cursor values");
+				}
+				values[length++] = parser.getValueAsLong();
+			}
+			try {
+				cursors.add(CursorDto.fromArray(Arrays.copyOf(values, length)));
+			} catch (IllegalArgumentException | ArithmeticException e) {
+				throw new JsonParseException(parser, e.getMessage(), e);
+			}
+		}
+		return cursors;
+	}
+
+	/**
+	 * This method is used to read a user.
+	 *
+	 * @param parser
+	 * @return
+	 * @throws IOException
+	 */
+	private static UserDto readUser(JsonParser parser) throws IOException {
+		if (parser.currentToken() != JsonToken.START_OBJECT) {
+			parser.skipChildren();
+			return null;
+		}
+
+		UserDto user = new UserDto();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			parser.nextToken();
+			switch (field) {
+			case FIELD_CLIENT_UID:
+				user.setClientUID(parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getLongValue());
+				break;
+			case FIELD_CLIENT_USER_NAME:
+				user.setClientUserName(parser.getValueAsString());
+				break;
+			case FIELD_MANAGER:
+				user.setManager(parser.getValueAsBoolean());
+				break;
+			default:
+				parser.skipChildren();
+				break;
+			}
+		}
+		return user;
+	}
+
+	/**
+	 * This method is used to read a list of users.
+	 *
+	 * @param parser
+	 * @return
+	 * @throws IOException
+	 */
+	private static List<UserDto> readUserList(JsonParser parser) throws IOException {
+		if (parser.currentToken() == JsonToken.VALUE_NULL) {
+			return null;
+		}
+		if (parser.currentToken() != JsonToken.START_ARRAY) {
+			throw new JsonParseException(parser, "Expected an array of users");
+		}
+
+		List<UserDto> users = new ArrayList<>();
+		while (parser.nextToken() != JsonToken.END_ARRAY) {
+			users.add(readUser(parser));
+		}
+		return users;
+	}
+}
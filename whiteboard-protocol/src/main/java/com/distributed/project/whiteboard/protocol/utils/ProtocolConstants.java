@@ -0,0 +1,153 @@
+package com.distributed.project.whiteboard.protocol.utils;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * This class is used to store the constants of the protocol shared by the
+ * client and server, such as the actions of the messages.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public final class ProtocolConstants {
+
+	private ProtocolConstants() {
+		throw new IllegalStateException("ProtocolConstants class cannot be instantiated");
+	}
+
+	// ACTION CONSTANTS
+	public static final String ACTION_DRAW = "DRAW";
+	public static final String ACTION_CHAT = "CHAT";
+	public static final String ACTION_SYSTEM_CHAT = "SYSTEM_CHAT";
+	public static final String ACTION_NEW_USER_PERMISSION = "NEW_USER_PERMISSION";
+	public static final String ACTION_NEW_USER_ACCEPT = "NEW_USER_ACCEPT";
+	public static final String ACTION_NEW_USER_REJECT = "NEW_USER_REJECT";
+	public static final String ACTION_USER_KICK = "USER_KICK";
+	public static final String ACTION_ASSIGN_MANAGER = "ASSIGN_MANAGER";
+	public static final String ACTION_NEW_USER_ADDED = "NEW_USER_ADDED";
+	public static final String ACTION_EXIT = "EXIT";
+	public static final String ACTION_REFRESH_USER_LIST = "REFRESH_USER_LIST";
+	public static final String ACTION_LOAD_IMAGE = "LOAD_IMAGE";
+	public static final String ACTION_CLEAR = "CLEAR";
+	public static final String ACTION_FORCE_QUIT = "FORCE_QUIT";
+	public static final String ACTION_SYNC_REQUEST = "SYNC_REQUEST";
+	public static final String ACTION_SNAPSHOT_REQUEST = "SNAPSHOT_REQUEST";
+	public static final String ACTION_SESSION_TOKEN = "SESSION_TOKEN";
+	public static final String ACTION_RESUME = "RESUME";
+	public static final String ACTION_RESUME_ACCEPT = "RESUME_ACCEPT";
+	public static final String ACTION_RESUME_REJECT = "RESUME_REJECT";
+	public static final String ACTION_HEARTBEAT = "HEARTBEAT";
+	public static final String ACTION_MEMBER_LIST_REQUEST = "MEMBER_LIST_REQUEST";
+	public static final String ACTION_MEMBER_LIST = "MEMBER_LIST";
+	public static final String ACTION_CURSOR = "CURSOR";
+	public static final String ACTION_PRESENCE = "PRESENCE";
+	public static final String ACTION_CHUNK = "CHUNK";
+	public static final String ACTION_SEQUENCE_ACK = "SEQUENCE_ACK";
+
+	// ACTION OPCODES, DENSE INDEXES OF THE ACTIONS IN THE HANDLER REGISTRIES
+	public static final int OP_DRAW = 0;
+	public static final int OP_CHAT = 1;
+	public static final int OP_SYSTEM_CHAT = 2;
+	public static final int OP_NEW_USER_PERMISSION = 3;
+	public static final int OP_NEW_USER_ACCEPT = 4;
+	public static final int OP_NEW_USER_REJECT = 5;
+	public static final int OP_USER_KICK = 6;
+	public static final int OP_ASSIGN_MANAGER = 7;
+	public static final int OP_NEW_USER_ADDED = 8;
+	public static final int OP_EXIT = 9;
+	public static final int OP_REFRESH_USER_LIST = 10;
+	public static final int OP_LOAD_IMAGE = 11;
+	public static final int OP_CLEAR = 12;
+	public static final int OP_FORCE_QUIT = 13;
+	public static final int OP_SYNC_REQUEST = 14;
+	public static final int OP_SNAPSHOT_REQUEST = 15;
+	public static final int OP_SESSION_TOKEN = 16;
+	public static final int OP_RESUME = 17;
+	public static final int OP_RESUME_ACCEPT = 18;
+	public static final int OP_RESUME_REJECT = 19;
+	public static final int OP_HEARTBEAT = 20;
+	public static final int OP_MEMBER_LIST_REQUEST = 21;
+	public static final int OP_MEMBER_LIST = 22;
+	public static final int OP_CURSOR = 23;
+	public static final int OP_PRESENCE = 24;
+	public static final int OP_CHUNK = 25;
+	public static final int OP_SEQUENCE_ACK = 26;
+
+	// TOOL CONSTANTS
+	public static final String TOOL_PENCIL = "PENCIL";
+	public static final String TOOL_ERASER = "ERASER";
+	public static final String TOOL_LINE = "LINE";
+	public static final String TOOL_CIRCLE = "CIRCLE";
+	public static final String TOOL_RECTANGLE = "RECTANGLE";
+	public static final String TOOL_TRIANGLE = "TRIANGLE";
+	public static final String TOOL_TEXT = "TEXT";
+
+	// TOOL OPCODES, DENSE INDEXES OF THE TOOLS IN THE HANDLER REGISTRIES
+	public static final int TOOL_OP_PENCIL = 0;
+	public static final int TOOL_OP_ERASER = 1;
+	public static final int TOOL_OP_LINE = 2;
+	public static final int TOOL_OP_CIRCLE = 3;
+	public static final int TOOL_OP_RECTANGLE = 4;
+	public static final int TOOL_OP_TRIANGLE = 5;
+	public static final int TOOL_OP_TEXT = 6;
+
+	// URGENT BROADCAST MESSAGES RELAYED BY THE SERVER AS RECEIVED
+	public static final ImmutableList<String> URGENT_BROADCAST_ACTIONS = ImmutableList.of(ACTION_DRAW, ACTION_CHAT,
+			ACTION_SYSTEM_CHAT, ACTION_CLEAR);
+
+	// BOARD EVENTS STAMPED WITH A SEQUENCE NUMBER AND RETAINED IN THE HISTORY
+	public static final ImmutableList<String> BOARD_ACTIONS = ImmutableList.of(ACTION_DRAW, ACTION_CLEAR,
+			ACTION_LOAD_IMAGE);
+
+	// LANES OF THE CONNECTION, CONTROL EVENTS ARE SENT FIRST AND THE OTHER LANES SHARE THE REST BY
+	// THEIR QUANTUM OF CHARACTERS PER ROUND
+	public static final int LANE_CONTROL = 0;
+	public static final int LANE_DRAW = 1;
+	public static final int LANE_CHAT = 2;
+	public static final int LANE_BULK = 3;
+	public static final int LANE_COUNT = 4;
+	public static final int DRAW_LANE_QUANTUM = 8192;
+	public static final int CHAT_LANE_QUANTUM = 4096;
+	public static final int BULK_LANE_QUANTUM = 1024;
+
+	// ACTIONS SENT ON THE LANES OTHER THAN THE CONTROL LANE
+	public static final ImmutableList<String> DRAW_LANE_ACTIONS = ImmutableList.of(ACTION_DRAW, ACTION_CLEAR,
+			ACTION_CURSOR, ACTION_PRESENCE, ACTION_SEQUENCE_ACK);
+	public static final ImmutableList<String> CHAT_LANE_ACTIONS = ImmutableList.of(ACTION_CHAT,
+			ACTION_SYSTEM_CHAT);
+	public static final ImmutableList<String> BULK_LANE_ACTIONS = ImmutableList.of(ACTION_LOAD_IMAGE, ACTION_CHUNK);
+
+	// Characters of an event sent in one chunk of a bulk transfer
+	public static final int CHUNK_SIZE = 16384;
+
+	// LIMITS OF THE RECEIVER OF CHUNKED TRANSFERS, A CONNECTION GOING BEYOND THEM IS CLOSED
+	public static final int MAX_TRANSFER_SIZE = 16 * 1024 * 1024;
+	public static final int MAX_PENDING_TRANSFERS = 4;
+	public static final int MAX_HELD_EVENTS = 4096;
+	public static final long TRANSFER_TIMEOUT_MS = 60000;
+
+	// FIELDS READ WITHOUT PARSING THE WHOLE MESSAGE
+	public static final String FIELD_OPCODE = "op";
+	public static final String FIELD_ACTION = "action";
+	public static final String FIELD_USER = "user";
+	public static final String FIELD_SEQUENCE = "sequence";
+	public static final String FIELD_SENDER_ID = "senderId";
+
+	// CODEC CONSTANTS, VERSION 1 IS THE OBJECT MAPPER, VERSION 3 ADDS PACKED STROKES, VERSION 4
+	// LEAVES THE USER OUT OF RELAYED EVENTS, VERSION 5 SENDS MEMBERSHIP CHANGES AS DELTAS AND
+	// VERSION 6 ADDS THE CURSORS OF THE MEMBERS, VERSION 7 SPLITS BULK TRANSFERS INTO CHUNKS AND
+	// VERSION 8 ACKNOWLEDGES THE SEQUENCE OF BOARD EVENTS TO THEIR SENDER
+	public static final int CODEC_VERSION = 8;
+	public static final int STREAMING_CODEC_VERSION = 2;
+	public static final int PACKED_STROKE_CODEC_VERSION = 3;
+	public static final int SENDER_ID_CODEC_VERSION = 4;
+	public static final int MEMBERSHIP_DELTA_CODEC_VERSION = 5;
+	public static final int PRESENCE_CODEC_VERSION = 6;
+	public static final int CHUNK_CODEC_VERSION = 7;
+	public static final int SEQUENCE_ACK_CODEC_VERSION = 8;
+	public static final String PROP_CODEC_VERSION = "whiteboard.codec.version";
+
+	// BOARD CONSTANTS, POINTS OF STROKES ARE LIMITED TO THIS DISTANCE FROM THE ORIGIN
+	public static final int MAX_BOARD_COORDINATE = Short.MAX_VALUE;
+
+}
@@ -0,0 +1,397 @@
+package com.distributed.project.whiteboard.protocol.utils;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.jfr.CodecEvent;
+import com.distributed.project.whiteboard.protocol.opcode.Opcodes;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * This class is used to convert objects to different structures using Jackson
+ * {@link ObjectMapper}.
+ * 
+ * @implNote {@link ActionMessageDto} is encoded and decoded with the
+ *           {@link ActionMessageCodec} instead, unless the legacy encoding is
+ *           configured for peers older than the codec.
+ * 
+ * @implNote Messages which are only relayed by the server are not bound to
+ *           objects. Their opcode is read with the streaming parser, and the
+ *           sequence number is appended to the message as received.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public final class TypeConversionUtils {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TypeConversionUtils.class);
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+			.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+			.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+
+	// Codec version of the oldest peers, whose messages are written with the
+	// object mapper if they are older than the streaming codec
+	private static final int CODEC_VERSION = Integer.getInteger(ProtocolConstants.PROP_CODEC_VERSION,
+			ProtocolConstants.CODEC_VERSION);
+	private static final boolean IS_LEGACY_ENCODING = CODEC_VERSION < ProtocolConstants.STREAMING_CODEC_VERSION;
+	private static final JsonFactory JSON_FACTORY = OBJECT_MAPPER.getFactory();
+
+	// Fields of relayed events only ever stamped by the server, the user is kept
+	// for peers older than the sender id
+	private static final String[] SENDER_FIELDS = CODEC_VERSION >= ProtocolConstants.SENDER_ID_CODEC_VERSION
+			? new String[] { ProtocolConstants.FIELD_SENDER_ID, ProtocolConstants.FIELD_SEQUENCE,
+					ProtocolConstants.FIELD_USER }
+			: new String[] { ProtocolConstants.FIELD_SENDER_ID, ProtocolConstants.FIELD_SEQUENCE };
+
+	private TypeConversionUtils() {
+		throw new IllegalStateException("TypeConversionUtils class cannot be instantiated");
+	}
+
+	/**
+	 * This method is used to convert Object to Custom Class provided in the
+	 * parameters.
+	 * 
+	 * @param data
+	 * @param clazz
+	 * @return
+	 */
+	public static <T> T convertToCustomClass(Object data, Class<T> clazz) {
+		try {
+			if (Objects.nonNull(data) && Objects.nonNull(clazz)) {
+				if (data instanceof String) {
+					CodecEvent codecEvent = new CodecEvent();
+					codecEvent.begin();
+					T result = decode((String) data, clazz);
+					commitCodecEvent(codecEvent, "decode", result, getAction(result), ((String) data).length());
+					return result;
+				} else {
+					return OBJECT_MAPPER.convertValue(data, clazz);
+				}
+			}
+		} catch (Exception e) {
+			LOGGER.error("Exception in convertToCustomClass", e);
+		}
+		return null;
+	}
+
+	/**
+	 * This method is used to fetch the configured codec version, which is lowered
+	 * while peers older than the current codec are connected.
+	 * 
+	 * @return
+	 */
+	public static int getCodecVersion() {
+		return CODEC_VERSION;
+	}
+
+	/**
+	 * This method is used to read the opcode of a message received as a string
+	 * without binding it to an object. Every field of the message is still
+	 * tokenized up to its end, so it is meant for the receiving side only. Events
+	 * sent by the server and the client are passed to the lanes with the opcode
+	 * they were created with instead.
+	 * 
+	 * @implNote Messages without an opcode, written with the object mapper or by
+	 *           older clients, are mapped from their action. Every top level
+	 *           opcode and action field is merged with
+	 *           {@link Opcodes#merge(int, int)}, as the codec and the frame
+	 *           decoder do, which is why the message is read up to its end.
+	 * 
+	 * @param data
+	 * @return the opcode, or {@link Opcodes#UNKNOWN} if the message is not a JSON
+	 *         object with a known opcode or action, or if they disagree
+	 */
+	public static int peekOpcode(String data) {
+		CodecEvent codecEvent = new CodecEvent();
+		codecEvent.begin();
+		int opcode = Opcodes.ABSENT;
+		try (JsonParser parser = JSON_FACTORY.createParser(data)) {
+			if (parser.nextToken() == JsonToken.START_OBJECT) {
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					String field = parser.getCurrentName();
+					JsonToken value = parser.nextToken();
+					// Null fields are left out as if they were not written
+					if (value == JsonToken.VALUE_NULL) {
+						continue;
+					}
+					if (ProtocolConstants.FIELD_OPCODE.equals(field)) {
+						opcode = Opcodes.merge(opcode, value == JsonToken.VALUE_NUMBER_INT
+								&& Objects.nonNull(Opcodes.actionName(parser.getIntValue())) ? parser.getIntValue()
+										: Opcodes.UNKNOWN);
+					} else if (ProtocolConstants.FIELD_ACTION.equals(field)) {
+						opcode = Opcodes.merge(opcode, value == JsonToken.VALUE_STRING
+								? Opcodes.actionOpcode(parser.getText())
+								: Opcodes.UNKNOWN);
+					}
+					parser.skipChildren();
+				}
+			}
+		} catch (IOException e) {
+			LOGGER.error("Exception in peekOpcode", e);
+			return Opcodes.UNKNOWN;
+		}
+		if (opcode == Opcodes.ABSENT || opcode == Opcodes.CONFLICT) {
+			opcode = Opcodes.UNKNOWN;
+		}
+		commitCodecEvent(codecEvent, "peek", null, Opcodes.actionName(opcode), data.length());
+		return opcode;
+	}
+
+	/**
+	 * This method is used to set the sequence number of a serialized message
+	 * without binding it to an object, by appending the field at the end of the
+	 * root object of the message.
+	 * 
+	 * @implNote A sequence already in the message is removed, so the clients
+	 *           only read the one stamped by the server.
+	 * 
+	 * @param data
+	 * @param sequence
+	 * @return the stamped message, or null if the message is not a single JSON
+	 *         object
+	 */
+	public static String appendSequence(String data, long sequence) {
+		return appendField(data, ProtocolConstants.FIELD_SEQUENCE, sequence, ProtocolConstants.FIELD_SEQUENCE);
+	}
+
+	/**
+	 * This method is used to stamp the id of the sender on a serialized message
+	 * the same way as the sequence number. A sender id or sequence written by the
+	 * client itself is removed, as both are only ever stamped by the server.
+	 * 
+	 * @implNote The user written by the client is removed as well, so that the
+	 *           clients resolve the sender from the stamped sender id only. It is
+	 *           kept if the codec is lowered for peers older than the sender id,
+	 *           which have no other way to know the sender.
+	 * 
+	 * @param data
+	 * @param senderId
+	 * @return the stamped message, or null if the message is not a single JSON
+	 *         object
+	 */
+	public static String appendSenderId(String data, long senderId) {
+		return appendField(data, ProtocolConstants.FIELD_SENDER_ID, senderId, SENDER_FIELDS);
+	}
+
+	/**
+	 * This method is used to convert Object to Map of String and Object.
+	 * 
+	 * @param data
+	 * @return
+	 */
+	public static Map<String, Object> convertToMap(Object data) {
+		try {
+			if (Objects.nonNull(data)) {
+				JavaType javaType = OBJECT_MAPPER.getTypeFactory().constructMapLikeType(Map.class, String.class,
+						Object.class);
+				if (data instanceof String) {
+					return OBJECT_MAPPER.readValue((String) data, javaType);
+				} else {
+					return OBJECT_MAPPER.convertValue(data, javaType);
+				}
+			}
+		} catch (Exception e) {
+			LOGGER.error("Exception in convertToMap", e);
+		}
+		return Collections.emptyMap();
+	}
+
+	/**
+	 * This method is used to count the bytes of a string encoded in UTF-8, without
+	 * encoding it.
+	 * 
+	 * @param data
+	 * @return
+	 */
+	public static int utf8Length(String data) {
+		int bytes = 0;
+		for (int i = 0; i < data.length(); i++) {
+			bytes += utf8Length(data.charAt(i));
+		}
+		return bytes;
+	}
+
+	/**
+	 * This method is used to count the bytes of a character encoded in UTF-8. Each
+	 * half of a surrogate pair counts half of the 4 bytes of the pair.
+	 * 
+	 * @param c
+	 * @return
+	 */
+	public static int utf8Length(char c) {
+		if (c < 0x80) {
+			return 1;
+		}
+		return c < 0x800 || Character.isSurrogate(c) ? 2 : 3;
+	}
+
+	/**
+	 * This method is used to convert given non-null object to String.
+	 * 
+	 * @param data
+	 * @return
+	 */
+	public static String convertObjectToString(Object data) {
+		try {
+			if (Objects.nonNull(data)) {
+				CodecEvent codecEvent = new CodecEvent();
+				codecEvent.begin();
+				String result = encode(data);
+				commitCodecEvent(codecEvent, "encode", data, getAction(data), result.length());
+				return result;
+			}
+		} catch (Exception e) {
+			LOGGER.error("Exception in convertObjectToString", e);
+		}
+		return StringUtils.EMPTY;
+	}
+
+	/**
+	 * This method is used to convert given object to Map<String, String>.
+	 * 
+	 * @param data
+	 * @return
+	 */
+	public static Map<String, String> convertToStringkeyValueMap(Object data) {
+		try {
+			if (Objects.nonNull(data)) {
+				JavaType javaType = OBJECT_MAPPER.getTypeFactory().constructMapLikeType(Map.class, String.class,
+						String.class);
+				if (data instanceof String) {
+					return OBJECT_MAPPER.readValue((String) data, javaType);
+				} else {
+					return OBJECT_MAPPER.convertValue(data, javaType);
+				}
+			}
+		} catch (Exception e) {
+			LOGGER.error("Exception in convertToStringkeyValueMap", e);
+		}
+		return Collections.emptyMap();
+	}
+
+	/**
+	 * This method is used to decode a message with the {@link ActionMessageCodec}
+	 * if it was written by the codec, or with the object mapper otherwise.
+	 * 
+	 * @param data
+	 * @param clazz
+	 * @return
+	 * @throws IOException
+	 */
+	private static <T> T decode(String data, Class<T> clazz) throws IOException {
+		if (clazz == ActionMessageDto.class) {
+			ActionMessageDto message = ActionMessageCodec.decode(data);
+			if (Objects.nonNull(message)) {
+				return clazz.cast(message);
+			}
+		}
+		return OBJECT_MAPPER.readValue(data, clazz);
+	}
+
+	/**
+	 * This method is used to encode a message with the {@link ActionMessageCodec}
+	 * unless the legacy encoding is configured, and other objects with the object
+	 * mapper.
+	 * 
+	 * @param data
+	 * @return
+	 * @throws IOException
+	 */
+	private static String encode(Object data) throws IOException {
+		if (data instanceof ActionMessageDto && !IS_LEGACY_ENCODING) {
+			return ActionMessageCodec.encode((ActionMessageDto) data);
+		}
+		return OBJECT_MAPPER.writeValueAsString(data);
+	}
+
+	/**
+	 * This method is used to append a number field at the end of the root object
+	 * of a serialized message, copying the top level fields of the message as
+	 * written apart from the removed ones.
+	 * 
+	 * @implNote The whole message is scanned with the streaming parser, so a
+	 *           message which is malformed, unterminated or followed by another
+	 *           value is rejected instead of being stamped inside the wrong
+	 *           object.
+	 * 
+	 * @param data
+	 * @param field
+	 * @param value
+	 * @param removedFields top level fields left out of the stamped message
+	 * @return the stamped message, or null if the message is not a single JSON
+	 *         object
+	 */
+	private static String appendField(String data, String field, long value, String... removedFields) {
+		StringBuilder builder = new StringBuilder(data.length() + field.length() + 24).append('{');
+		try (JsonParser parser = JSON_FACTORY.createParser(data)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				return null;
+			}
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				int fieldStart = (int) parser.getTokenLocation().getCharOffset();
+				String name = parser.getCurrentName();
+				parser.nextToken();
+				// Reading the value up to its end, strings are otherwise read lazily
+				parser.skipChildren();
+				parser.finishToken();
+				if (!ArrayUtils.contains(removedFields, name)) {
+					builder.append(data, fieldStart, (int) parser.getCurrentLocation().getCharOffset()).append(',');
+				}
+			}
+			if (parser.currentToken() != JsonToken.END_OBJECT || Objects.nonNull(parser.nextToken())) {
+				return null;
+			}
+		} catch (IOException e) {
+			LOGGER.warn("Not stamping malformed message: {}", e.getMessage());
+			return null;
+		}
+		return builder.append('"').append(field).append("\":").append(value).append('}').toString();
+	}
+
+	/**
+	 * This method is used to commit the flight recorder event of an encode or
+	 * decode, if the event is enabled in the running recording.
+	 * 
+	 * @param codecEvent
+	 * @param operation
+	 * @param message
+	 * @param action
+	 * @param payloadSize
+	 */
+	private static void commitCodecEvent(CodecEvent codecEvent, String operation, Object message, String action,
+			long payloadSize) {
+		codecEvent.end();
+		if (codecEvent.shouldCommit()) {
+			codecEvent.operation = operation;
+			codecEvent.type = Objects.nonNull(message) ? message.getClass().getSimpleName() : null;
+			codecEvent.action = action;
+			codecEvent.payloadSize = payloadSize;
+			codecEvent.commit();
+		}
+	}
+
+	/**
+	 * This method is used to fetch the action of a message if it is an
+	 * {@link ActionMessageDto}.
+	 * 
+	 * @param message
+	 * @return
+	 */
+	private static String getAction(Object message) {
+		return message instanceof ActionMessageDto ? ((ActionMessageDto) message).getAction() : null;
+	}
+}
@@ -0,0 +1,87 @@
+package com.distributed.project.whiteboard.protocol.frame;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.dto.UserDto;
+import com.distributed.project.whiteboard.protocol.opcode.Opcodes;
+import com.distributed.project.whiteboard.protocol.utils.ActionMessageCodec;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * This class is used to test reading messages into frames and decoding them
+ * into the primitive fields of the frame.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class FrameDecoderTest {
+
+	@Test
+	public void shouldDecodeCodecAndObjectMapperMessages() throws Exception {
+		ActionMessageDto message = new ActionMessageDto(new UserDto(7L, "guest", false),
+				ProtocolConstants.ACTION_DRAW, ProtocolConstants.TOOL_LINE, new Point(-3, 4), new Point(50, 60), null,
+				new Color(10, 20, 30, 40), "text", "chat \"quoted\"");
+		message.setSequence(42L);
+		String objectMapperMessage = new ObjectMapper().disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+				.writeValueAsString(message);
+
+		for (String eventString : new String[] { ActionMessageCodec.encode(message), objectMapperMessage }) {
+			MessageFrame frame = new MessageFrame();
+			frame.setContent(eventString);
+
+			assertEquals(ProtocolConstants.OP_DRAW, new FrameDecoder().decode(frame));
+			assertEquals(ProtocolConstants.TOOL_OP_LINE, frame.getToolOpcode());
+			assertEquals(7L, frame.getClientUID());
+			assertEquals(-3, frame.getStartX());
+			assertEquals(4, frame.getStartY());
+			assertEquals(50, frame.getEndX());
+			assertEquals(60, frame.getEndY());
+			assertFalse(frame.hasDragPoint());
+			assertEquals(message.getColor().getRGB(), frame.getColor());
+			assertEquals(42L, frame.getSequence());
+		}
+	}
+
+	@Test
+	public void shouldRejectMalformedMessages() {
+		FrameDecoder frameDecoder = new FrameDecoder();
+		MessageFrame frame = new MessageFrame();
+		for (String eventString : new String[] { "{\"op\":0", "{\"op\":0}}", "NEW",
+				"{\"op\":99,\"action\":\"NEW\"}", "{\"op\":99,\"action\":\"CHAT\"}" }) {
+			frame.setContent(eventString);
+			assertEquals(Opcodes.UNKNOWN, frameDecoder.decode(frame));
+		}
+
+		frame.setContent("{\"op\":null,\"action\":\"CHAT\",\"extra\":[{\"a\":\"}\"},true,null]}");
+		assertEquals(ProtocolConstants.OP_CHAT, frameDecoder.decode(frame));
+	}
+
+	@Test
+	public void shouldReadLinesAndStampSequence() throws Exception {
+		String heartbeat = ActionMessageCodec.encode(new ActionMessageDto(null, ProtocolConstants.ACTION_HEARTBEAT));
+		FrameReader frameReader = new FrameReader(new StringReader(heartbeat + "\r\n\nlast\r"));
+		MessageFrame frame = new MessageFrame();
+
+		assertTrue(frameReader.readFrame(frame));
+		assertEquals(ProtocolConstants.OP_HEARTBEAT, new FrameDecoder().decode(frame));
+		assertTrue(frame.appendSequence(1234L));
+		assertEquals(Long.valueOf(1234L), ActionMessageCodec.decode(frame.toString()).getSequence());
+
+		assertTrue(frameReader.readFrame(frame));
+		assertEquals("", frame.toString());
+		assertTrue(frameReader.readFrame(frame));
+		assertEquals("last", frame.toString());
+		assertFalse(frameReader.readFrame(frame));
+	}
+}
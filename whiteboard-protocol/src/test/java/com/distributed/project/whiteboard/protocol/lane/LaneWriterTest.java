@@ -0,0 +1,132 @@
+package com.distributed.project.whiteboard.protocol.lane;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.opcode.Opcodes;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.distributed.project.whiteboard.protocol.utils.TypeConversionUtils;
+
+/**
+ * This class is used to test that the lanes of a connection let control and
+ * drawing events past an image being transferred, and that the receiver hands
+ * the events over in the order they were sent in.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class LaneWriterTest {
+
+	@Test
+	public void shouldSendOtherLanesBetweenChunks() throws IOException {
+		StringWriter socket = new StringWriter();
+		List<Runnable> bulkTasks = new ArrayList<>();
+		LaneWriter laneWriter = new LaneWriter(socket, bulkTasks::add);
+
+		String image = createEvent(ProtocolConstants.ACTION_LOAD_IMAGE, StringUtils.repeat('a', 100000));
+		String draw = createEvent(ProtocolConstants.ACTION_DRAW, "after image");
+		String chat = createEvent(ProtocolConstants.ACTION_CHAT, "hello");
+		String kick = createEvent(ProtocolConstants.ACTION_USER_KICK, null);
+
+		// Only the marker of the transfer is written before it is handed to the
+		// executor, everything sent after it is queued
+		laneWriter.send(ProtocolConstants.OP_LOAD_IMAGE, image);
+		laneWriter.send(ProtocolConstants.OP_DRAW, draw);
+		laneWriter.send(ProtocolConstants.OP_CHAT, chat);
+		laneWriter.send(ProtocolConstants.OP_USER_KICK, kick);
+		assertEquals(1, StringUtils.countMatches(socket.toString(), '\n'));
+		assertEquals(1, bulkTasks.size());
+		bulkTasks.get(0).run();
+
+		List<String> lines = Arrays.asList(socket.toString().split("\n"));
+		assertEquals(kick, lines.get(1));
+		assertTrue(lines.size() > 2 + 100000 / ProtocolConstants.CHUNK_SIZE);
+		assertTrue(lines.indexOf(chat) < lines.size() - 1);
+
+		// The draw event is handed over after the image it was sent after
+		ChunkAssembler chunkAssembler = new ChunkAssembler();
+		List<String> events = new ArrayList<>();
+		for (String line : lines) {
+			events.addAll(chunkAssembler.receive(TypeConversionUtils.peekOpcode(line), line));
+		}
+		assertEquals(Arrays.asList(kick, chat, image, draw), events);
+	}
+
+	@Test
+	public void shouldWritePostedEventsOnExecutor() throws IOException {
+		StringWriter socket = new StringWriter();
+		List<Runnable> tasks = new ArrayList<>();
+		LaneWriter laneWriter = new LaneWriter(socket, tasks::add);
+
+		String presence = createEvent(ProtocolConstants.ACTION_PRESENCE, null);
+		String draw = createEvent(ProtocolConstants.ACTION_DRAW, "after presence");
+
+		// Nothing is written on the posting thread, and an event sent meanwhile is
+		// queued behind the posted one
+		laneWriter.post(ProtocolConstants.OP_PRESENCE, presence);
+		laneWriter.send(ProtocolConstants.OP_DRAW, draw);
+		assertEquals(StringUtils.EMPTY, socket.toString());
+		assertEquals(1, tasks.size());
+
+		tasks.get(0).run();
+		assertEquals(presence + "\n" + draw + "\n", socket.toString());
+	}
+
+	@Test
+	public void shouldFailConnectionBeyondAssemblerLimits() throws IOException {
+		// A transfer larger than its limit
+		assertRejected(new ChunkAssembler(100, 1, 2, 60000), createChunk(1, StringUtils.repeat('a', 101), true));
+
+		// More transfers completed before their marker than allowed
+		assertRejected(new ChunkAssembler(100, 1, 2, 60000), createChunk(1, "a", true), createChunk(2, "b", true));
+
+		// More board events held for an awaited transfer than allowed
+		String draw = createEvent(ProtocolConstants.ACTION_DRAW, "held");
+		assertRejected(new ChunkAssembler(100, 1, 2, 60000), createChunk(1, null, null), draw, draw, draw);
+
+		// A transfer not completed within the timeout
+		assertRejected(new ChunkAssembler(100, 1, 2, 0), createChunk(1, "a", false), createChunk(1, "b", true));
+	}
+
+	private void assertRejected(ChunkAssembler chunkAssembler, String... lines) throws IOException {
+		for (int i = 0; i < lines.length - 1; i++) {
+			chunkAssembler.receive(TypeConversionUtils.peekOpcode(lines[i]), lines[i]);
+		}
+		try {
+			String line = lines[lines.length - 1];
+			chunkAssembler.receive(TypeConversionUtils.peekOpcode(line), line);
+			fail("Accepted " + line);
+		} catch (IOException e) {
+			// The connection is closed by the reader
+		}
+	}
+
+	private String createChunk(long transferId, String chunk, Boolean finalChunk) {
+		ActionMessageDto chunkEvent = new ActionMessageDto(null, ProtocolConstants.ACTION_CHUNK);
+		chunkEvent.setTransferId(transferId);
+		chunkEvent.setChunk(chunk);
+		chunkEvent.setFinalChunk(finalChunk);
+		return TypeConversionUtils.convertObjectToString(chunkEvent);
+	}
+
+	private String createEvent(String action, String text) {
+		ActionMessageDto event = new ActionMessageDto(null, action);
+		if (Opcodes.actionOpcode(action) == ProtocolConstants.OP_LOAD_IMAGE) {
+			event.setDrawboardImage(text);
+		} else {
+			event.setDrawText(text);
+		}
+		return TypeConversionUtils.convertObjectToString(event);
+	}
+}
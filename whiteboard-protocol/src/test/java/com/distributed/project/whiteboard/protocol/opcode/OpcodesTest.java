@@ -0,0 +1,46 @@
+package com.distributed.project.whiteboard.protocol.opcode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+
+/**
+ * This class is used to test the opcode tables and the handler registry.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class OpcodesTest {
+
+	@Test
+	public void shouldMapEveryOpcodeBothWays() {
+		for (int opcode = 0; opcode < Opcodes.actionCount(); opcode++) {
+			assertEquals(opcode, Opcodes.actionOpcode(Opcodes.actionName(opcode)));
+		}
+		for (int opcode = 0; opcode < Opcodes.toolCount(); opcode++) {
+			assertEquals(opcode, Opcodes.toolOpcode(Opcodes.toolName(opcode)));
+		}
+		assertEquals(ProtocolConstants.OP_LOAD_IMAGE, Opcodes.actionOpcode(ProtocolConstants.ACTION_LOAD_IMAGE));
+		assertEquals(Opcodes.UNKNOWN, Opcodes.actionOpcode("NEW"));
+		assertTrue(Opcodes.isBoardAction(ProtocolConstants.OP_LOAD_IMAGE));
+		assertFalse(Opcodes.isUrgentBroadcast(ProtocolConstants.OP_LOAD_IMAGE));
+		assertEquals(ProtocolConstants.LANE_BULK, Opcodes.lane(ProtocolConstants.OP_LOAD_IMAGE));
+		assertEquals(ProtocolConstants.LANE_CONTROL, Opcodes.lane(ProtocolConstants.OP_USER_KICK));
+		assertEquals(ProtocolConstants.LANE_CONTROL, Opcodes.lane(Opcodes.UNKNOWN));
+	}
+
+	@Test
+	public void shouldLookUpRegisteredHandlers() {
+		OpcodeRegistry<String> registry = new OpcodeRegistry<String>(Opcodes.actionCount())
+				.register(ProtocolConstants.OP_CHAT, "chat");
+
+		assertEquals("chat", registry.lookup(ProtocolConstants.OP_CHAT));
+		assertNull(registry.lookup(ProtocolConstants.OP_DRAW));
+		assertNull(registry.lookup(Opcodes.UNKNOWN));
+	}
+}
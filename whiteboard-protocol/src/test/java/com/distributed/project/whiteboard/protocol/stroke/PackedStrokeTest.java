@@ -0,0 +1,96 @@
+package com.distributed.project.whiteboard.protocol.stroke;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.awt.Color;
+import java.awt.Rectangle;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.dto.UserDto;
+import com.distributed.project.whiteboard.protocol.utils.ActionMessageCodec;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.distributed.project.whiteboard.protocol.utils.TypeConversionUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * This class is used to test packing the points of a stroke and carrying it in
+ * messages.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class PackedStrokeTest {
+
+	@Test
+	public void shouldPackPointsAsDeltas() {
+		PackedStroke stroke = new PackedStroke(100, 200);
+		stroke.add(103, 196);
+		stroke.add(90, 210);
+
+		assertEquals(3, stroke.size());
+		assertArrayEquals(new int[] { 100, 200, 3, -4, -13, 14 }, stroke.toArray());
+		assertArrayEquals(new int[] { 100, 200, 103, 196, 90, 210 }, stroke.toCoordinates());
+		assertEquals(new Rectangle(90, 196, 13, 14), stroke.getBounds());
+		assertEquals(stroke, PackedStroke.fromArray(stroke.toArray()));
+	}
+
+	@Test
+	public void shouldSplitJumpsOutsideShortRange() {
+		PackedStroke stroke = new PackedStroke(-50000, 0);
+		stroke.add(50000, 10);
+
+		int[] coordinates = stroke.toCoordinates();
+		assertEquals(50000, stroke.getLastX());
+		assertEquals(10, stroke.getLastY());
+		assertEquals(50000, coordinates[coordinates.length - 2]);
+		assertEquals(10, coordinates[coordinates.length - 1]);
+		assertEquals(5, stroke.size());
+	}
+
+	@Test
+	public void shouldCarryStrokeInMessages() throws Exception {
+		PackedStroke stroke = PackedStroke.fromArray(new int[] { 10, 20, 1, 1, 2, -1, 0, 3 });
+		ActionMessageDto message = new ActionMessageDto(new UserDto(7L, "guest", false),
+				ProtocolConstants.ACTION_DRAW, ProtocolConstants.TOOL_PENCIL, null, null, null, Color.BLUE, null,
+				null);
+		message.setStroke(stroke);
+
+		String eventString = ActionMessageCodec.encode(message);
+		ActionMessageDto decodedMessage = ActionMessageCodec.decode(eventString);
+		assertEquals(stroke, decodedMessage.getStroke());
+		assertNull(decodedMessage.getStartPoint());
+
+		// Messages of the object mapper carry the same array
+		String objectMapperMessage = new ObjectMapper().disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+				.writeValueAsString(message);
+		assertEquals(stroke,
+				TypeConversionUtils.convertToCustomClass(objectMapperMessage, ActionMessageDto.class).getStroke());
+	}
+
+	@Test
+	public void shouldRejectStrokesOutsideBoard() {
+		int edge = ProtocolConstants.MAX_BOARD_COORDINATE;
+		assertEquals(2, PackedStroke.fromArray(new int[] { -edge, 0, Short.MAX_VALUE, 0 }).size());
+
+		// A delta outside the short range would be split into thousands of steps
+		for (int[] values : new int[][] { { 0, 0, Integer.MAX_VALUE, 0 }, { 0, 0, 0, Short.MIN_VALUE - 1 },
+				{ edge + 1, 0 }, { edge, edge, 1, 0 } }) {
+			try {
+				PackedStroke.fromArray(values);
+				fail("Accepted stroke " + Arrays.toString(values));
+			} catch (IllegalArgumentException e) {
+				// Expected
+			}
+		}
+		String eventString = "{\"v\":" + ProtocolConstants.CODEC_VERSION + ",\"op\":" + ProtocolConstants.OP_DRAW
+				+ ",\"stroke\":[0,0,2147483647,0]}";
+		assertNull(TypeConversionUtils.convertToCustomClass(eventString, ActionMessageDto.class));
+	}
+}
@@ -0,0 +1,94 @@
+package com.distributed.project.whiteboard.protocol.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.dto.CursorDto;
+import com.distributed.project.whiteboard.protocol.dto.UserDto;
+import com.distributed.project.whiteboard.protocol.opcode.Opcodes;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * This class is used to test the streaming codec of the action messages and
+ * its compatibility with messages written by the object mapper.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class ActionMessageCodecTest {
+
+	@Test
+	public void shouldRoundTripAllFields() throws Exception {
+		ActionMessageDto message = new ActionMessageDto(createUser(1L, "manager", true), ProtocolConstants.ACTION_DRAW,
+				ProtocolConstants.TOOL_TRIANGLE, new Point(-3, 4), new Point(50, 60), new Point(7, -8),
+				new Color(10, 20, 30, 40), "text", "chat");
+		message.setSelectedUser(createUser(2L, "guest", false));
+		message.setActiveUserList(Arrays.asList(createUser(1L, "manager", true), createUser(2L, "guest", false)));
+		message.setDrawboardImage("aW1hZ2U=");
+		message.setSequence(42L);
+		message.setResumeToken("token");
+		message.setMembershipVersion(3L);
+		message.setCursors(Arrays.asList(new CursorDto(1L, -5, 6), CursorDto.hidden(2L)));
+		message.setTransferId(5L);
+		message.setChunk("{\"v\":7,\"drawboardImage\":\"aW1h");
+		message.setFinalChunk(Boolean.TRUE);
+
+		String eventString = ActionMessageCodec.encode(message);
+		assertTrue(eventString.startsWith("{\"v\":" + ProtocolConstants.CODEC_VERSION + ","));
+		assertEquals(message.toString(), ActionMessageCodec.decode(eventString).toString());
+		assertEquals(40, ActionMessageCodec.decode(eventString).getColor().getAlpha());
+	}
+
+	@Test
+	public void shouldLeaveOutNullFields() throws Exception {
+		String eventString = ActionMessageCodec.encode(new ActionMessageDto(null, ProtocolConstants.ACTION_HEARTBEAT));
+
+		assertEquals("{\"v\":" + ProtocolConstants.CODEC_VERSION + ",\"op\":" + ProtocolConstants.OP_HEARTBEAT
+				+ ",\"action\":\"HEARTBEAT\"}", eventString);
+	}
+
+	@Test
+	public void shouldDecodeActionFromOpcode() throws Exception {
+		ActionMessageDto message = ActionMessageCodec.decode("{\"v\":" + ProtocolConstants.CODEC_VERSION + ",\"op\":"
+				+ ProtocolConstants.OP_CLEAR + ",\"action\":\"CLEAR\",\"tool\":\"TEXT\"}");
+		assertEquals(ProtocolConstants.ACTION_CLEAR, message.getAction());
+		assertEquals(ProtocolConstants.TOOL_OP_TEXT, message.getToolOpcode());
+
+		// Actions of opcodes unknown to this peer are kept as sent
+		message = ActionMessageCodec
+				.decode("{\"v\":" + ProtocolConstants.CODEC_VERSION + ",\"op\":99,\"action\":\"NEW\"}");
+		assertEquals("NEW", message.getAction());
+		assertEquals(Opcodes.UNKNOWN, message.getOpcode());
+	}
+
+	@Test
+	public void shouldDecodeObjectMapperMessages() throws Exception {
+		ActionMessageDto message = new ActionMessageDto(createUser(1L, "guest", false), ProtocolConstants.ACTION_DRAW,
+				ProtocolConstants.TOOL_PENCIL, new Point(1, 2), new Point(3, 4), null, Color.BLUE, null, null);
+		String legacyString = new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+				.writeValueAsString(message);
+
+		assertFalse(legacyString.contains("\"v\""));
+		assertNull(ActionMessageCodec.decode(legacyString));
+		assertEquals(message.toString(),
+				TypeConversionUtils.convertToCustomClass(legacyString, ActionMessageDto.class).toString());
+	}
+
+	private UserDto createUser(Long clientUID, String clientUserName, boolean isManager) {
+		UserDto userDto = new UserDto();
+		userDto.setClientUID(clientUID);
+		userDto.setClientUserName(clientUserName);
+		userDto.setManager(isManager);
+		return userDto;
+	}
+}
@@ -0,0 +1,147 @@
+package com.distributed.project.whiteboard.protocol.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.dto.UserDto;
+import com.distributed.project.whiteboard.protocol.frame.FrameDecoder;
+import com.distributed.project.whiteboard.protocol.frame.MessageFrame;
+import com.distributed.project.whiteboard.protocol.opcode.Opcodes;
+
+/**
+ * This class is used to test reading and stamping messages which are relayed
+ * without being parsed.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class TypeConversionUtilsTest {
+
+	@Test
+	public void shouldPeekOpcodeAfterNestedFields() {
+		ActionMessageDto draw = new ActionMessageDto(new UserDto(1L, "user", false),
+				ProtocolConstants.ACTION_DRAW);
+		draw.setStartPoint(new Point(1, 2));
+		draw.setColor(Color.BLACK);
+
+		String eventString = TypeConversionUtils.convertObjectToString(draw);
+		assertEquals(ProtocolConstants.OP_DRAW, TypeConversionUtils.peekOpcode(eventString));
+	}
+
+	@Test
+	public void shouldPeekOpcodeOfMessagesWithoutOpcode() {
+		assertEquals(ProtocolConstants.OP_CHAT,
+				TypeConversionUtils.peekOpcode("{\"user\":{\"clientUID\":1},\"action\":\"CHAT\"}"));
+	}
+
+	@Test
+	public void shouldNotPeekOpcodeOfMalformedMessages() {
+		assertEquals(Opcodes.UNKNOWN, TypeConversionUtils.peekOpcode("{\"user\":{\"clientUID\":1}"));
+		assertEquals(Opcodes.UNKNOWN, TypeConversionUtils.peekOpcode("[\"DRAW\"]"));
+		assertEquals(Opcodes.UNKNOWN, TypeConversionUtils.peekOpcode("{\"action\":7}"));
+		assertEquals(Opcodes.UNKNOWN, TypeConversionUtils.peekOpcode("{\"op\":99,\"action\":\"NEW\"}"));
+	}
+
+	@Test
+	public void shouldRejectMessagesWithConflictingOpcodeAndAction() {
+		FrameDecoder frameDecoder = new FrameDecoder();
+		MessageFrame frame = new MessageFrame();
+		String version = "{\"v\":" + ProtocolConstants.CODEC_VERSION + ",";
+		for (String eventString : new String[] { version + "\"action\":\"DRAW\",\"op\":13}",
+				version + "\"op\":13,\"action\":\"DRAW\"}", version + "\"op\":1,\"op\":13}",
+				version + "\"op\":99,\"action\":\"DRAW\"}", version + "\"action\":\"DRAW\",\"action\":\"CLEAR\"}" }) {
+			assertEquals(Opcodes.UNKNOWN, TypeConversionUtils.peekOpcode(eventString));
+			assertNull(TypeConversionUtils.convertToCustomClass(eventString, ActionMessageDto.class));
+			frame.setContent(eventString);
+			assertEquals(Opcodes.UNKNOWN, frameDecoder.decode(frame));
+		}
+
+		// Fields which agree are read the same way by every decoder
+		String eventString = version + "\"action\":\"FORCE_QUIT\",\"op\":13}";
+		assertEquals(ProtocolConstants.OP_FORCE_QUIT, TypeConversionUtils.peekOpcode(eventString));
+		assertEquals(ProtocolConstants.OP_FORCE_QUIT,
+				TypeConversionUtils.convertToCustomClass(eventString, ActionMessageDto.class).getOpcode());
+		frame.setContent(eventString);
+		assertEquals(ProtocolConstants.OP_FORCE_QUIT, frameDecoder.decode(frame));
+	}
+
+	@Test
+	public void shouldOverrideSequenceSentByClient() {
+		String eventString = TypeConversionUtils
+				.convertObjectToString(new ActionMessageDto(null, ProtocolConstants.ACTION_CHAT));
+
+		ActionMessageDto stamped = TypeConversionUtils
+				.convertToCustomClass(TypeConversionUtils.appendSequence(eventString, 42), ActionMessageDto.class);
+		assertEquals(Long.valueOf(42), stamped.getSequence());
+		assertEquals(ProtocolConstants.ACTION_CHAT, stamped.getAction());
+	}
+
+	@Test
+	public void shouldOverrideSenderIdSentByClient() {
+		ActionMessageDto message = new ActionMessageDto(null, ProtocolConstants.ACTION_CHAT);
+		message.setSenderId(5L);
+		String eventString = TypeConversionUtils.convertObjectToString(message);
+
+		ActionMessageDto stamped = TypeConversionUtils
+				.convertToCustomClass(TypeConversionUtils.appendSenderId(eventString, 7L), ActionMessageDto.class);
+		assertEquals(Long.valueOf(7L), stamped.getSenderId());
+
+		// Stamping the frame read by the pooled decode gives the same message
+		eventString = TypeConversionUtils
+				.convertObjectToString(new ActionMessageDto(null, ProtocolConstants.ACTION_CHAT));
+		MessageFrame frame = new MessageFrame();
+		frame.setContent(eventString + " ");
+		new FrameDecoder().decode(frame);
+		assertTrue(frame.appendSenderId(7L));
+		assertEquals(TypeConversionUtils.appendSenderId(eventString, 7L), frame.toString());
+	}
+
+	@Test
+	public void shouldStampRootObjectOnly() {
+		String version = "{\"v\":" + ProtocolConstants.CODEC_VERSION + ",\"op\":" + ProtocolConstants.OP_CHAT;
+
+		// Sender fields of the client are removed, and nested objects are not stamped
+		ActionMessageDto stamped = TypeConversionUtils.convertToCustomClass(TypeConversionUtils.appendSenderId(
+				version + ",\"sequence\":99,\"chatMessage\":\"}\",\"user\":{\"senderId\":1}}", 7L),
+				ActionMessageDto.class);
+		assertEquals(Long.valueOf(7L), stamped.getSenderId());
+		assertNull(stamped.getSequence());
+		assertNull(stamped.getUser());
+		assertEquals("}", stamped.getChatMessage());
+
+		// Messages followed by another value, or unterminated, are rejected
+		assertNull(TypeConversionUtils.appendSenderId(version + "}{\"senderId\":1,\"sequence\":99}", 7L));
+		assertNull(TypeConversionUtils.appendSenderId(version + ",\"chatMessage\":\"", 7L));
+		assertNull(TypeConversionUtils.appendSequence("", 1L));
+
+		// Frames holding sender fields of the client are left to the string stamping
+		MessageFrame frame = new MessageFrame();
+		for (String eventString : new String[] { version + ",\"senderId\":1}",
+				version + ",\"user\":{\"clientUID\":1}}" }) {
+			frame.setContent(eventString);
+			new FrameDecoder().decode(frame);
+			assertFalse(frame.appendSenderId(7L));
+		}
+	}
+
+	@Test
+	public void shouldCountUtf8Bytes() {
+		// One, two, three and four byte characters
+		String eventString = "{\"text\":\"a\u00e9\u20ac\ud83d\ude00\"}";
+		int expected = eventString.getBytes(StandardCharsets.UTF_8).length;
+		assertEquals(expected, TypeConversionUtils.utf8Length(eventString));
+
+		MessageFrame frame = new MessageFrame();
+		frame.setContent(eventString);
+		assertEquals(expected, frame.utf8Length());
+	}
+}
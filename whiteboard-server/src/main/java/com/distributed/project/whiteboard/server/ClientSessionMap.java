@@ -0,0 +1,122 @@
+package com.distributed.project.whiteboard.server;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.distributed.project.whiteboard.server.dto.ClientSession;
+
+/**
+ * This class is used to track the sessions of the active clients by their
+ * client UID, and to keep an array of the sessions for broadcasting.
+ *
+ * @implNote Iterating over a concurrent map creates an iterator and an entry
+ *           per session on every broadcast. The array is built again only once
+ *           the sessions change, which is rare next to the events broadcasted.
+ *
+ * @implNote Every mutator of the map used by the server is overridden to track
+ *           the change. Sessions should not be removed through the views of the
+ *           map, as those changes are not tracked.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class ClientSessionMap extends ConcurrentHashMap<Long, ClientSession> {
+
+	private static final long serialVersionUID = 1L;
+	private static final ClientSession[] NO_SESSIONS = new ClientSession[0];
+
+	// Version of the sessions, incremented on every change
+	private final AtomicLong version = new AtomicLong();
+
+	private transient volatile Snapshot snapshot;
+
+	/**
+	 * This method is used to fetch the sessions of the map, as of the last
+	 * change. The array is shared and must not be modified.
+	 *
+	 * @return
+	 */
+	public ClientSession[] sessions() {
+		long currentVersion = version.get();
+		Snapshot currentSnapshot = snapshot;
+		if (currentSnapshot == null || currentSnapshot.version != currentVersion) {
+			// A change made while copying increments the version again
+			currentSnapshot = new Snapshot(currentVersion, values().toArray(NO_SESSIONS));
+			snapshot = currentSnapshot;
+		}
+		return currentSnapshot.sessions;
+	}
+
+	@Override
+	public ClientSession put(Long key, ClientSession value) {
+		ClientSession result = super.put(key, value);
+		version.incrementAndGet();
+		return result;
+	}
+
+	@Override
+	public ClientSession putIfAbsent(Long key, ClientSession value) {
+		ClientSession result = super.putIfAbsent(key, value);
+		version.incrementAndGet();
+		return result;
+	}
+
+	@Override
+	public void putAll(Map<? extends Long, ? extends ClientSession> map) {
+		super.putAll(map);
+		version.incrementAndGet();
+	}
+
+	@Override
+	public ClientSession remove(Object key) {
+		ClientSession result = super.remove(key);
+		version.incrementAndGet();
+		return result;
+	}
+
+	@Override
+	public boolean remove(Object key, Object value) {
+		boolean result = super.remove(key, value);
+		version.incrementAndGet();
+		return result;
+	}
+
+	@Override
+	public ClientSession replace(Long key, ClientSession value) {
+		ClientSession result = super.replace(key, value);
+		version.incrementAndGet();
+		return result;
+	}
+
+	@Override
+	public boolean replace(Long key, ClientSession oldValue, ClientSession newValue) {
+		boolean result = super.replace(key, oldValue, newValue);
+		version.incrementAndGet();
+		return result;
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+		version.incrementAndGet();
+	}
+
+	/**
+	 * This class is used to hold the array of the sessions with the version it
+	 * was built from.
+	 *
+	 * @author Abhijeet - 1278218
+	 *
+	 */
+	private static final class Snapshot {
+
+		private final long version;
+		private final ClientSession[] sessions;
+
+		private Snapshot(long version, ClientSession[] sessions) {
+			this.version = version;
+			this.sessions = sessions;
+		}
+	}
+}
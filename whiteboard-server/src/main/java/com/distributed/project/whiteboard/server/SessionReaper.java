@@ -0,0 +1,215 @@
+package com.distributed.project.whiteboard.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.lane.LaneWriter;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.distributed.project.whiteboard.protocol.utils.TypeConversionUtils;
+import com.distributed.project.whiteboard.server.dto.ClientSession;
+import com.distributed.project.whiteboard.server.utils.Constants;
+
+/**
+ * This runnable class is used to sweep the sessions periodically. It sends
+ * heartbeats to the clients which have not been written to within the write
+ * idle timeout, and evicts the sessions which have been detached for longer
+ * than the resume grace period.
+ * 
+ * @implNote Every event is posted to the connections, so a client which does
+ *           not read does not hold up the sweep of the other sessions.
+ * 
+ * @implNote Connections which are not read from within the read idle timeout
+ *           are closed by the socket timeout of their handler, which detaches
+ *           the session for this class to evict later.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class SessionReaper implements Runnable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SessionReaper.class);
+	private static final String HEARTBEAT_STRING = TypeConversionUtils
+			.convertObjectToString(new ActionMessageDto(null, ProtocolConstants.ACTION_HEARTBEAT));
+
+	// Sending leaves as deltas instead of the whole list of members
+	private static final boolean IS_MEMBERSHIP_DELTA = TypeConversionUtils
+			.getCodecVersion() >= ProtocolConstants.MEMBERSHIP_DELTA_CODEC_VERSION;
+
+	private WhiteboardServer whiteboardServer;
+	private long writeIdleMillis;
+	private long resumeGraceMillis;
+
+	/**
+	 * This constructor is used to initialize the instance of the server and the
+	 * configured timeouts.
+	 * 
+	 * @param whiteboardServer
+	 */
+	public SessionReaper(WhiteboardServer whiteboardServer) {
+		this.whiteboardServer = whiteboardServer;
+		this.writeIdleMillis = Long.getLong(Constants.PROP_WRITE_IDLE_MS, Constants.DEFAULT_WRITE_IDLE_MS);
+		this.resumeGraceMillis = Long.getLong(Constants.PROP_RESUME_GRACE_MS, Constants.DEFAULT_RESUME_GRACE_MS);
+	}
+
+	@Override
+	public void run() {
+		try {
+			long now = System.currentTimeMillis();
+
+			for (ClientSession session : whiteboardServer.getClientInfoMap().values()) {
+				// Evicting sessions detached for longer than the grace period
+				if (Objects.isNull(session.getOut())) {
+					if (now - session.getDetachedAt() > resumeGraceMillis) {
+						evictSession(session);
+					}
+				} else {
+					sendHeartbeatIfIdle(session, now);
+				}
+			}
+
+			// Clients waiting for the manager's approval are kept alive as well
+			for (ClientSession session : whiteboardServer.getUnverifiedClients().values()) {
+				sendHeartbeatIfIdle(session, now);
+			}
+		} catch (Exception e) {
+			// Catching everything since an exception would cancel the scheduled sweep
+			LOGGER.error("Exception in run() method of SessionReaper", e);
+		}
+	}
+
+	/**
+	 * This method is used to send a heartbeat to a session which has not been
+	 * written to within the write idle timeout.
+	 * 
+	 * @param session
+	 * @param now
+	 */
+	private void sendHeartbeatIfIdle(ClientSession session, long now) {
+		if (now - session.getLastWriteAt() > writeIdleMillis) {
+			postMessage(session, ProtocolConstants.OP_HEARTBEAT, HEARTBEAT_STRING);
+		}
+	}
+
+	/**
+	 * This method is used to evict a detached session and inform the remaining
+	 * clients. If the manager is evicted then the remaining clients are asked to
+	 * exit, as the manager would on exiting.
+	 * 
+	 * @implNote The event is placed in the order of every connection under the
+	 *           membership lock, and posted once it is released, so that a slow
+	 *           client holds up neither joins and leaves nor the sweep.
+	 * 
+	 * @param session
+	 */
+	private void evictSession(ClientSession session) {
+		int opcode;
+		String eventString;
+		List<LaneWriter> claimedWriters = new ArrayList<>();
+		List<ClientSession> claimedSessions = new ArrayList<>();
+		synchronized (whiteboardServer.getMembershipLock()) {
+			// Removing the session only if it has not been resumed meanwhile
+			synchronized (session) {
+				if (Objects.nonNull(session.getOut())
+						|| !whiteboardServer.getClientInfoMap().remove(session.getClientUID(), session)) {
+					return;
+				}
+				session.setIn(null);
+				session.setResumeToken(null);
+			}
+			LOGGER.info("Evicted client {} detached for longer than {} ms", session.getClientUID(),
+					resumeGraceMillis);
+			if (Objects.nonNull(whiteboardServer.getRateLimiter())) {
+				whiteboardServer.getRateLimiter().removeClient(session.getClientUID());
+			}
+			whiteboardServer.getServerMetrics().removeClient(session.getClientUID());
+
+			ActionMessageDto evictEvent;
+			if (session.getClientUID().equals(whiteboardServer.getManagerClientUID())) {
+				evictEvent = new ActionMessageDto(session, ProtocolConstants.ACTION_FORCE_QUIT);
+			} else {
+				// Creating refresh user list event to update new client list
+				evictEvent = new ActionMessageDto(session, ProtocolConstants.ACTION_REFRESH_USER_LIST);
+				evictEvent.setSelectedUser(session);
+				evictEvent.setMembershipVersion(whiteboardServer.nextMembershipVersion());
+				if (!IS_MEMBERSHIP_DELTA) {
+					evictEvent.setActiveUserList(new ArrayList<>(whiteboardServer.getClientInfoMap().values()));
+				}
+			}
+
+			opcode = evictEvent.getOpcode();
+			eventString = TypeConversionUtils.convertObjectToString(evictEvent);
+			for (ClientSession remainingSession : whiteboardServer.getClientInfoMap().sessions()) {
+				LaneWriter out = remainingSession.getOut();
+				if (claimMessage(remainingSession, out, opcode, eventString)) {
+					claimedWriters.add(out);
+					claimedSessions.add(remainingSession);
+				}
+			}
+		}
+
+		// Posting to every claimed connection, each of which has to be written to so
+		// that it is released
+		for (int i = 0; i < claimedWriters.size(); i++) {
+			try {
+				claimedWriters.get(i).postClaimed(opcode, eventString);
+			} catch (Exception e) {
+				LOGGER.error("Exception while sending event to client {}", claimedSessions.get(i).getClientUID(), e);
+			}
+		}
+	}
+
+	/**
+	 * This method is used to place an event in the order of the connection of an
+	 * attached session without writing it, under the membership lock.
+	 * 
+	 * @param session
+	 * @param out         the connection of the session, null if it is detached
+	 * @param opcode
+	 * @param eventString
+	 * @return true if the connection is claimed for the event, which then has to
+	 *         be written to it, false if it is queued or the session is detached
+	 */
+	private boolean claimMessage(ClientSession session, LaneWriter out, int opcode, String eventString) {
+		if (Objects.isNull(out)) {
+			return false;
+		}
+
+		try {
+			boolean claimed = out.claim(opcode, eventString);
+			session.setLastWriteAt(System.currentTimeMillis());
+			whiteboardServer.getServerMetrics().recordBytesOut(TypeConversionUtils.utf8Length(eventString) + 1L);
+			return claimed;
+		} catch (Exception e) {
+			LOGGER.error("Exception while sending event to client {}", session.getClientUID(), e);
+			return false;
+		}
+	}
+
+	/**
+	 * This method is used to post an event to an attached session, so that the
+	 * sweep does not wait for a client which does not read.
+	 * 
+	 * @param session
+	 * @param opcode
+	 * @param eventString
+	 */
+	private void postMessage(ClientSession session, int opcode, String eventString) {
+		LaneWriter out = session.getOut();
+		if (Objects.isNull(out)) {
+			return;
+		}
+
+		try {
+			out.post(opcode, eventString);
+			session.setLastWriteAt(System.currentTimeMillis());
+			whiteboardServer.getServerMetrics().recordBytesOut(TypeConversionUtils.utf8Length(eventString) + 1L);
+		} catch (Exception e) {
+			LOGGER.error("Exception while sending event to client {}", session.getClientUID(), e);
+		}
+	}
+}
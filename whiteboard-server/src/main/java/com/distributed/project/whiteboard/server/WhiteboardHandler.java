@@ -1,31 +1,60 @@
 package com.distributed.project.whiteboard.server;
 
+import java.awt.Point;
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.ArrayList;
-import java.util.Map;
+import java.util.List;
 import java.util.Objects;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 import org.apache.commons.collections4.MapUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.distributed.project.whiteboard.server.dto.ActionMessageDto;
-import com.distributed.project.whiteboard.server.dto.UserDto;
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.dto.CursorDto;
+import com.distributed.project.whiteboard.protocol.dto.UserDto;
+import com.distributed.project.whiteboard.protocol.frame.FrameDecoder;
+import com.distributed.project.whiteboard.protocol.frame.FrameReader;
+import com.distributed.project.whiteboard.protocol.frame.MessageFrame;
+import com.distributed.project.whiteboard.protocol.lane.ChunkAssembler;
+import com.distributed.project.whiteboard.protocol.lane.LaneWriter;
+import com.distributed.project.whiteboard.protocol.opcode.OpcodeRegistry;
+import com.distributed.project.whiteboard.protocol.opcode.Opcodes;
+import com.distributed.project.whiteboard.protocol.stroke.PackedStroke;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.distributed.project.whiteboard.protocol.utils.TypeConversionUtils;
+import com.distributed.project.whiteboard.server.board.BoardHistory;
+import com.distributed.project.whiteboard.server.capture.TrafficRecorder;
+import com.distributed.project.whiteboard.server.dto.ClientSession;
+import com.distributed.project.whiteboard.server.jfr.BroadcastEvent;
+import com.distributed.project.whiteboard.server.jfr.ImageTransferEvent;
+import com.distributed.project.whiteboard.server.limit.LimitMode;
+import com.distributed.project.whiteboard.server.limit.RateLimiter;
+import com.distributed.project.whiteboard.server.metrics.ServerMetrics;
+import com.distributed.project.whiteboard.server.outbound.BatchingWriter;
+import com.distributed.project.whiteboard.server.outbound.OutboundBatcher;
 import com.distributed.project.whiteboard.server.utils.Constants;
-import com.distributed.project.whiteboard.server.utils.TypeConversionUtils;
 
 /**
  * This class is used to handle events triggered by the clients. It maintains
  * the client connection and sends direct or broadcast messages.
  * 
+ * @implNote Events are read into a reusable {@link MessageFrame} of the
+ *           connection. With the pooled decode configured, the relayed events
+ *           are decoded and relayed from the frame without creating a string or
+ *           an object per event. Otherwise an event string is created from the
+ *           frame and only its opcode is read.
+ * 
  * @author Abhijeet - 1278218
  *
  */
@@ -33,10 +62,76 @@ public class WhiteboardHandler implements Runnable {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(WhiteboardHandler.class);
 
+	// Ids of the connections in the capture file, which unlike the client UID
+	// are never reassigned or reused
+	private static final AtomicLong CONNECTION_IDS = new AtomicLong();
+
+	// Decoding and relaying events from the reusable frames of the connections
+	private static final boolean IS_POOLED_DECODE = Boolean.getBoolean(Constants.PROP_POOLED_DECODE);
+
+	// Sending joins and leaves as deltas instead of the whole list of members
+	private static final boolean IS_MEMBERSHIP_DELTA = TypeConversionUtils
+			.getCodecVersion() >= ProtocolConstants.MEMBERSHIP_DELTA_CODEC_VERSION;
+
+	// Acknowledging the sequence of the board events of a client to the client
+	private static final boolean IS_SEQUENCE_ACK = TypeConversionUtils
+			.getCodecVersion() >= ProtocolConstants.SEQUENCE_ACK_CODEC_VERSION;
+	private static final String SEQUENCE_ACK_EVENT = TypeConversionUtils
+			.convertObjectToString(new ActionMessageDto(null, ProtocolConstants.ACTION_SEQUENCE_ACK));
+
+	// Coalescing the free hand segments of older clients into packed strokes
+	private static final boolean IS_PACKED_STROKE = TypeConversionUtils
+			.getCodecVersion() >= ProtocolConstants.PACKED_STROKE_CODEC_VERSION;
+
+	// Handlers of the admin events, indexed by the opcode of their action
+	private static final OpcodeRegistry<AdminHandler> ADMIN_HANDLERS = new OpcodeRegistry<AdminHandler>(
+			Opcodes.actionCount())
+			.register(ProtocolConstants.OP_NEW_USER_PERMISSION, WhiteboardHandler::handleUserAllocation)
+			.register(ProtocolConstants.OP_NEW_USER_ACCEPT,
+					(handler, request, in, out) -> handler.handleUserAccept(request))
+			.register(ProtocolConstants.OP_NEW_USER_REJECT,
+					(handler, request, in, out) -> handler.handleUserReject(request))
+			.register(ProtocolConstants.OP_USER_KICK, (handler, request, in, out) -> handler.handleUserKick(request))
+			.register(ProtocolConstants.OP_LOAD_IMAGE,
+					(handler, request, in, out) -> handler.handleLoadImage(request))
+			.register(ProtocolConstants.OP_SYNC_REQUEST,
+					(handler, request, in, out) -> handler.handleSyncRequest(request))
+			.register(ProtocolConstants.OP_MEMBER_LIST_REQUEST,
+					(handler, request, in, out) -> handler.handleMemberListRequest())
+			.register(ProtocolConstants.OP_CURSOR, (handler, request, in, out) -> handler.handleCursor(request))
+			.register(ProtocolConstants.OP_RESUME, WhiteboardHandler::handleResume);
+
 	private WhiteboardServer whiteboardServer = null;
+	private ServerMetrics serverMetrics = null;
 	private Socket client = null;
 	private Long clientUID = null;
-	private UserDto userInfo = null;
+	private ClientSession userInfo = null;
+
+	// Writer of this connection, to detach the session only if it is still in use
+	private LaneWriter connectionOut = null;
+
+	// Chunks of the transfers received on this connection
+	private ChunkAssembler chunkAssembler = new ChunkAssembler();
+
+	// Limits on the events fanned out, null if the events are not limited
+	private RateLimiter rateLimiter = null;
+
+	// Free hand stroke merged from the chunks received while over the rate limits
+	private ActionMessageDto coalescedStroke = null;
+
+	// Connections claimed for the event being fanned out, and their sessions
+	private final List<LaneWriter> claimedWriters = new ArrayList<>();
+	private final List<ClientSession> claimedSessions = new ArrayList<>();
+	private int queuedRecipientCount;
+
+	// Bytes of the event being fanned out, encoded in UTF-8
+	private int claimedBytes;
+
+	// Sequence ack of the event being fanned out, sent to the connection claimed
+	// for it if it is not null
+	private final MessageFrame ackFrame = new MessageFrame();
+	private final FrameDecoder ackDecoder = new FrameDecoder();
+	private LaneWriter claimedAckWriter = null;
 
 	/**
 	 * This constructor is used to initialize the client information and the
@@ -48,6 +143,8 @@ public class WhiteboardHandler implements Runnable {
 	 */
 	public WhiteboardHandler(WhiteboardServer whiteboardServer, Socket client, Long clientUID) {
 		this.whiteboardServer = whiteboardServer;
+		this.serverMetrics = whiteboardServer.getServerMetrics();
+		this.rateLimiter = whiteboardServer.getRateLimiter();
 		this.client = client;
 		this.clientUID = clientUID;
 	}
@@ -56,69 +153,389 @@ public class WhiteboardHandler implements Runnable {
 	public void run() {
 		LOGGER.info("Client {}, whiteboard handler started", clientUID);
 
-		// Opening the input and output stream with the client
+		// Recording the traffic by the id of the connection, as a resumed session
+		// changes the client UID of the handler
+		final long connectionId = CONNECTION_IDS.incrementAndGet();
+
+		// To track if the client exited instead of losing the connection
+		boolean isExited = false;
+		serverMetrics.connectionOpened();
+		TrafficRecorder trafficRecorder = whiteboardServer.getTrafficRecorder();
+		if (Objects.nonNull(trafficRecorder)) {
+			trafficRecorder.connectionOpened(connectionId);
+		}
+
+		// Opening the input and output stream with the client, the output is sent by
+		// the outbound batcher if one is configured and over the lanes of the
+		// connection
+		OutboundBatcher outboundBatcher = whiteboardServer.getOutboundBatcher();
+		boolean isBatched = Objects.nonNull(outboundBatcher);
+		BatchingWriter batchingWriter = null;
 		try (BufferedReader in = new BufferedReader(
 				new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
-				BufferedWriter out = new BufferedWriter(
-						new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8))) {
+				BatchingWriter batchedOut = new BatchingWriter(
+						new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8),
+						isBatched ? Constants.OUTBOUND_BATCH_BUFFER_SIZE : Constants.OUTBOUND_BUFFER_SIZE, isBatched)) {
+			LaneWriter out = new LaneWriter(batchedOut, whiteboardServer.getBulkExecutor());
+			connectionOut = out;
+			batchingWriter = batchedOut;
+			if (isBatched) {
+				outboundBatcher.register(batchedOut);
+			}
 
-			// Initializing the event string variable
-			String eventString = null;
+			// Closing the connection if nothing is read within the read idle timeout,
+			// clients send heartbeats while they have nothing else to send
+			client.setSoTimeout(
+					Integer.getInteger(Constants.PROP_READ_IDLE_MS, Constants.DEFAULT_READ_IDLE_MS));
+
+			// Reusing the frame and its decoder for every event of the connection
+			FrameReader frameReader = new FrameReader(in);
+			FrameDecoder frameDecoder = new FrameDecoder();
+			MessageFrame frame = new MessageFrame();
 
 			// Keeping the thread running while client connection available
-			while ((eventString = in.readLine()) != null) {
-				// Parsing the request from client
-				ActionMessageDto request = TypeConversionUtils.convertToCustomClass(eventString,
-						ActionMessageDto.class);
-				LOGGER.info("Message from Client {} recieved {}", clientUID, request);
-
-				// Broadcast urgent actions like draw, chat, exit and process other actions
-				// normally
-				if (Constants.URGENT_BROADCAST_ACTIONS.contains(request.getAction())) {
-					handleBroadcastMessages(eventString);
-				} else if (Constants.ACTION_EXIT.equalsIgnoreCase(request.getAction())) {
-					LOGGER.info("Exit event recieved from User {}", request.getUser().getClientUserName());
-					handleUserExit(request);
-					break;
+			while (frameReader.readFrame(frame)) {
+				// Creating the event string unless the pooled decode is configured
+				String eventString = IS_POOLED_DECODE ? null : frame.toString();
+				if (Objects.nonNull(trafficRecorder)) {
+					trafficRecorder.frameReceived(connectionId,
+							Objects.nonNull(eventString) ? eventString : frame.toString());
+				}
+
+				// Reading only the opcode of the request from client
+				int opcode = Objects.isNull(eventString) ? frameDecoder.decode(frame)
+						: TypeConversionUtils.peekOpcode(eventString);
+				if (opcode == Opcodes.UNKNOWN) {
+					LOGGER.warn("Ignoring unparseable or unknown message from Client {}", clientUID);
+					continue;
+				}
+				serverMetrics.recordEvent(opcode, frame.utf8Length() + 1L);
+
+				// Putting chunked transfers back together, in the order they were sent in
+				if (opcode == ProtocolConstants.OP_CHUNK || chunkAssembler.isHolding()) {
+					for (String receivedEvent : chunkAssembler.receive(opcode,
+							Objects.nonNull(eventString) ? eventString : frame.toString())) {
+						isExited = !handleEvent(TypeConversionUtils.peekOpcode(receivedEvent), receivedEvent, null,
+								in, out);
+						if (isExited) {
+							break;
+						}
+					}
 				} else {
-					handleAdminLogic(request, in, out);
+					isExited = !handleEvent(opcode, eventString, frame, in, out);
+				}
+				if (isExited) {
+					break;
+				}
+
+				// Sending the coalesced stroke once the events received meanwhile are merged
+				if (Objects.nonNull(coalescedStroke) && !frameReader.isReady()) {
+					flushCoalescedStroke();
 				}
 			}
 			// Closing client socket on exiting while loop
 			client.close();
+		} catch (SocketTimeoutException e) {
+			// Idle clients are expected to time out, their session is kept for resume
+			LOGGER.info("Client {} sent nothing within the read idle timeout, closing the connection", clientUID);
 		} catch (IOException e) {
-			LOGGER.error("Exception occured in run method of DictionaryUtils for client {}", clientUID, e);
+			LOGGER.warn("Connection of client {} lost in run method of WhiteboardHandler", clientUID, e);
+		} finally {
+			if (isBatched && Objects.nonNull(batchingWriter)) {
+				outboundBatcher.deregister(batchingWriter);
+			}
+
+			// Sending the stroke coalesced before the connection was lost
+			flushCoalescedStroke();
+
+			// Keeping the session for the client to resume if the connection was lost
+			if (!isExited) {
+				handleDisconnect();
+			}
+
+			// Dropping the rate limits and metrics of a client which left the board
+			if (!whiteboardServer.getClientInfoMap().containsKey(clientUID)) {
+				if (Objects.nonNull(rateLimiter)) {
+					rateLimiter.removeClient(clientUID);
+				}
+				serverMetrics.removeClient(clientUID);
+			}
+			serverMetrics.connectionClosed();
+			if (Objects.nonNull(trafficRecorder)) {
+				trafficRecorder.connectionClosed(connectionId);
+			}
+		}
+	}
+
+	/**
+	 * This method is used to handle an event received from the client, given as
+	 * its event string or, if the string is null, as its frame.
+	 * 
+	 * @implNote Events which are relayed do not use the connection of the handler,
+	 *           so the tests drive them without a socket, as the relay benchmarks
+	 *           do with {@link #relayEvent(int, String)}.
+	 * 
+	 * @param opcode
+	 * @param eventString
+	 * @param frame
+	 * @param in
+	 * @param out
+	 * @return false if the client exited, true otherwise
+	 * @throws IOException
+	 */
+	boolean handleEvent(int opcode, String eventString, MessageFrame frame, BufferedReader in,
+			LaneWriter out) throws IOException {
+		// Heartbeats only keep the connection from timing out
+		if (opcode == ProtocolConstants.OP_HEARTBEAT) {
+			return true;
+		}
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug("Message {} from Client {} recieved", Opcodes.actionName(opcode), clientUID);
+		}
+
+		// Sending the coalesced stroke before any other event, including the ones
+		// the server handles itself, so the events of the client stay in order
+		if (opcode != ProtocolConstants.OP_DRAW) {
+			flushCoalescedStroke();
+		}
+
+		// Enforcing the rate limits before fanning the event out
+		if (Objects.nonNull(rateLimiter)
+				&& (Opcodes.isUrgentBroadcast(opcode) || opcode == ProtocolConstants.OP_LOAD_IMAGE)) {
+			if (coalesce(opcode, eventString, frame)) {
+				return true;
+			}
+			if (!throttle(Objects.nonNull(eventString) ? eventString.length() : frame.length())) {
+				disconnectLimitedClient();
+				return false;
+			}
+		}
+
+		// Relay board actions and other urgent actions like chat as received
+		if (Opcodes.isUrgentBroadcast(opcode)) {
+			if (Objects.isNull(eventString)) {
+				relayFrame(opcode, frame);
+			} else {
+				relayEvent(opcode, eventString);
+			}
+			return true;
+		}
+
+		// Parsing the request only for the actions the server inspects
+		ActionMessageDto request = TypeConversionUtils.convertToCustomClass(
+				Objects.nonNull(eventString) ? eventString : frame.toString(), ActionMessageDto.class);
+		if (Objects.isNull(request)) {
+			LOGGER.warn("Ignoring unparseable message from Client {}", clientUID);
+			return true;
+		}
+
+		// Process exit and other actions normally
+		if (opcode == ProtocolConstants.OP_EXIT) {
+			LOGGER.info("Exit event recieved from Client {}", clientUID);
+			handleUserExit();
+			return false;
+		}
+		handleAdminLogic(request, in, out);
+		return true;
+	}
+
+	/**
+	 * This method is used to take the tokens of an event fanned out by the client,
+	 * waiting for them first if the client or the board is over its rate limits.
+	 * Waiting holds up reading the connection, so a flooding client is slowed down
+	 * by its own socket buffers filling up.
+	 * 
+	 * @implNote Only the limits of the client itself disconnect it in the
+	 *           disconnect mode. A client waiting for the limits of the board,
+	 *           which every client shares, is throttled instead.
+	 * 
+	 * @param bytes
+	 * @return false if the client is to be disconnected instead
+	 */
+	private boolean throttle(long bytes) {
+		long clientWaitNanos = rateLimiter.clientWaitNanos(clientUID, bytes);
+
+		// The manager holds the only full copy of the board, so it is throttled
+		if (clientWaitNanos > 0 && rateLimiter.getLimitMode() == LimitMode.DISCONNECT
+				&& !clientUID.equals(whiteboardServer.getManagerClientUID())) {
+			serverMetrics.recordLimited(clientUID, LimitMode.DISCONNECT);
+			return false;
+		}
+
+		long waitNanos = Math.max(clientWaitNanos, rateLimiter.boardWaitNanos(bytes));
+		if (waitNanos > 0) {
+			serverMetrics.recordLimited(clientUID, LimitMode.THROTTLE);
+			LockSupport.parkNanos(waitNanos);
+		}
+		rateLimiter.take(clientUID, bytes);
+		return true;
+	}
+
+	/**
+	 * This method is used to merge a chunk of a free hand stroke into the stroke
+	 * coalesced while the client is over its rate limits, in the coalesce mode.
+	 * Other draw events send the coalesced stroke first, as the other events do
+	 * before they are handled, so the events of the client stay in order.
+	 * 
+	 * @param opcode
+	 * @param eventString
+	 * @param frame
+	 * @return true if the event is coalesced instead of being relayed now
+	 */
+	private boolean coalesce(int opcode, String eventString, MessageFrame frame) {
+		if (rateLimiter.getLimitMode() != LimitMode.COALESCE || opcode != ProtocolConstants.OP_DRAW) {
+			flushCoalescedStroke();
+			return false;
+		}
+
+		// Relaying the event as usual while it is within the limits
+		long bytes = Objects.nonNull(eventString) ? eventString.length() : frame.length();
+		if (Objects.isNull(coalescedStroke) && rateLimiter.waitNanos(clientUID, bytes) == 0) {
+			return false;
+		}
+
+		ActionMessageDto strokeEvent = toStrokeEvent(TypeConversionUtils.convertToCustomClass(
+				Objects.nonNull(eventString) ? eventString : frame.toString(), ActionMessageDto.class));
+		if (Objects.nonNull(coalescedStroke) && isStrokeContinued(strokeEvent)) {
+			// Appending the points after the first one, which ends the coalesced stroke
+			int[] coordinates = strokeEvent.getStroke().toCoordinates();
+			for (int i = 2; i < coordinates.length; i += 2) {
+				coalescedStroke.getStroke().add(coordinates[i], coordinates[i + 1]);
+			}
+			serverMetrics.recordLimited(clientUID, LimitMode.COALESCE);
+			if (coalescedStroke.getStroke().size() >= Constants.COALESCED_STROKE_MAX_POINTS) {
+				flushCoalescedStroke();
+			}
+			return true;
+		}
+
+		// Starting to coalesce from a chunk of another stroke
+		flushCoalescedStroke();
+		if (Objects.nonNull(strokeEvent) && Objects.nonNull(strokeEvent.getStroke())) {
+			coalescedStroke = strokeEvent;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * This method is used to turn a free hand segment sent by an older client into
+	 * a packed stroke of its two points, so that it can be coalesced like the
+	 * chunks of packed strokes.
+	 * 
+	 * @param drawEvent
+	 * @return the draw event, with a stroke if it is a free hand segment
+	 */
+	private ActionMessageDto toStrokeEvent(ActionMessageDto drawEvent) {
+		if (!IS_PACKED_STROKE || Objects.isNull(drawEvent) || Objects.nonNull(drawEvent.getStroke())
+				|| Objects.isNull(drawEvent.getStartPoint()) || Objects.isNull(drawEvent.getEndPoint())
+				|| (drawEvent.getToolOpcode() != ProtocolConstants.TOOL_OP_PENCIL
+						&& drawEvent.getToolOpcode() != ProtocolConstants.TOOL_OP_ERASER)) {
+			return drawEvent;
+		}
+
+		// Leaving segments off the board to be relayed as received
+		PackedStroke stroke;
+		try {
+			stroke = PackedStroke.fromArray(new int[] { drawEvent.getStartPoint().x, drawEvent.getStartPoint().y,
+					drawEvent.getEndPoint().x - drawEvent.getStartPoint().x,
+					drawEvent.getEndPoint().y - drawEvent.getStartPoint().y });
+		} catch (IllegalArgumentException e) {
+			return drawEvent;
+		}
+		drawEvent.setStroke(stroke);
+		drawEvent.setStartPoint(null);
+		drawEvent.setEndPoint(null);
+		return drawEvent;
+	}
+
+	/**
+	 * This method is used to check if a draw event is the next chunk of the
+	 * coalesced stroke, drawn with the same tool and color from its last point.
+	 * 
+	 * @param strokeEvent
+	 * @return
+	 */
+	private boolean isStrokeContinued(ActionMessageDto strokeEvent) {
+		PackedStroke stroke = coalescedStroke.getStroke();
+		return Objects.nonNull(strokeEvent) && Objects.nonNull(strokeEvent.getStroke())
+				&& Objects.equals(strokeEvent.getTool(), coalescedStroke.getTool())
+				&& Objects.equals(strokeEvent.getColor(), coalescedStroke.getColor())
+				&& strokeEvent.getStroke().getStartX() == stroke.getLastX()
+				&& strokeEvent.getStroke().getStartY() == stroke.getLastY();
+	}
+
+	/**
+	 * This method is used to relay the coalesced stroke as one draw event, once
+	 * its tokens are available.
+	 */
+	private void flushCoalescedStroke() {
+		if (Objects.isNull(coalescedStroke)) {
+			return;
+		}
+		String eventString = TypeConversionUtils.convertObjectToString(coalescedStroke);
+		coalescedStroke = null;
+		throttle(eventString.length());
+		relayEvent(ProtocolConstants.OP_DRAW, eventString);
+	}
+
+	/**
+	 * This method is used to remove a client over its rate limits from the board
+	 * as if it had exited, so it cannot resume its session either.
+	 */
+	private void disconnectLimitedClient() {
+		LOGGER.warn("Disconnecting client {} over its rate limits", clientUID);
+		if (Objects.nonNull(userInfo) && whiteboardServer.getClientInfoMap().containsKey(clientUID)) {
+			handleUserExit();
+		}
+	}
+
+	/**
+	 * This method is used to detach the session of a verified client whose
+	 * connection was lost without an exit event. The session stays in the client
+	 * info map, so the client can resume it with its resume token. A client still
+	 * waiting for the manager's approval is removed.
+	 */
+	private void handleDisconnect() {
+		if (Objects.isNull(userInfo)) {
+			return;
+		}
+
+		// Removing the join request of an unverified client
+		if (whiteboardServer.getUnverifiedClients().remove(clientUID, userInfo)) {
+			LOGGER.info("Unverified client {} disconnected", clientUID);
+			return;
+		}
+
+		if (!whiteboardServer.getClientInfoMap().containsKey(clientUID)) {
+			return;
+		}
+
+		synchronized (userInfo) {
+			// The session may already be resumed on a new connection
+			if (userInfo.getOut() == connectionOut) {
+				userInfo.setIn(null);
+				userInfo.setOut(null);
+				userInfo.setDetachedAt(System.currentTimeMillis());
+				LOGGER.info("Client {} disconnected, session kept for resume", clientUID);
+			}
 		}
+		whiteboardServer.getPresenceTracker().hideCursor(clientUID);
 	}
 
 	/**
 	 * This method is used to handle admin events like new user permission, new user
-	 * accept and reject, user removed and load image.
+	 * accept and reject, user removed and load image, through the handler
+	 * registered for their opcode. Other actions are ignored.
 	 * 
 	 * @param request
 	 * @param in
 	 * @param out
 	 */
-	private void handleAdminLogic(ActionMessageDto request, BufferedReader in, BufferedWriter out) {
-		String action = request.getAction();
-		switch (action) {
-		case Constants.ACTION_NEW_USER_PERMISSION:
-			handleUserAllocation(request, in, out);
-			break;
-		case Constants.ACTION_NEW_USER_ACCEPT:
-			handleUserAccept(request);
-			break;
-		case Constants.ACTION_NEW_USER_REJECT:
-			handleUserReject(request);
-			break;
-		case Constants.ACTION_USER_KICK:
-			handleUserKick(request);
-			break;
-		case Constants.ACTION_LOAD_IMAGE:
-			handleLoadImage(request);
-			break;
-		default:
-			break;
+	private void handleAdminLogic(ActionMessageDto request, BufferedReader in, LaneWriter out) {
+		AdminHandler adminHandler = ADMIN_HANDLERS.lookup(request.getOpcode());
+		if (Objects.nonNull(adminHandler)) {
+			adminHandler.handle(this, request, in, out);
 		}
 	}
 
@@ -132,35 +549,53 @@ public class WhiteboardHandler implements Runnable {
 	 * @param in
 	 * @param out
 	 */
-	private void handleUserAllocation(ActionMessageDto request, BufferedReader in, BufferedWriter out) {
+	private void handleUserAllocation(ActionMessageDto request, BufferedReader in, LaneWriter out) {
 		// Checking if first user then allocate as manager
 		boolean isManager = MapUtils.isEmpty(whiteboardServer.getClientInfoMap());
 		if (isManager) {
 			LOGGER.info("Manager allocation to user id - {}, username - {}", clientUID,
 					request.getUser().getClientUserName());
 
-			// Creating UserDto for manager and assigning to userInfo variable
-			UserDto managerUserDto = new UserDto(clientUID, request.getUser().getClientUserName(), isManager, in, out);
+			// Creating session for manager and assigning to userInfo variable
+			ClientSession managerUserDto = new ClientSession(clientUID, request.getUser().getClientUserName(),
+					isManager, in, out);
 			userInfo = managerUserDto;
 
-			// Adding manager to client info map
-			whiteboardServer.getClientInfoMap().put(clientUID, managerUserDto);
+			String claimedEvent;
+			synchronized (whiteboardServer.getMembershipLock()) {
+				// Adding manager to client info map
+				whiteboardServer.getClientInfoMap().put(clientUID, managerUserDto);
+
+				// Setting the manager client UID global variable
+				whiteboardServer.setManagerClientUID(new AtomicLong(clientUID));
+
+				// Sending the manager assign event to first user
+				ActionMessageDto managerAssignEvent = new ActionMessageDto(managerUserDto,
+						ProtocolConstants.ACTION_ASSIGN_MANAGER);
+				managerAssignEvent.setActiveUserList(new ArrayList<>(whiteboardServer.getClientInfoMap().values()));
+				managerAssignEvent.setMembershipVersion(whiteboardServer.nextMembershipVersion());
 
-			// Setting the manager client UID global variable
-			whiteboardServer.setManagerClientUID(new AtomicLong(clientUID));
+				// Sending the sequence number the empty board of the manager starts from
+				managerAssignEvent.setSequence(whiteboardServer.getBoardHistory().getLastSequence());
 
-			// Sending the manager assign event to first user
-			ActionMessageDto managerAssignEvent = new ActionMessageDto(managerUserDto, Constants.ACTION_ASSIGN_MANAGER);
-			managerAssignEvent.setActiveUserList(new ArrayList<>(whiteboardServer.getClientInfoMap().values()));
+				// Sending the token to resume the session if the connection is lost
+				managerUserDto.setResumeToken(UUID.randomUUID().toString());
+				managerAssignEvent.setResumeToken(managerUserDto.getResumeToken());
+
+				// Placing the event before any membership change after it
+				claimedEvent = claimMessage(ProtocolConstants.OP_ASSIGN_MANAGER,
+						TypeConversionUtils.convertObjectToString(managerAssignEvent), out);
+			}
 
 			// Sending direct message to the manager/first client
-			sendMessage(TypeConversionUtils.convertObjectToString(managerAssignEvent), out);
+			sendClaimedMessage(ProtocolConstants.OP_ASSIGN_MANAGER, claimedEvent, out);
 		} else {
 			LOGGER.info("Add user permission for user id - {}, username - {}", this.clientUID,
 					request.getUser().getClientUserName());
 
-			// Creating UserDto for the requesting client and assinging to userInfo variable
-			UserDto clientUser = new UserDto(this.clientUID, request.getUser().getClientUserName(), false, in, out);
+			// Creating session for the requesting client and assinging to userInfo variable
+			ClientSession clientUser = new ClientSession(this.clientUID, request.getUser().getClientUserName(), false,
+					in, out);
 			userInfo = clientUser;
 
 			// Adding the client information to unverified client map since manager has to
@@ -169,11 +604,12 @@ public class WhiteboardHandler implements Runnable {
 
 			// Creating manager permission event
 			ActionMessageDto managerPermissionEvent = new ActionMessageDto(clientUser,
-					Constants.ACTION_NEW_USER_PERMISSION);
+					ProtocolConstants.ACTION_NEW_USER_PERMISSION);
 			managerPermissionEvent.setSelectedUser(clientUser);
 
 			// Sending direct message to manager for permission
-			sendMessageToManager(TypeConversionUtils.convertObjectToString(managerPermissionEvent));
+			sendMessageToManager(ProtocolConstants.OP_NEW_USER_PERMISSION,
+					TypeConversionUtils.convertObjectToString(managerPermissionEvent));
 		}
 	}
 
@@ -182,25 +618,77 @@ public class WhiteboardHandler implements Runnable {
 	 * allocates user to the clientInfoMap and removes it from unverifiedClientMap.
 	 * Then it broadcasts the new user added event to other clients.
 	 * 
+	 * @implNote Only the accepted user is sent the whole list of members. The
+	 *           other clients, the manager included, are sent the accepted user
+	 *           with the membership version of the join.
+	 * 
+	 * @implNote The events are placed in the order of every connection under the
+	 *           membership lock, so clients receive the membership versions in
+	 *           order, and written once it is released so that a slow client does
+	 *           not hold up other joins and leaves.
+	 * 
 	 * @param request
 	 */
 	private void handleUserAccept(ActionMessageDto request) {
 		// Fetching the accepted user info from unverifiedClientMap
-		UserDto acceptedUser = whiteboardServer.getUnverifiedClients().get(request.getSelectedUser().getClientUID());
+		ClientSession acceptedUser = whiteboardServer.getUnverifiedClients()
+				.get(request.getSelectedUser().getClientUID());
+		if (Objects.isNull(acceptedUser)) {
+			LOGGER.warn("Accepted user {} has already disconnected", request.getSelectedUser().getClientUID());
+			return;
+		}
 
-		// Adding the user to the client info map
-		whiteboardServer.getClientInfoMap().put(acceptedUser.getClientUID(), acceptedUser);
+		LaneWriter acceptedOut = acceptedUser.getOut();
+		List<Integer> acceptedOpcodes = new ArrayList<>();
+		List<String> acceptedEvents = new ArrayList<>();
+		String eventString;
+		int acceptedClaimedIndex;
+		String managerClaimedEvent = null;
+		synchronized (whiteboardServer.getMembershipLock()) {
+			// Adding the user to the client info map
+			whiteboardServer.getClientInfoMap().put(acceptedUser.getClientUID(), acceptedUser);
+			long membershipVersion = whiteboardServer.nextMembershipVersion();
 
-		// Removing the user from unverified client map
-		whiteboardServer.getUnverifiedClients().remove(acceptedUser.getClientUID());
+			// Removing the user from unverified client map
+			whiteboardServer.getUnverifiedClients().remove(acceptedUser.getClientUID());
 
-		// Creating the new user added event and setting list of active clients
-		ActionMessageDto newUserAddedEvent = new ActionMessageDto(userInfo, Constants.ACTION_NEW_USER_ADDED);
-		newUserAddedEvent.setSelectedUser(acceptedUser);
-		newUserAddedEvent.setActiveUserList(new ArrayList<>(whiteboardServer.getClientInfoMap().values()));
+			// Sending the token to resume the session directly to the accepted user
+			acceptedUser.setResumeToken(UUID.randomUUID().toString());
+			ActionMessageDto sessionTokenEvent = new ActionMessageDto(acceptedUser,
+					ProtocolConstants.ACTION_SESSION_TOKEN);
+			sessionTokenEvent.setResumeToken(acceptedUser.getResumeToken());
+			acceptedOpcodes.add(ProtocolConstants.OP_SESSION_TOKEN);
+			acceptedEvents.add(TypeConversionUtils.convertObjectToString(sessionTokenEvent));
 
-		// Broadcasting the event to all active clients
-		handleBroadcastMessages(TypeConversionUtils.convertObjectToString(newUserAddedEvent));
+			// Creating the new user added event and setting list of active clients
+			ActionMessageDto newUserAddedEvent = new ActionMessageDto(userInfo,
+					ProtocolConstants.ACTION_NEW_USER_ADDED);
+			newUserAddedEvent.setSelectedUser(acceptedUser);
+			newUserAddedEvent.setMembershipVersion(membershipVersion);
+			newUserAddedEvent.setActiveUserList(new ArrayList<>(whiteboardServer.getClientInfoMap().values()));
+			eventString = TypeConversionUtils.convertObjectToString(newUserAddedEvent);
+			if (IS_MEMBERSHIP_DELTA) {
+				// Sending the list of members directly to the accepted user, who skips the
+				// delta broadcast after it
+				acceptedOpcodes.add(ProtocolConstants.OP_NEW_USER_ADDED);
+				acceptedEvents.add(eventString);
+				acceptedClaimedIndex = claimMessages(acceptedOpcodes, acceptedEvents, acceptedOut);
+
+				// Broadcasting the accepted user alone, to the manager as well
+				newUserAddedEvent.setActiveUserList(null);
+				eventString = TypeConversionUtils.convertObjectToString(newUserAddedEvent);
+				claimRecipients(ProtocolConstants.OP_NEW_USER_ADDED, eventString, null, 0);
+				managerClaimedEvent = claimMessage(ProtocolConstants.OP_NEW_USER_ADDED, eventString,
+						userInfo.getOut());
+			} else {
+				// Broadcasting the event to all active clients
+				acceptedClaimedIndex = claimMessages(acceptedOpcodes, acceptedEvents, acceptedOut);
+				claimRecipients(ProtocolConstants.OP_NEW_USER_ADDED, eventString, null, 0);
+			}
+		}
+		sendClaimedMessages(acceptedClaimedIndex, acceptedOpcodes, acceptedEvents, acceptedOut);
+		sendToRecipients(ProtocolConstants.OP_NEW_USER_ADDED, eventString, null);
+		sendClaimedMessage(ProtocolConstants.OP_NEW_USER_ADDED, managerClaimedEvent, userInfo.getOut());
 	}
 
 	/**
@@ -212,13 +700,19 @@ public class WhiteboardHandler implements Runnable {
 	 */
 	private void handleUserReject(ActionMessageDto request) {
 		// Fetching the rejected user info from the unverified client map
-		UserDto rejectedUser = whiteboardServer.getUnverifiedClients().get(request.getSelectedUser().getClientUID());
+		ClientSession rejectedUser = whiteboardServer.getUnverifiedClients()
+				.get(request.getSelectedUser().getClientUID());
+		if (Objects.isNull(rejectedUser)) {
+			LOGGER.warn("Rejected user {} has already disconnected", request.getSelectedUser().getClientUID());
+			return;
+		}
 
 		// Removing the user from the unverified client map
 		whiteboardServer.getUnverifiedClients().remove(rejectedUser.getClientUID());
 
 		// Sending reject event directly to the rejected user
-		sendMessage(TypeConversionUtils.convertObjectToString(request), rejectedUser.getOut());
+		sendMessage(ProtocolConstants.OP_NEW_USER_REJECT, TypeConversionUtils.convertObjectToString(request),
+				rejectedUser.getOut());
 	}
 
 	/**
@@ -233,12 +727,27 @@ public class WhiteboardHandler implements Runnable {
 		// Fetching the kicked user info
 		UserDto kickedUser = request.getSelectedUser();
 
-		// Broadcasting kicked user event for kicked client to exit and other clients to
-		// update client list
-		handleBroadcastMessages(TypeConversionUtils.convertObjectToString(request));
+		String eventString;
+		String managerClaimedEvent;
+		synchronized (whiteboardServer.getMembershipLock()) {
+			// Stamping the kick with the membership version of the leave, as every other
+			// join and leave is
+			request.setMembershipVersion(whiteboardServer.nextMembershipVersion());
+
+			// Broadcasting kicked user event for kicked client to exit and other clients to
+			// update client list
+			eventString = TypeConversionUtils.convertObjectToString(request);
+			claimRecipients(ProtocolConstants.OP_USER_KICK, eventString, null, 0);
 
-		// Removing kicked user after broadcasting event
-		whiteboardServer.getClientInfoMap().remove(kickedUser.getClientUID());
+			// The manager applies the version of its own kick
+			managerClaimedEvent = claimMessage(ProtocolConstants.OP_USER_KICK, eventString, userInfo.getOut());
+
+			// Removing kicked user after placing the event for it
+			whiteboardServer.getClientInfoMap().remove(kickedUser.getClientUID());
+		}
+		sendToRecipients(ProtocolConstants.OP_USER_KICK, eventString, null);
+		sendClaimedMessage(ProtocolConstants.OP_USER_KICK, managerClaimedEvent, userInfo.getOut());
+		whiteboardServer.getPresenceTracker().hideCursor(kickedUser.getClientUID());
 	}
 
 	/**
@@ -247,33 +756,88 @@ public class WhiteboardHandler implements Runnable {
 	 * themselves and not exiting due to kick event then sending refresh user list
 	 * event to all remaining clients to update active client list.
 	 * 
-	 * @param request
+	 * @implNote The exiting client is the client of this connection, whatever
+	 *           user the exit event names.
 	 */
-	private void handleUserExit(ActionMessageDto request) {
+	private void handleUserExit() {
+		// Clients not yet verified have no session to remove
+		if (Objects.isNull(userInfo)) {
+			return;
+		}
+
 		// Manager exiting event
-		if (whiteboardServer.getManagerClientUID().equals(request.getUser().getClientUID())) {
+		if (whiteboardServer.getManagerClientUID().equals(clientUID)) {
 			LOGGER.info("Manager Exiting");
 
 			// Remove manager from exit client map
-			whiteboardServer.getClientInfoMap().remove(request.getUser().getClientUID());
+			whiteboardServer.getClientInfoMap().remove(clientUID);
 
 			// Send force quit event to remaining clients
-			ActionMessageDto managerExitEvent = new ActionMessageDto(userInfo, Constants.ACTION_FORCE_QUIT);
+			ActionMessageDto managerExitEvent = new ActionMessageDto(userInfo, ProtocolConstants.ACTION_FORCE_QUIT);
 
 			// Broadcasting event to remaning clients
-			handleBroadcastMessages(TypeConversionUtils.convertObjectToString(managerExitEvent));
-		} else if (whiteboardServer.getClientInfoMap().containsKey(request.getUser().getClientUID())) {
-			// Removing user from client info map
-			whiteboardServer.getClientInfoMap().remove(request.getUser().getClientUID());
+			handleBroadcastMessages(managerExitEvent.getOpcode(),
+					TypeConversionUtils.convertObjectToString(managerExitEvent));
+		} else {
+			String eventString;
+			synchronized (whiteboardServer.getMembershipLock()) {
+				// Removing user from client info map, unless already removed by a kick
+				if (Objects.isNull(whiteboardServer.getClientInfoMap().remove(clientUID))) {
+					return;
+				}
 
-			// Creating refresh user list event to update new client list
-			ActionMessageDto refreshUserListEvent = new ActionMessageDto(userInfo, Constants.ACTION_REFRESH_USER_LIST);
-			refreshUserListEvent.setActiveUserList(new ArrayList<>(whiteboardServer.getClientInfoMap().values()));
-			refreshUserListEvent.setSelectedUser(request.getUser());
+				// Creating refresh user list event to update new client list
+				ActionMessageDto refreshUserListEvent = new ActionMessageDto(userInfo,
+						ProtocolConstants.ACTION_REFRESH_USER_LIST);
+				refreshUserListEvent.setSelectedUser(userInfo);
+				refreshUserListEvent.setMembershipVersion(whiteboardServer.nextMembershipVersion());
+				if (!IS_MEMBERSHIP_DELTA) {
+					refreshUserListEvent
+							.setActiveUserList(new ArrayList<>(whiteboardServer.getClientInfoMap().values()));
+				}
+
+				// Placing refresh user list event for remaining clients
+				eventString = TypeConversionUtils.convertObjectToString(refreshUserListEvent);
+				claimRecipients(ProtocolConstants.OP_REFRESH_USER_LIST, eventString, null, 0);
+			}
+			sendToRecipients(ProtocolConstants.OP_REFRESH_USER_LIST, eventString, null);
+			whiteboardServer.getPresenceTracker().hideCursor(clientUID);
+		}
+	}
+
+	/**
+	 * This method is used to keep the latest cursor of a member, to be sent to the
+	 * other clients at the next presence tick. A cursor event without a point
+	 * hides the cursor.
+	 * 
+	 * @param request
+	 */
+	private void handleCursor(ActionMessageDto request) {
+		// Cursors of unverified clients are not shown
+		if (!whiteboardServer.getClientInfoMap().containsKey(clientUID)) {
+			return;
+		}
+
+		Point point = request.getStartPoint();
+		whiteboardServer.getPresenceTracker().updateCursor(
+				Objects.nonNull(point) ? new CursorDto(clientUID, point.x, point.y) : CursorDto.hidden(clientUID));
+	}
 
-			// Sending refresh user list event to remaining clients
-			handleBroadcastMessages(TypeConversionUtils.convertObjectToString(refreshUserListEvent));
+	/**
+	 * This method is used to send the whole list of members with its membership
+	 * version to a client which has missed a join or leave, or has resumed its
+	 * session.
+	 */
+	private void handleMemberListRequest() {
+		String claimedEvent;
+		synchronized (whiteboardServer.getMembershipLock()) {
+			ActionMessageDto memberListEvent = new ActionMessageDto(userInfo, ProtocolConstants.ACTION_MEMBER_LIST);
+			memberListEvent.setActiveUserList(new ArrayList<>(whiteboardServer.getClientInfoMap().values()));
+			memberListEvent.setMembershipVersion(whiteboardServer.getMembershipVersion());
+			claimedEvent = claimMessage(ProtocolConstants.OP_MEMBER_LIST,
+					TypeConversionUtils.convertObjectToString(memberListEvent), userInfo.getOut());
 		}
+		sendClaimedMessage(ProtocolConstants.OP_MEMBER_LIST, claimedEvent, userInfo.getOut());
 	}
 
 	/**
@@ -282,67 +846,567 @@ public class WhiteboardHandler implements Runnable {
 	 * whiteboard with current image. Second, when a manager loads a new image from
 	 * local directory.
 	 * 
+	 * @implNote An image sent to a specific user carries the sequence number of the
+	 *           manager's board, and is followed by the events after it so that
+	 *           nothing drawn in the meantime is lost.
+	 * 
 	 * @param request
 	 */
 	private void handleLoadImage(ActionMessageDto request) {
-		// If selected user is non null, then user joined fresh and only update the
-		// whiteboard of that user
+		ImageTransferEvent imageTransferEvent = new ImageTransferEvent();
+		imageTransferEvent.begin();
+
+		long payloadSize = Objects.nonNull(request.getDrawboardImage()) ? request.getDrawboardImage().length() : 0;
+		serverMetrics.recordLoadImage(payloadSize);
+
+		// If selected user is non null, then user joined fresh or requested a
+		// snapshot, and only update the whiteboard of that user
 		if (Objects.nonNull(request.getSelectedUser())) {
 			// Fetching userInfo of new user
-			UserDto selectedUser = whiteboardServer.getClientInfoMap().get(request.getSelectedUser().getClientUID());
+			ClientSession selectedUser = whiteboardServer.getClientInfoMap()
+					.get(request.getSelectedUser().getClientUID());
+			if (Objects.isNull(selectedUser)) {
+				LOGGER.warn("Dropping image for user {} who is no longer connected",
+						request.getSelectedUser().getClientUID());
+				return;
+			}
 
-			// Sending load image event to that specific user
-			sendMessage(TypeConversionUtils.convertObjectToString(request), selectedUser.getOut());
+			// Placing the image and the events drawn after it was taken in the order of
+			// the connection of that specific user, and sending them once the board
+			// history is released
+			List<Integer> opcodes = new ArrayList<>();
+			List<String> eventStrings = new ArrayList<>();
+			opcodes.add(ProtocolConstants.OP_LOAD_IMAGE);
+			eventStrings.add(TypeConversionUtils.convertObjectToString(request));
+			LaneWriter selectedOut = selectedUser.getOut();
+			int claimedIndex;
+			BoardHistory boardHistory = whiteboardServer.getBoardHistory();
+			synchronized (boardHistory) {
+				if (Objects.nonNull(request.getSequence())) {
+					List<String> delta = boardHistory.eventsAfter(request.getSequence(), opcodes);
+					if (Objects.isNull(delta)) {
+						LOGGER.warn("Events after image sequence {} are no longer retained", request.getSequence());
+					} else {
+						eventStrings.addAll(delta);
+						imageTransferEvent.deltaEventCount = delta.size();
+					}
+				}
+				claimedIndex = claimMessages(opcodes, eventStrings, selectedOut);
+			}
+			sendClaimedMessages(claimedIndex, opcodes, eventStrings, selectedOut);
+			imageTransferEvent.targeted = true;
 		} else {
 			// Manager loaded image from local, update all client's whiteboard
-			handleBroadcastMessages(TypeConversionUtils.convertObjectToString(request));
+			handleBoardEvent(request);
+		}
+
+		imageTransferEvent.end();
+		if (imageTransferEvent.shouldCommit()) {
+			imageTransferEvent.payloadSize = payloadSize;
+			imageTransferEvent.commit();
+		}
+	}
+
+	/**
+	 * This method is used to relay an event received from the client to the other
+	 * clients. Board events are sequenced before they are broadcasted, other urgent
+	 * events are broadcasted as received.
+	 * 
+	 * @implNote This method does not use the connection of the handler, so the
+	 *           relay can also be driven without a socket, as the broadcast
+	 *           benchmarks do.
+	 * 
+	 * @implNote The event is relayed without being bound to an object, only its
+	 *           opcode is read from it beforehand. It is stamped with the client
+	 *           UID of the connection as its sender id, so clients need not send
+	 *           their user, and any sender id or sequence sent by the client is
+	 *           removed. Events which are not a single JSON object are dropped.
+	 * 
+	 * @implNote Board events are sequenced and placed in the order of every
+	 *           connection under the lock of the board history, and written once
+	 *           it is released, so a slow client does not hold up sequencing.
+	 *           The sender is sent an ack of the sequence in place of the event.
+	 * 
+	 * @param opcode
+	 * @param eventString
+	 */
+	public void relayEvent(int opcode, String eventString) {
+		String stampedEvent = TypeConversionUtils.appendSenderId(eventString, clientUID);
+		if (Objects.isNull(stampedEvent)) {
+			LOGGER.warn("Dropping malformed event of client {}", clientUID);
+			return;
+		}
+		if (Opcodes.isBoardAction(opcode)) {
+			String sequencedEvent;
+			BoardHistory boardHistory = whiteboardServer.getBoardHistory();
+			synchronized (boardHistory) {
+				sequencedEvent = boardHistory.append(opcode, stampedEvent);
+				claimRecipients(opcode, sequencedEvent, null, boardHistory.getLastSequence());
+			}
+			sendToRecipients(opcode, sequencedEvent, null);
+		} else {
+			handleBroadcastMessages(opcode, stampedEvent);
+		}
+	}
+
+	/**
+	 * This method is used to relay an event read into a frame to the other
+	 * clients, as {@link #relayEvent(int, String)} does for an event string. The
+	 * sender id and the sequence of board events are stamped in the frame itself,
+	 * unless the frame holds a sender id or sequence of the client, which is
+	 * relayed as a string to remove them, as is a frame holding a user.
+	 * 
+	 * @implNote Relaying from the frame creates no string or object per event, so
+	 *           it allocates nothing once the board history slots and the buffers
+	 *           of the clients have grown to the size of the events.
+	 * 
+	 * @param opcode
+	 * @param frame
+	 */
+	public void relayFrame(int opcode, MessageFrame frame) {
+		if (!frame.appendSenderId(clientUID)) {
+			relayEvent(opcode, frame.toString());
+			return;
+		}
+		if (Opcodes.isBoardAction(opcode)) {
+			BoardHistory boardHistory = whiteboardServer.getBoardHistory();
+			synchronized (boardHistory) {
+				boardHistory.append(opcode, frame);
+				claimRecipients(opcode, null, frame, frame.getSequence());
+			}
+			sendToRecipients(opcode, null, frame);
+		} else {
+			broadcast(opcode, null, frame);
+		}
+	}
+
+	/**
+	 * This method is used to stamp a board event with its sender id and the next
+	 * sequence number, retain it in the board history and broadcast it to other
+	 * clients. The user sent by the client is removed, as for relayed events.
+	 * 
+	 * @implNote The event is placed in the order of every connection under the
+	 *           lock of the board history, so that every client receives the
+	 *           board events in sequence order, and written once it is released.
+	 * 
+	 * @param request
+	 */
+	private void handleBoardEvent(ActionMessageDto request) {
+		request.setSenderId(clientUID);
+		if (TypeConversionUtils.getCodecVersion() >= ProtocolConstants.SENDER_ID_CODEC_VERSION) {
+			request.setUser(null);
+		}
+		String sequencedEvent;
+		BoardHistory boardHistory = whiteboardServer.getBoardHistory();
+		synchronized (boardHistory) {
+			sequencedEvent = boardHistory.append(request);
+			claimRecipients(request.getOpcode(), sequencedEvent, null, request.getSequence());
+		}
+		sendToRecipients(request.getOpcode(), sequencedEvent, null);
+	}
+
+	/**
+	 * This method is used to handle a client requesting every board event after
+	 * the sequence number it already has. If those events are no longer retained,
+	 * the manager is asked to send a snapshot of the board to the client instead.
+	 * 
+	 * @param request
+	 */
+	private void handleSyncRequest(ActionMessageDto request) {
+		// A client without a sequence number has none of the board events
+		long sequence = Objects.nonNull(request.getSequence()) ? request.getSequence() : 0L;
+
+		// Placing the delta in the order of the connection of the requesting client,
+		// and sending it once the board history is released
+		LaneWriter out = userInfo.getOut();
+		List<Integer> opcodes = new ArrayList<>();
+		List<String> delta;
+		int claimedIndex = -1;
+		BoardHistory boardHistory = whiteboardServer.getBoardHistory();
+		synchronized (boardHistory) {
+			delta = boardHistory.eventsAfter(sequence, opcodes);
+			if (Objects.nonNull(delta)) {
+				claimedIndex = claimMessages(opcodes, delta, out);
+			}
+		}
+		if (Objects.nonNull(delta)) {
+			LOGGER.info("Sending {} events after sequence {} to client {}", delta.size(), sequence, clientUID);
+			sendClaimedMessages(claimedIndex, opcodes, delta, out);
+			return;
+		}
+
+		// The manager holds the only full copy of the board
+		if (clientUID.equals(whiteboardServer.getManagerClientUID())) {
+			LOGGER.warn("Events after sequence {} are no longer retained for the manager", sequence);
+			return;
+		}
+
+		// Falling back to a snapshot from the manager
+		LOGGER.info("Events after sequence {} compacted, requesting snapshot for client {}", sequence, clientUID);
+		ActionMessageDto snapshotRequestEvent = new ActionMessageDto(userInfo,
+				ProtocolConstants.ACTION_SNAPSHOT_REQUEST);
+		snapshotRequestEvent.setSelectedUser(userInfo);
+		sendMessageToManager(ProtocolConstants.OP_SNAPSHOT_REQUEST,
+				TypeConversionUtils.convertObjectToString(snapshotRequestEvent));
+	}
+
+	/**
+	 * This method is used to handle a client reconnecting after losing its
+	 * connection. If the resume token matches a session detached within the grace
+	 * period, the new connection is attached to it without the manager's approval
+	 * and the client is sent only the board events it missed.
+	 * 
+	 * @param request
+	 * @param in
+	 * @param out
+	 */
+	private void handleResume(ActionMessageDto request, BufferedReader in, LaneWriter out) {
+		ClientSession session = Objects.isNull(request.getUser()) ? null
+				: whiteboardServer.getClientInfoMap().get(request.getUser().getClientUID());
+
+		// Rejecting unknown sessions, wrong tokens and sessions detached for too long
+		if (Objects.isNull(session) || !isResumeTokenValid(session, request.getResumeToken())
+				|| isResumeExpired(session)) {
+			LOGGER.warn("Rejecting resume for user {}", request.getUser());
+			sendMessage(ProtocolConstants.OP_RESUME_REJECT, TypeConversionUtils.convertObjectToString(
+					new ActionMessageDto(request.getUser(), ProtocolConstants.ACTION_RESUME_REJECT)), out);
+			return;
+		}
+
+		// Attaching the new connection to the session with a fresh token
+		synchronized (session) {
+			clientUID = session.getClientUID();
+			userInfo = session;
+			session.setIn(in);
+			session.setOut(out);
+			session.setDetachedAt(0);
+			session.setResumeToken(UUID.randomUUID().toString());
 		}
+		LOGGER.info("Client {} resumed session", clientUID);
+
+		ActionMessageDto resumeAcceptEvent = new ActionMessageDto(session, ProtocolConstants.ACTION_RESUME_ACCEPT);
+		resumeAcceptEvent.setResumeToken(session.getResumeToken());
+		sendMessage(ProtocolConstants.OP_RESUME_ACCEPT, TypeConversionUtils.convertObjectToString(resumeAcceptEvent),
+				out);
+
+		// Sending the board events missed while disconnected
+		handleSyncRequest(request);
+	}
+
+	/**
+	 * This method is used to compare the resume token sent by the client with the
+	 * one issued for the session in constant time.
+	 * 
+	 * @param session
+	 * @param resumeToken
+	 * @return
+	 */
+	private boolean isResumeTokenValid(ClientSession session, String resumeToken) {
+		return Objects.nonNull(session.getResumeToken()) && Objects.nonNull(resumeToken)
+				&& MessageDigest.isEqual(session.getResumeToken().getBytes(StandardCharsets.UTF_8),
+						resumeToken.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * This method is used to check if the session has been detached for longer than
+	 * the resume grace period.
+	 * 
+	 * @param session
+	 * @return
+	 */
+	private boolean isResumeExpired(ClientSession session) {
+		long gracePeriod = Long.getLong(Constants.PROP_RESUME_GRACE_MS, Constants.DEFAULT_RESUME_GRACE_MS);
+		return session.getDetachedAt() > 0 && System.currentTimeMillis() - session.getDetachedAt() > gracePeriod;
 	}
 
 	/**
 	 * This method is used to send direct event to manager.
 	 * 
+	 * @param opcode
 	 * @param eventString
 	 */
-	private void sendMessageToManager(String eventString) {
-		sendMessage(eventString,
+	private void sendMessageToManager(int opcode, String eventString) {
+		sendMessage(opcode, eventString,
 				whiteboardServer.getClientInfoMap().get(whiteboardServer.getManagerClientUID()).getOut());
 	}
 
 	/**
 	 * This method is used to send message to a specific client.
 	 * 
+	 * @param opcode
 	 * @param eventString
 	 * @param out
 	 */
-	private void sendMessage(String eventString, BufferedWriter out) {
+	private void sendMessage(int opcode, String eventString, LaneWriter out) {
+		// Skipping detached sessions waiting to be resumed
+		if (Objects.isNull(out)) {
+			return;
+		}
+
 		try {
-			out.write(eventString + StringUtils.LF);
-			out.flush();
+			out.send(opcode, eventString);
+			serverMetrics.recordBytesOut(TypeConversionUtils.utf8Length(eventString) + 1L);
 		} catch (Exception e) {
 			LOGGER.error("Exception in sendMessage", e);
 		}
 	}
 
+	/**
+	 * This method is used to place an event in the order of the connection of a
+	 * specific client without writing it, under a lock held by the caller. The
+	 * event is sent with {@link #sendClaimedMessage(int, String, LaneWriter)} once
+	 * the lock is released.
+	 * 
+	 * @param opcode
+	 * @param eventString
+	 * @param out
+	 * @return the event if the connection is claimed for it, null if it is queued
+	 *         for the thread already writing
+	 */
+	private String claimMessage(int opcode, String eventString, LaneWriter out) {
+		// Skipping detached sessions waiting to be resumed
+		if (Objects.isNull(out)) {
+			return null;
+		}
+
+		String claimedEvent = null;
+		try {
+			if (out.claim(opcode, eventString)) {
+				claimedEvent = eventString;
+			}
+			serverMetrics.recordBytesOut(TypeConversionUtils.utf8Length(eventString) + 1L);
+		} catch (Exception e) {
+			LOGGER.error("Exception in claimMessage", e);
+		}
+		return claimedEvent;
+	}
+
+	/**
+	 * This method is used to place events in the order of the connection of a
+	 * specific client without writing them, as
+	 * {@link #claimMessage(int, String, LaneWriter)} does for a single event.
+	 * 
+	 * @param opcodes      the opcodes of the events, in the same order
+	 * @param eventStrings
+	 * @param out
+	 * @return the index of the event the connection is claimed for, -1 if every
+	 *         event is queued for the thread already writing
+	 */
+	private int claimMessages(List<Integer> opcodes, List<String> eventStrings, LaneWriter out) {
+		int claimedIndex = -1;
+		for (int i = 0; i < eventStrings.size(); i++) {
+			if (Objects.nonNull(claimMessage(opcodes.get(i), eventStrings.get(i), out))) {
+				claimedIndex = i;
+			}
+		}
+		return claimedIndex;
+	}
+
+	/**
+	 * This method is used to write the event a connection is claimed for, followed
+	 * by the events queued behind it.
+	 * 
+	 * @param opcode
+	 * @param eventString the claimed event, or null if none is claimed
+	 * @param out
+	 */
+	private void sendClaimedMessage(int opcode, String eventString, LaneWriter out) {
+		if (Objects.isNull(eventString)) {
+			return;
+		}
+
+		try {
+			out.sendClaimed(opcode, eventString);
+		} catch (Exception e) {
+			LOGGER.error("Exception in sendClaimedMessage", e);
+		}
+	}
+
+	/**
+	 * This method is used to write the event claimed by
+	 * {@link #claimMessages(List, List, LaneWriter)}, followed by the events
+	 * queued behind it.
+	 * 
+	 * @param claimedIndex the index of the claimed event, or -1 if none is claimed
+	 * @param opcodes
+	 * @param eventStrings
+	 * @param out
+	 */
+	private void sendClaimedMessages(int claimedIndex, List<Integer> opcodes, List<String> eventStrings,
+			LaneWriter out) {
+		if (claimedIndex >= 0) {
+			sendClaimedMessage(opcodes.get(claimedIndex), eventStrings.get(claimedIndex), out);
+		}
+	}
+
 	/**
 	 * This method is used to send an event to all clients except the one triggering
 	 * the event to stop duplication.
 	 * 
+	 * @param opcode
+	 * @param eventString
+	 */
+	private void handleBroadcastMessages(int opcode, String eventString) {
+		broadcast(opcode, eventString, null);
+	}
+
+	/**
+	 * This method is used to send an event string, or the event of a frame if the
+	 * string is null, to all clients except the one triggering the event.
+	 * 
+	 * @param opcode
 	 * @param eventString
+	 * @param frame
 	 */
-	private void handleBroadcastMessages(String eventString) {
-		// Iterating over the client info map
-		for (Map.Entry<Long, UserDto> entry : whiteboardServer.getClientInfoMap().entrySet()) {
-			// Checking if the iterated user is not itself
-			if (!entry.getKey().equals(clientUID)) {
-				try {
-					LOGGER.info("Sending event to {}", entry.getKey());
-					entry.getValue().getOut().write(eventString + StringUtils.LF);
-					entry.getValue().getOut().flush();
-				} catch (Exception e) {
-					LOGGER.error("Exception while sending request to client {}", entry.getKey(), e);
+	private void broadcast(int opcode, String eventString, MessageFrame frame) {
+		claimRecipients(opcode, eventString, frame, 0);
+		sendToRecipients(opcode, eventString, frame);
+	}
+
+	/**
+	 * This method is used to place an event string, or the event of a frame if the
+	 * string is null, in the order of the connection of every client except the
+	 * one triggering the event, without writing it. The sender is placed an ack of
+	 * the sequence instead, if the event is sequenced. The event is written with
+	 * {@link #sendToRecipients(int, String, MessageFrame)}.
+	 * 
+	 * @implNote A connection nothing else is being written to is claimed, and the
+	 *           event is written to it afterwards without copying it. Otherwise
+	 *           the event is queued for the thread already writing, so claiming
+	 *           never blocks on a slow client.
+	 * 
+	 * @param opcode
+	 * @param eventString
+	 * @param frame
+	 * @param sequence    the sequence of the event, 0 if it is not sequenced
+	 */
+	private void claimRecipients(int opcode, String eventString, MessageFrame frame, long sequence) {
+		claimedBytes = Objects.nonNull(eventString) ? TypeConversionUtils.utf8Length(eventString) : frame.utf8Length();
+
+		// Iterating over the sessions of the client info map
+		for (ClientSession session : whiteboardServer.getClientInfoMap().sessions()) {
+			// Skipping detached sessions waiting to be resumed
+			LaneWriter out = session.getOut();
+			if (Objects.isNull(out)) {
+				continue;
+			}
+
+			try {
+				if (session.getClientUID().equals(clientUID)) {
+					// Acknowledging the sequence to the client triggering the event
+					if (IS_SEQUENCE_ACK && sequence > 0 && claimAck(out, sequence)) {
+						claimedAckWriter = out;
+					}
+				} else if (Objects.nonNull(eventString) ? out.claim(opcode, eventString) : out.claim(opcode, frame)) {
+					claimedWriters.add(out);
+					claimedSessions.add(session);
+				} else {
+					// The thread writing to the client sends the queued event
+					session.setLastWriteAt(System.currentTimeMillis());
+					serverMetrics.recordBytesOut(claimedBytes + 1L);
+					queuedRecipientCount++;
 				}
+			} catch (Exception e) {
+				LOGGER.error("Exception while sending request to client {}", session.getClientUID(), e);
 			}
 		}
 	}
+
+	/**
+	 * This method is used to place the ack of a sequence in the order of the
+	 * connection of the client triggering the event.
+	 * 
+	 * @param out
+	 * @param sequence
+	 * @return true if the connection is claimed for the ack
+	 */
+	private boolean claimAck(LaneWriter out, long sequence) {
+		ackFrame.setContent(SEQUENCE_ACK_EVENT);
+		ackDecoder.decode(ackFrame);
+		ackFrame.appendSequence(sequence);
+		return out.claim(ProtocolConstants.OP_SEQUENCE_ACK, ackFrame);
+	}
+
+	/**
+	 * This method is used to write an event string, or the event of a frame if the
+	 * string is null, to the connections claimed for it, followed by the events
+	 * queued behind it.
+	 * 
+	 * @param opcode
+	 * @param eventString
+	 * @param frame
+	 */
+	private void sendToRecipients(int opcode, String eventString, MessageFrame frame) {
+		BroadcastEvent broadcastEvent = new BroadcastEvent();
+		broadcastEvent.begin();
+		long startTime = System.nanoTime();
+		int recipientCount = queuedRecipientCount;
+
+		// Writing to every claimed connection, each of which has to be written to
+		// so that it is released
+		for (int i = 0; i < claimedWriters.size(); i++) {
+			ClientSession session = claimedSessions.get(i);
+			serverMetrics.beginWrite(session.getClientUID());
+			try {
+				LOGGER.debug("Sending event to {}", session.getClientUID());
+
+				// Sending the event on its lane of the connection
+				if (Objects.nonNull(eventString)) {
+					claimedWriters.get(i).sendClaimed(opcode, eventString);
+				} else {
+					claimedWriters.get(i).sendClaimed(opcode, frame);
+				}
+				session.setLastWriteAt(System.currentTimeMillis());
+				serverMetrics.recordBytesOut(claimedBytes + 1L);
+				recipientCount++;
+			} catch (Exception e) {
+				LOGGER.error("Exception while sending request to client {}", session.getClientUID(), e);
+			} finally {
+				serverMetrics.endWrite(session.getClientUID());
+			}
+		}
+		if (Objects.nonNull(claimedAckWriter)) {
+			try {
+				claimedAckWriter.sendClaimed(ProtocolConstants.OP_SEQUENCE_ACK, ackFrame);
+			} catch (Exception e) {
+				LOGGER.error("Exception while sending sequence ack to client {}", clientUID, e);
+			}
+		}
+		claimedWriters.clear();
+		claimedSessions.clear();
+		queuedRecipientCount = 0;
+		claimedAckWriter = null;
+		serverMetrics.recordRelayed(opcode);
+		serverMetrics.recordBroadcast(System.nanoTime() - startTime);
+
+		broadcastEvent.end();
+		if (broadcastEvent.shouldCommit()) {
+			broadcastEvent.action = Opcodes.actionName(opcode);
+			broadcastEvent.payloadSize = claimedBytes;
+			broadcastEvent.recipientCount = recipientCount;
+			broadcastEvent.commit();
+		}
+	}
+
+	/**
+	 * This interface is used for the handlers of the admin events, which are
+	 * registered once for every handler of the server.
+	 * 
+	 * @author Abhijeet - 1278218
+	 * 
+	 */
+	@FunctionalInterface
+	private interface AdminHandler {
+
+		/**
+		 * This method is used to handle an admin event received on the connection of
+		 * the given handler.
+		 * 
+		 * @param handler
+		 * @param request
+		 * @param in
+		 * @param out
+		 */
+		void handle(WhiteboardHandler handler, ActionMessageDto request, BufferedReader in, LaneWriter out);
+	}
 }
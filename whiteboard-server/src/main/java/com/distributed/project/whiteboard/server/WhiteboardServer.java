@@ -1,12 +1,16 @@
 package com.distributed.project.whiteboard.server;
 
+import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -18,7 +22,17 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.distributed.project.whiteboard.server.dto.UserDto;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.distributed.project.whiteboard.protocol.utils.TypeConversionUtils;
+import com.distributed.project.whiteboard.server.board.BoardHistory;
+import com.distributed.project.whiteboard.server.capture.TrafficRecorder;
+import com.distributed.project.whiteboard.server.dto.ClientSession;
+import com.distributed.project.whiteboard.server.limit.RateLimiter;
+import com.distributed.project.whiteboard.server.metrics.PrometheusEndpoint;
+import com.distributed.project.whiteboard.server.metrics.ServerMetrics;
+import com.distributed.project.whiteboard.server.outbound.OutboundBatcher;
+import com.distributed.project.whiteboard.server.presence.PresenceTracker;
+import com.distributed.project.whiteboard.server.utils.Constants;
 
 /**
  * This class is used to intialize the UI and the server which waits for clients
@@ -33,14 +47,53 @@ public class WhiteboardServer {
 	private static final Logger LOGGER = LoggerFactory.getLogger(WhiteboardServer.class);
 
 	// To track active clients
-	private Map<Long, UserDto> clientInfoMap = new ConcurrentHashMap<>();
+	private ClientSessionMap clientInfoMap = new ClientSessionMap();
 
 	// To track unverified clients
-	private Map<Long, UserDto> unverifiedClients = new ConcurrentHashMap<>();
+	private Map<Long, ClientSession> unverifiedClients = new ConcurrentHashMap<>();
 
 	// Track manager client id
 	private AtomicLong managerClientUID;
 
+	// Version of the members, incremented on every join and leave
+	private AtomicLong membershipVersion = new AtomicLong();
+
+	// Lock ordering the membership changes with the events sent for them
+	private final Object membershipLock = new Object();
+
+	// Sequenced history of the board events
+	private BoardHistory boardHistory = new BoardHistory(
+			Integer.getInteger(Constants.PROP_HISTORY_CAPACITY, Constants.DEFAULT_HISTORY_CAPACITY));
+
+	// Metrics published over JMX and the local metrics endpoint
+	private ServerMetrics serverMetrics = new ServerMetrics(this);
+
+	// Latest cursors of the members, sent to the clients at the presence tick
+	private PresenceTracker presenceTracker = new PresenceTracker(this);
+
+	// Recorder of the inbound traffic, null unless a capture file is configured
+	private TrafficRecorder trafficRecorder;
+
+	// Sender of the batched events, null unless an outbound batch tick is configured
+	private OutboundBatcher outboundBatcher;
+
+	// Limits on the events fanned out, null unless a rate limit is configured
+	private RateLimiter rateLimiter;
+
+	// Threads writing the bulk transfers and the posted events of the connections,
+	// such as images and cursors. The pool and its queue are bounded, a connection
+	// whose transfer is rejected writes it on its own thread instead
+	private ExecutorService bulkExecutor = createBulkExecutor();
+
+	// Threads of the periodic tasks, shut down with the server
+	private ScheduledExecutorService sessionSweeper;
+	private ScheduledExecutorService presenceTicker;
+	private ScheduledExecutorService batchTicker;
+
+	// Threads sending the batches of the connections, at most one per connection
+	// is queued at a time
+	private ExecutorService flushExecutor;
+
 	public static void main(String[] args) {
 		try {
 			// Creating an instance of the whiteboard server
@@ -61,6 +114,19 @@ public class WhiteboardServer {
 		}
 	}
 
+	/**
+	 * This method is used to create the bounded pool writing the bulk transfers.
+	 *
+	 * @return the executor
+	 */
+	private static ExecutorService createBulkExecutor() {
+		int bulkThreads = Integer.getInteger(Constants.PROP_BULK_THREADS, Constants.DEFAULT_BULK_THREADS);
+		ThreadPoolExecutor bulkExecutor = new ThreadPoolExecutor(bulkThreads, bulkThreads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(Constants.BULK_QUEUE_SIZE), new ThreadPoolExecutor.AbortPolicy());
+		bulkExecutor.allowCoreThreadTimeOut(true);
+		return bulkExecutor;
+	}
+
 	/**
 	 * This method is used to open a server socket and wait for client connections.
 	 * Once client gets connected, then it assigns the client to particular thread
@@ -69,9 +135,59 @@ public class WhiteboardServer {
 	 * @param port
 	 */
 	private void serverConfigurations(int port) {
-		// Creating an executor service to assign threads to different clients
-		ExecutorService executorService = new ThreadPoolExecutor(5, 10, 100, TimeUnit.MILLISECONDS,
-				new ArrayBlockingQueue<>(5), new ThreadPoolExecutor.CallerRunsPolicy());
+		// Creating an executor service to assign threads to different clients. Every
+		// connected client holds a thread, so the core size is the number of clients
+		// served at once, clients beyond it wait in the queue
+		int handlerThreads = Integer.getInteger(Constants.PROP_HANDLER_THREADS, Constants.DEFAULT_HANDLER_THREADS);
+		ThreadPoolExecutor executorService = new ThreadPoolExecutor(handlerThreads, handlerThreads, 100,
+				TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(5), new ThreadPoolExecutor.CallerRunsPolicy());
+		executorService.allowCoreThreadTimeOut(true);
+
+		// Publishing the metrics over JMX and on the local port unless it is negative
+		serverMetrics.registerMBean();
+		int metricsPort = Integer.getInteger(Constants.PROP_METRICS_PORT, Constants.DEFAULT_METRICS_PORT);
+		if (metricsPort >= 0) {
+			new PrometheusEndpoint(serverMetrics).start(metricsPort);
+		}
+
+		// Recording the inbound traffic if a capture file is configured
+		String captureFile = System.getProperty(Constants.PROP_CAPTURE_FILE);
+		if (StringUtils.isNotBlank(captureFile)) {
+			try {
+				trafficRecorder = new TrafficRecorder(captureFile);
+				Runtime.getRuntime().addShutdownHook(new Thread(trafficRecorder::close));
+			} catch (IOException e) {
+				LOGGER.error("Unable to create capture file {}, traffic is not recorded", captureFile, e);
+			}
+		}
+
+		// Sweeping the sessions periodically for heartbeats and eviction
+		sessionSweeper = Executors.newSingleThreadScheduledExecutor();
+		sessionSweeper.scheduleWithFixedDelay(new SessionReaper(this), Constants.SESSION_SWEEP_INTERVAL_MS,
+				Constants.SESSION_SWEEP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+		// Sending the coalesced cursors at a fixed tick, on its own thread so that a
+		// slow sweep does not delay them
+		if (TypeConversionUtils.getCodecVersion() >= ProtocolConstants.PRESENCE_CODEC_VERSION) {
+			long presenceTick = Long.getLong(Constants.PROP_PRESENCE_TICK_MS, Constants.DEFAULT_PRESENCE_TICK_MS);
+			presenceTicker = Executors.newSingleThreadScheduledExecutor();
+			presenceTicker.scheduleAtFixedRate(presenceTracker, presenceTick, presenceTick, TimeUnit.MILLISECONDS);
+		}
+
+		// Sending the events written to each client once per tick if a tick is
+		// configured, instead of flushing every event as it is written
+		long batchTick = Long.getLong(Constants.PROP_OUTBOUND_BATCH_TICK_MS, Constants.DEFAULT_OUTBOUND_BATCH_TICK_MS);
+		if (batchTick > 0) {
+			int flushThreads = Integer.getInteger(Constants.PROP_OUTBOUND_FLUSH_THREADS,
+					Constants.DEFAULT_OUTBOUND_FLUSH_THREADS);
+			flushExecutor = Executors.newFixedThreadPool(flushThreads);
+			outboundBatcher = new OutboundBatcher(serverMetrics, flushExecutor);
+			batchTicker = Executors.newSingleThreadScheduledExecutor();
+			batchTicker.scheduleAtFixedRate(outboundBatcher, batchTick, batchTick, TimeUnit.MILLISECONDS);
+		}
+
+		// Limiting the events fanned out by each client and the board if configured
+		rateLimiter = RateLimiter.fromProperties();
 
 		// Client socket initialization
 		Socket clientSocket = null;
@@ -102,7 +218,24 @@ public class WhiteboardServer {
 			}
 		} catch (Exception e) {
 			LOGGER.error("Exception in serverConfiguration", e);
+		} finally {
+			// Stopping the periodic tasks, which would keep the process running
+			shutdown();
+		}
+	}
+
+	/**
+	 * This method is used to stop the periodic tasks and the writer pool of the
+	 * server once it stops accepting connections.
+	 */
+	public void shutdown() {
+		for (ExecutorService executor : Arrays.asList(sessionSweeper, presenceTicker, batchTicker,
+				flushExecutor)) {
+			if (Objects.nonNull(executor)) {
+				executor.shutdownNow();
+			}
 		}
+		bulkExecutor.shutdown();
 	}
 
 	/**
@@ -110,7 +243,7 @@ public class WhiteboardServer {
 	 * 
 	 * @return
 	 */
-	public Map<Long, UserDto> getClientInfoMap() {
+	public ClientSessionMap getClientInfoMap() {
 		return clientInfoMap;
 	}
 
@@ -119,10 +252,113 @@ public class WhiteboardServer {
 	 * 
 	 * @return
 	 */
-	public Map<Long, UserDto> getUnverifiedClients() {
+	public Map<Long, ClientSession> getUnverifiedClients() {
 		return unverifiedClients;
 	}
 
+	/**
+	 * This method is used to fetch the sequenced history of the board events.
+	 * 
+	 * @return
+	 */
+	public BoardHistory getBoardHistory() {
+		return boardHistory;
+	}
+
+	/**
+	 * This method is used to fetch the metrics of the server.
+	 * 
+	 * @return
+	 */
+	public ServerMetrics getServerMetrics() {
+		return serverMetrics;
+	}
+
+	/**
+	 * This method is used to fetch the tracker of the cursors of the members.
+	 * 
+	 * @return
+	 */
+	public PresenceTracker getPresenceTracker() {
+		return presenceTracker;
+	}
+
+	/**
+	 * This method is used to fetch the sender of the batched events.
+	 * 
+	 * @return the batcher, or null if every event is sent as it is written
+	 */
+	public OutboundBatcher getOutboundBatcher() {
+		return outboundBatcher;
+	}
+
+	/**
+	 * This method is used to fetch the limits on the events fanned out.
+	 * 
+	 * @return the limiter, or null if the events are not limited
+	 */
+	public RateLimiter getRateLimiter() {
+		return rateLimiter;
+	}
+
+	/**
+	 * This method is used to set the limits on the events fanned out, before the
+	 * handlers of the connections are created.
+	 * 
+	 * @param rateLimiter
+	 */
+	public void setRateLimiter(RateLimiter rateLimiter) {
+		this.rateLimiter = rateLimiter;
+	}
+
+	/**
+	 * This method is used to fetch the executor writing the bulk transfers of the
+	 * connections.
+	 * 
+	 * @return
+	 */
+	public ExecutorService getBulkExecutor() {
+		return bulkExecutor;
+	}
+
+	/**
+	 * This method is used to fetch the recorder of the inbound traffic.
+	 * 
+	 * @return the recorder, or null if traffic is not recorded
+	 */
+	public TrafficRecorder getTrafficRecorder() {
+		return trafficRecorder;
+	}
+
+	/**
+	 * This method is used to fetch the lock held while the members are changed
+	 * and the event of the change is sent, so that clients receive the membership
+	 * versions in order.
+	 * 
+	 * @return
+	 */
+	public Object getMembershipLock() {
+		return membershipLock;
+	}
+
+	/**
+	 * This method is used to increment the membership version on a join or leave.
+	 * 
+	 * @return the version of the change
+	 */
+	public long nextMembershipVersion() {
+		return membershipVersion.incrementAndGet();
+	}
+
+	/**
+	 * This method is used to fetch the membership version of the current members.
+	 * 
+	 * @return
+	 */
+	public long getMembershipVersion() {
+		return membershipVersion.get();
+	}
+
 	/**
 	 * This method is used to fetch the manager client UID.
 	 * 
@@ -0,0 +1,190 @@
+package com.distributed.project.whiteboard.server.board;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.frame.MessageFrame;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.distributed.project.whiteboard.protocol.utils.TypeConversionUtils;
+
+/**
+ * This class is used to stamp board events with a monotonic sequence number and
+ * retain the most recent ones, so that a client can be sent every event after a
+ * sequence number it already has instead of the whole board.
+ * 
+ * @implNote Events are compacted away once the capacity is reached. Clearing
+ *           the board or loading a new image on it drops every earlier event,
+ *           since they are no longer needed to rebuild the board.
+ * 
+ * @implNote Events are retained as characters in a ring of slots which are
+ *           reused once the oldest event is compacted, so retaining an event
+ *           read into a {@link MessageFrame} allocates nothing. Slots grown by a
+ *           large event, such as an image of the board, are not reused.
+ * 
+ * @implNote The methods are synchronized, and callers which need events to be
+ *           sent in sequence order hold the lock of the history while sending.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class BoardHistory {
+
+	// Slots are sized to powers of two from this size, so most draw events fit in
+	// a reused slot, and slots of events up to the maximum size are reused
+	private static final int MIN_SLOT_LENGTH = 256;
+	private static final int MAX_REUSED_SLOT_LENGTH = 16 * 1024;
+
+	private final int capacity;
+
+	// Serialized events retained in sequence order, from the head of the ring
+	private final char[][] slots;
+	private final int[] slotLengths;
+	private final int[] slotOpcodes;
+	private int head = 0;
+	private int size = 0;
+
+	// Sequence number of the oldest retained event
+	private long firstSequence = 1;
+
+	// Sequence number of the latest event
+	private long lastSequence = 0;
+
+	/**
+	 * This constructor is used to initialize the number of events retained.
+	 * 
+	 * @param capacity
+	 */
+	public BoardHistory(int capacity) {
+		this.capacity = capacity;
+		this.slots = new char[capacity][];
+		this.slotLengths = new int[capacity];
+		this.slotOpcodes = new int[capacity];
+	}
+
+	/**
+	 * This method is used to stamp the next sequence number on the event and
+	 * retain it.
+	 * 
+	 * @param event
+	 * @return the serialized event to be sent to the clients
+	 */
+	public synchronized String append(ActionMessageDto event) {
+		event.setSequence(++lastSequence);
+		String eventString = TypeConversionUtils.convertObjectToString(event);
+		eventString.getChars(0, eventString.length(), nextSlot(event.getOpcode(), eventString.length()), 0);
+		return eventString;
+	}
+
+	/**
+	 * This method is used to stamp the next sequence number on an event relayed
+	 * as received from the client and retain it.
+	 * 
+	 * @param opcode
+	 * @param eventString
+	 * @return the serialized event to be sent to the clients
+	 */
+	public synchronized String append(int opcode, String eventString) {
+		String sequencedEvent = TypeConversionUtils.appendSequence(eventString, ++lastSequence);
+		sequencedEvent.getChars(0, sequencedEvent.length(), nextSlot(opcode, sequencedEvent.length()), 0);
+		return sequencedEvent;
+	}
+
+	/**
+	 * This method is used to stamp the next sequence number on an event read into
+	 * a frame and retain it, without creating a string. The frame holds the
+	 * sequenced event to be sent to the clients afterwards.
+	 * 
+	 * @param opcode
+	 * @param frame
+	 */
+	public synchronized void append(int opcode, MessageFrame frame) {
+		frame.appendSequence(++lastSequence);
+		frame.copyTo(nextSlot(opcode, frame.length()));
+	}
+
+	/**
+	 * This method is used to fetch the slot for an event stamped with the latest
+	 * sequence number, compacting the oldest event if the capacity is reached.
+	 * 
+	 * @param opcode
+	 * @param length
+	 * @return the slot, which holds at least the given number of characters
+	 */
+	private char[] nextSlot(int opcode, int length) {
+		// Dropping the earlier events if the board has been replaced
+		if (opcode == ProtocolConstants.OP_CLEAR || opcode == ProtocolConstants.OP_LOAD_IMAGE) {
+			head = 0;
+			size = 0;
+			firstSequence = lastSequence;
+		}
+
+		// Compacting the oldest event once the capacity is reached
+		if (size == capacity) {
+			head = (head + 1) % capacity;
+			size--;
+			firstSequence++;
+		}
+
+		int index = (head + size) % capacity;
+		char[] slot = slots[index];
+		if (slot == null || slot.length < length || slot.length > Math.max(length, MAX_REUSED_SLOT_LENGTH)) {
+			slot = new char[length > MAX_REUSED_SLOT_LENGTH ? length
+					: Math.max(MIN_SLOT_LENGTH, Integer.highestOneBit(length - 1) << 1)];
+			slots[index] = slot;
+		}
+		slotLengths[index] = length;
+		slotOpcodes[index] = opcode;
+		size++;
+		return slot;
+	}
+
+	/**
+	 * This method is used to fetch the serialized events after the given sequence
+	 * number.
+	 * 
+	 * @param sequence
+	 * @return the events in sequence order, or null if some of them have been
+	 *         compacted away or the sequence number was never issued
+	 */
+	public List<String> eventsAfter(long sequence) {
+		return eventsAfter(sequence, null);
+	}
+
+	/**
+	 * This method is used to fetch the serialized events after the given sequence
+	 * number along with their opcodes, so they can be sent without reading the
+	 * opcode back from each event.
+	 * 
+	 * @param sequence
+	 * @param opcodes  the list the opcodes of the events are added to, in the
+	 *                 same order, or null if they are not needed
+	 * @return the events in sequence order, or null if some of them have been
+	 *         compacted away or the sequence number was never issued
+	 */
+	public synchronized List<String> eventsAfter(long sequence, List<Integer> opcodes) {
+		if (sequence < firstSequence - 1 || sequence > lastSequence) {
+			return null;
+		}
+
+		// Skipping the events the client already has
+		List<String> delta = new ArrayList<>();
+		for (int offset = (int) (sequence - firstSequence + 1); offset < size; offset++) {
+			int index = (head + offset) % capacity;
+			delta.add(new String(slots[index], 0, slotLengths[index]));
+			if (opcodes != null) {
+				opcodes.add(slotOpcodes[index]);
+			}
+		}
+		return delta;
+	}
+
+	/**
+	 * This method is used to fetch the sequence number of the latest event.
+	 * 
+	 * @return
+	 */
+	public synchronized long getLastSequence() {
+		return lastSequence;
+	}
+}
@@ -0,0 +1,71 @@
+package com.distributed.project.whiteboard.server.capture;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * This class is used to define the binary format of a traffic capture file.
+ * 
+ * @implNote The file starts with a header holding the magic number, the format
+ *           version and the wall clock time the capture started at. It is
+ *           followed by the records, each holding the record type, the
+ *           microseconds since the previous record and the connection id. Frame
+ *           records also hold the length and the UTF-8 bytes of the frame.
+ * 
+ * @implNote Numbers in the records are written as variable length integers of
+ *           seven bits per byte, so the small time deltas and lengths of a
+ *           session take a byte or two each.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public final class CaptureFormat {
+
+	public static final int MAGIC = 0x57424350;
+	public static final short VERSION = 1;
+
+	public static final byte TYPE_CONNECT = 1;
+	public static final byte TYPE_FRAME = 2;
+	public static final byte TYPE_DISCONNECT = 3;
+
+	private CaptureFormat() {
+		throw new IllegalStateException("CaptureFormat class cannot be instantiated");
+	}
+
+	/**
+	 * This method is used to write a non negative number as a variable length
+	 * integer.
+	 * 
+	 * @param out
+	 * @param value
+	 * @throws IOException
+	 */
+	public static void writeVarLong(DataOutput out, long value) throws IOException {
+		long remaining = value;
+		while ((remaining & ~0x7FL) != 0) {
+			out.writeByte((int) ((remaining & 0x7F) | 0x80));
+			remaining >>>= 7;
+		}
+		out.writeByte((int) remaining);
+	}
+
+	/**
+	 * This method is used to read a variable length integer.
+	 * 
+	 * @param in
+	 * @return
+	 * @throws IOException
+	 */
+	public static long readVarLong(DataInput in) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte nextByte = in.readByte();
+			value |= (long) (nextByte & 0x7F) << shift;
+			if ((nextByte & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed variable length integer in capture");
+	}
+}
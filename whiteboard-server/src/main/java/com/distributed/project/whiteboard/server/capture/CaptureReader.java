@@ -0,0 +1,82 @@
+package com.distributed.project.whiteboard.server.capture;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class is used to read the records of a capture file written by
+ * {@link TrafficRecorder} one after another.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class CaptureReader implements Closeable {
+
+	private final DataInputStream in;
+	private final long startTimeMillis;
+	private long timestampMicros;
+
+	/**
+	 * This constructor is used to open the capture file and read its header.
+	 * 
+	 * @param captureFile
+	 * @throws IOException
+	 */
+	public CaptureReader(String captureFile) throws IOException {
+		this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(captureFile)));
+		if (in.readInt() != CaptureFormat.MAGIC) {
+			in.close();
+			throw new IOException(captureFile + " is not a whiteboard capture file");
+		}
+		short version = in.readShort();
+		if (version != CaptureFormat.VERSION) {
+			in.close();
+			throw new IOException("Unsupported capture version " + version);
+		}
+		this.startTimeMillis = in.readLong();
+	}
+
+	/**
+	 * This method is used to fetch the wall clock time the capture started at.
+	 * 
+	 * @return
+	 */
+	public long getStartTimeMillis() {
+		return startTimeMillis;
+	}
+
+	/**
+	 * This method is used to read the next record.
+	 * 
+	 * @return the record, or null at the end of the capture
+	 * @throws IOException
+	 */
+	public CaptureRecord next() throws IOException {
+		byte type;
+		try {
+			type = in.readByte();
+		} catch (EOFException e) {
+			return null;
+		}
+
+		timestampMicros += CaptureFormat.readVarLong(in);
+		long connectionId = CaptureFormat.readVarLong(in);
+		String frame = null;
+		if (type == CaptureFormat.TYPE_FRAME) {
+			byte[] frameBytes = new byte[(int) CaptureFormat.readVarLong(in)];
+			in.readFully(frameBytes);
+			frame = new String(frameBytes, StandardCharsets.UTF_8);
+		}
+		return new CaptureRecord(type, timestampMicros, connectionId, frame);
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+}
@@ -0,0 +1,69 @@
+package com.distributed.project.whiteboard.server.capture;
+
+/**
+ * This class is used to hold a record read from a traffic capture file.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class CaptureRecord {
+
+	private final byte type;
+	private final long timestampMicros;
+	private final long connectionId;
+	private final String frame;
+
+	/**
+	 * This constructor is used to initialize the record.
+	 * 
+	 * @param type
+	 * @param timestampMicros
+	 * @param connectionId
+	 * @param frame
+	 */
+	public CaptureRecord(byte type, long timestampMicros, long connectionId, String frame) {
+		this.type = type;
+		this.timestampMicros = timestampMicros;
+		this.connectionId = connectionId;
+		this.frame = frame;
+	}
+
+	/**
+	 * This method is used to fetch the type of the record, one of the types in
+	 * {@link CaptureFormat}.
+	 * 
+	 * @return
+	 */
+	public byte getType() {
+		return type;
+	}
+
+	/**
+	 * This method is used to fetch the microseconds since the capture started.
+	 * 
+	 * @return
+	 */
+	public long getTimestampMicros() {
+		return timestampMicros;
+	}
+
+	/**
+	 * This method is used to fetch the id of the connection, which is the UID the
+	 * server assigned to it.
+	 * 
+	 * @return
+	 */
+	public long getConnectionId() {
+		return connectionId;
+	}
+
+	/**
+	 * This method is used to fetch the frame received, null unless it is a frame
+	 * record.
+	 * 
+	 * @return
+	 */
+	public String getFrame() {
+		return frame;
+	}
+}
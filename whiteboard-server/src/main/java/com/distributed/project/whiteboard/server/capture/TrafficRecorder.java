@@ -0,0 +1,124 @@
+package com.distributed.project.whiteboard.server.capture;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class is used to record every frame received by the server, along with
+ * the connections opening and closing, to a capture file which can be replayed
+ * against a server later.
+ * 
+ * @implNote The handler threads record concurrently, so the methods are
+ *           synchronized and the records are written in the order they are
+ *           recorded. Recording stops at the first write error so that a full
+ *           disk does not affect the session.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class TrafficRecorder implements Closeable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(TrafficRecorder.class);
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final DataOutputStream out;
+	private final long startNanos;
+	private long lastMicros;
+	private boolean isClosed;
+
+	/**
+	 * This constructor is used to create the capture file and write its header.
+	 * 
+	 * @param captureFile
+	 * @throws IOException
+	 */
+	public TrafficRecorder(String captureFile) throws IOException {
+		this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(captureFile), BUFFER_SIZE));
+		this.startNanos = System.nanoTime();
+		out.writeInt(CaptureFormat.MAGIC);
+		out.writeShort(CaptureFormat.VERSION);
+		out.writeLong(System.currentTimeMillis());
+		LOGGER.info("Recording traffic to {}", captureFile);
+	}
+
+	/**
+	 * This method is used to record a connection being opened.
+	 * 
+	 * @param connectionId
+	 */
+	public void connectionOpened(long connectionId) {
+		record(CaptureFormat.TYPE_CONNECT, connectionId, null);
+	}
+
+	/**
+	 * This method is used to record a frame received on a connection.
+	 * 
+	 * @param connectionId
+	 * @param frame
+	 */
+	public void frameReceived(long connectionId, String frame) {
+		record(CaptureFormat.TYPE_FRAME, connectionId, frame);
+	}
+
+	/**
+	 * This method is used to record a connection being closed.
+	 * 
+	 * @param connectionId
+	 */
+	public void connectionClosed(long connectionId) {
+		record(CaptureFormat.TYPE_DISCONNECT, connectionId, null);
+	}
+
+	/**
+	 * This method is used to flush the recorded traffic and close the capture file.
+	 */
+	@Override
+	public synchronized void close() {
+		if (isClosed) {
+			return;
+		}
+		isClosed = true;
+		try {
+			out.close();
+		} catch (IOException e) {
+			LOGGER.error("Unable to close the capture file", e);
+		}
+	}
+
+	/**
+	 * This method is used to write a record with the time since the previous one.
+	 * 
+	 * @param type
+	 * @param connectionId
+	 * @param frame
+	 */
+	private synchronized void record(byte type, long connectionId, String frame) {
+		if (isClosed) {
+			return;
+		}
+		try {
+			long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+			out.writeByte(type);
+			CaptureFormat.writeVarLong(out, micros - lastMicros);
+			CaptureFormat.writeVarLong(out, connectionId);
+			if (type == CaptureFormat.TYPE_FRAME) {
+				byte[] frameBytes = frame.getBytes(StandardCharsets.UTF_8);
+				CaptureFormat.writeVarLong(out, frameBytes.length);
+				out.write(frameBytes);
+			}
+			lastMicros = micros;
+		} catch (IOException e) {
+			LOGGER.error("Unable to write to the capture file, recording stopped", e);
+			close();
+		}
+	}
+}
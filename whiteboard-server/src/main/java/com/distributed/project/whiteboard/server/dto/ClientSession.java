@@ -0,0 +1,86 @@
+package com.distributed.project.whiteboard.server.dto;
+
+import java.io.BufferedReader;
+
+import com.distributed.project.whiteboard.protocol.dto.UserDto;
+import com.distributed.project.whiteboard.protocol.lane.LaneWriter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * This class is used to hold the connection and session state of a client,
+ * along with the user information shared with the other clients.
+ * 
+ * @implNote The session is sent to the clients as the user of the messages.
+ *           Only the fields of {@link UserDto} are written, the connection and
+ *           session state are ignored.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class ClientSession extends UserDto {
+
+	private static final long serialVersionUID = 4871625502871326054L;
+
+	@JsonIgnore
+	private transient volatile BufferedReader in;
+
+	@JsonIgnore
+	private transient volatile LaneWriter out;
+
+	@JsonIgnore
+	private String resumeToken;
+
+	@JsonIgnore
+	private volatile long detachedAt;
+
+	@JsonIgnore
+	private volatile long lastWriteAt;
+
+	public BufferedReader getIn() {
+		return in;
+	}
+
+	public void setIn(BufferedReader in) {
+		this.in = in;
+	}
+
+	public LaneWriter getOut() {
+		return out;
+	}
+
+	public void setOut(LaneWriter out) {
+		this.out = out;
+	}
+
+	public String getResumeToken() {
+		return resumeToken;
+	}
+
+	public void setResumeToken(String resumeToken) {
+		this.resumeToken = resumeToken;
+	}
+
+	public long getDetachedAt() {
+		return detachedAt;
+	}
+
+	public void setDetachedAt(long detachedAt) {
+		this.detachedAt = detachedAt;
+	}
+
+	public long getLastWriteAt() {
+		return lastWriteAt;
+	}
+
+	public void setLastWriteAt(long lastWriteAt) {
+		this.lastWriteAt = lastWriteAt;
+	}
+
+	public ClientSession(Long clientUID, String clientUserName, boolean isManager, BufferedReader in,
+			LaneWriter out) {
+		super(clientUID, clientUserName, isManager);
+		this.in = in;
+		this.out = out;
+	}
+
+}
@@ -0,0 +1,32 @@
+package com.distributed.project.whiteboard.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This class is used as a Java Flight Recorder event for the fan-out of a
+ * broadcast to every client.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+@Name("whiteboard.server.Broadcast")
+@Label("Broadcast")
+@Category({ "Whiteboard", "Server" })
+@Description("Fan-out of an event to the other clients")
+public class BroadcastEvent extends Event {
+
+	@Label("Action")
+	public String action;
+
+	@Label("Payload Size")
+	@DataAmount
+	public long payloadSize;
+
+	@Label("Recipients")
+	public int recipientCount;
+}
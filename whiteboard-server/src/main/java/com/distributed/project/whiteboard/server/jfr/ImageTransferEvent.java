@@ -0,0 +1,33 @@
+package com.distributed.project.whiteboard.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This class is used as a Java Flight Recorder event for relaying a board
+ * image loaded by the manager.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+@Name("whiteboard.server.ImageTransfer")
+@Label("Image Transfer")
+@Category({ "Whiteboard", "Server" })
+@Description("Relay of a board image to one or all clients")
+public class ImageTransferEvent extends Event {
+
+	@Label("Payload Size")
+	@DataAmount
+	public long payloadSize;
+
+	@Label("Targeted")
+	@Description("Whether the image was sent to a single user with the events after it")
+	public boolean targeted;
+
+	@Label("Delta Events")
+	public int deltaEventCount;
+}
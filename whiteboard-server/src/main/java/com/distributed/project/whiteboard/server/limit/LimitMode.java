@@ -0,0 +1,22 @@
+package com.distributed.project.whiteboard.server.limit;
+
+/**
+ * This enum is used to list how the server enforces the rate limits on a client
+ * sending more events than its limits or the limits of the board allow.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public enum LimitMode {
+
+	// Delaying the events of the client until the buckets have their tokens
+	THROTTLE,
+
+	// Merging the chunks of free hand strokes sent meanwhile into one event, and
+	// throttling the other events
+	COALESCE,
+
+	// Removing the client over its own limits from the board, the manager and
+	// clients over the limits of the board are throttled instead
+	DISCONNECT
+}
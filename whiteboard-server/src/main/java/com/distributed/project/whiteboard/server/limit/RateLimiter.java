@@ -0,0 +1,187 @@
+package com.distributed.project.whiteboard.server.limit;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.distributed.project.whiteboard.server.utils.Constants;
+
+/**
+ * This class is used to hold the token buckets limiting the events and bytes
+ * each client and the whole board fan out per second.
+ *
+ * @implNote An event takes one token from the event buckets and its length from
+ *           the byte buckets, of its client and of the board. A limit of 0 is
+ *           not enforced, and the limiter is only created if one of the limits
+ *           is configured.
+ *
+ * @implNote The buckets of a client are kept by its client UID, so a session
+ *           resumed on a new connection keeps its debt. They are removed once
+ *           the client leaves the board.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class RateLimiter {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(RateLimiter.class);
+
+	private final LimitMode limitMode;
+	private final long clientEventsPerSecond;
+	private final long clientBytesPerSecond;
+	private final long burstMillis;
+
+	// Buckets of the board, null if not limited
+	private final TokenBucket boardEvents;
+	private final TokenBucket boardBytes;
+
+	// Buckets of the clients, by client UID
+	private final ConcurrentMap<Long, TokenBucket> clientEvents = new ConcurrentHashMap<>();
+	private final ConcurrentMap<Long, TokenBucket> clientBytes = new ConcurrentHashMap<>();
+
+	/**
+	 * This constructor is used to initialize the limits of the clients and the
+	 * board, 0 for the ones not enforced.
+	 *
+	 * @param limitMode
+	 * @param clientEventsPerSecond
+	 * @param clientBytesPerSecond
+	 * @param boardEventsPerSecond
+	 * @param boardBytesPerSecond
+	 * @param burstMillis
+	 */
+	public RateLimiter(LimitMode limitMode, long clientEventsPerSecond, long clientBytesPerSecond,
+			long boardEventsPerSecond, long boardBytesPerSecond, long burstMillis) {
+		this.limitMode = limitMode;
+		this.clientEventsPerSecond = clientEventsPerSecond;
+		this.clientBytesPerSecond = clientBytesPerSecond;
+		this.burstMillis = burstMillis;
+		long nowNanos = System.nanoTime();
+		this.boardEvents = boardEventsPerSecond > 0 ? new TokenBucket(boardEventsPerSecond, burstMillis, nowNanos)
+				: null;
+		this.boardBytes = boardBytesPerSecond > 0 ? new TokenBucket(boardBytesPerSecond, burstMillis, nowNanos)
+				: null;
+	}
+
+	/**
+	 * This method is used to create the limiter from the system properties.
+	 *
+	 * @return the limiter, or null if no limit is configured
+	 */
+	public static RateLimiter fromProperties() {
+		long clientEventsPerSecond = Long.getLong(Constants.PROP_LIMIT_CLIENT_EVENTS, 0);
+		long clientBytesPerSecond = Long.getLong(Constants.PROP_LIMIT_CLIENT_BYTES, 0);
+		long boardEventsPerSecond = Long.getLong(Constants.PROP_LIMIT_BOARD_EVENTS, 0);
+		long boardBytesPerSecond = Long.getLong(Constants.PROP_LIMIT_BOARD_BYTES, 0);
+		if (clientEventsPerSecond <= 0 && clientBytesPerSecond <= 0 && boardEventsPerSecond <= 0
+				&& boardBytesPerSecond <= 0) {
+			return null;
+		}
+
+		String mode = System.getProperty(Constants.PROP_LIMIT_MODE, Constants.DEFAULT_LIMIT_MODE);
+		LimitMode limitMode;
+		try {
+			limitMode = LimitMode.valueOf(mode.toUpperCase());
+		} catch (IllegalArgumentException e) {
+			LOGGER.warn("Unknown rate limit mode {}, throttling instead", mode);
+			limitMode = LimitMode.THROTTLE;
+		}
+		LOGGER.info("Limiting clients to {} events/s and {} bytes/s, the board to {} events/s and {} bytes/s, by {}",
+				clientEventsPerSecond, clientBytesPerSecond, boardEventsPerSecond, boardBytesPerSecond, limitMode);
+		return new RateLimiter(limitMode, clientEventsPerSecond, clientBytesPerSecond, boardEventsPerSecond,
+				boardBytesPerSecond, Long.getLong(Constants.PROP_LIMIT_BURST_MS, Constants.DEFAULT_LIMIT_BURST_MS));
+	}
+
+	/**
+	 * This method is used to fetch the time the client has to wait before it can
+	 * fan out an event of the given length within every limit.
+	 *
+	 * @param clientUID
+	 * @param bytes
+	 * @return the nanoseconds to wait, 0 if the event is within the limits
+	 */
+	public long waitNanos(Long clientUID, long bytes) {
+		return Math.max(clientWaitNanos(clientUID, bytes), boardWaitNanos(bytes));
+	}
+
+	/**
+	 * This method is used to fetch the time the client has to wait before it can
+	 * fan out an event of the given length within its own limits.
+	 *
+	 * @param clientUID
+	 * @param bytes
+	 * @return the nanoseconds to wait, 0 if the event is within the limits of the
+	 *         client
+	 */
+	public long clientWaitNanos(Long clientUID, long bytes) {
+		long nowNanos = System.nanoTime();
+		return Math.max(waitNanos(clientEventsOf(clientUID, nowNanos), 1, nowNanos),
+				waitNanos(clientBytesOf(clientUID, nowNanos), bytes, nowNanos));
+	}
+
+	/**
+	 * This method is used to fetch the time any client has to wait before it can
+	 * fan out an event of the given length within the limits of the board.
+	 *
+	 * @param bytes
+	 * @return the nanoseconds to wait, 0 if the event is within the limits of the
+	 *         board
+	 */
+	public long boardWaitNanos(long bytes) {
+		long nowNanos = System.nanoTime();
+		return Math.max(waitNanos(boardEvents, 1, nowNanos), waitNanos(boardBytes, bytes, nowNanos));
+	}
+
+	/**
+	 * This method is used to take the tokens of an event fanned out by the client.
+	 *
+	 * @param clientUID
+	 * @param bytes
+	 */
+	public void take(Long clientUID, long bytes) {
+		long nowNanos = System.nanoTime();
+		take(clientEventsOf(clientUID, nowNanos), 1, nowNanos);
+		take(clientBytesOf(clientUID, nowNanos), bytes, nowNanos);
+		take(boardEvents, 1, nowNanos);
+		take(boardBytes, bytes, nowNanos);
+	}
+
+	/**
+	 * This method is used to remove the buckets of a client which left the board.
+	 *
+	 * @param clientUID
+	 */
+	public void removeClient(Long clientUID) {
+		clientEvents.remove(clientUID);
+		clientBytes.remove(clientUID);
+	}
+
+	public LimitMode getLimitMode() {
+		return limitMode;
+	}
+
+	private TokenBucket clientEventsOf(Long clientUID, long nowNanos) {
+		return clientEventsPerSecond <= 0 ? null
+				: clientEvents.computeIfAbsent(clientUID,
+						key -> new TokenBucket(clientEventsPerSecond, burstMillis, nowNanos));
+	}
+
+	private TokenBucket clientBytesOf(Long clientUID, long nowNanos) {
+		return clientBytesPerSecond <= 0 ? null
+				: clientBytes.computeIfAbsent(clientUID,
+						key -> new TokenBucket(clientBytesPerSecond, burstMillis, nowNanos));
+	}
+
+	private static long waitNanos(TokenBucket bucket, long amount, long nowNanos) {
+		return Objects.isNull(bucket) ? 0 : bucket.waitNanos(amount, nowNanos);
+	}
+
+	private static void take(TokenBucket bucket, long amount, long nowNanos) {
+		if (Objects.nonNull(bucket)) {
+			bucket.take(amount, nowNanos);
+		}
+	}
+}
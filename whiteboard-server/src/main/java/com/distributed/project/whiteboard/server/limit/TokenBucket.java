@@ -0,0 +1,72 @@
+package com.distributed.project.whiteboard.server.limit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is used to limit the rate of events or bytes, refilling tokens at
+ * a fixed rate up to the burst allowed.
+ *
+ * @implNote Tokens are taken even if there are not enough of them, so the
+ *           bucket can go into debt. The next amounts then wait for the debt to
+ *           be refilled, which spreads the wait of an amount larger than the
+ *           burst over the amounts after it.
+ *
+ * @implNote The time is passed in by the callers, as {@link System#nanoTime()},
+ *           so that the bucket can be tested without waiting.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class TokenBucket {
+
+	private final double tokensPerNano;
+	private final double capacity;
+	private double tokens;
+	private long refilledAt;
+
+	/**
+	 * This constructor is used to initialize a full bucket with its rate and the
+	 * burst allowed above it.
+	 *
+	 * @param tokensPerSecond
+	 * @param burstMillis     the time over which the rate is allowed to be spent
+	 *                        at once
+	 * @param nowNanos
+	 */
+	public TokenBucket(long tokensPerSecond, long burstMillis, long nowNanos) {
+		this.tokensPerNano = (double) tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+		this.capacity = Math.max(1, tokensPerSecond * burstMillis / 1000.0);
+		this.tokens = capacity;
+		this.refilledAt = nowNanos;
+	}
+
+	/**
+	 * This method is used to fetch the time to wait before the amount can be
+	 * taken without going into debt.
+	 *
+	 * @param amount
+	 * @param nowNanos
+	 * @return the nanoseconds to wait, 0 if the amount can be taken now
+	 */
+	public synchronized long waitNanos(long amount, long nowNanos) {
+		refill(nowNanos);
+		double missing = Math.min(amount, capacity) - tokens;
+		return missing <= 0 ? 0 : (long) Math.ceil(missing / tokensPerNano);
+	}
+
+	/**
+	 * This method is used to take the amount from the bucket.
+	 *
+	 * @param amount
+	 * @param nowNanos
+	 */
+	public synchronized void take(long amount, long nowNanos) {
+		refill(nowNanos);
+		tokens -= amount;
+	}
+
+	private void refill(long nowNanos) {
+		tokens = Math.min(capacity, tokens + (nowNanos - refilledAt) * tokensPerNano);
+		refilledAt = nowNanos;
+	}
+}
@@ -0,0 +1,112 @@
+package com.distributed.project.whiteboard.server.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class is used to record the distribution of values in buckets with
+ * power of two upper bounds. Recording is lock-free and does not allocate, so
+ * it can be used on the hot path of the handlers.
+ * 
+ * @implNote A value is counted in the first bucket whose upper bound is not
+ *           less than it, and values above the last bound are counted in an
+ *           overflow bucket.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class Histogram {
+
+	private final AtomicLongArray bucketCounts;
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+
+	/**
+	 * This constructor is used to initialize the histogram with buckets bounded by
+	 * 2^0 to 2^(bucketCount - 1) and an overflow bucket.
+	 * 
+	 * @param bucketCount
+	 */
+	public Histogram(int bucketCount) {
+		this.bucketCounts = new AtomicLongArray(bucketCount + 1);
+	}
+
+	/**
+	 * This method is used to record a value in the histogram.
+	 * 
+	 * @param value
+	 */
+	public void record(long value) {
+		// Index of the smallest power of two not less than the value
+		int index = value <= 1 ? 0 : 64 - Long.numberOfLeadingZeros(value - 1);
+		bucketCounts.incrementAndGet(Math.min(index, bucketCounts.length() - 1));
+		count.increment();
+		sum.add(value);
+	}
+
+	/**
+	 * This method is used to fetch the number of buckets including the overflow
+	 * bucket.
+	 * 
+	 * @return
+	 */
+	public int getBucketCount() {
+		return bucketCounts.length();
+	}
+
+	/**
+	 * This method is used to fetch the upper bound of a bucket, the overflow bucket
+	 * is unbounded.
+	 * 
+	 * @param index
+	 * @return
+	 */
+	public double getUpperBound(int index) {
+		return index == bucketCounts.length() - 1 ? Double.POSITIVE_INFINITY : (double) (1L << index);
+	}
+
+	/**
+	 * This method is used to fetch the number of values recorded in a bucket.
+	 * 
+	 * @param index
+	 * @return
+	 */
+	public long getBucketValue(int index) {
+		return bucketCounts.get(index);
+	}
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	public long getSum() {
+		return sum.sum();
+	}
+
+	/**
+	 * This method is used to estimate the value below which the given fraction of
+	 * the recorded values lie, as the upper bound of the bucket containing it.
+	 * 
+	 * @param quantile
+	 * @return
+	 */
+	public double getQuantile(double quantile) {
+		long total = 0;
+		for (int i = 0; i < bucketCounts.length(); i++) {
+			total += bucketCounts.get(i);
+		}
+		if (total == 0) {
+			return 0;
+		}
+
+		long rank = (long) Math.ceil(quantile * total);
+		long cumulative = 0;
+		for (int i = 0; i < bucketCounts.length(); i++) {
+			cumulative += bucketCounts.get(i);
+			if (cumulative >= rank) {
+				return getUpperBound(i);
+			}
+		}
+		return getUpperBound(bucketCounts.length() - 1);
+	}
+}
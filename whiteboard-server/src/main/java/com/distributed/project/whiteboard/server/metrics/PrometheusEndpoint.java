@@ -0,0 +1,161 @@
+package com.distributed.project.whiteboard.server.metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * This class is used to publish the server metrics in the Prometheus text
+ * format over HTTP on a local port.
+ * 
+ * @implNote The endpoint is bound to the loopback address, so the metrics are
+ *           only reachable from the server host.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class PrometheusEndpoint {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(PrometheusEndpoint.class);
+
+	private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+	private final ServerMetrics serverMetrics;
+
+	/**
+	 * This constructor is used to initialize the metrics to be published.
+	 * 
+	 * @param serverMetrics
+	 */
+	public PrometheusEndpoint(ServerMetrics serverMetrics) {
+		this.serverMetrics = serverMetrics;
+	}
+
+	/**
+	 * This method is used to start the HTTP server on the given local port.
+	 * 
+	 * @param port
+	 */
+	public void start(int port) {
+		try {
+			HttpServer httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+					0);
+			httpServer.createContext("/metrics", this::handle);
+			httpServer.start();
+			LOGGER.info("Metrics endpoint started on port {}", port);
+		} catch (IOException e) {
+			LOGGER.error("Exception while starting the metrics endpoint on port {}", port, e);
+		}
+	}
+
+	/**
+	 * This method is used to respond to a scrape with the current metrics.
+	 * 
+	 * @param exchange
+	 * @throws IOException
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+		byte[] body = format().getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream outputStream = exchange.getResponseBody()) {
+			outputStream.write(body);
+		}
+	}
+
+	/**
+	 * This method is used to format the metrics in the Prometheus text format.
+	 * 
+	 * @return
+	 */
+	public String format() {
+		StringBuilder builder = new StringBuilder();
+
+		appendHeader(builder, "whiteboard_events_received_total", "counter", "Events received from clients by action");
+		for (Map.Entry<String, Long> entry : serverMetrics.getEventsReceivedByAction().entrySet()) {
+			builder.append("whiteboard_events_received_total{action=\"").append(entry.getKey()).append("\"} ")
+					.append(entry.getValue()).append('\n');
+		}
+		appendHeader(builder, "whiteboard_events_relayed_total", "counter",
+				"Events relayed to the other clients by action");
+		for (Map.Entry<String, Long> entry : serverMetrics.getEventsRelayedByAction().entrySet()) {
+			builder.append("whiteboard_events_relayed_total{action=\"").append(entry.getKey()).append("\"} ")
+					.append(entry.getValue()).append('\n');
+		}
+
+		appendSample(builder, "whiteboard_bytes_in_total", "counter", "Bytes read from clients",
+				serverMetrics.getBytesIn());
+		appendSample(builder, "whiteboard_bytes_out_total", "counter", "Bytes written to clients",
+				serverMetrics.getBytesOut());
+
+		appendHistogram(builder, "whiteboard_broadcast_latency_microseconds", "Broadcast fan-out latency",
+				serverMetrics.getBroadcastLatency());
+
+		appendHeader(builder, "whiteboard_client_outbound_backlog", "gauge", "Writes in progress to each client");
+		for (Map.Entry<String, Integer> entry : serverMetrics.getOutboundBacklogByClient().entrySet()) {
+			builder.append("whiteboard_client_outbound_backlog{client=\"").append(entry.getKey()).append("\"} ")
+					.append(entry.getValue()).append('\n');
+		}
+
+		appendHeader(builder, "whiteboard_client_limited_events_total", "counter",
+				"Events of each client over its rate limits");
+		for (Map.Entry<String, Long> entry : serverMetrics.getLimitedEventsByClient().entrySet()) {
+			builder.append("whiteboard_client_limited_events_total{client=\"").append(entry.getKey()).append("\"} ")
+					.append(entry.getValue()).append('\n');
+		}
+		appendHeader(builder, "whiteboard_limited_events_total", "counter",
+				"Events over the rate limits by how the limits were enforced");
+		for (Map.Entry<String, Long> entry : serverMetrics.getLimitActions().entrySet()) {
+			builder.append("whiteboard_limited_events_total{mode=\"").append(entry.getKey()).append("\"} ")
+					.append(entry.getValue()).append('\n');
+		}
+
+		appendSample(builder, "whiteboard_connections", "gauge", "Open client connections",
+				serverMetrics.getConnections());
+		appendSample(builder, "whiteboard_rooms", "gauge", "Open boards", serverMetrics.getRooms());
+		appendSample(builder, "whiteboard_members", "gauge", "Members of the board", serverMetrics.getMembers());
+		appendSample(builder, "whiteboard_pending_members", "gauge", "Users waiting for the manager's approval",
+				serverMetrics.getPendingMembers());
+
+		appendHistogram(builder, "whiteboard_load_image_bytes", "Load image payload sizes",
+				serverMetrics.getLoadImageSize());
+		appendHistogram(builder, "whiteboard_outbound_batch_events", "Events sent to a client per outbound batch",
+				serverMetrics.getOutboundBatchSize());
+		return builder.toString();
+	}
+
+	private void appendHeader(StringBuilder builder, String name, String type, String help) {
+		builder.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+	}
+
+	private void appendSample(StringBuilder builder, String name, String type, String help, long value) {
+		appendHeader(builder, name, type, help);
+		builder.append(name).append(' ').append(value).append('\n');
+	}
+
+	private void appendHistogram(StringBuilder builder, String name, String help, Histogram histogram) {
+		appendHeader(builder, name, "histogram", help);
+
+		// Prometheus buckets are cumulative
+		long cumulative = 0;
+		for (int i = 0; i < histogram.getBucketCount(); i++) {
+			cumulative += histogram.getBucketValue(i);
+			double upperBound = histogram.getUpperBound(i);
+			builder.append(name).append("_bucket{le=\"")
+					.append(Double.isInfinite(upperBound) ? "+Inf" : String.valueOf((long) upperBound)).append("\"} ")
+					.append(cumulative).append('\n');
+		}
+		builder.append(name).append("_sum ").append(histogram.getSum()).append('\n');
+		builder.append(name).append("_count ").append(cumulative).append('\n');
+	}
+}
@@ -0,0 +1,351 @@
+package com.distributed.project.whiteboard.server.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.ObjectName;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.distributed.project.whiteboard.protocol.opcode.Opcodes;
+import com.distributed.project.whiteboard.server.WhiteboardServer;
+import com.distributed.project.whiteboard.server.dto.ClientSession;
+import com.distributed.project.whiteboard.server.limit.LimitMode;
+
+/**
+ * This class is used to record the metrics of the server. Counters are
+ * {@link LongAdder} and distributions are lock-free {@link Histogram}, so
+ * recording on the hot path of the handlers does not contend between threads.
+ * 
+ * @implNote Gauges like the number of members are read from the server when
+ *           the metrics are published instead of being tracked separately.
+ * 
+ * @implNote Bytes are counted as encoded in UTF-8 on the socket, along with the
+ *           line feed ending every event. The metrics kept per client are
+ *           removed once the client leaves the board.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class ServerMetrics implements ServerMetricsMXBean {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ServerMetrics.class);
+
+	private static final String OBJECT_NAME = "com.distributed.project.whiteboard.server:type=ServerMetrics";
+
+	private final WhiteboardServer whiteboardServer;
+
+	// Events received and relayed to the other clients per action, indexed by the
+	// opcode of the action
+	private final LongAdder[] receivedByOpcode = new LongAdder[Opcodes.actionCount()];
+	private final LongAdder[] relayedByOpcode = new LongAdder[Opcodes.actionCount()];
+	private final LongAdder bytesIn = new LongAdder();
+	private final LongAdder bytesOut = new LongAdder();
+	private final AtomicInteger connections = new AtomicInteger();
+
+	// Writes in progress to each client, blocked writes pile up for slow clients
+	private final ConcurrentMap<Long, AtomicInteger> outboundBacklog = new ConcurrentHashMap<>();
+
+	// Events of each client over its rate limits, and how the limits were enforced
+	private final ConcurrentMap<Long, LongAdder> limitedEvents = new ConcurrentHashMap<>();
+	private final LongAdder[] limitActions = new LongAdder[LimitMode.values().length];
+
+	// Broadcast fan-out latency in microseconds, up to 2^24 microseconds
+	private final Histogram broadcastLatency = new Histogram(25);
+
+	// Load image payload sizes in bytes, up to 2^30 bytes
+	private final Histogram loadImageSize = new Histogram(31);
+
+	// Events sent per batch when outbound batching is on, up to 2^16 events
+	private final Histogram outboundBatchSize = new Histogram(17);
+
+	/**
+	 * This constructor is used to initialize the instance of the server whose
+	 * gauges are published.
+	 * 
+	 * @param whiteboardServer
+	 */
+	public ServerMetrics(WhiteboardServer whiteboardServer) {
+		this.whiteboardServer = whiteboardServer;
+		for (int opcode = 0; opcode < receivedByOpcode.length; opcode++) {
+			receivedByOpcode[opcode] = new LongAdder();
+			relayedByOpcode[opcode] = new LongAdder();
+		}
+		for (int mode = 0; mode < limitActions.length; mode++) {
+			limitActions[mode] = new LongAdder();
+		}
+	}
+
+	/**
+	 * This method is used to register the metrics as an MXBean in the platform
+	 * MBean server.
+	 */
+	public void registerMBean() {
+		try {
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+		} catch (Exception e) {
+			LOGGER.error("Exception while registering the server metrics MBean", e);
+		}
+	}
+
+	/**
+	 * This method is used to record an event received from a client.
+	 * 
+	 * @param opcode
+	 * @param bytes
+	 */
+	public void recordEvent(int opcode, long bytes) {
+		bytesIn.add(bytes);
+		if (opcode >= 0 && opcode < receivedByOpcode.length) {
+			receivedByOpcode[opcode].increment();
+		}
+	}
+
+	/**
+	 * This method is used to record an event relayed to the other clients, once
+	 * however many clients it is sent to.
+	 * 
+	 * @param opcode
+	 */
+	public void recordRelayed(int opcode) {
+		if (opcode >= 0 && opcode < relayedByOpcode.length) {
+			relayedByOpcode[opcode].increment();
+		}
+	}
+
+	/**
+	 * This method is used to record bytes written to a client.
+	 * 
+	 * @param bytes
+	 */
+	public void recordBytesOut(long bytes) {
+		bytesOut.add(bytes);
+	}
+
+	/**
+	 * This method is used to record the time taken to send a broadcast to every
+	 * recipient.
+	 * 
+	 * @param nanos
+	 */
+	public void recordBroadcast(long nanos) {
+		broadcastLatency.record(nanos / 1000);
+	}
+
+	/**
+	 * This method is used to record the size of a load image payload.
+	 * 
+	 * @param bytes
+	 */
+	public void recordLoadImage(long bytes) {
+		loadImageSize.record(bytes);
+	}
+
+	/**
+	 * This method is used to record the number of events sent to a client in one
+	 * outbound batch.
+	 * 
+	 * @param events
+	 */
+	public void recordOutboundBatch(int events) {
+		outboundBatchSize.record(events);
+	}
+
+	/**
+	 * This method is used to record an event of a client over its rate limits, and
+	 * how the limits were enforced on it.
+	 * 
+	 * @param clientUID
+	 * @param limitMode
+	 */
+	public void recordLimited(Long clientUID, LimitMode limitMode) {
+		limitedEvents.computeIfAbsent(clientUID, key -> new LongAdder()).increment();
+		limitActions[limitMode.ordinal()].increment();
+	}
+
+	/**
+	 * This method is used to mark the start of a write to a client.
+	 * 
+	 * @param clientUID
+	 */
+	public void beginWrite(Long clientUID) {
+		outboundBacklog.computeIfAbsent(clientUID, key -> new AtomicInteger()).incrementAndGet();
+	}
+
+	/**
+	 * This method is used to mark the end of a write to a client.
+	 * 
+	 * @param clientUID
+	 */
+	public void endWrite(Long clientUID) {
+		AtomicInteger backlog = outboundBacklog.get(clientUID);
+		if (Objects.nonNull(backlog)) {
+			backlog.decrementAndGet();
+		}
+	}
+
+	/**
+	 * This method is used to remove the metrics of a client which left the board.
+	 * 
+	 * @param clientUID
+	 */
+	public void removeClient(Long clientUID) {
+		outboundBacklog.remove(clientUID);
+		limitedEvents.remove(clientUID);
+	}
+
+	public void connectionOpened() {
+		connections.incrementAndGet();
+	}
+
+	public void connectionClosed() {
+		connections.decrementAndGet();
+	}
+
+	public Histogram getBroadcastLatency() {
+		return broadcastLatency;
+	}
+
+	public Histogram getLoadImageSize() {
+		return loadImageSize;
+	}
+
+	public Histogram getOutboundBatchSize() {
+		return outboundBatchSize;
+	}
+
+	@Override
+	public Map<String, Long> getEventsReceivedByAction() {
+		return byAction(receivedByOpcode);
+	}
+
+	@Override
+	public Map<String, Long> getEventsRelayedByAction() {
+		return byAction(relayedByOpcode);
+	}
+
+	@Override
+	public long getBytesIn() {
+		return bytesIn.sum();
+	}
+
+	@Override
+	public long getBytesOut() {
+		return bytesOut.sum();
+	}
+
+	@Override
+	public long getBroadcastCount() {
+		return broadcastLatency.getCount();
+	}
+
+	@Override
+	public double getBroadcastLatencyMicrosP50() {
+		return broadcastLatency.getQuantile(0.5);
+	}
+
+	@Override
+	public double getBroadcastLatencyMicrosP99() {
+		return broadcastLatency.getQuantile(0.99);
+	}
+
+	@Override
+	public Map<String, Integer> getOutboundBacklogByClient() {
+		// Reporting only the clients still connected
+		Map<String, Integer> backlog = new TreeMap<>();
+		for (ClientSession session : whiteboardServer.getClientInfoMap().values()) {
+			AtomicInteger writes = outboundBacklog.get(session.getClientUID());
+			backlog.put(String.valueOf(session.getClientUID()), Objects.isNull(writes) ? 0 : writes.get());
+		}
+		return backlog;
+	}
+
+	@Override
+	public Map<String, Long> getLimitedEventsByClient() {
+		// Reporting only the clients still connected
+		Map<String, Long> limited = new TreeMap<>();
+		for (ClientSession session : whiteboardServer.getClientInfoMap().values()) {
+			LongAdder events = limitedEvents.get(session.getClientUID());
+			limited.put(String.valueOf(session.getClientUID()), Objects.isNull(events) ? 0 : events.sum());
+		}
+		return limited;
+	}
+
+	@Override
+	public Map<String, Long> getLimitActions() {
+		Map<String, Long> actions = new TreeMap<>();
+		for (LimitMode limitMode : LimitMode.values()) {
+			actions.put(limitMode.name(), limitActions[limitMode.ordinal()].sum());
+		}
+		return actions;
+	}
+
+	@Override
+	public int getConnections() {
+		return connections.get();
+	}
+
+	@Override
+	public int getRooms() {
+		// The server hosts a single board, which is open while it has members
+		return whiteboardServer.getClientInfoMap().isEmpty() ? 0 : 1;
+	}
+
+	@Override
+	public int getMembers() {
+		return whiteboardServer.getClientInfoMap().size();
+	}
+
+	@Override
+	public int getPendingMembers() {
+		return whiteboardServer.getUnverifiedClients().size();
+	}
+
+	@Override
+	public long getLoadImageCount() {
+		return loadImageSize.getCount();
+	}
+
+	@Override
+	public double getLoadImageBytesP50() {
+		return loadImageSize.getQuantile(0.5);
+	}
+
+	@Override
+	public double getLoadImageBytesP99() {
+		return loadImageSize.getQuantile(0.99);
+	}
+
+	@Override
+	public long getOutboundBatchCount() {
+		return outboundBatchSize.getCount();
+	}
+
+	@Override
+	public double getOutboundBatchEventsP50() {
+		return outboundBatchSize.getQuantile(0.5);
+	}
+
+	@Override
+	public double getOutboundBatchEventsP99() {
+		return outboundBatchSize.getQuantile(0.99);
+	}
+
+	private static Map<String, Long> byAction(LongAdder[] eventsByOpcode) {
+		Map<String, Long> events = new TreeMap<>();
+		for (int opcode = 0; opcode < eventsByOpcode.length; opcode++) {
+			long count = eventsByOpcode[opcode].sum();
+			if (count > 0) {
+				events.put(Opcodes.actionName(opcode), count);
+			}
+		}
+		return events;
+	}
+}
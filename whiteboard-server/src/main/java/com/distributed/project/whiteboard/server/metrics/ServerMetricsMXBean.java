@@ -0,0 +1,52 @@
+package com.distributed.project.whiteboard.server.metrics;
+
+import java.util.Map;
+
+/**
+ * This interface is used to publish the server metrics as a JMX MXBean.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public interface ServerMetricsMXBean {
+
+	Map<String, Long> getEventsReceivedByAction();
+
+	Map<String, Long> getEventsRelayedByAction();
+
+	long getBytesIn();
+
+	long getBytesOut();
+
+	long getBroadcastCount();
+
+	double getBroadcastLatencyMicrosP50();
+
+	double getBroadcastLatencyMicrosP99();
+
+	Map<String, Integer> getOutboundBacklogByClient();
+
+	Map<String, Long> getLimitedEventsByClient();
+
+	Map<String, Long> getLimitActions();
+
+	int getConnections();
+
+	int getRooms();
+
+	int getMembers();
+
+	int getPendingMembers();
+
+	long getLoadImageCount();
+
+	double getLoadImageBytesP50();
+
+	double getLoadImageBytesP99();
+
+	long getOutboundBatchCount();
+
+	double getOutboundBatchEventsP50();
+
+	double getOutboundBatchEventsP99();
+}
@@ -0,0 +1,116 @@
+package com.distributed.project.whiteboard.server.outbound;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class is used as the buffered writer of a client connection, which
+ * either sends every event as soon as it is flushed or keeps the events until
+ * the next tick of the {@link OutboundBatcher}.
+ *
+ * @implNote When batched, the flushes of the handlers only leave the events in
+ *           the buffer, in the order they were written. The batcher then sends
+ *           them with a single flush, so a client receives everything written
+ *           to it within a tick in one write to the socket.
+ *
+ * @implNote Events are counted by the line feed ending them, and the count is
+ *           safe to update from any thread. Writers hold the lock of this writer
+ *           while writing an event, and the batcher holds it while flushing, so
+ *           a batch never ends in the middle of an event.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class BatchingWriter extends BufferedWriter {
+
+	private final boolean isBatched;
+
+	// Events written since the previous batch was sent
+	private final AtomicInteger pendingEvents = new AtomicInteger();
+
+	/**
+	 * This constructor is used to initialize the writer of a connection, batched
+	 * or sending every event when it is flushed.
+	 *
+	 * @param out
+	 * @param bufferSize
+	 * @param isBatched
+	 */
+	public BatchingWriter(Writer out, int bufferSize, boolean isBatched) {
+		super(out, bufferSize);
+		this.isBatched = isBatched;
+	}
+
+	@Override
+	public void write(int c) throws IOException {
+		super.write(c);
+		countEvent(c);
+	}
+
+	@Override
+	public void write(char[] cbuf, int off, int len) throws IOException {
+		super.write(cbuf, off, len);
+		if (len > 0) {
+			countEvent(cbuf[off + len - 1]);
+		}
+	}
+
+	@Override
+	public void write(String s, int off, int len) throws IOException {
+		super.write(s, off, len);
+		if (len > 0) {
+			countEvent(s.charAt(off + len - 1));
+		}
+	}
+
+	/**
+	 * This method is used to send the written events, unless the writer is
+	 * batched in which case they are sent on the next tick.
+	 */
+	@Override
+	public void flush() throws IOException {
+		if (!isBatched) {
+			flushBatch();
+		}
+	}
+
+	/**
+	 * This method is used to send the events written since the previous batch.
+	 *
+	 * @return the number of events sent
+	 * @throws IOException
+	 */
+	public synchronized int flushBatch() throws IOException {
+		int events = pendingEvents.getAndSet(0);
+		super.flush();
+		return events;
+	}
+
+	/**
+	 * This method is used to check if events were written since the previous
+	 * batch.
+	 *
+	 * @return
+	 */
+	public boolean hasPendingEvents() {
+		return pendingEvents.get() > 0;
+	}
+
+	public boolean isBatched() {
+		return isBatched;
+	}
+
+	/**
+	 * This method is used to count an event when the line feed ending it is
+	 * written.
+	 *
+	 * @param c
+	 */
+	private void countEvent(int c) {
+		if (c == '\n') {
+			pendingEvents.incrementAndGet();
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package com.distributed.project.whiteboard.server.outbound;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.distributed.project.whiteboard.server.metrics.ServerMetrics;
+
+/**
+ * This runnable class is used to send the events batched on every connection
+ * once per tick, as one write to the socket of each client.
+ *
+ * @implNote Every connection is registered while it is open, including the
+ *           ones of clients waiting for the manager's approval or already
+ *           removed from the board, so an event written to a client just
+ *           before it is rejected or kicked is still sent.
+ *
+ * @implNote The tick only hands the batches to the flush executor, so a client
+ *           which does not read holds up a flush thread until its socket buffer
+ *           drains, but not the tick. A connection whose previous batch is still
+ *           being sent is skipped, and its events are sent with its next batch.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class OutboundBatcher implements Runnable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(OutboundBatcher.class);
+
+	private ServerMetrics serverMetrics;
+	private Executor flushExecutor;
+
+	// Writers of the open connections
+	private final Set<BatchingWriter> writers = ConcurrentHashMap.newKeySet();
+
+	// Writers whose batch is being sent
+	private final Set<BatchingWriter> flushingWriters = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * This constructor is used to initialize the metrics in which the batch sizes
+	 * are recorded, and the executor sending the batches.
+	 *
+	 * @param serverMetrics
+	 * @param flushExecutor
+	 */
+	public OutboundBatcher(ServerMetrics serverMetrics, Executor flushExecutor) {
+		this.serverMetrics = serverMetrics;
+		this.flushExecutor = flushExecutor;
+	}
+
+	/**
+	 * This method is used to send the batches of a connection on every tick.
+	 *
+	 * @param writer
+	 */
+	public void register(BatchingWriter writer) {
+		writers.add(writer);
+	}
+
+	/**
+	 * This method is used to stop sending the batches of a closed connection.
+	 *
+	 * @param writer
+	 */
+	public void deregister(BatchingWriter writer) {
+		writers.remove(writer);
+	}
+
+	/**
+	 * The run method hands the events written to every connection since the
+	 * previous tick to the flush executor.
+	 */
+	@Override
+	public void run() {
+		for (BatchingWriter writer : writers) {
+			// Skipping connections without events or still sending their previous batch
+			if (!writer.hasPendingEvents() || !flushingWriters.add(writer)) {
+				continue;
+			}
+
+			try {
+				flushExecutor.execute(() -> flush(writer));
+			} catch (Exception e) {
+				// The events are sent on the next tick
+				LOGGER.debug("Unable to hand over outbound batch", e);
+				flushingWriters.remove(writer);
+			}
+		}
+	}
+
+	/**
+	 * This method is used to send the batch of a connection.
+	 *
+	 * @param writer
+	 */
+	private void flush(BatchingWriter writer) {
+		try {
+			int events = writer.flushBatch();
+			if (events > 0) {
+				serverMetrics.recordOutboundBatch(events);
+			}
+		} catch (Exception e) {
+			// The handler of the connection notices the closed socket on its next read
+			LOGGER.debug("Unable to send outbound batch", e);
+			writers.remove(writer);
+		} finally {
+			flushingWriters.remove(writer);
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package com.distributed.project.whiteboard.server.presence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.dto.CursorDto;
+import com.distributed.project.whiteboard.protocol.lane.LaneWriter;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.distributed.project.whiteboard.protocol.utils.TypeConversionUtils;
+import com.distributed.project.whiteboard.server.WhiteboardServer;
+import com.distributed.project.whiteboard.server.dto.ClientSession;
+
+/**
+ * This runnable class is used to coalesce the cursors of the members and send
+ * them to the clients at a fixed tick, independent of how often the cursors
+ * move.
+ *
+ * @implNote Only the latest cursor of every member is kept until the next tick,
+ *           so a member moving the mouse many times within a tick costs a
+ *           single cursor in the presence event. Nothing is sent on a tick in
+ *           which no cursor has moved.
+ *
+ * @implNote Every client receives the same presence event, including its own
+ *           cursor, which it ignores.
+ *
+ * @implNote The event is posted to the connection of every client, so it is
+ *           queued behind an event being written or written on the writer pool.
+ *           A client which does not read does not hold up the tick of the
+ *           others.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class PresenceTracker implements Runnable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(PresenceTracker.class);
+
+	private WhiteboardServer whiteboardServer;
+
+	// Latest cursor of the members which have moved since the previous tick
+	private final Map<Long, CursorDto> pendingCursors = new ConcurrentHashMap<>();
+
+	/**
+	 * This constructor is used to initialize the server whose clients are sent
+	 * the cursors.
+	 *
+	 * @param whiteboardServer
+	 */
+	public PresenceTracker(WhiteboardServer whiteboardServer) {
+		this.whiteboardServer = whiteboardServer;
+	}
+
+	/**
+	 * This method is used to keep the latest cursor of a member, replacing the
+	 * one not yet sent.
+	 *
+	 * @param cursor
+	 */
+	public void updateCursor(CursorDto cursor) {
+		pendingCursors.put(cursor.getClientUID(), cursor);
+	}
+
+	/**
+	 * This method is used to hide the cursor of a member which has left or lost
+	 * its connection.
+	 *
+	 * @param clientUID
+	 */
+	public void hideCursor(Long clientUID) {
+		pendingCursors.put(clientUID, CursorDto.hidden(clientUID));
+	}
+
+	/**
+	 * The run method sends the cursors which have moved since the previous tick
+	 * to every attached client.
+	 */
+	@Override
+	public void run() {
+		try {
+			List<CursorDto> cursors = drainCursors();
+			if (cursors.isEmpty()) {
+				return;
+			}
+
+			ActionMessageDto presenceEvent = new ActionMessageDto(null, ProtocolConstants.ACTION_PRESENCE);
+			presenceEvent.setCursors(cursors);
+			String eventString = TypeConversionUtils.convertObjectToString(presenceEvent);
+			for (ClientSession session : whiteboardServer.getClientInfoMap().sessions()) {
+				sendMessage(session, eventString);
+			}
+		} catch (Exception e) {
+			// Keeping the tick scheduled after an unexpected error
+			LOGGER.error("Exception while sending presence event", e);
+		}
+	}
+
+	/**
+	 * This method is used to take the cursors which have moved since the previous
+	 * tick. A cursor updated while draining is either taken now or on the next
+	 * tick, but never lost.
+	 *
+	 * @return
+	 */
+	List<CursorDto> drainCursors() {
+		List<CursorDto> cursors = new ArrayList<>(pendingCursors.size());
+		for (Long clientUID : pendingCursors.keySet()) {
+			CursorDto cursor = pendingCursors.remove(clientUID);
+			if (Objects.nonNull(cursor)) {
+				cursors.add(cursor);
+			}
+		}
+		return cursors;
+	}
+
+	/**
+	 * This method is used to post the presence event to an attached session.
+	 *
+	 * @param session
+	 * @param eventString
+	 */
+	private void sendMessage(ClientSession session, String eventString) {
+		LaneWriter out = session.getOut();
+		if (Objects.isNull(out)) {
+			return;
+		}
+
+		try {
+			out.post(ProtocolConstants.OP_PRESENCE, eventString);
+			session.setLastWriteAt(System.currentTimeMillis());
+			whiteboardServer.getServerMetrics().recordBytesOut(TypeConversionUtils.utf8Length(eventString) + 1L);
+		} catch (Exception e) {
+			LOGGER.debug("Unable to send presence event to client {}", session.getClientUID(), e);
+		}
+	}
+}
@@ -1,10 +1,9 @@
 package com.distributed.project.whiteboard.server.utils;
 
-import com.google.common.collect.ImmutableList;
-
 /**
- * This class is used to store action constants, for maintaining similarity
- * between client and server.
+ * This class is used to store constants of the server, such as the names and
+ * defaults of its system properties. The constants of the protocol shared with
+ * the client are kept in ProtocolConstants.
  * 
  * @author Abhijeet - 1278218
  *
@@ -15,24 +14,61 @@ public final class Constants {
 		throw new IllegalStateException("Constants class cannot be instantiated");
 	}
 
-	// ACTION CONSTANTS
-	public static final String ACTION_DRAW = "DRAW";
-	public static final String ACTION_CHAT = "CHAT";
-	public static final String ACTION_SYSTEM_CHAT = "SYSTEM_CHAT";
-	public static final String ACTION_NEW_USER_PERMISSION = "NEW_USER_PERMISSION";
-	public static final String ACTION_NEW_USER_ACCEPT = "NEW_USER_ACCEPT";
-	public static final String ACTION_NEW_USER_REJECT = "NEW_USER_REJECT";
-	public static final String ACTION_USER_KICK = "USER_KICK";
-	public static final String ACTION_ASSIGN_MANAGER = "ASSIGN_MANAGER";
-	public static final String ACTION_NEW_USER_ADDED = "NEW_USER_ADDED";
-	public static final String ACTION_EXIT = "EXIT";
-	public static final String ACTION_REFRESH_USER_LIST = "REFRESH_USER_LIST";
-	public static final String ACTION_LOAD_IMAGE = "LOAD_IMAGE";
-	public static final String ACTION_CLEAR = "CLEAR";
-	public static final String ACTION_FORCE_QUIT = "FORCE_QUIT";
-
-	// URGENT BROADCAST MESSAGES
-	public static final ImmutableList<String> URGENT_BROADCAST_ACTIONS = ImmutableList.of(ACTION_DRAW, ACTION_CHAT,
-			ACTION_SYSTEM_CHAT, ACTION_CLEAR);
+	// HANDLER POOL CONSTANTS
+	public static final String PROP_HANDLER_THREADS = "whiteboard.handler.threads";
+	public static final int DEFAULT_HANDLER_THREADS = 10;
+
+	// BOARD HISTORY CONSTANTS
+	public static final String PROP_HISTORY_CAPACITY = "whiteboard.history.capacity";
+	public static final int DEFAULT_HISTORY_CAPACITY = 2048;
+
+	// SESSION RESUME CONSTANTS
+	public static final String PROP_RESUME_GRACE_MS = "whiteboard.resume.grace.ms";
+	public static final long DEFAULT_RESUME_GRACE_MS = 120000;
+
+	// HEARTBEAT CONSTANTS
+	public static final String PROP_READ_IDLE_MS = "whiteboard.read.idle.ms";
+	public static final int DEFAULT_READ_IDLE_MS = 30000;
+	public static final String PROP_WRITE_IDLE_MS = "whiteboard.write.idle.ms";
+	public static final long DEFAULT_WRITE_IDLE_MS = 10000;
+	public static final long SESSION_SWEEP_INTERVAL_MS = 1000;
+
+	// POOLED DECODE CONSTANTS
+	public static final String PROP_POOLED_DECODE = "whiteboard.decode.pooled";
+
+	// TRAFFIC CAPTURE CONSTANTS
+	public static final String PROP_CAPTURE_FILE = "whiteboard.capture.file";
+
+	// METRICS CONSTANTS
+	public static final String PROP_METRICS_PORT = "whiteboard.metrics.port";
+	public static final int DEFAULT_METRICS_PORT = 9404;
+
+	// PRESENCE CONSTANTS
+	public static final String PROP_PRESENCE_TICK_MS = "whiteboard.presence.tick.ms";
+	public static final long DEFAULT_PRESENCE_TICK_MS = 50;
+
+	// OUTBOUND BATCHING CONSTANTS
+	public static final String PROP_OUTBOUND_BATCH_TICK_MS = "whiteboard.outbound.batch.tick.ms";
+	public static final long DEFAULT_OUTBOUND_BATCH_TICK_MS = 0;
+	public static final int OUTBOUND_BUFFER_SIZE = 8192;
+	public static final int OUTBOUND_BATCH_BUFFER_SIZE = 65536;
+	public static final String PROP_OUTBOUND_FLUSH_THREADS = "whiteboard.outbound.flush.threads";
+	public static final int DEFAULT_OUTBOUND_FLUSH_THREADS = 4;
+
+	// RATE LIMIT CONSTANTS
+	public static final String PROP_LIMIT_CLIENT_EVENTS = "whiteboard.limit.client.events.per.sec";
+	public static final String PROP_LIMIT_CLIENT_BYTES = "whiteboard.limit.client.bytes.per.sec";
+	public static final String PROP_LIMIT_BOARD_EVENTS = "whiteboard.limit.board.events.per.sec";
+	public static final String PROP_LIMIT_BOARD_BYTES = "whiteboard.limit.board.bytes.per.sec";
+	public static final String PROP_LIMIT_BURST_MS = "whiteboard.limit.burst.ms";
+	public static final long DEFAULT_LIMIT_BURST_MS = 1000;
+	public static final String PROP_LIMIT_MODE = "whiteboard.limit.mode";
+	public static final String DEFAULT_LIMIT_MODE = "THROTTLE";
+	public static final int COALESCED_STROKE_MAX_POINTS = 1024;
+
+	// BULK TRANSFER CONSTANTS, A TRANSFER QUEUED BEYOND THE POOL IS WRITTEN ON THE SENDING THREAD
+	public static final String PROP_BULK_THREADS = "whiteboard.bulk.threads";
+	public static final int DEFAULT_BULK_THREADS = 4;
+	public static final int BULK_QUEUE_SIZE = 64;
 
 }
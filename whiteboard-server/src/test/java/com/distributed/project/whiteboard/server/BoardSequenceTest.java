@@ -0,0 +1,135 @@
+package com.distributed.project.whiteboard.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.lane.LaneWriter;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.distributed.project.whiteboard.protocol.utils.TypeConversionUtils;
+import com.distributed.project.whiteboard.server.dto.ClientSession;
+
+/**
+ * This class is used to test that board events are sequenced without waiting
+ * for a slow client, and that every client still receives them in sequence
+ * order along with the acks of its own events.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class BoardSequenceTest {
+
+	private static final Long SLOW_UID = 1L;
+	private static final Long FIRST_UID = 2L;
+	private static final Long SECOND_UID = 3L;
+
+	@Test(timeout = 10000)
+	public void shouldSequenceWhileSlowClientIsWritten() throws Exception {
+		StringWriter slowReceived = new StringWriter();
+		StringWriter firstReceived = new StringWriter();
+		StringWriter secondReceived = new StringWriter();
+		CountDownLatch writeStarted = new CountDownLatch(1);
+		CountDownLatch writeReleased = new CountDownLatch(1);
+
+		WhiteboardServer whiteboardServer = new WhiteboardServer();
+		whiteboardServer.getClientInfoMap().put(SLOW_UID, new ClientSession(SLOW_UID, "slow", false, null,
+				new LaneWriter(new StalledWriter(slowReceived, writeStarted, writeReleased), null)));
+		whiteboardServer.getClientInfoMap().put(FIRST_UID,
+				new ClientSession(FIRST_UID, "first", false, null, new LaneWriter(firstReceived, null)));
+		whiteboardServer.getClientInfoMap().put(SECOND_UID,
+				new ClientSession(SECOND_UID, "second", false, null, new LaneWriter(secondReceived, null)));
+
+		// The first event is held up writing to the slow client
+		Thread firstSender = new Thread(
+				() -> new WhiteboardHandler(whiteboardServer, null, FIRST_UID).relayEvent(ProtocolConstants.OP_DRAW,
+						createDraw()));
+		firstSender.start();
+		assertTrue(writeStarted.await(5, TimeUnit.SECONDS));
+
+		// The second event is sequenced meanwhile, and queued behind the first one
+		new WhiteboardHandler(whiteboardServer, null, SECOND_UID).relayEvent(ProtocolConstants.OP_DRAW, createDraw());
+		assertEquals(2, whiteboardServer.getBoardHistory().getLastSequence());
+
+		writeReleased.countDown();
+		firstSender.join();
+
+		// Every client receives the events and its acks in sequence order
+		assertSequences(read(slowReceived), 1L, 2L);
+		assertSequences(read(firstReceived), 1L, 2L);
+		assertSequences(read(secondReceived), 1L, 2L);
+		assertEquals(ProtocolConstants.ACTION_SEQUENCE_ACK, read(firstReceived).get(0).getAction());
+		assertEquals(ProtocolConstants.ACTION_SEQUENCE_ACK, read(secondReceived).get(1).getAction());
+	}
+
+	private void assertSequences(List<ActionMessageDto> events, Long... sequences) {
+		assertEquals(sequences.length, events.size());
+		for (int i = 0; i < sequences.length; i++) {
+			assertEquals(sequences[i], events.get(i).getSequence());
+		}
+	}
+
+	private String createDraw() {
+		return TypeConversionUtils.convertObjectToString(new ActionMessageDto(null, ProtocolConstants.ACTION_DRAW,
+				ProtocolConstants.TOOL_PENCIL, new Point(0, 0), new Point(1, 1), null, Color.BLACK, null, null));
+	}
+
+	private List<ActionMessageDto> read(StringWriter received) {
+		List<ActionMessageDto> events = new ArrayList<>();
+		for (String eventString : StringUtils.split(received.toString(), StringUtils.LF)) {
+			events.add(TypeConversionUtils.convertToCustomClass(eventString, ActionMessageDto.class));
+		}
+		return events;
+	}
+
+	/**
+	 * This class is used to hold up the first write to a client, as a full socket
+	 * buffer would.
+	 */
+	private static class StalledWriter extends Writer {
+
+		private final Writer out;
+		private final CountDownLatch writeStarted;
+		private final CountDownLatch writeReleased;
+
+		StalledWriter(Writer out, CountDownLatch writeStarted, CountDownLatch writeReleased) {
+			this.out = out;
+			this.writeStarted = writeStarted;
+			this.writeReleased = writeReleased;
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException {
+			writeStarted.countDown();
+			try {
+				writeReleased.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException(e);
+			}
+			out.write(cbuf, off, len);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			out.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			out.close();
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package com.distributed.project.whiteboard.server;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.lane.LaneWriter;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.distributed.project.whiteboard.protocol.utils.TypeConversionUtils;
+import com.distributed.project.whiteboard.server.dto.ClientSession;
+import com.distributed.project.whiteboard.server.limit.LimitMode;
+import com.distributed.project.whiteboard.server.limit.RateLimiter;
+import com.distributed.project.whiteboard.server.utils.Constants;
+
+/**
+ * This class is used to test how the handler enforces the rate limits on the
+ * events a client fans out, without a socket.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class RateLimitTest {
+
+	private static final Long SENDER_UID = 1L;
+	private static final Long RECEIVER_UID = 2L;
+
+	// One event per 100 ms, with a burst of a single event
+	private static final long EVENTS_PER_SECOND = 10;
+	private static final long BURST_MS = 100;
+
+	private final StringWriter received = new StringWriter();
+	private WhiteboardServer whiteboardServer;
+	private BufferedWriter receiverOut;
+
+	@Test
+	public void shouldCoalesceContinuedStrokeChunks() throws IOException {
+		WhiteboardHandler whiteboardHandler = createHandler(LimitMode.COALESCE, EVENTS_PER_SECOND, 0);
+		assertTrue(handleSegment(whiteboardHandler, 0, 0, 1, 1));
+
+		// The chunks sent while over the limits are merged if they continue the stroke
+		assertTrue(handleSegment(whiteboardHandler, 1, 1, 2, 2));
+		assertTrue(handleSegment(whiteboardHandler, 2, 2, 3, 3));
+		assertTrue(handleSegment(whiteboardHandler, 10, 10, 11, 11));
+
+		// Other events send the coalesced stroke first
+		assertTrue(whiteboardHandler.handleEvent(ProtocolConstants.OP_CHAT,
+				TypeConversionUtils.convertObjectToString(new ActionMessageDto(null, ProtocolConstants.ACTION_CHAT)),
+				null, null, null));
+
+		List<ActionMessageDto> events = readReceived();
+		assertEquals(4, events.size());
+		assertNull(events.get(0).getStroke());
+		assertArrayEquals(new int[] { 1, 1, 2, 2, 3, 3 }, events.get(1).getStroke().toCoordinates());
+		assertArrayEquals(new int[] { 10, 10, 11, 11 }, events.get(2).getStroke().toCoordinates());
+		assertEquals(ProtocolConstants.ACTION_CHAT, events.get(3).getAction());
+		for (ActionMessageDto event : events) {
+			assertEquals(SENDER_UID, event.getSenderId());
+		}
+	}
+
+	@Test
+	public void shouldCapCoalescedStroke() throws IOException {
+		WhiteboardHandler whiteboardHandler = createHandler(LimitMode.COALESCE, EVENTS_PER_SECOND, 0);
+		assertTrue(handleSegment(whiteboardHandler, 0, 0, 0, 1));
+
+		// Coalescing one point per chunk past the cap
+		for (int y = 1; y <= Constants.COALESCED_STROKE_MAX_POINTS; y++) {
+			assertTrue(handleSegment(whiteboardHandler, 0, y, 0, y + 1));
+		}
+
+		List<ActionMessageDto> events = readReceived();
+		assertEquals(2, events.size());
+		assertEquals(Constants.COALESCED_STROKE_MAX_POINTS, events.get(1).getStroke().size());
+	}
+
+	@Test
+	public void shouldDisconnectOnlyClientsOverTheirOwnLimits() throws IOException {
+		WhiteboardHandler whiteboardHandler = createHandler(LimitMode.DISCONNECT, EVENTS_PER_SECOND, 0);
+		assertTrue(handleSegment(whiteboardHandler, 0, 0, 1, 1));
+		assertFalse(handleSegment(whiteboardHandler, 1, 1, 2, 2));
+
+		// The manager is throttled instead
+		whiteboardHandler = createHandler(LimitMode.DISCONNECT, EVENTS_PER_SECOND, 0);
+		whiteboardServer.setManagerClientUID(new AtomicLong(SENDER_UID));
+		assertTrue(handleSegment(whiteboardHandler, 0, 0, 1, 1));
+		assertTrue(handleSegment(whiteboardHandler, 1, 1, 2, 2));
+
+		// So are clients waiting for the limits of the board
+		whiteboardHandler = createHandler(LimitMode.DISCONNECT, 0, EVENTS_PER_SECOND);
+		assertTrue(handleSegment(whiteboardHandler, 0, 0, 1, 1));
+		assertTrue(handleSegment(whiteboardHandler, 1, 1, 2, 2));
+		assertEquals(2, readReceived().size());
+	}
+
+	private WhiteboardHandler createHandler(LimitMode limitMode, long clientEventsPerSecond,
+			long boardEventsPerSecond) {
+		whiteboardServer = new WhiteboardServer();
+		whiteboardServer.setRateLimiter(
+				new RateLimiter(limitMode, clientEventsPerSecond, 0, boardEventsPerSecond, 0, BURST_MS));
+		whiteboardServer.setManagerClientUID(new AtomicLong(RECEIVER_UID));
+		received.getBuffer().setLength(0);
+		receiverOut = new BufferedWriter(received);
+		whiteboardServer.getClientInfoMap().put(SENDER_UID, new ClientSession(SENDER_UID, "sender", false, null,
+				new LaneWriter(new BufferedWriter(new StringWriter()), null)));
+		whiteboardServer.getClientInfoMap().put(RECEIVER_UID,
+				new ClientSession(RECEIVER_UID, "receiver", false, null, new LaneWriter(receiverOut, null)));
+		return new WhiteboardHandler(whiteboardServer, null, SENDER_UID);
+	}
+
+	private boolean handleSegment(WhiteboardHandler whiteboardHandler, int x1, int y1, int x2, int y2)
+			throws IOException {
+		ActionMessageDto segment = new ActionMessageDto(null, ProtocolConstants.ACTION_DRAW,
+				ProtocolConstants.TOOL_PENCIL, new Point(x1, y1), new Point(x2, y2), null, Color.BLACK, null, null);
+		return whiteboardHandler.handleEvent(ProtocolConstants.OP_DRAW,
+				TypeConversionUtils.convertObjectToString(segment), null, null, null);
+	}
+
+	private List<ActionMessageDto> readReceived() throws IOException {
+		receiverOut.flush();
+		List<ActionMessageDto> events = new ArrayList<>();
+		for (String eventString : StringUtils.split(received.toString(), StringUtils.LF)) {
+			events.add(TypeConversionUtils.convertToCustomClass(eventString, ActionMessageDto.class));
+		}
+		return events;
+	}
+}
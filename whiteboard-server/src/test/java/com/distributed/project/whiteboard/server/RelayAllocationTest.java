@@ -0,0 +1,128 @@
+package com.distributed.project.whiteboard.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+
+import org.junit.Test;
+
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.frame.FrameDecoder;
+import com.distributed.project.whiteboard.protocol.frame.FrameReader;
+import com.distributed.project.whiteboard.protocol.frame.MessageFrame;
+import com.distributed.project.whiteboard.protocol.lane.LaneWriter;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.distributed.project.whiteboard.protocol.utils.TypeConversionUtils;
+import com.distributed.project.whiteboard.server.dto.ClientSession;
+
+/**
+ * This class is used to test that relaying a board event from a reusable frame
+ * allocates nothing once the server has warmed up.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class RelayAllocationTest {
+
+	private static final long SENDER_UID = 1L;
+	private static final int CLIENT_COUNT = 3;
+	private static final int WARMUP_EVENTS = 200000;
+	private static final int MEASURED_EVENTS = 20000;
+
+	@Test
+	public void shouldRelayFramesWithoutAllocating() throws IOException {
+		com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		assumeTrue(threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled());
+
+		WhiteboardServer whiteboardServer = new WhiteboardServer();
+		for (long clientUID = SENDER_UID; clientUID <= CLIENT_COUNT; clientUID++) {
+			whiteboardServer.getClientInfoMap().put(clientUID, new ClientSession(clientUID, "User " + clientUID, false,
+					null, new LaneWriter(new BufferedWriter(new NullWriter()), null)));
+		}
+		WhiteboardHandler whiteboardHandler = new WhiteboardHandler(whiteboardServer, null, SENDER_UID);
+
+		// Reading the pencil stroke of the sender over and over, sent without the
+		// user as the clients do
+		String eventString = TypeConversionUtils.convertObjectToString(
+				new ActionMessageDto(null, ProtocolConstants.ACTION_DRAW, ProtocolConstants.TOOL_PENCIL,
+						new Point(10, 20), new Point(11, 22), null, Color.BLACK, null, null));
+		FrameReader frameReader = new FrameReader(new RepeatingReader(eventString + "\n"));
+		FrameDecoder frameDecoder = new FrameDecoder();
+		MessageFrame frame = new MessageFrame();
+
+		relay(whiteboardHandler, frameReader, frameDecoder, frame, WARMUP_EVENTS);
+		long threadId = Thread.currentThread().getId();
+		long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+		relay(whiteboardHandler, frameReader, frameDecoder, frame, MEASURED_EVENTS);
+		long allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+		// Less than a byte per event, which no allocation per event stays under
+		assertTrue("Allocated " + allocatedBytes + " bytes for " + MEASURED_EVENTS + " events",
+				allocatedBytes < MEASURED_EVENTS);
+		assertEquals(WARMUP_EVENTS + MEASURED_EVENTS, whiteboardServer.getBoardHistory().getLastSequence());
+	}
+
+	private void relay(WhiteboardHandler whiteboardHandler, FrameReader frameReader, FrameDecoder frameDecoder,
+			MessageFrame frame, int count) throws IOException {
+		for (int i = 0; i < count; i++) {
+			frameReader.readFrame(frame);
+			whiteboardHandler.relayFrame(frameDecoder.decode(frame), frame);
+		}
+	}
+
+	/**
+	 * This class is used to read the same characters endlessly.
+	 */
+	private static class RepeatingReader extends Reader {
+
+		private final char[] chars;
+		private int position;
+
+		RepeatingReader(String data) {
+			this.chars = data.toCharArray();
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len) {
+			int count = Math.min(len, chars.length - position);
+			System.arraycopy(chars, position, cbuf, off, count);
+			position = (position + count) % chars.length;
+			return count;
+		}
+
+		@Override
+		public void close() {
+			// Nothing to close
+		}
+	}
+
+	/**
+	 * This class is used to discard the events sent to the clients.
+	 */
+	private static class NullWriter extends Writer {
+
+		@Override
+		public void write(char[] cbuf, int off, int len) {
+			// Discarding the characters
+		}
+
+		@Override
+		public void flush() {
+			// Nothing to flush
+		}
+
+		@Override
+		public void close() {
+			// Nothing to close
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package com.distributed.project.whiteboard.server;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.distributed.project.whiteboard.protocol.lane.LaneWriter;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.distributed.project.whiteboard.server.dto.ClientSession;
+
+/**
+ * This class is used to test that the sweep of the sessions does not wait for
+ * a client which does not read.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class SessionReaperTest {
+
+	private static final Long STALLED_UID = 1L;
+	private static final Long DETACHED_UID = 2L;
+	private static final Long ACTIVE_UID = 3L;
+
+	@Test(timeout = 10000)
+	public void shouldEvictWhileClientIsStalled() throws Exception {
+		CountDownLatch writeStarted = new CountDownLatch(1);
+		CountDownLatch writeReleased = new CountDownLatch(1);
+		StringWriter activeReceived = new StringWriter();
+
+		WhiteboardServer whiteboardServer = new WhiteboardServer();
+		whiteboardServer.setManagerClientUID(new AtomicLong(ACTIVE_UID));
+		try {
+			// A client whose heartbeat is due and never gets written
+			ClientSession stalledSession = new ClientSession(STALLED_UID, "stalled", false, null, new LaneWriter(
+					new StalledWriter(writeStarted, writeReleased), whiteboardServer.getBulkExecutor()));
+			stalledSession.setLastWriteAt(0);
+			whiteboardServer.getClientInfoMap().put(STALLED_UID, stalledSession);
+
+			// A client detached for longer than the grace period
+			ClientSession detachedSession = new ClientSession(DETACHED_UID, "detached", false, null, null);
+			detachedSession.setDetachedAt(1);
+			whiteboardServer.getClientInfoMap().put(DETACHED_UID, detachedSession);
+
+			whiteboardServer.getClientInfoMap().put(ACTIVE_UID, new ClientSession(ACTIVE_UID, "active", false, null,
+					new LaneWriter(activeReceived, whiteboardServer.getBulkExecutor())));
+
+			// The sweep returns while the heartbeat of the stalled client is being written
+			new SessionReaper(whiteboardServer).run();
+			assertTrue(writeStarted.await(5, TimeUnit.SECONDS));
+			assertFalse(whiteboardServer.getClientInfoMap().containsKey(DETACHED_UID));
+
+			// The other client is sent the eviction meanwhile
+			while (!activeReceived.toString().contains(ProtocolConstants.ACTION_REFRESH_USER_LIST)) {
+				Thread.sleep(10);
+			}
+		} finally {
+			writeReleased.countDown();
+			whiteboardServer.shutdown();
+		}
+	}
+
+	/**
+	 * This class is used to hold up the writes to a client, as a full socket
+	 * buffer would.
+	 */
+	private static class StalledWriter extends Writer {
+
+		private final CountDownLatch writeStarted;
+		private final CountDownLatch writeReleased;
+
+		StalledWriter(CountDownLatch writeStarted, CountDownLatch writeReleased) {
+			this.writeStarted = writeStarted;
+			this.writeReleased = writeReleased;
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException {
+			writeStarted.countDown();
+			try {
+				writeReleased.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException(e);
+			}
+		}
+
+		@Override
+		public void flush() {
+			// Nothing is buffered
+		}
+
+		@Override
+		public void close() {
+			// Nothing to close
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package com.distributed.project.whiteboard.server.board;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.distributed.project.whiteboard.protocol.dto.ActionMessageDto;
+import com.distributed.project.whiteboard.protocol.utils.ProtocolConstants;
+import com.distributed.project.whiteboard.protocol.utils.TypeConversionUtils;
+
+/**
+ * This class is used to test the sequencing and compaction of the board
+ * history.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class BoardHistoryTest {
+
+	@Test
+	public void shouldReturnEventsAfterSequence() {
+		BoardHistory boardHistory = appendEvents(new BoardHistory(10), ProtocolConstants.ACTION_DRAW, 5);
+
+		List<String> delta = boardHistory.eventsAfter(3);
+		assertEquals(2, delta.size());
+		assertEquals(Long.valueOf(4), sequenceOf(delta.get(0)));
+		assertEquals(Long.valueOf(5), sequenceOf(delta.get(1)));
+		assertTrue(boardHistory.eventsAfter(5).isEmpty());
+	}
+
+	@Test
+	public void shouldFallBackOnceCompacted() {
+		BoardHistory boardHistory = appendEvents(new BoardHistory(3), ProtocolConstants.ACTION_DRAW, 5);
+
+		assertNull(boardHistory.eventsAfter(1));
+		assertEquals(3, boardHistory.eventsAfter(2).size());
+		assertNull(boardHistory.eventsAfter(6));
+	}
+
+	@Test
+	public void shouldDropEventsBeforeClear() {
+		BoardHistory boardHistory = appendEvents(new BoardHistory(10), ProtocolConstants.ACTION_DRAW, 3);
+		appendEvents(boardHistory, ProtocolConstants.ACTION_CLEAR, 1);
+		appendEvents(boardHistory, ProtocolConstants.ACTION_DRAW, 1);
+
+		assertNull(boardHistory.eventsAfter(2));
+		assertEquals(5, boardHistory.getLastSequence());
+
+		// The opcodes are returned along with the events
+		List<Integer> opcodes = new ArrayList<>();
+		assertEquals(2, boardHistory.eventsAfter(3, opcodes).size());
+		assertEquals(Arrays.asList(ProtocolConstants.OP_CLEAR, ProtocolConstants.OP_DRAW), opcodes);
+	}
+
+	private BoardHistory appendEvents(BoardHistory boardHistory, String action, int count) {
+		for (int i = 0; i < count; i++) {
+			boardHistory.append(new ActionMessageDto(null, action));
+		}
+		return boardHistory;
+	}
+
+	private Long sequenceOf(String eventString) {
+		return TypeConversionUtils.convertToCustomClass(eventString, ActionMessageDto.class).getSequence();
+	}
+}
@@ -0,0 +1,51 @@
+package com.distributed.project.whiteboard.server.capture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * This class is used to test that a capture written by the traffic recorder is
+ * read back record by record.
+ * 
+ * @author Abhijeet - 1278218
+ *
+ */
+public class TrafficRecorderTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void shouldReadBackRecordedTraffic() throws IOException {
+		String captureFile = new File(temporaryFolder.getRoot(), "session.wbc").getPath();
+		String frame = "{\"action\":\"CHAT\",\"chatMessage\":\"café\"}";
+
+		TrafficRecorder trafficRecorder = new TrafficRecorder(captureFile);
+		trafficRecorder.connectionOpened(123456L);
+		trafficRecorder.frameReceived(123456L, frame);
+		trafficRecorder.connectionClosed(123456L);
+		trafficRecorder.close();
+
+		try (CaptureReader captureReader = new CaptureReader(captureFile)) {
+			CaptureRecord connect = captureReader.next();
+			assertEquals(CaptureFormat.TYPE_CONNECT, connect.getType());
+			assertEquals(123456L, connect.getConnectionId());
+
+			CaptureRecord frameRecord = captureReader.next();
+			assertEquals(CaptureFormat.TYPE_FRAME, frameRecord.getType());
+			assertEquals(frame, frameRecord.getFrame());
+			assertTrue(frameRecord.getTimestampMicros() >= connect.getTimestampMicros());
+
+			assertEquals(CaptureFormat.TYPE_DISCONNECT, captureReader.next().getType());
+			assertNull(captureReader.next());
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package com.distributed.project.whiteboard.server.limit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * This class is used to test that the rate limiter keeps the limits of the
+ * clients apart from the limits of the board, and the buckets of a client until
+ * it leaves the board.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class RateLimiterTest {
+
+	@Test
+	public void shouldWaitForClientAndBoardLimitsSeparately() {
+		// One event per second for each client, and two for the board
+		RateLimiter rateLimiter = new RateLimiter(LimitMode.DISCONNECT, 1, 0, 2, 0, 1000);
+		rateLimiter.take(1L, 10);
+		rateLimiter.take(2L, 10);
+
+		// Both clients are over their own limits, a third one only over the board's
+		assertTrue(rateLimiter.clientWaitNanos(1L, 10) > 0);
+		assertEquals(0, rateLimiter.clientWaitNanos(3L, 10));
+		assertTrue(rateLimiter.boardWaitNanos(10) > 0);
+		assertTrue(rateLimiter.waitNanos(3L, 10) > 0);
+	}
+
+	@Test
+	public void shouldKeepBucketsOfResumedClientUntilRemoved() {
+		RateLimiter rateLimiter = new RateLimiter(LimitMode.THROTTLE, 1, 0, 0, 0, 1000);
+		rateLimiter.take(1L, 10);
+
+		// A session resumed on a new connection keeps the client UID and its debt
+		assertTrue(rateLimiter.clientWaitNanos(1L, 10) > 0);
+
+		// The buckets are only dropped once the client leaves the board
+		rateLimiter.removeClient(1L);
+		assertEquals(0, rateLimiter.clientWaitNanos(1L, 10));
+	}
+}
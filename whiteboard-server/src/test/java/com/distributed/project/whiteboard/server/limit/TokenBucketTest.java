@@ -0,0 +1,52 @@
+package com.distributed.project.whiteboard.server.limit;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * This class is used to test that the token bucket allows its burst at once,
+ * and then makes the amounts after it wait for their tokens to be refilled.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class TokenBucketTest {
+
+	private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+	// Rounding of the refill rate, in nanoseconds
+	private static final double TOLERANCE = 10;
+
+	@Test
+	public void shouldWaitForTokensAfterBurst() {
+		// 100 events per second with a burst of 50 events
+		TokenBucket tokenBucket = new TokenBucket(100, 500, 0);
+		for (int i = 0; i < 50; i++) {
+			assertEquals(0, tokenBucket.waitNanos(1, 0));
+			tokenBucket.take(1, 0);
+		}
+
+		// The next event waits for one token, which is refilled every 10 ms
+		assertEquals(10 * MILLI, tokenBucket.waitNanos(1, 0), TOLERANCE);
+		assertEquals(0, tokenBucket.waitNanos(1, 10 * MILLI), TOLERANCE);
+
+		// The bucket does not fill up beyond its burst
+		tokenBucket.take(50, 10 * 1000 * MILLI);
+		assertEquals(10 * MILLI, tokenBucket.waitNanos(1, 10 * 1000 * MILLI), TOLERANCE);
+	}
+
+	@Test
+	public void shouldSpreadAmountLargerThanBurst() {
+		// 1000 bytes per second with a burst of 1000 bytes
+		TokenBucket tokenBucket = new TokenBucket(1000, 1000, 0);
+
+		// An amount larger than the burst only waits for a full bucket, and the debt
+		// it leaves is waited for by the next amount
+		assertEquals(0, tokenBucket.waitNanos(3000, 0));
+		tokenBucket.take(3000, 0);
+		assertEquals(3000 * MILLI, tokenBucket.waitNanos(1000, 0), TOLERANCE);
+	}
+}
@@ -0,0 +1,73 @@
+package com.distributed.project.whiteboard.server.outbound;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.distributed.project.whiteboard.server.metrics.ServerMetrics;
+
+/**
+ * This class is used to test that the events written to a batched connection
+ * are only sent on the tick of the outbound batcher, all in one batch.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class OutboundBatcherTest {
+
+	@Test
+	public void shouldSendEventsOncePerTick() throws IOException {
+		ServerMetrics serverMetrics = new ServerMetrics(null);
+		OutboundBatcher outboundBatcher = new OutboundBatcher(serverMetrics, Runnable::run);
+		StringWriter socket = new StringWriter();
+		BatchingWriter out = new BatchingWriter(socket, 1024, true);
+		outboundBatcher.register(out);
+
+		// Flushing after every event as the handlers do
+		for (int i = 0; i < 3; i++) {
+			out.write("{\"action\":\"CHAT\"}");
+			out.write('\n');
+			out.flush();
+		}
+		assertTrue(socket.toString().isEmpty());
+
+		outboundBatcher.run();
+		assertEquals(3 * "{\"action\":\"CHAT\"}\n".length(), socket.toString().length());
+		assertEquals(1, serverMetrics.getOutboundBatchCount());
+		assertEquals(3, serverMetrics.getOutboundBatchSize().getSum());
+
+		// Nothing is recorded on a tick without events
+		outboundBatcher.run();
+		assertEquals(1, serverMetrics.getOutboundBatchCount());
+	}
+
+	@Test
+	public void shouldSkipConnectionStillSendingBatch() throws IOException {
+		List<Runnable> flushTasks = new ArrayList<>();
+		OutboundBatcher outboundBatcher = new OutboundBatcher(new ServerMetrics(null), flushTasks::add);
+		StringWriter socket = new StringWriter();
+		BatchingWriter out = new BatchingWriter(socket, 1024, true);
+		outboundBatcher.register(out);
+
+		// The second tick skips the connection while its first batch is not sent
+		out.write("{\"action\":\"CHAT\"}\n");
+		outboundBatcher.run();
+		out.write("{\"action\":\"CHAT\"}\n");
+		outboundBatcher.run();
+		assertEquals(1, flushTasks.size());
+
+		// Both events are sent with the batch, after which the connection is handed
+		// over again
+		flushTasks.get(0).run();
+		assertEquals(2 * "{\"action\":\"CHAT\"}\n".length(), socket.toString().length());
+		out.write("{\"action\":\"CHAT\"}\n");
+		outboundBatcher.run();
+		assertEquals(2, flushTasks.size());
+	}
+}
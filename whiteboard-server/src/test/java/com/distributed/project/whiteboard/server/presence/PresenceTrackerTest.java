@@ -0,0 +1,39 @@
+package com.distributed.project.whiteboard.server.presence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.distributed.project.whiteboard.protocol.dto.CursorDto;
+
+/**
+ * This class is used to test the coalescing of the cursors between the ticks
+ * of the presence tracker.
+ *
+ * @author Abhijeet - 1278218
+ *
+ */
+public class PresenceTrackerTest {
+
+	@Test
+	public void shouldKeepLatestCursorPerMember() {
+		PresenceTracker presenceTracker = new PresenceTracker(null);
+		for (int i = 0; i < 100; i++) {
+			presenceTracker.updateCursor(new CursorDto(1L, i, i));
+			presenceTracker.updateCursor(new CursorDto(2L, -i, i));
+		}
+		presenceTracker.hideCursor(2L);
+
+		List<CursorDto> cursors = presenceTracker.drainCursors();
+		cursors.sort(Comparator.comparingLong(CursorDto::getClientUID));
+		assertEquals(Arrays.asList(new CursorDto(1L, 99, 99), CursorDto.hidden(2L)), cursors);
+
+		// Nothing is sent again until a cursor moves
+		assertTrue(presenceTracker.drainCursors().isEmpty());
+	}
+}